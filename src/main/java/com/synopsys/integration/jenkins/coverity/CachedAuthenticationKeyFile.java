@@ -0,0 +1,98 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.synopsys.integration.coverity.authentication.AuthenticationKeyFile;
+import com.synopsys.integration.coverity.authentication.AuthenticationKeyFileUtility;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+
+/**
+ * The contents of an authentication key file credential, read and parsed once. Parsed key files are kept in a short-lived controller-wide cache by credentials id, and the whole cache is dropped when a credentials
+ * store is saved, so a build storm does not read and parse the same key file for every build.
+ */
+public class CachedAuthenticationKeyFile {
+    public static final int CACHE_TIME_IN_SECONDS = 60;
+    private static final ConcurrentHashMap<String, CachedAuthenticationKeyFile> CACHE = new ConcurrentHashMap<>();
+    private final String contents;
+    private final String username;
+    private final String key;
+    private final long expirationTimeInNanos;
+
+    private CachedAuthenticationKeyFile(String contents, String username, String key, long expirationTimeInNanos) {
+        this.contents = contents;
+        this.username = username;
+        this.key = key;
+        this.expirationTimeInNanos = expirationTimeInNanos;
+    }
+
+    public static CachedAuthenticationKeyFile parse(String contents) throws IOException {
+        try (InputStream contentsInputStream = new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8))) {
+            AuthenticationKeyFile authenticationKeyFile = AuthenticationKeyFileUtility.defaultUtility().readAuthenticationKeyFile(contentsInputStream);
+            return new CachedAuthenticationKeyFile(contents, authenticationKeyFile.username, authenticationKeyFile.key, System.nanoTime() + TimeUnit.SECONDS.toNanos(CACHE_TIME_IN_SECONDS));
+        }
+    }
+
+    public static Optional<CachedAuthenticationKeyFile> getCached(String credentialsId) {
+        CachedAuthenticationKeyFile cachedAuthenticationKeyFile = CACHE.get(credentialsId);
+        if (cachedAuthenticationKeyFile == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - cachedAuthenticationKeyFile.expirationTimeInNanos > 0) {
+            CACHE.remove(credentialsId, cachedAuthenticationKeyFile);
+            return Optional.empty();
+        }
+        return Optional.of(cachedAuthenticationKeyFile);
+    }
+
+    public static void cache(String credentialsId, CachedAuthenticationKeyFile cachedAuthenticationKeyFile) {
+        CACHE.put(credentialsId, cachedAuthenticationKeyFile);
+    }
+
+    public static void invalidateAll() {
+        CACHE.clear();
+    }
+
+    public String getContents() {
+        return contents;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    @Extension
+    public static class CredentialsStoreSaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable saveable, XmlFile file) {
+            // Credentials are stored by the system provider, by folders, and by users; any of them could have changed a cached key file
+            if (saveable instanceof SystemCredentialsProvider || saveable instanceof ItemGroup || saveable instanceof User) {
+                invalidateAll();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An open addressing hash table keyed by lower case strings that can be queried with any range of characters without creating a String for it.
+ */
+class CaseInsensitiveStringTable<V> {
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    CaseInsensitiveStringTable(Map<String, V> lowerCaseKeysToValues) {
+        int capacity = Integer.highestOneBit(Math.max(1, lowerCaseKeysToValues.size()) * 2 - 1) << 1;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (Map.Entry<String, V> entry : lowerCaseKeysToValues.entrySet()) {
+            int slot = hash(entry.getKey(), 0, entry.getKey().length()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = entry.getKey();
+            values[slot] = entry.getValue();
+        }
+    }
+
+    static CaseInsensitiveStringTable<String> of(Collection<String> lowerCaseStrings) {
+        return new CaseInsensitiveStringTable<>(lowerCaseStrings.stream().distinct().collect(Collectors.toMap(Function.identity(), Function.identity())));
+    }
+
+    boolean contains(CharSequence text, int start, int length) {
+        return get(text, start, length) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(CharSequence text, int start, int length) {
+        int slot = hash(text, start, length) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.length() == length && regionEqualsIgnoreCase(key, text, start)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean regionEqualsIgnoreCase(String lowerCaseKey, CharSequence text, int start) {
+        for (int i = 0; i < lowerCaseKey.length(); i++) {
+            if (lowerCaseKey.charAt(i) != FileNamePatternMatcher.toLowerCase(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + FileNamePatternMatcher.toLowerCase(text.charAt(i));
+        }
+        // Spread the high bits down, since only the low bits select a slot
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -11,10 +11,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.function.Predicate;
 
-import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOCase;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,23 +20,38 @@ import hudson.scm.ChangeLogSet;
 
 public class ChangeSetFilter {
     private final Logger logger = LoggerFactory.getLogger(ChangeSetFilter.class);
-    private final Set<String> excludedSet;
-    private final Set<String> includedSet;
+    private final PathPatternMatcher excludedPatterns;
+    private final PathPatternMatcher includedPatterns;
 
     /**
      * Provide a comma-separated list of names to exclude and/or a comma-separated list of names to include. Exclusion rules always win.
      */
     public ChangeSetFilter(final String toExclude, final String toInclude) {
-        this(createSetFromString(toExclude), createSetFromString(toInclude));
+        this(toExclude, toInclude, false);
     }
 
-    private ChangeSetFilter(final Set<String> excludedSet, final Set<String> includedSet) {
-        this.excludedSet = excludedSet;
-        this.includedSet = includedSet;
+    /**
+     * Provide a comma-separated list of patterns to exclude and/or a comma-separated list of patterns to include. Exclusion rules always win.
+     * If matchFullPaths is true, patterns that contain a '/' are matched against the full path of each file instead of its name.
+     */
+    public ChangeSetFilter(final String toExclude, final String toInclude, final boolean matchFullPaths) {
+        this(createMatcher(createSetFromString(toExclude), matchFullPaths), createMatcher(createSetFromString(toInclude), matchFullPaths));
+    }
+
+    private ChangeSetFilter(final PathPatternMatcher excludedPatterns, final PathPatternMatcher includedPatterns) {
+        this.excludedPatterns = excludedPatterns;
+        this.includedPatterns = includedPatterns;
     }
 
     public static ChangeSetFilter createAcceptAllFilter() {
-        return new ChangeSetFilter(Collections.emptySet(), Collections.emptySet());
+        return new ChangeSetFilter(PathPatternMatcher.forFileNames(Collections.emptySet()), PathPatternMatcher.forFileNames(Collections.emptySet()));
+    }
+
+    private static PathPatternMatcher createMatcher(final Set<String> patterns, final boolean matchFullPaths) {
+        if (matchFullPaths) {
+            return PathPatternMatcher.forPaths(patterns);
+        }
+        return PathPatternMatcher.forFileNames(patterns);
     }
 
     private static Set<String> createSetFromString(final String s) {
@@ -53,33 +65,26 @@ public class ChangeSetFilter {
 
     public boolean shouldInclude(final ChangeLogSet.AffectedFile affectedFile) {
         final String affectedFilePath = affectedFile.getPath();
-        final String affectedEditType = affectedFile.getEditType().getName();
 
         final boolean shouldInclude = shouldInclude(affectedFilePath);
-        if (shouldInclude) {
-            logger.debug(String.format("Type: %s File Path: %s Included in change set", affectedEditType, affectedFilePath));
-        } else {
-            logger.debug(String.format("Type: %s File Path: %s Excluded from change set", affectedEditType, affectedFilePath));
+        if (logger.isDebugEnabled()) {
+            final String affectedEditType = affectedFile.getEditType().getName();
+            if (shouldInclude) {
+                logger.debug(String.format("Type: %s File Path: %s Included in change set", affectedEditType, affectedFilePath));
+            } else {
+                logger.debug(String.format("Type: %s File Path: %s Excluded from change set", affectedEditType, affectedFilePath));
+            }
         }
 
         return shouldInclude;
     }
 
-    private boolean shouldInclude(final String filePath) {
-        // ChangeLogSet.AffectedFile getPath is normalized to use the / separator
-        final String fileName;
-        if (filePath.contains("/")) {
-            fileName = filePath.substring(filePath.lastIndexOf("/"));
-        } else {
-            fileName = filePath;
+    public boolean shouldInclude(final String filePath) {
+        if (excludedPatterns.matches(filePath)) {
+            return false;
         }
 
-        final Predicate<String> caseInsensitiveWildcardMatch = pattern -> FilenameUtils.wildcardMatch(fileName, pattern, IOCase.INSENSITIVE);
-
-        final boolean excluded = excludedSet.stream().anyMatch(caseInsensitiveWildcardMatch);
-        final boolean included = includedSet.isEmpty() || includedSet.stream().anyMatch(caseInsensitiveWildcardMatch);
-
-        return included && !excluded;
+        return includedPatterns.isEmpty() || includedPatterns.matches(filePath);
     }
 
 }
@@ -0,0 +1,258 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import hudson.model.Job;
+
+/**
+ * The changed paths of a job that have not yet been committed to Coverity, persisted in the job directory so that they are carried over to the next build when an analysis fails.
+ * <p>
+ * The paths are kept sorted and front coded (each path only stores the characters that differ from the previous one) in a gzipped file, so adding or removing the paths of a build is a single linear merge of the file with the
+ * sorted paths of that build. Every path also records the generation of the build that last added it. An instance belongs to a single build: once the paths it returned have been committed, it removes exactly those that no
+ * later build has added again since.
+ */
+public class ChangeSetIndex {
+    public static final String INDEX_FILE_NAME = "coverity-change-set-index.gz";
+
+    private static final int FORMAT_VERSION = 2;
+    // Builds of the same job can run concurrently, and the index is only ever read and written on the controller
+    private static final Object INDEX_LOCK = new Object();
+
+    private final File indexFile;
+    private List<String> pendingPaths = Collections.emptyList();
+    private long generation = -1;
+
+    public ChangeSetIndex(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public static ChangeSetIndex forJob(Job<?, ?> job) {
+        return new ChangeSetIndex(new File(job.getRootDir(), INDEX_FILE_NAME));
+    }
+
+    /**
+     * Adds the given paths to the index as this build's generation.
+     * @return every path in the index, in sorted order
+     */
+    public List<String> addAll(Collection<String> paths) throws IOException {
+        synchronized (INDEX_LOCK) {
+            TreeSet<String> changedPaths = new TreeSet<>(paths);
+            List<String> mergedPaths = new ArrayList<>();
+            long[] addedGeneration = new long[1];
+            rewrite(reader -> reader.getNextGeneration() + 1, (reader, writer) -> {
+                long currentGeneration = reader.getNextGeneration();
+                addedGeneration[0] = currentGeneration;
+                IndexEntry indexedEntry = reader.next();
+                for (String changedPath : changedPaths) {
+                    while (indexedEntry != null && indexedEntry.path.compareTo(changedPath) < 0) {
+                        writer.write(indexedEntry);
+                        mergedPaths.add(indexedEntry.path);
+                        indexedEntry = reader.next();
+                    }
+
+                    if (indexedEntry != null && changedPath.equals(indexedEntry.path)) {
+                        indexedEntry = reader.next();
+                    }
+                    writer.write(new IndexEntry(changedPath, currentGeneration));
+                    mergedPaths.add(changedPath);
+                }
+                while (indexedEntry != null) {
+                    writer.write(indexedEntry);
+                    mergedPaths.add(indexedEntry.path);
+                    indexedEntry = reader.next();
+                }
+            });
+            generation = addedGeneration[0];
+            pendingPaths = Collections.unmodifiableList(mergedPaths);
+            return pendingPaths;
+        }
+    }
+
+    /**
+     * Removes the paths returned by the last call to {@link #addAll(Collection)}, except those that a later build has added again in the meantime.
+     * @return the number of paths removed
+     */
+    public int removePendingPaths() throws IOException {
+        synchronized (INDEX_LOCK) {
+            int[] removedPaths = new int[1];
+            if (!pendingPaths.isEmpty()) {
+                // Every path in the index when this build added its paths was returned to it, so a path is still pending for another build only if a later generation added it
+                rewrite(IndexReader::getNextGeneration, (reader, writer) -> {
+                    IndexEntry indexedEntry = reader.next();
+                    while (indexedEntry != null) {
+                        if (indexedEntry.generation > generation) {
+                            writer.write(indexedEntry);
+                        } else {
+                            removedPaths[0]++;
+                        }
+                        indexedEntry = reader.next();
+                    }
+                });
+                pendingPaths = Collections.emptyList();
+            }
+            return removedPaths[0];
+        }
+    }
+
+    public List<String> getPendingPaths() {
+        return pendingPaths;
+    }
+
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    private void rewrite(NextGenerationFunction nextGeneration, IndexRewrite indexRewrite) throws IOException {
+        File temporaryFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try (IndexReader reader = new IndexReader(indexFile); IndexWriter writer = new IndexWriter(temporaryFile, nextGeneration.apply(reader))) {
+            indexRewrite.rewrite(reader, writer);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryFile.toPath());
+            throw e;
+        }
+
+        Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface NextGenerationFunction {
+        long apply(IndexReader reader) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface IndexRewrite {
+        void rewrite(IndexReader reader, IndexWriter writer) throws IOException;
+    }
+
+    private static class IndexEntry {
+        private final String path;
+        private final long generation;
+
+        private IndexEntry(String path, long generation) {
+            this.path = path;
+            this.generation = generation;
+        }
+    }
+
+    private static class IndexReader implements AutoCloseable {
+        private final DataInputStream inputStream;
+        private final long nextGeneration;
+        private String previousPath = "";
+
+        private IndexReader(File indexFile) throws IOException {
+            if (!indexFile.exists()) {
+                inputStream = null;
+                nextGeneration = 1;
+                return;
+            }
+
+            DataInputStream indexInputStream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(indexFile))));
+            try {
+                if (indexInputStream.readInt() != FORMAT_VERSION) {
+                    // An index of any other version is read as empty, so the rewrite replaces it with an index of this version
+                    indexInputStream.close();
+                    inputStream = null;
+                    nextGeneration = 1;
+                    return;
+                }
+                nextGeneration = indexInputStream.readLong();
+            } catch (IOException e) {
+                indexInputStream.close();
+                throw e;
+            }
+            inputStream = indexInputStream;
+        }
+
+        private long getNextGeneration() {
+            return nextGeneration;
+        }
+
+        private IndexEntry next() throws IOException {
+            if (inputStream == null) {
+                return null;
+            }
+
+            try {
+                if (!inputStream.readBoolean()) {
+                    return null;
+                }
+                int sharedPrefixLength = inputStream.readUnsignedShort();
+                previousPath = previousPath.substring(0, sharedPrefixLength) + inputStream.readUTF();
+                return new IndexEntry(previousPath, inputStream.readLong());
+            } catch (EOFException | StringIndexOutOfBoundsException e) {
+                throw new IOException("The change set index is truncated or corrupt", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+        }
+    }
+
+    private static class IndexWriter implements AutoCloseable {
+        private final DataOutputStream outputStream;
+        private String previousPath = "";
+
+        private IndexWriter(File indexFile, long nextGeneration) throws IOException {
+            outputStream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(indexFile))));
+            outputStream.writeInt(FORMAT_VERSION);
+            outputStream.writeLong(nextGeneration);
+        }
+
+        private void write(IndexEntry indexEntry) throws IOException {
+            int sharedPrefixLength = Math.min(sharedPrefixLength(previousPath, indexEntry.path), 0xFFFF);
+            outputStream.writeBoolean(true);
+            outputStream.writeShort(sharedPrefixLength);
+            outputStream.writeUTF(indexEntry.path.substring(sharedPrefixLength));
+            outputStream.writeLong(indexEntry.generation);
+            previousPath = indexEntry.path;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Every path is preceded by true, so a missing end marker shows up as a truncated index rather than a shorter one
+            try {
+                outputStream.writeBoolean(false);
+            } finally {
+                outputStream.close();
+            }
+        }
+
+        private static int sharedPrefixLength(String first, String second) {
+            int maximumLength = Math.min(first.length(), second.length());
+            int length = 0;
+            while (length < maximumLength && first.charAt(length) == second.charAt(length)) {
+                length++;
+            }
+            return length;
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * A case-insensitive set of file name wildcard patterns ('?' matches one character, '*' matches any number of characters), compiled once so that matching a name does not allocate.
+ * <p>
+ * Patterns without wildcards are looked up by hash, as are patterns of the form <code>*literal</code> and <code>literal*</code> (one hash lookup per distinct literal length). Only the remaining patterns are matched one by one.
+ */
+public class FileNamePatternMatcher {
+    private static final char ANY_CHARACTERS = '*';
+    private static final char ANY_CHARACTER = '?';
+
+    private final boolean empty;
+    private final boolean matchesEverything;
+    private final CaseInsensitiveStringTable<String> exactNames;
+    private final CaseInsensitiveStringTable<String> suffixes;
+    private final int[] suffixLengths;
+    private final CaseInsensitiveStringTable<String> prefixes;
+    private final int[] prefixLengths;
+    private final char[][] globs;
+
+    public FileNamePatternMatcher(Collection<String> patterns) {
+        List<String> exactNameList = new ArrayList<>();
+        TreeMap<Integer, List<String>> suffixesByLength = new TreeMap<>();
+        TreeMap<Integer, List<String>> prefixesByLength = new TreeMap<>();
+        List<char[]> globList = new ArrayList<>();
+        boolean anyPatternMatchesEverything = false;
+
+        for (String pattern : patterns) {
+            String lowerCasePattern = toLowerCase(pattern);
+            int firstWildcard = indexOfWildcard(lowerCasePattern, 0);
+            if (firstWildcard == -1) {
+                exactNameList.add(lowerCasePattern);
+            } else if (isOnlyAnyCharacters(lowerCasePattern)) {
+                anyPatternMatchesEverything = true;
+            } else if (firstWildcard == 0 && lowerCasePattern.charAt(0) == ANY_CHARACTERS && indexOfWildcard(lowerCasePattern, 1) == -1) {
+                String suffix = lowerCasePattern.substring(1);
+                suffixesByLength.computeIfAbsent(suffix.length(), ignored -> new ArrayList<>()).add(suffix);
+            } else if (firstWildcard == lowerCasePattern.length() - 1 && lowerCasePattern.charAt(firstWildcard) == ANY_CHARACTERS) {
+                String prefix = lowerCasePattern.substring(0, firstWildcard);
+                prefixesByLength.computeIfAbsent(prefix.length(), ignored -> new ArrayList<>()).add(prefix);
+            } else {
+                globList.add(lowerCasePattern.toCharArray());
+            }
+        }
+
+        this.empty = patterns.isEmpty();
+        this.matchesEverything = anyPatternMatchesEverything;
+        this.exactNames = CaseInsensitiveStringTable.of(exactNameList);
+        this.suffixes = CaseInsensitiveStringTable.of(flatten(suffixesByLength.values()));
+        this.suffixLengths = suffixesByLength.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.prefixes = CaseInsensitiveStringTable.of(flatten(prefixesByLength.values()));
+        this.prefixLengths = prefixesByLength.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.globs = globList.toArray(new char[0][]);
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean matches(String name) {
+        return matches(name, 0, name.length());
+    }
+
+    /**
+     * Matches the characters of <code>text</code> from <code>start</code> (inclusive) to <code>end</code> (exclusive) against every pattern.
+     */
+    public boolean matches(CharSequence text, int start, int end) {
+        if (matchesEverything) {
+            return true;
+        }
+
+        int length = end - start;
+        if (exactNames.contains(text, start, length)) {
+            return true;
+        }
+        for (int suffixLength : suffixLengths) {
+            if (suffixLength > length) {
+                break;
+            }
+            if (suffixes.contains(text, end - suffixLength, suffixLength)) {
+                return true;
+            }
+        }
+        for (int prefixLength : prefixLengths) {
+            if (prefixLength > length) {
+                break;
+            }
+            if (prefixes.contains(text, start, prefixLength)) {
+                return true;
+            }
+        }
+        for (char[] glob : globs) {
+            if (wildcardMatch(glob, text, start, end)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static boolean wildcardMatch(char[] pattern, CharSequence text, int start, int end) {
+        int patternIndex = 0;
+        int textIndex = start;
+        int backtrackPatternIndex = -1;
+        int backtrackTextIndex = -1;
+
+        while (textIndex < end) {
+            if (patternIndex < pattern.length && pattern[patternIndex] == ANY_CHARACTERS) {
+                backtrackPatternIndex = ++patternIndex;
+                backtrackTextIndex = textIndex;
+            } else if (patternIndex < pattern.length && (pattern[patternIndex] == ANY_CHARACTER || pattern[patternIndex] == toLowerCase(text.charAt(textIndex)))) {
+                patternIndex++;
+                textIndex++;
+            } else if (backtrackPatternIndex != -1) {
+                patternIndex = backtrackPatternIndex;
+                textIndex = ++backtrackTextIndex;
+            } else {
+                return false;
+            }
+        }
+
+        while (patternIndex < pattern.length && pattern[patternIndex] == ANY_CHARACTERS) {
+            patternIndex++;
+        }
+        return patternIndex == pattern.length;
+    }
+
+    static char toLowerCase(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    static String toLowerCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    static int indexOfWildcard(String pattern, int fromIndex) {
+        for (int i = fromIndex; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == ANY_CHARACTERS || c == ANY_CHARACTER) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isOnlyAnyCharacters(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) != ANY_CHARACTERS) {
+                return false;
+            }
+        }
+        return !pattern.isEmpty();
+    }
+
+    private static List<String> flatten(Collection<List<String>> lists) {
+        List<String> flattened = new ArrayList<>();
+        lists.forEach(flattened::addAll);
+        return flattened;
+    }
+
+}
@@ -13,6 +13,7 @@ public enum JenkinsCoverityEnvironmentVariable implements SynopsysEnvironmentVar
     LOG_LEVEL("COVERITY_LOG_LEVEL"),
     CHANGE_SET("CHANGE_SET"),
     CHANGE_SET_SIZE("CHANGE_SET_SIZE"),
+    CHANGE_SET_FILE("CHANGE_SET_FILE"),
     TEMPORARY_AUTH_KEY_PATH("COV_AUTH_KEY_PATH"),
     COVERITY_URL("COV_URL"),
     CREDENTIALS_ID("COV_CREDENTIALS_ID"),
@@ -0,0 +1,199 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A case-insensitive set of change set patterns.
+ * <p>
+ * Patterns without a '/' are matched against the file name of each path. When full path matching is enabled, patterns that contain a '/' are matched against the whole path, segment by segment: '*' and '?' stay within a segment,
+ * '**' matches any number of segments, and a trailing '/' matches everything under a directory (<code>third_party/</code> is the same as <code>third_party/**</code>). The path patterns are compiled into a trie of segments, so
+ * literal directory names are looked up by hash and patterns that share a leading directory are only walked once.
+ */
+public class PathPatternMatcher {
+    private static final String ANY_SEGMENTS = "**";
+
+    private final FileNamePatternMatcher fileNamePatterns;
+    private final Node root;
+    private final boolean empty;
+
+    private PathPatternMatcher(FileNamePatternMatcher fileNamePatterns, Node root, boolean empty) {
+        this.fileNamePatterns = fileNamePatterns;
+        this.root = root;
+        this.empty = empty;
+    }
+
+    public static PathPatternMatcher forFileNames(Collection<String> patterns) {
+        return new PathPatternMatcher(new FileNamePatternMatcher(patterns), null, patterns.isEmpty());
+    }
+
+    public static PathPatternMatcher forPaths(Collection<String> patterns) {
+        List<String> fileNamePatterns = new ArrayList<>();
+        NodeBuilder rootBuilder = new NodeBuilder();
+        boolean hasPathPatterns = false;
+
+        for (String pattern : patterns) {
+            if (pattern.indexOf('/') == -1) {
+                fileNamePatterns.add(pattern);
+                continue;
+            }
+
+            String normalizedPattern = FileNamePatternMatcher.toLowerCase(pattern);
+            if (normalizedPattern.startsWith("/")) {
+                normalizedPattern = normalizedPattern.substring(1);
+            }
+            if (normalizedPattern.endsWith("/")) {
+                normalizedPattern = normalizedPattern + ANY_SEGMENTS;
+            }
+
+            NodeBuilder nodeBuilder = rootBuilder;
+            for (String segment : normalizedPattern.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                nodeBuilder = nodeBuilder.child(segment);
+            }
+            nodeBuilder.terminal = true;
+            hasPathPatterns = true;
+        }
+
+        Node root = hasPathPatterns ? rootBuilder.build() : null;
+        return new PathPatternMatcher(new FileNamePatternMatcher(fileNamePatterns), root, patterns.isEmpty());
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public boolean matches(String path) {
+        // ChangeLogSet.AffectedFile getPath is normalized to use the / separator
+        int fileNameStart = path.lastIndexOf('/') + 1;
+        if (fileNamePatterns.matches(path, fileNameStart, path.length())) {
+            return true;
+        }
+
+        if (root == null) {
+            return false;
+        }
+
+        int pathStart = 0;
+        while (pathStart < path.length() && path.charAt(pathStart) == '/') {
+            pathStart++;
+        }
+        return root.matches(path, pathStart);
+    }
+
+    private static class Node {
+        private final boolean terminal;
+        private final CaseInsensitiveStringTable<Node> literalChildren;
+        private final char[][] wildcardSegments;
+        private final Node[] wildcardChildren;
+        private final Node anySegmentsChild;
+
+        private Node(boolean terminal, CaseInsensitiveStringTable<Node> literalChildren, char[][] wildcardSegments, Node[] wildcardChildren, Node anySegmentsChild) {
+            this.terminal = terminal;
+            this.literalChildren = literalChildren;
+            this.wildcardSegments = wildcardSegments;
+            this.wildcardChildren = wildcardChildren;
+            this.anySegmentsChild = anySegmentsChild;
+        }
+
+        /**
+         * @param segmentStart the index of the first character of the next segment, or a value past the end of the path when every segment has been consumed
+         */
+        private boolean matches(String path, int segmentStart) {
+            if (anySegmentsChild != null) {
+                // '**' consumes zero or more whole segments
+                for (int start = segmentStart; ; start = nextSegmentStart(path, start)) {
+                    if (anySegmentsChild.matches(path, start)) {
+                        return true;
+                    }
+                    if (start > path.length()) {
+                        break;
+                    }
+                }
+            }
+
+            if (segmentStart > path.length()) {
+                return terminal;
+            }
+
+            int segmentEnd = segmentEnd(path, segmentStart);
+            int nextSegmentStart = segmentEnd + 1;
+
+            Node literalChild = literalChildren.get(path, segmentStart, segmentEnd - segmentStart);
+            if (literalChild != null && literalChild.matches(path, nextSegmentStart)) {
+                return true;
+            }
+
+            for (int i = 0; i < wildcardSegments.length; i++) {
+                if (FileNamePatternMatcher.wildcardMatch(wildcardSegments[i], path, segmentStart, segmentEnd) && wildcardChildren[i].matches(path, nextSegmentStart)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static int segmentEnd(String path, int segmentStart) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            return segmentEnd == -1 ? path.length() : segmentEnd;
+        }
+
+        private static int nextSegmentStart(String path, int segmentStart) {
+            if (segmentStart > path.length()) {
+                return segmentStart;
+            }
+            return segmentEnd(path, segmentStart) + 1;
+        }
+    }
+
+    private static class NodeBuilder {
+        private final Map<String, NodeBuilder> literalChildren = new HashMap<>();
+        private final Map<String, NodeBuilder> wildcardChildren = new LinkedHashMap<>();
+        private NodeBuilder anySegmentsChild;
+        private boolean terminal;
+
+        private NodeBuilder child(String segment) {
+            if (ANY_SEGMENTS.equals(segment)) {
+                if (anySegmentsChild == null) {
+                    anySegmentsChild = new NodeBuilder();
+                }
+                return anySegmentsChild;
+            } else if (FileNamePatternMatcher.indexOfWildcard(segment, 0) == -1) {
+                return literalChildren.computeIfAbsent(segment, ignored -> new NodeBuilder());
+            }
+            return wildcardChildren.computeIfAbsent(segment, ignored -> new NodeBuilder());
+        }
+
+        private Node build() {
+            Map<String, Node> builtLiteralChildren = new HashMap<>();
+            literalChildren.forEach((segment, child) -> builtLiteralChildren.put(segment, child.build()));
+
+            char[][] wildcardSegments = new char[wildcardChildren.size()][];
+            Node[] builtWildcardChildren = new Node[wildcardChildren.size()];
+            int i = 0;
+            for (Map.Entry<String, NodeBuilder> wildcardChild : wildcardChildren.entrySet()) {
+                wildcardSegments[i] = wildcardChild.getKey().toCharArray();
+                builtWildcardChildren[i] = wildcardChild.getValue().build();
+                i++;
+            }
+
+            Node builtAnySegmentsChild = anySegmentsChild == null ? null : anySegmentsChild.build();
+            return new Node(terminal, new CaseInsensitiveStringTable<>(builtLiteralChildren.isEmpty() ? Collections.emptyMap() : builtLiteralChildren), wildcardSegments, builtWildcardChildren, builtAnySegmentsChild);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+import com.synopsys.integration.rest.credentials.Credentials;
+import com.synopsys.integration.rest.credentials.CredentialsBuilder;
+
+/**
+ * Everything a build needs from one Coverity credentials id, looked up in the credentials stores once by {@link SynopsysCoverityCredentialsHelper#resolveCredentials(String)} so the build steps do not walk the stores
+ * again for the username, the passphrase, and the authentication key file.
+ */
+public class ResolvedCoverityCredentials {
+    private final String credentialsId;
+    @Nullable
+    private final String username;
+    // Only username and password credentials have a passphrase; an authentication key file is passed to the Coverity tools as a file
+    @Nullable
+    private final String passphrase;
+    @Nullable
+    private final String authenticationKeyFileContents;
+    @Nullable
+    private final String authenticationKeyFileKey;
+    private final boolean authenticationKeyFileUnreadable;
+
+    private ResolvedCoverityCredentials(String credentialsId, @Nullable String username, @Nullable String passphrase, @Nullable String authenticationKeyFileContents, @Nullable String authenticationKeyFileKey,
+        boolean authenticationKeyFileUnreadable) {
+        this.credentialsId = credentialsId;
+        this.username = username;
+        this.passphrase = passphrase;
+        this.authenticationKeyFileContents = authenticationKeyFileContents;
+        this.authenticationKeyFileKey = authenticationKeyFileKey;
+        this.authenticationKeyFileUnreadable = authenticationKeyFileUnreadable;
+    }
+
+    public static ResolvedCoverityCredentials none(String credentialsId) {
+        return new ResolvedCoverityCredentials(credentialsId, null, null, null, null, false);
+    }
+
+    public static ResolvedCoverityCredentials fromUsernameAndPassphrase(String credentialsId, String username, String passphrase) {
+        return new ResolvedCoverityCredentials(credentialsId, username, passphrase, null, null, false);
+    }
+
+    public static ResolvedCoverityCredentials fromAuthenticationKeyFile(String credentialsId, CachedAuthenticationKeyFile cachedAuthenticationKeyFile) {
+        return new ResolvedCoverityCredentials(credentialsId, cachedAuthenticationKeyFile.getUsername(), null, cachedAuthenticationKeyFile.getContents(), cachedAuthenticationKeyFile.getKey(), false);
+    }
+
+    public static ResolvedCoverityCredentials fromUnparseableAuthenticationKeyFile(String credentialsId, String authenticationKeyFileContents) {
+        return new ResolvedCoverityCredentials(credentialsId, null, null, authenticationKeyFileContents, null, false);
+    }
+
+    public static ResolvedCoverityCredentials fromUnreadableAuthenticationKeyFile(String credentialsId) {
+        return new ResolvedCoverityCredentials(credentialsId, null, null, null, null, true);
+    }
+
+    public String getCredentialsId() {
+        return credentialsId;
+    }
+
+    public Optional<String> getUsername() {
+        return Optional.ofNullable(username);
+    }
+
+    public Optional<String> getPassphrase() {
+        return Optional.ofNullable(passphrase);
+    }
+
+    public Optional<String> getAuthenticationKeyFileContents() throws CoverityJenkinsAbortException {
+        if (authenticationKeyFileUnreadable) {
+            throw new CoverityJenkinsAbortException("Authentication Key File could not be read from the Synopsys Coverity for Jenkins global configuration.");
+        }
+        return Optional.ofNullable(authenticationKeyFileContents);
+    }
+
+    public Credentials getIntegrationCredentials() {
+        CredentialsBuilder credentialsBuilder = Credentials.newBuilder();
+        if (username != null && passphrase != null) {
+            credentialsBuilder.setUsernameAndPassword(username, passphrase);
+        } else if (username != null && authenticationKeyFileKey != null) {
+            credentialsBuilder.setUsernameAndPassword(username, authenticationKeyFileKey);
+        }
+        return credentialsBuilder.build();
+    }
+
+}
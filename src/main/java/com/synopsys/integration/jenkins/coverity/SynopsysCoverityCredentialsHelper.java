@@ -9,9 +9,12 @@ package com.synopsys.integration.jenkins.coverity;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Optional;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.plugins.plaincredentials.FileCredentials;
 
 import com.cloudbees.plugins.credentials.CredentialsMatcher;
@@ -19,13 +22,10 @@ import com.cloudbees.plugins.credentials.CredentialsMatchers;
 import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
-import com.synopsys.integration.coverity.authentication.AuthenticationKeyFile;
-import com.synopsys.integration.coverity.authentication.AuthenticationKeyFileUtility;
 import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
 import com.synopsys.integration.jenkins.wrapper.SynopsysCredentialsHelper;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.log.SilentIntLogger;
-import com.synopsys.integration.rest.credentials.CredentialsBuilder;
 
 import hudson.security.ACL;
 import hudson.util.ListBoxModel;
@@ -67,8 +67,7 @@ public class SynopsysCoverityCredentialsHelper extends SynopsysCredentialsHelper
     }
 
     public Optional<String> getCoverityUsernameById(String credentialsId) {
-        return getIntegrationCredentialsById(credentialsId)
-                   .getUsername();
+        return resolveCredentials(credentialsId).getUsername();
     }
 
     public Optional<String> getCoverityPassphraseById(String credentialsId) {
@@ -79,31 +78,46 @@ public class SynopsysCoverityCredentialsHelper extends SynopsysCredentialsHelper
 
     @Override
     public com.synopsys.integration.rest.credentials.Credentials getIntegrationCredentialsById(String credentialsId) {
-        Optional<UsernamePasswordCredentialsImpl> possibleUsernamePasswordCredentials = getUsernamePasswordCredentialsById(credentialsId);
-        Optional<FileCredentials> possibleAuthKeyCredentials = getAuthenticationKeyFileCredentialsById(credentialsId);
-        CredentialsBuilder credentialsBuilder = com.synopsys.integration.rest.credentials.Credentials.newBuilder();
-
-        if (possibleUsernamePasswordCredentials.isPresent()) {
-            UsernamePasswordCredentialsImpl usernamePasswordCredentials = possibleUsernamePasswordCredentials.get();
+        return resolveCredentials(credentialsId).getIntegrationCredentials();
+    }
 
-            credentialsBuilder.setUsernameAndPassword(usernamePasswordCredentials.getUsername(), usernamePasswordCredentials.getPassword().getPlainText());
+    public ResolvedCoverityCredentials resolveCredentials(String credentialsId) {
+        if (StringUtils.isBlank(credentialsId)) {
+            return ResolvedCoverityCredentials.none(credentialsId);
         }
 
-        if (possibleAuthKeyCredentials.isPresent()) {
-            FileCredentials fileCredentials = possibleAuthKeyCredentials.get();
-            AuthenticationKeyFileUtility authenticationKeyFileUtility = AuthenticationKeyFileUtility.defaultUtility();
+        Optional<CachedAuthenticationKeyFile> cachedAuthenticationKeyFile = CachedAuthenticationKeyFile.getCached(credentialsId);
+        if (cachedAuthenticationKeyFile.isPresent()) {
+            return ResolvedCoverityCredentials.fromAuthenticationKeyFile(credentialsId, cachedAuthenticationKeyFile.get());
+        }
 
-            try (InputStream keyFileInputStream = fileCredentials.getContent()) {
-                AuthenticationKeyFile authenticationKeyFile = authenticationKeyFileUtility.readAuthenticationKeyFile(keyFileInputStream);
+        Optional<UsernamePasswordCredentialsImpl> possibleUsernamePasswordCredentials = getUsernamePasswordCredentialsById(credentialsId);
+        if (possibleUsernamePasswordCredentials.isPresent()) {
+            UsernamePasswordCredentialsImpl usernamePasswordCredentials = possibleUsernamePasswordCredentials.get();
+            return ResolvedCoverityCredentials.fromUsernameAndPassphrase(credentialsId, usernamePasswordCredentials.getUsername(), usernamePasswordCredentials.getPassword().getPlainText());
+        }
 
-                credentialsBuilder.setUsernameAndPassword(authenticationKeyFile.username, authenticationKeyFile.key);
-            } catch (IOException e) {
-                logger.trace("Could not parse authentication key file with credentials id " + credentialsId + " because: ", e);
-            }
+        Optional<FileCredentials> possibleAuthKeyCredentials = getAuthenticationKeyFileCredentialsById(credentialsId);
+        if (!possibleAuthKeyCredentials.isPresent()) {
+            return ResolvedCoverityCredentials.none(credentialsId);
+        }
 
+        String authenticationKeyFileContents;
+        try (InputStream keyFileInputStream = possibleAuthKeyCredentials.get().getContent()) {
+            authenticationKeyFileContents = IOUtils.toString(keyFileInputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.trace("Could not read authentication key file with credentials id " + credentialsId + " because: ", e);
+            return ResolvedCoverityCredentials.fromUnreadableAuthenticationKeyFile(credentialsId);
         }
 
-        return credentialsBuilder.build();
+        try {
+            CachedAuthenticationKeyFile parsedAuthenticationKeyFile = CachedAuthenticationKeyFile.parse(authenticationKeyFileContents);
+            CachedAuthenticationKeyFile.cache(credentialsId, parsedAuthenticationKeyFile);
+            return ResolvedCoverityCredentials.fromAuthenticationKeyFile(credentialsId, parsedAuthenticationKeyFile);
+        } catch (IOException e) {
+            logger.trace("Could not parse authentication key file with credentials id " + credentialsId + " because: ", e);
+            return ResolvedCoverityCredentials.fromUnparseableAuthenticationKeyFile(credentialsId, authenticationKeyFileContents);
+        }
     }
 
 }
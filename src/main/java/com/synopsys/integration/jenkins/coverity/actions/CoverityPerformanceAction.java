@@ -0,0 +1,132 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.actions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Shows how long each sub step of the Coverity workflows in a build took, and how those times compare to the previous builds of the job.
+ */
+public class CoverityPerformanceAction implements RunAction2 {
+    public static final int TREND_BUILD_COUNT = 10;
+    // Builds without Coverity steps have no timings, so the trend stops looking after this many builds rather than loading the whole build history
+    public static final int TREND_SCANNED_BUILD_LIMIT = 50;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoverityPerformanceAction.class);
+
+    private final List<SubStepTiming> subStepTimings;
+    private transient Run<?, ?> run;
+
+    public CoverityPerformanceAction(List<SubStepTiming> subStepTimings) {
+        this.subStepTimings = new ArrayList<>(subStepTimings);
+    }
+
+    public static synchronized void addSubStepTimings(Run<?, ?> run, List<SubStepTiming> subStepTimings) {
+        if (subStepTimings.isEmpty()) {
+            return;
+        }
+
+        // A build can run more than one Coverity step, so their timings are kept together in one action
+        CoverityPerformanceAction coverityPerformanceAction = run.getAction(CoverityPerformanceAction.class);
+        if (coverityPerformanceAction == null) {
+            run.addAction(new CoverityPerformanceAction(subStepTimings));
+        } else {
+            coverityPerformanceAction.addSubStepTimings(subStepTimings);
+        }
+
+        try {
+            run.save();
+        } catch (IOException e) {
+            LOGGER.warn("Could not save the Coverity sub step timings of " + run.getFullDisplayName(), e);
+        }
+    }
+
+    public synchronized List<SubStepTiming> getSubStepTimings() {
+        return Collections.unmodifiableList(new ArrayList<>(subStepTimings));
+    }
+
+    public synchronized List<String> getSubStepNames() {
+        Set<String> subStepNames = new LinkedHashSet<>();
+        subStepTimings.forEach(subStepTiming -> subStepNames.add(subStepTiming.getName()));
+        return new ArrayList<>(subStepNames);
+    }
+
+    @CheckForNull
+    public synchronized Long getWallTimeInMillis(String subStepName) {
+        return subStepTimings.stream()
+                   .filter(subStepTiming -> subStepTiming.getName().equals(subStepName))
+                   .map(SubStepTiming::getWallTimeInMillis)
+                   .reduce(Long::sum)
+                   .orElse(null);
+    }
+
+    public List<CoverityPerformanceAction> getTrend() {
+        List<CoverityPerformanceAction> trend = new ArrayList<>();
+        trend.add(this);
+        Run<?, ?> previousRun = run == null ? null : run.getPreviousBuild();
+        int scannedBuilds = 0;
+        while (previousRun != null && trend.size() < TREND_BUILD_COUNT && scannedBuilds < TREND_SCANNED_BUILD_LIMIT) {
+            CoverityPerformanceAction previousAction = previousRun.getAction(CoverityPerformanceAction.class);
+            if (previousAction != null) {
+                trend.add(previousAction);
+            }
+            scannedBuilds++;
+            previousRun = previousRun.getPreviousBuild();
+        }
+        return trend;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @CheckForNull
+    @Override
+    public String getIconFileName() {
+        return "/plugin/synopsys-coverity/icons/synopsys-logo-400px.png";
+    }
+
+    @CheckForNull
+    @Override
+    public String getDisplayName() {
+        return "Coverity Performance";
+    }
+
+    @CheckForNull
+    @Override
+    public String getUrlName() {
+        return "coverity-performance";
+    }
+
+    private synchronized void addSubStepTimings(List<SubStepTiming> subStepTimings) {
+        this.subStepTimings.addAll(subStepTimings);
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.actions;
+
+/**
+ * How long one sub step of a Coverity workflow, or one Coverity command, took in a build.
+ */
+public class SubStepTiming {
+    public static final long UNKNOWN_CPU_TIME = -1;
+
+    private final String name;
+    private final long wallTimeInMillis;
+    private final long cpuTimeInMillis;
+
+    public SubStepTiming(String name, long wallTimeInMillis, long cpuTimeInMillis) {
+        this.name = name;
+        this.wallTimeInMillis = wallTimeInMillis;
+        this.cpuTimeInMillis = cpuTimeInMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWallTimeInMillis() {
+        return wallTimeInMillis;
+    }
+
+    public long getCpuTimeInMillis() {
+        return cpuTimeInMillis;
+    }
+
+    public boolean hasCpuTime() {
+        return cpuTimeInMillis != UNKNOWN_CPU_TIME;
+    }
+
+}
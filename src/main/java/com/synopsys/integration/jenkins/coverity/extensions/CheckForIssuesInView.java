@@ -74,7 +74,7 @@ public class CheckForIssuesInView extends AbstractDescribableImpl<CheckForIssues
             @RelativePath(PATH_TO_COVERITY_BUILD_STEP) @QueryParameter(CoverityBuildStep.FIELD_OVERRIDE_CREDENTIALS) Boolean overrideDefaultCredentials,
             @RelativePath(PATH_TO_COVERITY_BUILD_STEP) @QueryParameter(CoverityBuildStep.FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter("updateNow") boolean updateNow
-        ) throws InterruptedException {
+        ) {
             if (updateNow) {
                 issueViewFieldHelper.updateNow(coverityInstanceUrl, overrideDefaultCredentials, credentialsId);
             }
@@ -11,7 +11,10 @@ import com.synopsys.integration.jenkins.extensions.JenkinsSelectBoxEnum;
 
 public enum CleanUpAction implements JenkinsSelectBoxEnum {
     PERSIST_INTERMEDIATE_DIRECTORY("Persist the intermediate directory"),
-    DELETE_INTERMEDIATE_DIRECTORY("Clean up the intermediate directory");
+    DELETE_INTERMEDIATE_DIRECTORY("Clean up the intermediate directory"),
+    DELETE_INTERMEDIATE_DIRECTORY_IN_BACKGROUND("Clean up the intermediate directory in the background"),
+    CACHE_INTERMEDIATE_DIRECTORY("Cache the intermediate directory on the agent for the stream"),
+    STASH_INTERMEDIATE_DIRECTORY("Stash the intermediate directory for the stream so any agent can restore it");
 
     private String displayName;
 
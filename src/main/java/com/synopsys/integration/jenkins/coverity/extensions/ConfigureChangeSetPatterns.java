@@ -7,7 +7,10 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions;
 
+import javax.annotation.Nullable;
+
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.StaplerRequest;
 
 import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
@@ -45,6 +48,21 @@ public class ConfigureChangeSetPatterns extends AbstractDescribableImpl<Configur
                       + "| test.java | test.????? | No               |")
     private final String changeSetInclusionPatterns;
 
+    // Any field set by a DataBoundSetter should be explicitly declared as @Nullable to avoid accidental NPEs
+    @Nullable
+    @HelpMarkdown("If checked, patterns that contain a / are matched against the full path of each file in the change set instead of only its name. Patterns without a / still match file names in any directory.  \r\n"
+                      + "`*` and `?` match within a single directory, `**` matches any number of directories, and a trailing / matches everything in a directory.  \r\n"
+                      + "Examples:\r\n"
+                      + "\r\n"
+                      + "| File Path                  | Pattern             | Will match |\r\n"
+                      + "| -------------------------- | ------------------- | ---------- |\r\n"
+                      + "| third_party/zlib/inflate.c | third_party/        | Yes        |\r\n"
+                      + "| generated/model/Foo.java   | generated/**/*.java | Yes        |\r\n"
+                      + "| src/generated/Foo.java     | generated/**/*.java | No         |\r\n"
+                      + "| src/generated/Foo.java     | **/generated/*.java | Yes        |\r\n"
+                      + "| src/main/Foo.java          | *.java              | Yes        |")
+    private Boolean matchFullPaths;
+
     @DataBoundConstructor
     public ConfigureChangeSetPatterns(String changeSetExclusionPatterns, String changeSetInclusionPatterns) {
         this.changeSetExclusionPatterns = changeSetExclusionPatterns;
@@ -59,8 +77,20 @@ public class ConfigureChangeSetPatterns extends AbstractDescribableImpl<Configur
         return changeSetExclusionPatterns;
     }
 
+    public Boolean getMatchFullPaths() {
+        if (Boolean.FALSE.equals(matchFullPaths)) {
+            return null;
+        }
+        return matchFullPaths;
+    }
+
+    @DataBoundSetter
+    public void setMatchFullPaths(Boolean matchFullPaths) {
+        this.matchFullPaths = matchFullPaths;
+    }
+
     public ChangeSetFilter createChangeSetFilter() {
-        return new ChangeSetFilter(changeSetExclusionPatterns, changeSetInclusionPatterns);
+        return new ChangeSetFilter(changeSetExclusionPatterns, changeSetInclusionPatterns, Boolean.TRUE.equals(matchFullPaths));
     }
 
     @Override
@@ -8,14 +8,32 @@
 package com.synopsys.integration.jenkins.coverity.extensions.buildstep;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
 
 import hudson.Extension;
+import hudson.util.FormValidation;
 
 public class AdvancedCoverityRunConfiguration extends CoverityRunConfiguration {
+    public static final int DEFAULT_MAXIMUM_PARALLEL_COMMANDS = 2;
+
     private final RepeatableCommand[] commands;
 
+    // Any field set by a DataBoundSetter should be explicitly declared as @Nullable to avoid accidental NPEs
+    @Nullable
+    @HelpMarkdown("If checked, the commands are treated as stages of a dependency graph instead of a list. Each command starts as soon as the commands it depends on have completed, and independent commands run at the same time on the agent.  \r\n"
+                      + "The configured action to take on command failure is applied to each command as it completes.")
+    private Boolean runCommandsInParallel;
+
+    @Nullable
+    @HelpMarkdown("The maximum number of commands to run at the same time when running independent commands in parallel.")
+    private Integer maximumParallelCommands;
+
     @DataBoundConstructor
     public AdvancedCoverityRunConfiguration(final RepeatableCommand[] commands) {
         this.commands = commands;
@@ -25,6 +43,30 @@ public class AdvancedCoverityRunConfiguration extends CoverityRunConfiguration {
         return commands;
     }
 
+    public Boolean getRunCommandsInParallel() {
+        if (Boolean.FALSE.equals(runCommandsInParallel)) {
+            return null;
+        }
+        return runCommandsInParallel;
+    }
+
+    @DataBoundSetter
+    public void setRunCommandsInParallel(Boolean runCommandsInParallel) {
+        this.runCommandsInParallel = runCommandsInParallel;
+    }
+
+    public int getMaximumParallelCommands() {
+        if (maximumParallelCommands == null || maximumParallelCommands < 1) {
+            return DEFAULT_MAXIMUM_PARALLEL_COMMANDS;
+        }
+        return maximumParallelCommands;
+    }
+
+    @DataBoundSetter
+    public void setMaximumParallelCommands(Integer maximumParallelCommands) {
+        this.maximumParallelCommands = maximumParallelCommands;
+    }
+
     @Override
     public DescriptorImpl getDescriptor() {
         return (DescriptorImpl) super.getDescriptor();
@@ -47,6 +89,17 @@ public class AdvancedCoverityRunConfiguration extends CoverityRunConfiguration {
         public String getDisplayName() {
             return RunConfigurationType.ADVANCED.getDisplayName();
         }
+
+        public FormValidation doCheckMaximumParallelCommands(@QueryParameter("maximumParallelCommands") String maximumParallelCommands) {
+            try {
+                if (Integer.parseInt(maximumParallelCommands) < 1) {
+                    return FormValidation.error("The maximum number of parallel commands must be at least 1");
+                }
+            } catch (NumberFormatException e) {
+                return FormValidation.error("The maximum number of parallel commands must be a number");
+            }
+            return FormValidation.ok();
+        }
     }
 
 }
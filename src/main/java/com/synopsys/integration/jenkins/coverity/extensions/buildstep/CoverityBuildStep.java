@@ -19,6 +19,7 @@ import org.kohsuke.stapler.QueryParameter;
 import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
+import com.synopsys.integration.jenkins.coverity.ChangeSetIndex;
 import com.synopsys.integration.jenkins.coverity.SynopsysCoverityCredentialsHelper;
 import com.synopsys.integration.jenkins.coverity.extensions.CheckForIssuesInView;
 import com.synopsys.integration.jenkins.coverity.extensions.CleanUpAction;
@@ -84,7 +85,10 @@ public class CoverityBuildStep extends Builder {
     // Any field set by a DataBoundSetter should be explicitly declared as @Nullable to avoid accidental NPEs -- rotte 10/21/2019
     @Nullable
     @HelpMarkdown("Specify the clean up action to perform on a successful execution.  \r\n"
-                      + "Will either persist or delete the intermediate directory created by the specified capture type.")
+                      + "Will either persist or delete the intermediate directory created by the specified capture type, now or in the background, move it to a cache on the agent, or stash it for every agent.  \r\n"
+                      + "A cached intermediate directory is moved back into the workspace by the next build of the same stream with the same Coverity analysis version on that agent, so it can reuse the emitted files and incremental analysis results.  \r\n"
+                      + "An intermediate directory cleaned up in the background is renamed so the build can finish right away, and the agent deletes it afterwards.  \r\n"
+                      + "A stashed intermediate directory is archived after the results are committed, sending only the parts that changed since the last stash, and is restored by the next build of the same stream on whichever agent it runs.")
     private CleanUpAction cleanUpAction;
 
     @Nullable
@@ -94,6 +98,11 @@ public class CoverityBuildStep extends Builder {
     @Nullable
     private Boolean overrideDefaultCredentials;
 
+    @Nullable
+    @HelpMarkdown("If checked, the changed files of builds that did not successfully run cov-commit-defects are carried over to the $CHANGE_SET of the next build, so an incremental analysis (cov-run-desktop) always covers every change since the last commit.  \r\n"
+                      + "The pending files are kept in the job directory and are cleared once the Coverity commands of a build, including cov-commit-defects, succeed.")
+    private Boolean accumulateChangeSets;
+
     @DataBoundConstructor
     public CoverityBuildStep(String coverityInstanceUrl, String onCommandFailure, String projectName, String streamName, CheckForIssuesInView checkForIssuesInView,
         ConfigureChangeSetPatterns configureChangeSetPatterns, CoverityRunConfiguration coverityRunConfiguration) {
@@ -133,6 +142,18 @@ public class CoverityBuildStep extends Builder {
         this.overrideDefaultCredentials = overrideDefaultCredentials;
     }
 
+    public Boolean getAccumulateChangeSets() {
+        if (Boolean.FALSE.equals(accumulateChangeSets)) {
+            return null;
+        }
+        return accumulateChangeSets;
+    }
+
+    @DataBoundSetter
+    public void setAccumulateChangeSets(Boolean accumulateChangeSets) {
+        this.accumulateChangeSets = accumulateChangeSets;
+    }
+
     public String getCoverityInstanceUrl() {
         return coverityInstanceUrl;
     }
@@ -202,7 +223,8 @@ public class CoverityBuildStep extends Builder {
             configureChangeSetPatterns,
             checkForIssuesInView,
             onCommandFailure,
-            cleanUpAction
+            cleanUpAction,
+            Boolean.TRUE.equals(accumulateChangeSets) ? ChangeSetIndex.forJob(build.getProject()) : null
         );
 
         return coverityBuildStepWorkflow.perform();
@@ -260,7 +282,7 @@ public class CoverityBuildStep extends Builder {
             return coverityConnectionFieldHelper.doCheckCoverityInstanceUrl(coverityInstanceUrl, overrideDefaultCredentials, credentialsId);
         }
 
-        public ComboBoxModel doFillProjectNameItems(@QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl, @QueryParameter(FIELD_OVERRIDE_CREDENTIALS) Boolean overrideDefaultCredentials, @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId, @QueryParameter("updateNow") boolean updateNow) throws InterruptedException {
+        public ComboBoxModel doFillProjectNameItems(@QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl, @QueryParameter(FIELD_OVERRIDE_CREDENTIALS) Boolean overrideDefaultCredentials, @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId, @QueryParameter("updateNow") boolean updateNow) {
             if (updateNow) {
                 projectStreamFieldHelper.updateNow(coverityInstanceUrl, overrideDefaultCredentials, credentialsId);
             }
@@ -276,7 +298,7 @@ public class CoverityBuildStep extends Builder {
             }
         }
 
-        public ComboBoxModel doFillStreamNameItems(@QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl, @QueryParameter(FIELD_OVERRIDE_CREDENTIALS) Boolean overrideDefaultCredentials, @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId, @QueryParameter(FIELD_PROJECT_NAME) String projectName) throws InterruptedException {
+        public ComboBoxModel doFillStreamNameItems(@QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl, @QueryParameter(FIELD_OVERRIDE_CREDENTIALS) Boolean overrideDefaultCredentials, @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId, @QueryParameter(FIELD_PROJECT_NAME) String projectName) {
             return projectStreamFieldHelper.getStreamNamesForComboBox(coverityInstanceUrl, overrideDefaultCredentials,credentialsId, projectName);
         }
 
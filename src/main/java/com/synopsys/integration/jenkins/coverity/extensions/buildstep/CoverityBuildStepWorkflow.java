@@ -7,18 +7,23 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.buildstep;
 
-import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET;
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET_FILE;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET_SIZE;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.TEMPORARY_AUTH_KEY_PATH;
 import static com.synopsys.integration.jenkins.coverity.extensions.CoverityAnalysisType.COV_RUN_DESKTOP;
 import static com.synopsys.integration.jenkins.coverity.extensions.CoverityAnalysisType.THRESHOLD;
 import static com.synopsys.integration.jenkins.coverity.extensions.buildstep.CoverityRunConfiguration.RunConfigurationType.ADVANCED;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
 
 import com.synopsys.integration.coverity.api.rest.ViewContents;
@@ -26,6 +31,8 @@ import com.synopsys.integration.coverity.ws.WebServiceFactory;
 import com.synopsys.integration.coverity.ws.view.ViewReportWrapper;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.jenkins.coverity.ChangeSetIndex;
+import com.synopsys.integration.jenkins.coverity.actions.CoverityPerformanceAction;
 import com.synopsys.integration.jenkins.coverity.actions.IssueReportAction;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
 import com.synopsys.integration.jenkins.coverity.extensions.BuildStatus;
@@ -35,6 +42,7 @@ import com.synopsys.integration.jenkins.coverity.extensions.ConfigureChangeSetPa
 import com.synopsys.integration.jenkins.coverity.extensions.CoverityAnalysisType;
 import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CleanUpWorkflowService;
+import com.synopsys.integration.jenkins.coverity.stepworkflow.CoverityAgentFacts;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CoverityJenkinsStepWorkflow;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CoverityWorkflowStepFactory;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
@@ -51,6 +59,8 @@ import hudson.model.Result;
 import hudson.remoting.VirtualChannel;
 
 public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Object> {
+    private static final String COV_COMMIT_DEFECTS = "cov-commit-defects";
+
     private final CoverityWorkflowStepFactory coverityWorkflowStepFactory;
     private final AbstractBuild<?, ?> build;
     private final String projectName;
@@ -65,10 +75,15 @@ public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Objec
     private final String workspaceRemotePath;
     private final String coverityInstanceUrl;
     private final String credentialsId;
+    @Nullable
+    private final ChangeSetIndex changeSetIndex;
+    private boolean commandsCommitDefects;
+    private boolean commandsStarted;
+    private boolean commandsCompleted;
 
     public CoverityBuildStepWorkflow(JenkinsIntLogger logger, JenkinsVersionHelper jenkinsVersionHelper, ThrowingSupplier<WebServiceFactory, CoverityJenkinsAbortException> webServiceFactorySupplier,
         CoverityWorkflowStepFactory coverityWorkflowStepFactory, AbstractBuild<?, ?> build, String workspaceRemotePath, String coverityInstanceUrl, String credentialsId, String projectName, String streamName, CoverityRunConfiguration coverityRunConfiguration,
-        ConfigureChangeSetPatterns configureChangeSetPatterns, CheckForIssuesInView checkForIssuesInView, OnCommandFailure onCommandFailure, CleanUpAction cleanUpAction) {
+        ConfigureChangeSetPatterns configureChangeSetPatterns, CheckForIssuesInView checkForIssuesInView, OnCommandFailure onCommandFailure, CleanUpAction cleanUpAction, @Nullable ChangeSetIndex changeSetIndex) {
         super(logger, jenkinsVersionHelper, webServiceFactorySupplier);
         this.coverityWorkflowStepFactory = coverityWorkflowStepFactory;
         this.build = build;
@@ -82,6 +97,7 @@ public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Objec
         this.checkForIssuesInView = checkForIssuesInView;
         this.onCommandFailure = onCommandFailure;
         this.cleanUpAction = cleanUpAction;
+        this.changeSetIndex = changeSetIndex;
     }
 
     @Override
@@ -90,12 +106,32 @@ public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Objec
         BuildStatus buildStatus = Optional.ofNullable(checkForIssuesInView).map(CheckForIssuesInView::getBuildStatusForIssues).orElse(BuildStatus.SUCCESS);
         boolean shouldValidateVersion = CoverityRunConfiguration.RunConfigurationType.SIMPLE.equals(coverityRunConfiguration.getRunConFigurationType());
 
-        return StepWorkflow.first(coverityWorkflowStepFactory.createStepValidateCoverityInstallation(shouldValidateVersion))
-                   .then(coverityWorkflowStepFactory.createStepCreateAuthenticationKeyFile(workspaceRemotePath, coverityInstanceUrl, credentialsId))
-                   .then(coverityWorkflowStepFactory.createStepSetUpCoverityEnvironment(build.getChangeSets(), configureChangeSetPatterns, workspaceRemotePath, coverityInstanceUrl, credentialsId, projectName, streamName, viewName))
-                   .then(coverityWorkflowStepFactory.createStepCreateMissingProjectsAndStreams(coverityInstanceUrl, credentialsId, projectName, streamName))
+        // Probing the agent runs on the agent and checking the project and stream talks to Coverity Connect from the controller, so neither has to wait for the other
+        // A restored intermediate directory must not exist before it is restored, so the probe only creates it when nothing will be restored
+        boolean restoresIntermediateDirectory = CleanUpAction.CACHE_INTERMEDIATE_DIRECTORY.equals(cleanUpAction) || CleanUpAction.STASH_INTERMEDIATE_DIRECTORY.equals(cleanUpAction);
+        SubStep<Object, CoverityAgentFacts> probeCoverityAgent = coverityWorkflowStepFactory.createStepProbeCoverityAgent(workspaceRemotePath, coverityInstanceUrl, credentialsId, shouldValidateVersion, !restoresIntermediateDirectory);
+        Map<String, SubStep<Object, ?>> independentSubSteps = new LinkedHashMap<>();
+        independentSubSteps.put("Checking the Coverity project and stream", coverityWorkflowStepFactory.createStepCreateMissingProjectsAndStreams(coverityInstanceUrl, credentialsId, projectName, streamName));
+        if (CleanUpAction.CACHE_INTERMEDIATE_DIRECTORY.equals(cleanUpAction)) {
+            independentSubSteps.put("Restoring the cached intermediate directory", coverityWorkflowStepFactory.createStepRestoreIntermediateDirectory(workspaceRemotePath, streamName));
+        } else if (CleanUpAction.STASH_INTERMEDIATE_DIRECTORY.equals(cleanUpAction)) {
+            independentSubSteps.put("Restoring the stashed intermediate directory", coverityWorkflowStepFactory.createStepRestoreStashedIntermediateDirectory(workspaceRemotePath, streamName));
+        }
+
+        // Only an intermediate directory whose results were committed is worth stashing for the next build
+        SubStep<Object, Object> stashIntermediateDirectory = SubStep.ofExecutor(() -> {});
+        if (CleanUpAction.STASH_INTERMEDIATE_DIRECTORY.equals(cleanUpAction)) {
+            stashIntermediateDirectory = coverityWorkflowStepFactory.createStepStashIntermediateDirectory(workspaceRemotePath, streamName, () -> commandsCommitDefects);
+        }
+
+        return StepWorkflow.first(coverityWorkflowStepFactory.createStepRunSubStepsConcurrently("Probing the agent and its Coverity installation", probeCoverityAgent, independentSubSteps))
+                   .then(coverityWorkflowStepFactory.createStepSetUpCoverityEnvironment(build.getChangeSets(), configureChangeSetPatterns, workspaceRemotePath, coverityInstanceUrl, credentialsId, projectName, streamName, viewName, changeSetIndex))
                    .andSometimes(coverityWorkflowStepFactory.createStepGetCoverityCommands(coverityRunConfiguration))
-                   .then(coverityWorkflowStepFactory.createStepRunCoverityCommands(workspaceRemotePath, onCommandFailure))
+                   .then(SubStep.ofFunction(this::recordCommitDefects))
+                   .then(coverityWorkflowStepFactory.createStepRunCoverityCommands(workspaceRemotePath, onCommandFailure, coverityRunConfiguration))
+                   .then(SubStep.ofExecutor(this::recordCommandsCompleted))
+                   .then(SubStep.ofExecutor(this::updateChangeSetIndex))
+                   .then(stashIntermediateDirectory)
                    .butOnlyIf(coverityWorkflowStepFactory.getOrCreateEnvironmentVariables(), intEnvironmentVariables -> this.shouldRunCoverityCommands(intEnvironmentVariables, coverityRunConfiguration))
                    .andSometimes(coverityWorkflowStepFactory.createStepGetIssuesInView(coverityInstanceUrl, credentialsId, projectName, viewName))
                    .then(SubStep.ofConsumer(viewReportWrapper -> handleIssues(viewReportWrapper, build, projectName, viewName, buildStatus)))
@@ -126,6 +162,9 @@ public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Objec
 
     @Override
     public void cleanUp() throws CoverityJenkinsAbortException {
+        coverityWorkflowStepFactory.releaseWebServices();
+        CoverityPerformanceAction.addSubStepTimings(build, coverityWorkflowStepFactory.getSubStepTimings());
+
         IntEnvironmentVariables intEnvironmentVariables = coverityWorkflowStepFactory.getOrCreateEnvironmentVariables();
         CleanUpWorkflowService cleanUpWorkflowService = new CleanUpWorkflowService(logger);
         String authKeyPath = intEnvironmentVariables.getValue(TEMPORARY_AUTH_KEY_PATH.toString());
@@ -135,28 +174,74 @@ public class CoverityBuildStepWorkflow extends CoverityJenkinsStepWorkflow<Objec
             cleanUpWorkflowService.cleanUpAuthenticationFile(authKeyFile);
         }
 
+        String changeSetFilePath = intEnvironmentVariables.getValue(CHANGE_SET_FILE.toString());
+        if (StringUtils.isNotBlank(changeSetFilePath)) {
+            VirtualChannel virtualChannel = coverityWorkflowStepFactory.getOrCreateVirtualChannel();
+            FilePath changeSetFile = new FilePath(virtualChannel, changeSetFilePath);
+            cleanUpWorkflowService.cleanUpChangeSetFile(changeSetFile);
+        }
+
         if (CleanUpAction.DELETE_INTERMEDIATE_DIRECTORY.equals(cleanUpAction)) {
             FilePath intermediateDirectory = coverityWorkflowStepFactory.getIntermediateDirectory(workspaceRemotePath);
             cleanUpWorkflowService.cleanUpIntermediateDirectory(intermediateDirectory);
+        } else if (CleanUpAction.DELETE_INTERMEDIATE_DIRECTORY_IN_BACKGROUND.equals(cleanUpAction)) {
+            VirtualChannel virtualChannel = coverityWorkflowStepFactory.getOrCreateVirtualChannel();
+            cleanUpWorkflowService.tombstoneIntermediateDirectory(virtualChannel, coverityWorkflowStepFactory.createTombstoneIntermediateDirectory(workspaceRemotePath));
+        } else if (CleanUpAction.CACHE_INTERMEDIATE_DIRECTORY.equals(cleanUpAction)) {
+            // Commands that failed or were aborted can leave the intermediate directory half written, and the next build would restore it as if it were warm
+            if (commandsStarted && !commandsCompleted) {
+                logger.warn("WARNING: The intermediate directory was not cached because the Coverity commands did not complete. It was left in the workspace.");
+            } else {
+                VirtualChannel virtualChannel = coverityWorkflowStepFactory.getOrCreateVirtualChannel();
+                cleanUpWorkflowService.storeIntermediateDirectory(virtualChannel, coverityWorkflowStepFactory.createStoreIntermediateDirectory(workspaceRemotePath, streamName));
+            }
+        }
+    }
+
+    private List<List<String>> recordCommitDefects(List<List<String>> commands) {
+        commandsStarted = true;
+        commandsCommitDefects = commands.stream()
+                                    .filter(command -> !command.isEmpty())
+                                    .map(command -> FilenameUtils.getBaseName(command.get(0)))
+                                    .anyMatch(COV_COMMIT_DEFECTS::equals);
+        return commands;
+    }
+
+    private void recordCommandsCompleted() {
+        commandsCompleted = true;
+    }
+
+    private void updateChangeSetIndex() {
+        if (changeSetIndex == null || !commandsCommitDefects) {
+            return;
+        }
+
+        // A failure here only means the same files are analyzed again by the next build, so it should not fail this one
+        try {
+            int committedFiles = changeSetIndex.getPendingPaths().size();
+            int removedFiles = changeSetIndex.removePendingPaths();
+            logger.alwaysLog(String.format("Removed %d of %d committed files from the pending change set, keeping those changed again by later builds", removedFiles, committedFiles));
+        } catch (IOException e) {
+            logger.warn("Could not update the change set index: " + e.getMessage());
+            logger.trace("Change set index exception:", e);
         }
     }
 
     private boolean shouldRunCoverityCommands(IntEnvironmentVariables intEnvironmentVariables, CoverityRunConfiguration coverityRunConfiguration) {
+        // $CHANGE_SET is left empty for change sets too large for the environment, so only the size says whether the change set is empty
+        int changeSetSize = Integer.parseInt(intEnvironmentVariables.getValue(CHANGE_SET_SIZE.toString(), "0"));
         boolean analysisIsIncremental;
         if (ADVANCED.equals(coverityRunConfiguration.getRunConFigurationType())) {
             analysisIsIncremental = false;
         } else {
             SimpleCoverityRunConfiguration simpleCoverityRunConfiguration = (SimpleCoverityRunConfiguration) coverityRunConfiguration;
-            int changeSetSize;
-            changeSetSize = Integer.parseInt(intEnvironmentVariables.getValue(CHANGE_SET_SIZE.toString(), "0"));
             CoverityAnalysisType coverityAnalysisType = simpleCoverityRunConfiguration.getCoverityAnalysisType();
             int changeSetThreshold = simpleCoverityRunConfiguration.getChangeSetAnalysisThreshold();
 
             analysisIsIncremental = COV_RUN_DESKTOP.equals(coverityAnalysisType) || (THRESHOLD.equals(coverityAnalysisType) && changeSetSize < changeSetThreshold);
         }
 
-        String changeSetString = intEnvironmentVariables.getValue(CHANGE_SET.toString());
-        if (analysisIsIncremental && StringUtils.isBlank(changeSetString)) {
+        if (analysisIsIncremental && changeSetSize == 0) {
             logger.alwaysLog("Skipping Synopsys Coverity static analysis because the analysis type was determined to be Incremental Analysis and the Jenkins $CHANGE_SET was empty.");
             return false;
         }
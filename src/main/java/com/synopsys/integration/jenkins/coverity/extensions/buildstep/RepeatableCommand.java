@@ -8,6 +8,7 @@
 package com.synopsys.integration.jenkins.coverity.extensions.buildstep;
 
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET;
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET_FILE;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_INTERMEDIATE_DIRECTORY;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_STREAM;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_URL;
@@ -17,9 +18,11 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.apache.commons.lang3.StringUtils;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
@@ -35,6 +38,17 @@ public class RepeatableCommand extends AbstractDescribableImpl<RepeatableCommand
                       + "For examples and a list of the available environment variables that can be used, refer to [the Command Examples documentation](https://synopsys.atlassian.net/wiki/spaces/INTDOCS/pages/623024/Coverity+Command+Examples)")
     private final String command;
 
+    // Any field set by a DataBoundSetter should be explicitly declared as @Nullable to avoid accidental NPEs
+    @Nullable
+    @HelpMarkdown("Only used when running independent commands in parallel. Specify a unique name for this command so that other commands can depend on it.  \r\n"
+                      + "If no name is provided, the command is named after its position in the list. Ex: command-1, command-2, etc.")
+    private String stageName;
+
+    @Nullable
+    @HelpMarkdown("Only used when running independent commands in parallel. Specify a comma separated list of the names of the commands that must complete before this command starts.  \r\n"
+                      + "Commands without dependencies start immediately.")
+    private String dependsOn;
+
     @DataBoundConstructor
     public RepeatableCommand(String command) {
         this.command = command;
@@ -71,6 +85,10 @@ public class RepeatableCommand extends AbstractDescribableImpl<RepeatableCommand
     }
 
     public static RepeatableCommand COV_RUN_DESKTOP(String authKeyFilePath, String arguments) {
+        return COV_RUN_DESKTOP(authKeyFilePath, arguments, false);
+    }
+
+    public static RepeatableCommand COV_RUN_DESKTOP(String authKeyFilePath, String arguments, boolean useChangeSetFile) {
         List<String> commandPieces = new ArrayList<>();
         commandPieces.add("cov-run-desktop");
         commandPieces.add(Argument.DIR.toString());
@@ -89,7 +107,12 @@ public class RepeatableCommand extends AbstractDescribableImpl<RepeatableCommand
             commandPieces.add(arguments);
         }
 
-        commandPieces.add(CHANGE_SET.expansionString());
+        if (useChangeSetFile) {
+            // Coverity tools read additional arguments, one per line, from a response file given as @@<file>
+            commandPieces.add("@@" + CHANGE_SET_FILE.expansionString());
+        } else {
+            commandPieces.add(CHANGE_SET.expansionString());
+        }
 
         return constructCommand(commandPieces);
     }
@@ -166,6 +189,24 @@ public class RepeatableCommand extends AbstractDescribableImpl<RepeatableCommand
         return command;
     }
 
+    public String getStageName() {
+        return stageName;
+    }
+
+    @DataBoundSetter
+    public void setStageName(String stageName) {
+        this.stageName = stageName;
+    }
+
+    public String getDependsOn() {
+        return dependsOn;
+    }
+
+    @DataBoundSetter
+    public void setDependsOn(String dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
     @Override
     public DescriptorImpl getDescriptor() {
         return (DescriptorImpl) super.getDescriptor();
@@ -7,16 +7,11 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.global;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.jenkinsci.plugins.plaincredentials.FileCredentials;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
@@ -25,6 +20,7 @@ import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.coverity.config.CoverityServerConfig;
 import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
+import com.synopsys.integration.jenkins.coverity.ResolvedCoverityCredentials;
 import com.synopsys.integration.jenkins.coverity.SynopsysCoverityCredentialsHelper;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
 import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnectionFieldHelper;
@@ -91,9 +87,13 @@ public class CoverityConnectInstance extends AbstractDescribableImpl<CoverityCon
     }
 
     public CoverityServerConfig getCoverityServerConfig(IntLogger logger, String credentialsId) throws IllegalArgumentException, IllegalStateException {
+        return getCoverityServerConfig(getCoverityServerCredentials(logger, credentialsId));
+    }
+
+    public CoverityServerConfig getCoverityServerConfig(Credentials credentials) throws IllegalArgumentException, IllegalStateException {
         return CoverityServerConfig.newBuilder()
                    .setUrl(url)
-                   .setCredentials(getCoverityServerCredentials(logger, credentialsId))
+                   .setCredentials(credentials)
                    .build();
     }
 
@@ -113,19 +113,12 @@ public class CoverityConnectInstance extends AbstractDescribableImpl<CoverityCon
     }
 
     public Optional<String> getAuthenticationKeyFileContents(IntLogger logger, String credentialId) throws CoverityJenkinsAbortException {
-        SynopsysCoverityCredentialsHelper synopsysCoverityCredentialsHelper = new SynopsysCoverityCredentialsHelper(logger, JenkinsWrapper.initializeFromJenkinsJVM());
-        Optional<FileCredentials> authenticationKeyFileCredentials = synopsysCoverityCredentialsHelper.getAuthenticationKeyFileCredentialsById(credentialId);
-        String contents = null;
-
-        if (authenticationKeyFileCredentials.isPresent()) {
-            try (InputStream inputStream = authenticationKeyFileCredentials.get().getContent()) {
-                contents = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-            } catch (IOException e) {
-                throw new CoverityJenkinsAbortException("Authentication Key File could not be read from the Synopsys Coverity for Jenkins global configuration.");
-            }
-        }
+        return resolveCredentials(logger, credentialId).getAuthenticationKeyFileContents();
+    }
 
-        return Optional.ofNullable(contents);
+    public ResolvedCoverityCredentials resolveCredentials(IntLogger logger, String credentialId) {
+        SynopsysCoverityCredentialsHelper synopsysCoverityCredentialsHelper = new SynopsysCoverityCredentialsHelper(logger, JenkinsWrapper.initializeFromJenkinsJVM());
+        return synopsysCoverityCredentialsHelper.resolveCredentials(credentialId);
     }
 
     public boolean isEmpty() {
@@ -7,23 +7,98 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.global;
 
+import java.io.IOException;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
+import com.synopsys.integration.jenkins.coverity.GlobalValueHelper;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.ConnectionCachingFieldHelper;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnectCacheWarmer;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnectDataCacheService;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityWebServicePool;
+import com.synopsys.integration.log.SilentIntLogger;
 
 import hudson.Extension;
+import hudson.util.FormValidation;
 import jenkins.model.GlobalConfiguration;
+import net.sf.json.JSONObject;
 
 @Extension
 public class CoverityGlobalConfig extends GlobalConfiguration {
+    public static final int DEFAULT_CHANGE_SET_ENVIRONMENT_VARIABLE_LIMIT = 32 * 1024;
+    public static final int DEFAULT_CREATION_TIMEOUT_IN_SECONDS = 60;
+    public static final int DEFAULT_CACHE_WARMING_CONCURRENCY = 2;
+    public static final int DEFAULT_INTERMEDIATE_DIRECTORY_CACHE_QUOTA_IN_MEGABYTES = 10 * 1024;
+    public static final int DEFAULT_INTERMEDIATE_DIRECTORY_STASH_QUOTA_IN_MEGABYTES = 50 * 1024;
+    public static final int DEFAULT_BACKGROUND_CLEAN_UP_THREADS = 4;
+    public static final int DEFAULT_BACKGROUND_CLEAN_UP_DELETIONS_PER_SECOND = 10000;
+    public static final int DEFAULT_AGENT_PROBE_CACHE_TIME_IN_SECONDS = 300;
+
     private List<CoverityConnectInstance> coverityConnectInstances;
 
+    // Any field set by a DataBoundSetter should be explicitly declared as @Nullable to avoid accidental NPEs
+    @Nullable
+    @HelpMarkdown("The largest change set, in characters, that is also provided in the $CHANGE_SET environment variable. The change set is always written to the file at $CHANGE_SET_FILE, one path per line.  \r\n"
+                      + "Larger change sets leave $CHANGE_SET empty to stay within operating system limits on the size of the environment, and cov-run-desktop in simple mode reads them from $CHANGE_SET_FILE instead.")
+    private Integer changeSetEnvironmentVariableLimit;
+
+    @Nullable
+    @HelpMarkdown("The number of seconds to wait for a project or stream created by Synopsys Coverity for Jenkins to become available in Coverity Connect before the build continues without it.")
+    private Integer creationTimeoutInSeconds;
+
+    @Nullable
+    @HelpMarkdown("The number of Coverity Connect caches filled at the same time when Jenkins starts or this configuration is saved. The projects, streams, and views of every instance are cached for its default credentials, so job configuration pages do not wait for them.  \r\n"
+                      + "Set to 0 to only fill the caches when a job configuration page first needs them.")
+    private Integer cacheWarmingConcurrency;
+
+    @Nullable
+    @HelpMarkdown("The disk space, in megabytes, that the intermediate directories cached on each agent may use together. When a build stores its intermediate directory and the cache grows past this size, the least recently used intermediate directories are deleted.")
+    private Integer intermediateDirectoryCacheQuotaInMegabytes;
+
+    @Nullable
+    @HelpMarkdown("A directory, mounted at the same path on every agent, to stash intermediate directories in. Agents then read and write stashed intermediate directories directly instead of sending them through Jenkins.  \r\n"
+                      + "Leave blank to stash intermediate directories on Jenkins itself.")
+    private String intermediateDirectoryStashPath;
+
+    @Nullable
+    @HelpMarkdown("The disk space, in megabytes, that stashed intermediate directories may use together, on Jenkins or on the shared stash path. When a build stashes its intermediate directory and the stash grows past this size, the intermediate directories that were least recently stashed or restored are expired.")
+    private Integer intermediateDirectoryStashQuotaInMegabytes;
+
+    @Nullable
+    @HelpMarkdown("The number of threads on each agent that delete intermediate directories cleaned up in the background.")
+    private Integer backgroundCleanUpThreads;
+
+    @Nullable
+    @HelpMarkdown("The number of files per second that each agent may delete when it cleans up intermediate directories in the background, so the clean up does not slow down the builds running on the agent.  \r\n"
+                      + "Set to 0 to delete files as fast as the disk allows.")
+    private Integer backgroundCleanUpDeletionsPerSecond;
+
+    @Nullable
+    @HelpMarkdown("The number of seconds that Jenkins remembers the Coverity installation of an agent after validating it. Builds on that agent in the meantime skip validating the installation again, and do not call the agent at all to set up the Coverity environment unless they need an authentication key file.  \r\n"
+                      + "Set to 0 to validate the installation for every build.")
+    private Integer agentProbeCacheTimeInSeconds;
+
     @DataBoundConstructor
     public CoverityGlobalConfig() {
         load();
     }
 
+    @Override
+    public boolean configure(StaplerRequest req, JSONObject json) throws FormException {
+        boolean configured = super.configure(req, json);
+        CoverityConnectCacheWarmer.getInstance().warmCaches(this);
+        return configured;
+    }
+
     public List<CoverityConnectInstance> getCoverityConnectInstances() {
         return coverityConnectInstances;
     }
@@ -31,7 +106,230 @@ public class CoverityGlobalConfig extends GlobalConfiguration {
     @DataBoundSetter
     public void setCoverityConnectInstances(final List<CoverityConnectInstance> coverityConnectInstances) {
         this.coverityConnectInstances = coverityConnectInstances;
+        // Pooled web services were connected with the previous instance settings
+        CoverityWebServicePool.getInstance().clear();
+        save();
+    }
+
+    public int getChangeSetEnvironmentVariableLimit() {
+        if (changeSetEnvironmentVariableLimit == null || changeSetEnvironmentVariableLimit < 0) {
+            return DEFAULT_CHANGE_SET_ENVIRONMENT_VARIABLE_LIMIT;
+        }
+        return changeSetEnvironmentVariableLimit;
+    }
+
+    @DataBoundSetter
+    public void setChangeSetEnvironmentVariableLimit(Integer changeSetEnvironmentVariableLimit) {
+        this.changeSetEnvironmentVariableLimit = changeSetEnvironmentVariableLimit;
+        save();
+    }
+
+    public int getCreationTimeoutInSeconds() {
+        if (creationTimeoutInSeconds == null || creationTimeoutInSeconds < 0) {
+            return DEFAULT_CREATION_TIMEOUT_IN_SECONDS;
+        }
+        return creationTimeoutInSeconds;
+    }
+
+    @DataBoundSetter
+    public void setCreationTimeoutInSeconds(Integer creationTimeoutInSeconds) {
+        this.creationTimeoutInSeconds = creationTimeoutInSeconds;
+        save();
+    }
+
+    public int getCacheWarmingConcurrency() {
+        if (cacheWarmingConcurrency == null || cacheWarmingConcurrency < 0) {
+            return DEFAULT_CACHE_WARMING_CONCURRENCY;
+        }
+        return cacheWarmingConcurrency;
+    }
+
+    @DataBoundSetter
+    public void setCacheWarmingConcurrency(Integer cacheWarmingConcurrency) {
+        this.cacheWarmingConcurrency = cacheWarmingConcurrency;
+        save();
+    }
+
+    public int getIntermediateDirectoryCacheQuotaInMegabytes() {
+        if (intermediateDirectoryCacheQuotaInMegabytes == null || intermediateDirectoryCacheQuotaInMegabytes < 0) {
+            return DEFAULT_INTERMEDIATE_DIRECTORY_CACHE_QUOTA_IN_MEGABYTES;
+        }
+        return intermediateDirectoryCacheQuotaInMegabytes;
+    }
+
+    @DataBoundSetter
+    public void setIntermediateDirectoryCacheQuotaInMegabytes(Integer intermediateDirectoryCacheQuotaInMegabytes) {
+        this.intermediateDirectoryCacheQuotaInMegabytes = intermediateDirectoryCacheQuotaInMegabytes;
+        save();
+    }
+
+    public String getIntermediateDirectoryStashPath() {
+        if (StringUtils.isBlank(intermediateDirectoryStashPath)) {
+            return null;
+        }
+        return intermediateDirectoryStashPath.trim();
+    }
+
+    @DataBoundSetter
+    public void setIntermediateDirectoryStashPath(String intermediateDirectoryStashPath) {
+        this.intermediateDirectoryStashPath = intermediateDirectoryStashPath;
         save();
     }
 
+    public int getIntermediateDirectoryStashQuotaInMegabytes() {
+        if (intermediateDirectoryStashQuotaInMegabytes == null || intermediateDirectoryStashQuotaInMegabytes < 0) {
+            return DEFAULT_INTERMEDIATE_DIRECTORY_STASH_QUOTA_IN_MEGABYTES;
+        }
+        return intermediateDirectoryStashQuotaInMegabytes;
+    }
+
+    @DataBoundSetter
+    public void setIntermediateDirectoryStashQuotaInMegabytes(Integer intermediateDirectoryStashQuotaInMegabytes) {
+        this.intermediateDirectoryStashQuotaInMegabytes = intermediateDirectoryStashQuotaInMegabytes;
+        save();
+    }
+
+    public int getBackgroundCleanUpThreads() {
+        if (backgroundCleanUpThreads == null || backgroundCleanUpThreads < 1) {
+            return DEFAULT_BACKGROUND_CLEAN_UP_THREADS;
+        }
+        return backgroundCleanUpThreads;
+    }
+
+    @DataBoundSetter
+    public void setBackgroundCleanUpThreads(Integer backgroundCleanUpThreads) {
+        this.backgroundCleanUpThreads = backgroundCleanUpThreads;
+        save();
+    }
+
+    public int getBackgroundCleanUpDeletionsPerSecond() {
+        if (backgroundCleanUpDeletionsPerSecond == null || backgroundCleanUpDeletionsPerSecond < 0) {
+            return DEFAULT_BACKGROUND_CLEAN_UP_DELETIONS_PER_SECOND;
+        }
+        return backgroundCleanUpDeletionsPerSecond;
+    }
+
+    @DataBoundSetter
+    public void setBackgroundCleanUpDeletionsPerSecond(Integer backgroundCleanUpDeletionsPerSecond) {
+        this.backgroundCleanUpDeletionsPerSecond = backgroundCleanUpDeletionsPerSecond;
+        save();
+    }
+
+    public int getAgentProbeCacheTimeInSeconds() {
+        if (agentProbeCacheTimeInSeconds == null || agentProbeCacheTimeInSeconds < 0) {
+            return DEFAULT_AGENT_PROBE_CACHE_TIME_IN_SECONDS;
+        }
+        return agentProbeCacheTimeInSeconds;
+    }
+
+    @DataBoundSetter
+    public void setAgentProbeCacheTimeInSeconds(Integer agentProbeCacheTimeInSeconds) {
+        this.agentProbeCacheTimeInSeconds = agentProbeCacheTimeInSeconds;
+        save();
+    }
+
+    /**
+     * Lets configuration pages poll for the background refresh that their fill requests started, since those requests answer from the cache immediately instead of waiting for Coverity Connect.
+     */
+    public void doCacheRefreshStatus(StaplerResponse rsp, @QueryParameter("coverityInstanceUrl") String coverityInstanceUrl, @QueryParameter("overrideDefaultCredentials") Boolean overrideDefaultCredentials,
+        @QueryParameter("credentialsId") String credentialsId) throws IOException {
+        boolean refreshing = GlobalValueHelper.getCoverityInstanceWithUrl(new SilentIntLogger(), coverityInstanceUrl)
+                                 .map(coverityConnectInstance -> ConnectionCachingFieldHelper.getCacheCredentialsId(coverityConnectInstance, overrideDefaultCredentials, credentialsId))
+                                 .map(cacheCredentialsId -> CoverityConnectDataCacheService.getInstance().isRefreshing(coverityInstanceUrl, cacheCredentialsId))
+                                 .orElse(false);
+
+        JSONObject status = new JSONObject();
+        status.put("refreshing", refreshing);
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.getWriter().print(status.toString());
+    }
+
+    public FormValidation doCheckCacheWarmingConcurrency(@QueryParameter("cacheWarmingConcurrency") String cacheWarmingConcurrency) {
+        try {
+            if (Integer.parseInt(cacheWarmingConcurrency) < 0) {
+                return FormValidation.error("The number of caches filled at the same time cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The number of caches filled at the same time must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckIntermediateDirectoryCacheQuotaInMegabytes(@QueryParameter("intermediateDirectoryCacheQuotaInMegabytes") String intermediateDirectoryCacheQuotaInMegabytes) {
+        try {
+            if (Integer.parseInt(intermediateDirectoryCacheQuotaInMegabytes) < 0) {
+                return FormValidation.error("The intermediate directory cache size cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The intermediate directory cache size must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckIntermediateDirectoryStashQuotaInMegabytes(@QueryParameter("intermediateDirectoryStashQuotaInMegabytes") String intermediateDirectoryStashQuotaInMegabytes) {
+        try {
+            if (Integer.parseInt(intermediateDirectoryStashQuotaInMegabytes) < 0) {
+                return FormValidation.error("The intermediate directory stash size cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The intermediate directory stash size must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckBackgroundCleanUpThreads(@QueryParameter("backgroundCleanUpThreads") String backgroundCleanUpThreads) {
+        try {
+            if (Integer.parseInt(backgroundCleanUpThreads) < 1) {
+                return FormValidation.error("At least one thread must clean up in the background");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The number of background clean up threads must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckBackgroundCleanUpDeletionsPerSecond(@QueryParameter("backgroundCleanUpDeletionsPerSecond") String backgroundCleanUpDeletionsPerSecond) {
+        try {
+            if (Integer.parseInt(backgroundCleanUpDeletionsPerSecond) < 0) {
+                return FormValidation.error("The background clean up rate cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The background clean up rate must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckAgentProbeCacheTimeInSeconds(@QueryParameter("agentProbeCacheTimeInSeconds") String agentProbeCacheTimeInSeconds) {
+        try {
+            if (Integer.parseInt(agentProbeCacheTimeInSeconds) < 0) {
+                return FormValidation.error("The agent installation cache time cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The agent installation cache time must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckCreationTimeoutInSeconds(@QueryParameter("creationTimeoutInSeconds") String creationTimeoutInSeconds) {
+        try {
+            if (Integer.parseInt(creationTimeoutInSeconds) < 0) {
+                return FormValidation.error("The creation timeout cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The creation timeout must be a number");
+        }
+        return FormValidation.ok();
+    }
+
+    public FormValidation doCheckChangeSetEnvironmentVariableLimit(@QueryParameter("changeSetEnvironmentVariableLimit") String changeSetEnvironmentVariableLimit) {
+        try {
+            if (Integer.parseInt(changeSetEnvironmentVariableLimit) < 0) {
+                return FormValidation.error("The change set size limit cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            return FormValidation.error("The change set size limit must be a number");
+        }
+        return FormValidation.ok();
+    }
+
 }
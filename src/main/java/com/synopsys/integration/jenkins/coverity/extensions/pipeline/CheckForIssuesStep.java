@@ -40,6 +40,7 @@ import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnec
 import com.synopsys.integration.jenkins.coverity.extensions.utils.IssueViewFieldHelper;
 import com.synopsys.integration.jenkins.coverity.extensions.utils.ProjectStreamFieldHelper;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CoverityWorkflowStepFactory;
+import com.synopsys.integration.jenkins.coverity.stepworkflow.StreamIssuesInView;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
 import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
 import com.synopsys.integration.log.Slf4jIntLogger;
@@ -72,6 +73,8 @@ public class CheckForIssuesStep extends Step implements Serializable {
     public static final String FIELD_CREDENTIALS_ID = "credentialsId";
     public static final String FIELD_RETURN_ISSUE_COUNT = "returnIssueCount";
     public static final String FIELD_MARK_UNSTABLE = "markUnstable";
+    public static final String FIELD_EXPORT_ISSUES = "exportIssues";
+    public static final String FIELD_ISSUE_PAGE_SIZE = "issuePageSize";
 
     // Any field set by a DataBoundSetter should be explicitly declared as nullable to avoid NPEs
     @Nullable
@@ -99,6 +102,15 @@ public class CheckForIssuesStep extends Step implements Serializable {
                       + "As a byproduct, this also allows the step to return the issue count. Use returnIssueCount if you want to make this behavior more explicit.")
     private Boolean markUnstable;
 
+    @Nullable
+    @HelpMarkdown("If checked, every issue in the specified Coverity view is written to coverity-issues-ID.jsonl.gz in the build directory, one JSON object per line, where ID is the id of the step in the pipeline.  \r\n"
+                      + "Issues are retrieved one page at a time, so views with a large number of issues do not need to fit in memory.")
+    private Boolean exportIssues;
+
+    @Nullable
+    @HelpMarkdown("Specify the number of issues to retrieve from Coverity connect per request when exporting issues. Defaults to 1000.")
+    private Integer issuePageSize;
+
     @DataBoundConstructor
     public CheckForIssuesStep() {
         // All fields are optional, so this constructor exists only to prevent some versions of the pipeline syntax generator from failing
@@ -176,6 +188,30 @@ public class CheckForIssuesStep extends Step implements Serializable {
         this.markUnstable = markUnstable;
     }
 
+    public Boolean getExportIssues() {
+        if (Boolean.FALSE.equals(exportIssues)) {
+            return null;
+        }
+        return exportIssues;
+    }
+
+    @DataBoundSetter
+    public void setExportIssues(Boolean exportIssues) {
+        this.exportIssues = exportIssues;
+    }
+
+    public Integer getIssuePageSize() {
+        if (issuePageSize == null || issuePageSize < 1) {
+            return null;
+        }
+        return issuePageSize;
+    }
+
+    @DataBoundSetter
+    public void setIssuePageSize(Integer issuePageSize) {
+        this.issuePageSize = issuePageSize;
+    }
+
     @Override
     public StepExecution start(StepContext context) throws Exception {
         return new Execution(context);
@@ -232,7 +268,7 @@ public class CheckForIssuesStep extends Step implements Serializable {
             @QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl,
             @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter("updateNow") boolean updateNow
-        ) throws InterruptedException {
+        ) {
             if (updateNow) {
                 projectStreamFieldHelper.updateNow(coverityInstanceUrl, StringUtils.isNotBlank(credentialsId), credentialsId);
             }
@@ -250,7 +286,7 @@ public class CheckForIssuesStep extends Step implements Serializable {
             @QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl,
             @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter("updateNow") boolean updateNow
-        ) throws InterruptedException {
+        ) {
             if (updateNow) {
                 issueViewFieldHelper.updateNow(coverityInstanceUrl, StringUtils.isNotBlank(credentialsId), credentialsId);
             }
@@ -320,6 +356,8 @@ public class CheckForIssuesStep extends Step implements Serializable {
                 resolvedViewName,
                 returnIssueCount,
                 markUnstable,
+                exportIssues,
+                Optional.ofNullable(getIssuePageSize()).orElse(StreamIssuesInView.DEFAULT_PAGE_SIZE),
                 run,
                 flowNode);
             return checkForIssuesStepWorkflow.perform();
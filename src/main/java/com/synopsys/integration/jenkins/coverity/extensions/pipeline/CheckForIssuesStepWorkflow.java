@@ -7,12 +7,15 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.pipeline;
 
+import java.io.File;
+
 import org.jenkinsci.plugins.workflow.actions.WarningAction;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 
 import com.synopsys.integration.coverity.ws.WebServiceFactory;
 import com.synopsys.integration.coverity.ws.view.ViewReportWrapper;
 import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.jenkins.coverity.actions.CoverityPerformanceAction;
 import com.synopsys.integration.jenkins.coverity.actions.IssueReportAction;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
@@ -28,6 +31,7 @@ import hudson.model.Result;
 import hudson.model.Run;
 
 public class CheckForIssuesStepWorkflow extends CoverityJenkinsStepWorkflow<Integer> {
+    public static final String ISSUES_FILE_NAME_FORMAT = "coverity-issues-%s.jsonl.gz";
     private final CoverityWorkflowStepFactory coverityWorkflowStepFactory;
     private final String coverityInstanceUrl;
     private final String credentialsId;
@@ -35,12 +39,14 @@ public class CheckForIssuesStepWorkflow extends CoverityJenkinsStepWorkflow<Inte
     private final String viewName;
     private final Boolean returnIssueCount;
     private final Boolean markUnstable;
+    private final Boolean exportIssues;
+    private final int issuePageSize;
     private final Run<?, ?> run;
     private final FlowNode flowNode;
 
     public CheckForIssuesStepWorkflow(JenkinsIntLogger jenkinsIntLogger, JenkinsVersionHelper jenkinsVersionHelper, ThrowingSupplier<WebServiceFactory, CoverityJenkinsAbortException> webServiceFactorySupplier,
-        CoverityWorkflowStepFactory coverityWorkflowStepFactory, String coverityInstanceUrl, String credentialsId, String projectName, String viewName, Boolean returnIssueCount, Boolean markUnstable, Run<?, ?> run,
-        FlowNode flowNode) {
+        CoverityWorkflowStepFactory coverityWorkflowStepFactory, String coverityInstanceUrl, String credentialsId, String projectName, String viewName, Boolean returnIssueCount, Boolean markUnstable, Boolean exportIssues,
+        int issuePageSize, Run<?, ?> run, FlowNode flowNode) {
         super(jenkinsIntLogger, jenkinsVersionHelper, webServiceFactorySupplier);
         this.coverityWorkflowStepFactory = coverityWorkflowStepFactory;
         this.coverityInstanceUrl = coverityInstanceUrl;
@@ -49,17 +55,34 @@ public class CheckForIssuesStepWorkflow extends CoverityJenkinsStepWorkflow<Inte
         this.viewName = viewName;
         this.returnIssueCount = returnIssueCount;
         this.markUnstable = markUnstable;
+        this.exportIssues = exportIssues;
+        this.issuePageSize = issuePageSize;
         this.run = run;
         this.flowNode = flowNode;
     }
 
     @Override
     protected StepWorkflow<Integer> buildWorkflow() throws AbortException {
-        return StepWorkflow.first(coverityWorkflowStepFactory.createStepGetIssuesInView(coverityInstanceUrl, credentialsId, projectName, viewName))
+        SubStep<Object, ViewReportWrapper> getIssuesInView;
+        if (Boolean.TRUE.equals(exportIssues)) {
+            File issuesFile = new File(run.getRootDir(), getIssuesFileName(flowNode.getId()));
+            getIssuesInView = coverityWorkflowStepFactory.createStepStreamIssuesInView(coverityInstanceUrl, credentialsId, projectName, viewName, issuePageSize, issuesFile);
+        } else {
+            getIssuesInView = coverityWorkflowStepFactory.createStepGetIssuesInView(coverityInstanceUrl, credentialsId, projectName, viewName);
+        }
+
+        return StepWorkflow.first(getIssuesInView)
                    .then(SubStep.ofFunction(this::getDefectCount))
                    .build();
     }
 
+    /**
+     * Named after the step's flow node, so several steps or parallel branches of one run never overwrite each other's issues.
+     */
+    public static String getIssuesFileName(String flowNodeId) {
+        return String.format(ISSUES_FILE_NAME_FORMAT, flowNodeId);
+    }
+
     @Override
     public Integer perform() throws Exception {
         return runWorkflow().getDataOrThrowException();
@@ -88,6 +111,7 @@ public class CheckForIssuesStepWorkflow extends CoverityJenkinsStepWorkflow<Inte
 
     @Override
     protected void cleanUp() throws CoverityJenkinsAbortException {
-        // Nothing to clean up
+        coverityWorkflowStepFactory.releaseWebServices();
+        CoverityPerformanceAction.addSubStepTimings(run, coverityWorkflowStepFactory.getSubStepTimings());
     }
 }
@@ -0,0 +1,92 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.LogLevel;
+import com.synopsys.integration.log.Slf4jIntLogger;
+
+/**
+ * The logger that pooled web services are created with. It logs to the logger of the build that currently borrows them, and to the Jenkins log while they are idle, so pooled web services never log to another build's
+ * console or keep a finished build's listener reachable.
+ */
+class BorrowerIntLogger extends IntLogger {
+    private static final IntLogger IDLE_LOGGER = new Slf4jIntLogger(LoggerFactory.getLogger(CoverityWebServicePool.class));
+    private volatile IntLogger borrowerLogger = IDLE_LOGGER;
+
+    void lendTo(IntLogger borrowerLogger) {
+        this.borrowerLogger = borrowerLogger;
+    }
+
+    void returnToPool() {
+        borrowerLogger = IDLE_LOGGER;
+    }
+
+    @Override
+    public void alwaysLog(String txt) {
+        borrowerLogger.alwaysLog(txt);
+    }
+
+    @Override
+    public void info(String txt) {
+        borrowerLogger.info(txt);
+    }
+
+    @Override
+    public void error(Throwable t) {
+        borrowerLogger.error(t);
+    }
+
+    @Override
+    public void error(String txt, Throwable t) {
+        borrowerLogger.error(txt, t);
+    }
+
+    @Override
+    public void error(String txt) {
+        borrowerLogger.error(txt);
+    }
+
+    @Override
+    public void warn(String txt) {
+        borrowerLogger.warn(txt);
+    }
+
+    @Override
+    public void trace(String txt) {
+        borrowerLogger.trace(txt);
+    }
+
+    @Override
+    public void trace(String txt, Throwable t) {
+        borrowerLogger.trace(txt, t);
+    }
+
+    @Override
+    public void debug(String txt) {
+        borrowerLogger.debug(txt);
+    }
+
+    @Override
+    public void debug(String txt, Throwable t) {
+        borrowerLogger.debug(txt, t);
+    }
+
+    @Override
+    public void setLogLevel(LogLevel logLevel) {
+        // The log level belongs to the borrowing build
+    }
+
+    @Override
+    public LogLevel getLogLevel() {
+        return borrowerLogger.getLogLevel();
+    }
+
+}
@@ -7,10 +7,6 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.utils;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import com.synopsys.integration.coverity.exception.CoverityIntegrationException;
@@ -18,35 +14,47 @@ import com.synopsys.integration.jenkins.coverity.GlobalValueHelper;
 import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
 import com.synopsys.integration.log.IntLogger;
 
-public abstract class ConnectionCachingFieldHelper<T extends CoverityConnectDataCache> extends FieldHelper {
-    private final ConcurrentHashMap<List<String>, T> cacheMap;
+/**
+ * Fills and checks form fields from a {@link CoverityConnectDataCache} without ever making the request thread wait on Coverity Connect: the fields get whatever is cached, and a stale or empty cache is refreshed in the
+ * background. The configuration pages poll {@link CoverityConnectDataCacheService#isRefreshing(String, String)} to fill the fields again once that refresh completes.
+ */
+public abstract class ConnectionCachingFieldHelper<T extends CoverityConnectDataCache<?>> extends FieldHelper {
+    private final Class<T> cacheType;
     private final Supplier<T> cacheConstructor;
 
-    public ConnectionCachingFieldHelper(IntLogger logger, Supplier<T> cacheConstructor) {
+    public ConnectionCachingFieldHelper(IntLogger logger, Class<T> cacheType, Supplier<T> cacheConstructor) {
         super(logger);
-        cacheMap = new ConcurrentHashMap<>();
+        this.cacheType = cacheType;
         this.cacheConstructor = cacheConstructor;
     }
 
-    public void updateNow(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) throws InterruptedException {
+    public void updateNow(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) {
         try {
             CoverityConnectInstance coverityConnectInstance = GlobalValueHelper.getCoverityInstanceWithUrlOrDie(logger, coverityConnectUrl);
-            if (Boolean.TRUE.equals(overrideDefaultCredentials)) {
-                T cache = getCache(coverityConnectUrl, credentialsId);
-                cache.refresh(coverityConnectInstance, credentialsId);
-            } else {
-                T cache = getCache(coverityConnectUrl, coverityConnectInstance.getDefaultCredentialsId());
-                cache.refresh(coverityConnectInstance, coverityConnectInstance.getDefaultCredentialsId());
-            }
+            String cacheCredentialsId = getCacheCredentialsId(coverityConnectInstance, overrideDefaultCredentials, credentialsId);
+            getCache(coverityConnectUrl, cacheCredentialsId).refreshInBackground(coverityConnectInstance, cacheCredentialsId);
         } catch (CoverityIntegrationException ignored) {
             // Handled by form validation
         }
     }
 
     protected T getCache(String coverityConnectUrl, String credentialsId) {
-        List<String> urlAndCredentialsId = Collections.unmodifiableList(Arrays.asList(coverityConnectUrl, credentialsId));
-        cacheMap.putIfAbsent(urlAndCredentialsId, cacheConstructor.get());
-        return cacheMap.get(urlAndCredentialsId);
+        return CoverityConnectDataCacheService.getInstance().getCache(cacheType, coverityConnectUrl, credentialsId, cacheConstructor);
+    }
+
+    protected T getCacheRefreshingIfStale(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) throws CoverityIntegrationException {
+        CoverityConnectInstance coverityConnectInstance = GlobalValueHelper.getCoverityInstanceWithUrlOrDie(logger, coverityConnectUrl);
+        String cacheCredentialsId = getCacheCredentialsId(coverityConnectInstance, overrideDefaultCredentials, credentialsId);
+        T cache = getCache(coverityConnectUrl, cacheCredentialsId);
+        cache.refreshInBackgroundIfStale(coverityConnectInstance, cacheCredentialsId);
+        return cache;
+    }
+
+    public static String getCacheCredentialsId(CoverityConnectInstance coverityConnectInstance, Boolean overrideDefaultCredentials, String credentialsId) {
+        if (Boolean.TRUE.equals(overrideDefaultCredentials)) {
+            return credentialsId;
+        }
+        return coverityConnectInstance.getDefaultCredentialsId();
     }
 
 }
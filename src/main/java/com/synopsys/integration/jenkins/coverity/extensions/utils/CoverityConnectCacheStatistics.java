@@ -0,0 +1,84 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.util.concurrent.TimeUnit;
+
+public class CoverityConnectCacheStatistics {
+    private final long hitCount;
+    private final long staleHitCount;
+    private final long missCount;
+    private final long refreshCount;
+    private final long failedRefreshCount;
+    private final long totalRefreshTimeInNanos;
+    private final long lastRefreshTimeInNanos;
+
+    public CoverityConnectCacheStatistics(long hitCount, long staleHitCount, long missCount, long refreshCount, long failedRefreshCount, long totalRefreshTimeInNanos, long lastRefreshTimeInNanos) {
+        this.hitCount = hitCount;
+        this.staleHitCount = staleHitCount;
+        this.missCount = missCount;
+        this.refreshCount = refreshCount;
+        this.failedRefreshCount = failedRefreshCount;
+        this.totalRefreshTimeInNanos = totalRefreshTimeInNanos;
+        this.lastRefreshTimeInNanos = lastRefreshTimeInNanos;
+    }
+
+    public static CoverityConnectCacheStatistics empty() {
+        return new CoverityConnectCacheStatistics(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public CoverityConnectCacheStatistics combine(CoverityConnectCacheStatistics other) {
+        return new CoverityConnectCacheStatistics(
+            hitCount + other.hitCount,
+            staleHitCount + other.staleHitCount,
+            missCount + other.missCount,
+            refreshCount + other.refreshCount,
+            failedRefreshCount + other.failedRefreshCount,
+            totalRefreshTimeInNanos + other.totalRefreshTimeInNanos,
+            Math.max(lastRefreshTimeInNanos, other.lastRefreshTimeInNanos)
+        );
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getStaleHitCount() {
+        return staleHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public long getFailedRefreshCount() {
+        return failedRefreshCount;
+    }
+
+    public long getLastRefreshTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRefreshTimeInNanos);
+    }
+
+    public long getAverageRefreshTimeInMillis() {
+        if (refreshCount == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalRefreshTimeInNanos / refreshCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, stale hits=%d, misses=%d, refreshes=%d, failed refreshes=%d, average refresh=%dms, last refresh=%dms",
+            hitCount, staleHitCount, missCount, refreshCount, failedRefreshCount, getAverageRefreshTimeInMillis(), getLastRefreshTimeInMillis());
+    }
+
+}
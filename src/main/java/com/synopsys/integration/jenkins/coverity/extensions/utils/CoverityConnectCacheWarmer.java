@@ -0,0 +1,96 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
+import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityGlobalConfig;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.Slf4jIntLogger;
+
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Fills the project, stream, and view caches of every configured Coverity Connect instance in the background, so the first job configuration page opened after a restart or a change to the global configuration does not wait for them.
+ * <p>
+ * Only the default credentials of each instance are warmed, and at most {@link CoverityGlobalConfig#getCacheWarmingConcurrency()} caches are filled at the same time so that a restart does not flood the Coverity Connect servers.
+ */
+public class CoverityConnectCacheWarmer {
+    private static final CoverityConnectCacheWarmer INSTANCE = new CoverityConnectCacheWarmer();
+    private final IntLogger logger;
+    // Guarded by this. Warming again (after another save, for instance) drops the warmings that have not started yet, but lets running refreshes finish, since job configuration pages may be waiting on them.
+    private final List<Future<?>> warmingFutures = new ArrayList<>();
+
+    private CoverityConnectCacheWarmer() {
+        logger = new Slf4jIntLogger(LoggerFactory.getLogger(CoverityConnectCacheWarmer.class));
+    }
+
+    public static CoverityConnectCacheWarmer getInstance() {
+        return INSTANCE;
+    }
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void warmCachesAtStartup() {
+        getInstance().warmCaches(GlobalConfiguration.all().get(CoverityGlobalConfig.class));
+    }
+
+    public synchronized void warmCaches(@Nullable CoverityGlobalConfig coverityGlobalConfig) {
+        warmingFutures.forEach(warmingFuture -> warmingFuture.cancel(false));
+        warmingFutures.clear();
+
+        if (coverityGlobalConfig == null || coverityGlobalConfig.getCacheWarmingConcurrency() == 0) {
+            return;
+        }
+        List<CoverityConnectInstance> coverityConnectInstances = coverityGlobalConfig.getCoverityConnectInstances();
+        if (coverityConnectInstances == null || coverityConnectInstances.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(coverityGlobalConfig.getCacheWarmingConcurrency(), new NamingThreadFactory(new DaemonThreadFactory(), "Synopsys Coverity cache warmer"));
+        CoverityConnectDataCacheService coverityConnectDataCacheService = CoverityConnectDataCacheService.getInstance();
+        for (CoverityConnectInstance coverityConnectInstance : coverityConnectInstances) {
+            String url = coverityConnectInstance.getUrl();
+            String credentialsId = coverityConnectInstance.getDefaultCredentialsId();
+            if (StringUtils.isAnyBlank(url, credentialsId)) {
+                continue;
+            }
+
+            ProjectStreamCache projectStreamCache = coverityConnectDataCacheService.getCache(ProjectStreamCache.class, url, credentialsId, () -> new ProjectStreamCache(logger));
+            IssueViewCache issueViewCache = coverityConnectDataCacheService.getCache(IssueViewCache.class, url, credentialsId, () -> new IssueViewCache(logger));
+            warmingFutures.add(executorService.submit(() -> warmCache(projectStreamCache, coverityConnectInstance, credentialsId)));
+            warmingFutures.add(executorService.submit(() -> warmCache(issueViewCache, coverityConnectInstance, credentialsId)));
+        }
+
+        // The threads end once every cache is warm, so the executor does not need to be kept around any longer than that
+        executorService.shutdown();
+    }
+
+    private void warmCache(CoverityConnectDataCache<?> coverityConnectDataCache, CoverityConnectInstance coverityConnectInstance, String credentialsId) {
+        try {
+            coverityConnectDataCache.refresh(coverityConnectInstance, credentialsId);
+        } catch (InterruptedException e) {
+            logger.trace("Warming of a Coverity Connect cache was interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
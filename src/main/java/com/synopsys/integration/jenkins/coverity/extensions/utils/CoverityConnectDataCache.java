@@ -8,70 +8,235 @@
 package com.synopsys.integration.jenkins.coverity.extensions.utils;
 
 import java.time.Instant;
-import java.util.concurrent.Semaphore;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang3.StringUtils;
+
+import com.codahale.metrics.Timer.Context;
 import com.synopsys.integration.coverity.config.CoverityServerConfig;
 import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
 import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.log.IntLogger;
 
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
 public abstract class CoverityConnectDataCache<T> {
     public static final int CACHE_TIME_IN_MINUTES = 5;
+    public static final int FAILED_REFRESH_RETRY_TIME_IN_SECONDS = 30;
+    public static final int BACKGROUND_REFRESH_THREADS = 4;
+    // Refreshes wait on SOAP calls for as long as Coverity Connect takes to answer, so they get their own threads rather than tie up the shared jenkins.util.Timer. Each cache queues at most one refresh at a time.
+    private static final ThreadPoolExecutor BACKGROUND_REFRESH_EXECUTOR = createBackgroundRefreshExecutor();
     protected final IntLogger logger;
-    private final Semaphore semaphore;
-    private Instant lastTimeRetrieved;
-    private T cachedData;
+    private final Object refreshLock;
+    private final AtomicLong hitCount;
+    private final AtomicLong staleHitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong refreshCount;
+    private final AtomicLong failedRefreshCount;
+    private final AtomicLong totalRefreshTimeInNanos;
+    private volatile long lastRefreshTimeInNanos;
+    private volatile Instant lastTimeRetrieved;
+    private volatile Instant lastTimeFailed;
+    private volatile String lastFailureMessage;
+    private volatile T cachedData;
+    // Guarded by refreshLock. Only one refresh per cache runs at a time, every other caller joins it.
+    private CompletableFuture<Void> inFlightRefresh;
 
     public CoverityConnectDataCache(IntLogger logger) {
         this.logger = logger;
-        this.semaphore = new Semaphore(1);
+        this.refreshLock = new Object();
+        this.hitCount = new AtomicLong();
+        this.staleHitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.refreshCount = new AtomicLong();
+        this.failedRefreshCount = new AtomicLong();
+        this.totalRefreshTimeInNanos = new AtomicLong();
         this.lastTimeRetrieved = Instant.MIN;
+        this.lastTimeFailed = Instant.MIN;
         this.cachedData = getEmptyData();
     }
 
+    /**
+     * Returns the cached data, retrieving it first if there is none yet. While a failed refresh is too recent to retry, the empty data is returned without contacting Coverity Connect; {@link #getLastFailureMessage()} tells why.
+     */
     public T getData(CoverityConnectInstance coverityConnectInstance, String credentialsId) throws InterruptedException {
-        semaphore.acquire();
-        semaphore.release();
-        refreshIfStale(coverityConnectInstance, credentialsId);
+        if (Instant.MIN.equals(lastTimeRetrieved)) {
+            // There is nothing to serve yet, so the caller has to wait for (or join) the first retrieval, unless it just failed
+            missCount.incrementAndGet();
+            if (!hasFailedRecently()) {
+                refresh(coverityConnectInstance, credentialsId);
+            }
+        } else if (isStale()) {
+            // Serve what we have and let a single background refresh catch the cache up
+            staleHitCount.incrementAndGet();
+            refreshInBackgroundIfStale(coverityConnectInstance, credentialsId);
+        } else {
+            hitCount.incrementAndGet();
+        }
         return cachedData;
     }
 
     public void refreshIfStale(CoverityConnectInstance coverityConnectInstance, String credentialsId) throws InterruptedException {
-        long cacheTimeInSeconds = TimeUnit.MINUTES.toSeconds(CACHE_TIME_IN_MINUTES);
-        if (Instant.now().minusSeconds(cacheTimeInSeconds).isAfter(lastTimeRetrieved)) {
+        if (isStale()) {
             refresh(coverityConnectInstance, credentialsId);
         }
     }
 
     public void refresh(CoverityConnectInstance coverityConnectInstance, String credentialsId) throws InterruptedException {
-        semaphore.acquire();
+        CompletableFuture<Void> refreshFuture = joinOrStartRefresh(coverityConnectInstance, credentialsId, false);
+        try {
+            refreshFuture.get();
+        } catch (ExecutionException e) {
+            // performRefresh handles its own failures, so this should not be reachable
+            logger.trace("Refresh of Coverity Connect data completed exceptionally:", e);
+        }
+    }
+
+    public void refreshInBackground(CoverityConnectInstance coverityConnectInstance, String credentialsId) {
+        joinOrStartRefresh(coverityConnectInstance, credentialsId, true);
+    }
+
+    /**
+     * Refreshes a stale cache in the background, unless the last refresh failed recently: a failing refresh is retried every {@link #FAILED_REFRESH_RETRY_TIME_IN_SECONDS} seconds at most, not on every fill and check of a form field.
+     */
+    public void refreshInBackgroundIfStale(CoverityConnectInstance coverityConnectInstance, String credentialsId) {
+        if (isStale() && !hasFailedRecently()) {
+            refreshInBackground(coverityConnectInstance, credentialsId);
+        }
+    }
+
+    public boolean isRefreshing() {
+        synchronized (refreshLock) {
+            return inFlightRefresh != null;
+        }
+    }
+
+    public boolean hasData() {
+        return !Instant.MIN.equals(lastTimeRetrieved);
+    }
+
+    public boolean isStale() {
+        long cacheTimeInSeconds = TimeUnit.MINUTES.toSeconds(CACHE_TIME_IN_MINUTES);
+        return Instant.now().minusSeconds(cacheTimeInSeconds).isAfter(lastTimeRetrieved);
+    }
+
+    /**
+     * Returns why the last refresh failed, or empty if the last refresh succeeded or there has not been one yet.
+     */
+    public Optional<String> getLastFailureMessage() {
+        return Optional.ofNullable(lastFailureMessage);
+    }
+
+    public CoverityConnectCacheStatistics getStatistics() {
+        return new CoverityConnectCacheStatistics(hitCount.get(), staleHitCount.get(), missCount.get(), refreshCount.get(), failedRefreshCount.get(), totalRefreshTimeInNanos.get(), lastRefreshTimeInNanos);
+    }
+
+    private CompletableFuture<Void> joinOrStartRefresh(CoverityConnectInstance coverityConnectInstance, String credentialsId, boolean inBackground) {
+        CompletableFuture<Void> refreshFuture;
+        boolean shouldStartRefresh = false;
+        synchronized (refreshLock) {
+            if (inFlightRefresh == null) {
+                inFlightRefresh = new CompletableFuture<>();
+                shouldStartRefresh = true;
+            }
+            refreshFuture = inFlightRefresh;
+        }
+
+        if (shouldStartRefresh) {
+            if (inBackground) {
+                BACKGROUND_REFRESH_EXECUTOR.execute(() -> performRefresh(coverityConnectInstance, credentialsId, refreshFuture));
+            } else {
+                performRefresh(coverityConnectInstance, credentialsId, refreshFuture);
+            }
+        }
+
+        return refreshFuture;
+    }
+
+    private void performRefresh(CoverityConnectInstance coverityConnectInstance, String credentialsId, CompletableFuture<Void> refreshFuture) {
         Thread thread = Thread.currentThread();
         ClassLoader threadClassLoader = thread.getContextClassLoader();
         thread.setContextClassLoader(this.getClass().getClassLoader());
+        long startTime = System.nanoTime();
 
         try {
             logger.info("Refreshing connection to Coverity Connect instance...");
 
             CoverityServerConfig coverityServerConfig = coverityConnectInstance.getCoverityServerConfig(logger, credentialsId);
             WebServiceFactory webServiceFactory = coverityServerConfig.createWebServiceFactory(logger);
-            webServiceFactory.connect();
+            try (Context ignored = CoverityMetrics.timer(CoverityMetrics.CONNECT).time()) {
+                webServiceFactory.connect();
+            }
 
             this.cachedData = getFreshData(webServiceFactory);
 
             lastTimeRetrieved = Instant.now();
+            lastFailureMessage = null;
             logger.info("Connection refreshed successfully.");
         } catch (Exception e) {
-            logger.error("[ERROR] Could not refresh connection to Coverity Connect instance. Please confirm you have a valid URL.");
+            failedRefreshCount.incrementAndGet();
+            CoverityMetrics.counter(CoverityMetrics.CACHE_REFRESH_FAILURES, getClass().getSimpleName()).inc();
+            if (e instanceof CoverityJenkinsException) {
+                // Connected, but the data could not be retrieved; the cached data and the time it was retrieved stay as they were
+                lastFailureMessage = e.getMessage();
+            } else {
+                lastFailureMessage = StringUtils.trim(String.format("Could not refresh connection to Coverity Connect instance. Please confirm you have a valid URL. %s", StringUtils.defaultString(e.getMessage())));
+            }
+            lastTimeFailed = Instant.now();
+            logger.error("[ERROR] " + lastFailureMessage);
             logger.trace("Stack trace:", e);
         } finally {
+            long refreshTimeInNanos = System.nanoTime() - startTime;
+            lastRefreshTimeInNanos = refreshTimeInNanos;
+            totalRefreshTimeInNanos.addAndGet(refreshTimeInNanos);
+            refreshCount.incrementAndGet();
+            CoverityMetrics.timer(CoverityMetrics.CACHE_REFRESH, getClass().getSimpleName()).update(refreshTimeInNanos, TimeUnit.NANOSECONDS);
+
             thread.setContextClassLoader(threadClassLoader);
-            semaphore.release();
+            synchronized (refreshLock) {
+                inFlightRefresh = null;
+            }
+            refreshFuture.complete(null);
         }
     }
 
-    protected abstract T getFreshData(WebServiceFactory webServiceFactory);
+    /**
+     * Roughly how much memory the cached data holds, in names, so the {@link CoverityConnectDataCacheService} can bound the memory all of its caches hold together.
+     */
+    public abstract long getWeight();
+
+    /**
+     * Returns whatever is cached right now, which is empty until the first refresh completes, without ever contacting Coverity Connect.
+     */
+    public T getCachedData() {
+        return cachedData;
+    }
+
+    /**
+     * Retrieves the data from Coverity Connect. A retrieval that fails has to throw rather than return partial or previous data, so that the cache keeps its data and is not marked fresh.
+     */
+    protected abstract T getFreshData(WebServiceFactory webServiceFactory) throws CoverityJenkinsException;
 
     protected abstract T getEmptyData();
 
+    private boolean hasFailedRecently() {
+        return lastFailureMessage != null && Instant.now().minusSeconds(FAILED_REFRESH_RETRY_TIME_IN_SECONDS).isBefore(lastTimeFailed);
+    }
+
+    private static ThreadPoolExecutor createBackgroundRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(BACKGROUND_REFRESH_THREADS, BACKGROUND_REFRESH_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new NamingThreadFactory(new DaemonThreadFactory(), "Synopsys Coverity Connect cache refresh"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
 }
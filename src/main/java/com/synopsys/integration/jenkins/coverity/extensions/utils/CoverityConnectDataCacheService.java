@@ -0,0 +1,141 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
+
+/**
+ * Holds the Coverity Connect data caches for the whole controller, so every descriptor that looks up projects, streams, or views for the same Coverity Connect url and credentials shares a single cache.
+ * <p>
+ * Every url and credentials id a user types gets a cache, so the caches are bounded: a cache nobody asked for in {@link #MAXIMUM_IDLE_TIME_IN_HOURS} hours is dropped, and when there are more than
+ * {@link #MAXIMUM_CACHE_COUNT} caches or they hold more than {@link #MAXIMUM_TOTAL_WEIGHT} names together, the least recently used caches are dropped until they fit again.
+ */
+public class CoverityConnectDataCacheService {
+    public static final int MAXIMUM_CACHE_COUNT = 100;
+    public static final long MAXIMUM_TOTAL_WEIGHT = 1_000_000L;
+    public static final int MAXIMUM_IDLE_TIME_IN_HOURS = 24;
+    private static final CoverityConnectDataCacheService INSTANCE = new CoverityConnectDataCacheService(MAXIMUM_CACHE_COUNT, MAXIMUM_TOTAL_WEIGHT, TimeUnit.HOURS.toNanos(MAXIMUM_IDLE_TIME_IN_HOURS), System::nanoTime);
+    private final ConcurrentHashMap<List<String>, CacheEntry> cacheMap;
+    private final int maximumCacheCount;
+    private final long maximumTotalWeight;
+    private final long maximumIdleTimeInNanos;
+    private final LongSupplier nanoTimeSupplier;
+    private final Object evictionLock;
+
+    CoverityConnectDataCacheService(int maximumCacheCount, long maximumTotalWeight, long maximumIdleTimeInNanos, LongSupplier nanoTimeSupplier) {
+        this.cacheMap = new ConcurrentHashMap<>();
+        this.maximumCacheCount = maximumCacheCount;
+        this.maximumTotalWeight = maximumTotalWeight;
+        this.maximumIdleTimeInNanos = maximumIdleTimeInNanos;
+        this.nanoTimeSupplier = nanoTimeSupplier;
+        this.evictionLock = new Object();
+    }
+
+    public static CoverityConnectDataCacheService getInstance() {
+        return INSTANCE;
+    }
+
+    public <T extends CoverityConnectDataCache<?>> T getCache(Class<T> cacheType, String coverityConnectUrl, String credentialsId, Supplier<T> cacheConstructor) {
+        List<String> cacheTypeUrlAndCredentialsId = Collections.unmodifiableList(Arrays.asList(cacheType.getName(), coverityConnectUrl, credentialsId));
+        // The cache is only constructed when there is no entry yet
+        CacheEntry cacheEntry = cacheMap.computeIfAbsent(cacheTypeUrlAndCredentialsId, ignored -> new CacheEntry(cacheConstructor.get()));
+        cacheEntry.lastAccessTimeInNanos = nanoTimeSupplier.getAsLong();
+        evict(cacheTypeUrlAndCredentialsId);
+        return cacheType.cast(cacheEntry.cache);
+    }
+
+    /**
+     * Whether any cache for the Coverity Connect url and credentials is refreshing. Never creates a cache.
+     */
+    public boolean isRefreshing(String coverityConnectUrl, String credentialsId) {
+        return cacheMap.entrySet().stream()
+                   .filter(mapEntry -> Objects.equals(coverityConnectUrl, mapEntry.getKey().get(1)) && Objects.equals(credentialsId, mapEntry.getKey().get(2)))
+                   .anyMatch(mapEntry -> mapEntry.getValue().cache.isRefreshing());
+    }
+
+    public int getCacheCount() {
+        return cacheMap.size();
+    }
+
+    public long getTotalWeight() {
+        return cacheMap.values().stream()
+                   .mapToLong(cacheEntry -> cacheEntry.cache.getWeight())
+                   .sum();
+    }
+
+    public CoverityConnectCacheStatistics getStatistics() {
+        return cacheMap.values().stream()
+                   .map(cacheEntry -> cacheEntry.cache.getStatistics())
+                   .reduce(CoverityConnectCacheStatistics.empty(), CoverityConnectCacheStatistics::combine);
+    }
+
+    private void evict(List<String> requestedKey) {
+        synchronized (evictionLock) {
+            long now = nanoTimeSupplier.getAsLong();
+            long totalWeight = 0;
+            List<Map.Entry<List<String>, CacheEntry>> evictionCandidates = new ArrayList<>();
+
+            for (Map.Entry<List<String>, CacheEntry> mapEntry : cacheMap.entrySet()) {
+                CacheEntry cacheEntry = mapEntry.getValue();
+                if (mapEntry.getKey().equals(requestedKey)) {
+                    // The cache the caller asked for stays, even if it does not fit by itself
+                    totalWeight += cacheEntry.cache.getWeight();
+                } else if (now - cacheEntry.lastAccessTimeInNanos > maximumIdleTimeInNanos) {
+                    remove(mapEntry);
+                } else {
+                    totalWeight += cacheEntry.cache.getWeight();
+                    evictionCandidates.add(mapEntry);
+                }
+            }
+
+            if (cacheMap.size() <= maximumCacheCount && totalWeight <= maximumTotalWeight) {
+                return;
+            }
+
+            evictionCandidates.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().lastAccessTimeInNanos));
+            for (Map.Entry<List<String>, CacheEntry> mapEntry : evictionCandidates) {
+                if (cacheMap.size() <= maximumCacheCount && totalWeight <= maximumTotalWeight) {
+                    break;
+                }
+                if (remove(mapEntry)) {
+                    totalWeight -= mapEntry.getValue().cache.getWeight();
+                }
+            }
+        }
+    }
+
+    private boolean remove(Map.Entry<List<String>, CacheEntry> mapEntry) {
+        boolean removed = cacheMap.remove(mapEntry.getKey(), mapEntry.getValue());
+        if (removed) {
+            CoverityMetrics.counter(CoverityMetrics.CACHE_EVICTIONS).inc();
+        }
+        return removed;
+    }
+
+    private static class CacheEntry {
+        private final CoverityConnectDataCache<?> cache;
+        private volatile long lastAccessTimeInNanos;
+
+        private CacheEntry(CoverityConnectDataCache<?> cache) {
+            this.cache = cache;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+import com.synopsys.integration.log.IntLogger;
+
+import hudson.Util;
+
+/**
+ * Holds the connected Coverity Connect web services for the whole controller, so builds against the same Coverity Connect url and credentials do not each fetch the WSDLs and connect again.
+ * <p>
+ * Borrowed web services are only used by one build at a time and are returned to the pool when that build is done with them. While borrowed they log to the borrowing build's logger. Web services left idle for longer than
+ * {@link #IDLE_TIME_IN_MINUTES} minutes are discarded.
+ */
+public class CoverityWebServicePool {
+    public static final int IDLE_TIME_IN_MINUTES = 5;
+    public static final int MAXIMUM_IDLE_WEB_SERVICES_PER_KEY = 4;
+    private static final CoverityWebServicePool INSTANCE = new CoverityWebServicePool();
+    private final ConcurrentHashMap<List<String>, Deque<CoverityWebServices>> idleWebServicesMap;
+    private final long idleTimeInMillis;
+
+    private CoverityWebServicePool() {
+        idleWebServicesMap = new ConcurrentHashMap<>();
+        idleTimeInMillis = TimeUnit.MINUTES.toMillis(IDLE_TIME_IN_MINUTES);
+    }
+
+    public static CoverityWebServicePool getInstance() {
+        return INSTANCE;
+    }
+
+    public static List<String> createPoolKey(String coverityConnectUrl, String credentialsId, String username, String passphrase, String authenticationKeyFileContents) {
+        // The credentials themselves are part of the key so that updating them in Jenkins, including replacing an authentication key file, takes effect immediately, but only a digest of them is kept
+        return Collections.unmodifiableList(Arrays.asList(coverityConnectUrl, credentialsId, Util.getDigestOf(username + ':' + passphrase + ':' + authenticationKeyFileContents)));
+    }
+
+    public CoverityWebServices borrow(List<String> poolKey, IntLogger borrowerLogger, WebServiceFactoryConnector webServiceFactoryConnector) throws CoverityJenkinsAbortException {
+        CoverityWebServices coverityWebServices = pollIdleWebServices(poolKey);
+        if (coverityWebServices == null) {
+            BorrowerIntLogger borrowerIntLogger = new BorrowerIntLogger();
+            coverityWebServices = new CoverityWebServices(poolKey, borrowerIntLogger, webServiceFactoryConnector.connect(borrowerIntLogger));
+        }
+
+        coverityWebServices.lendTo(borrowerLogger);
+        return coverityWebServices;
+    }
+
+    public void release(CoverityWebServices coverityWebServices) {
+        long currentTimeInMillis = System.currentTimeMillis();
+        Deque<CoverityWebServices> idleWebServices = idleWebServicesMap.computeIfAbsent(coverityWebServices.getPoolKey(), ignored -> new ArrayDeque<>());
+        synchronized (idleWebServices) {
+            coverityWebServices.markIdle(currentTimeInMillis);
+            idleWebServices.offerFirst(coverityWebServices);
+            while (idleWebServices.size() > MAXIMUM_IDLE_WEB_SERVICES_PER_KEY || (!idleWebServices.isEmpty() && idleWebServices.peekLast().isExpired(currentTimeInMillis, idleTimeInMillis))) {
+                idleWebServices.pollLast();
+            }
+        }
+    }
+
+    public void clear() {
+        idleWebServicesMap.clear();
+    }
+
+    private CoverityWebServices pollIdleWebServices(List<String> poolKey) {
+        Deque<CoverityWebServices> idleWebServices = idleWebServicesMap.get(poolKey);
+        if (idleWebServices == null) {
+            return null;
+        }
+
+        long currentTimeInMillis = System.currentTimeMillis();
+        synchronized (idleWebServices) {
+            // The most recently returned web services are at the head, so once one has expired every one after it has as well
+            CoverityWebServices coverityWebServices = idleWebServices.pollFirst();
+            if (coverityWebServices != null && !coverityWebServices.isExpired(currentTimeInMillis, idleTimeInMillis)) {
+                return coverityWebServices;
+            }
+            idleWebServices.clear();
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface WebServiceFactoryConnector {
+        /**
+         * Creates and connects a web service factory that logs to the given logger.
+         */
+        WebServiceFactory connect(IntLogger logger) throws CoverityJenkinsAbortException;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.net.MalformedURLException;
+import java.util.List;
+
+import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
+import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.coverity.ws.view.ViewService;
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * A connected {@link WebServiceFactory} and the service wrappers created from it, so that each WSDL is only fetched once for as long as the connection is pooled.
+ */
+public class CoverityWebServices {
+    private final List<String> poolKey;
+    private final BorrowerIntLogger borrowerIntLogger;
+    private final WebServiceFactory webServiceFactory;
+    private ConfigurationServiceWrapper configurationServiceWrapper;
+    private ViewService viewService;
+    private volatile long idleSinceInMillis;
+
+    CoverityWebServices(List<String> poolKey, BorrowerIntLogger borrowerIntLogger, WebServiceFactory webServiceFactory) {
+        this.poolKey = poolKey;
+        this.borrowerIntLogger = borrowerIntLogger;
+        this.webServiceFactory = webServiceFactory;
+    }
+
+    public WebServiceFactory getWebServiceFactory() {
+        return webServiceFactory;
+    }
+
+    public synchronized ConfigurationServiceWrapper getOrCreateConfigurationServiceWrapper() throws MalformedURLException {
+        if (configurationServiceWrapper == null) {
+            configurationServiceWrapper = webServiceFactory.createConfigurationServiceWrapper();
+        }
+        return configurationServiceWrapper;
+    }
+
+    public synchronized ViewService getOrCreateViewService() {
+        if (viewService == null) {
+            viewService = webServiceFactory.createViewService();
+        }
+        return viewService;
+    }
+
+    List<String> getPoolKey() {
+        return poolKey;
+    }
+
+    void lendTo(IntLogger borrowerLogger) {
+        borrowerIntLogger.lendTo(borrowerLogger);
+    }
+
+    void markIdle(long currentTimeInMillis) {
+        borrowerIntLogger.returnToPool();
+        idleSinceInMillis = currentTimeInMillis;
+    }
+
+    boolean isExpired(long currentTimeInMillis, long idleTimeInMillis) {
+        return currentTimeInMillis - idleSinceInMillis > idleTimeInMillis;
+    }
+
+}
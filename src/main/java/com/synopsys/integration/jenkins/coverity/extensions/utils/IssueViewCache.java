@@ -18,6 +18,7 @@ import com.synopsys.integration.coverity.api.rest.ViewType;
 import com.synopsys.integration.coverity.ws.WebServiceFactory;
 import com.synopsys.integration.coverity.ws.view.ViewService;
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
 import com.synopsys.integration.log.IntLogger;
 
 public class IssueViewCache extends CoverityConnectDataCache<List<String>> {
@@ -26,8 +27,13 @@ public class IssueViewCache extends CoverityConnectDataCache<List<String>> {
     }
 
     @Override
-    protected List<String> getFreshData(WebServiceFactory webServiceFactory) {
-        List<String> data = Collections.emptyList();
+    public long getWeight() {
+        return 1L + getCachedData().size();
+    }
+
+    @Override
+    protected List<String> getFreshData(WebServiceFactory webServiceFactory) throws CoverityJenkinsException {
+        List<String> data;
 
         try {
             logger.info("Attempting retrieval of Coverity Views.");
@@ -39,8 +45,7 @@ public class IssueViewCache extends CoverityConnectDataCache<List<String>> {
                        .collect(Collectors.toList());
             logger.info("Completed retrieval of Coverity Views.");
         } catch (IOException | IntegrationException e) {
-            logger.error(e.getMessage());
-            logger.trace("Stack trace:", e);
+            throw new CoverityJenkinsException("Could not retrieve Coverity Views: " + e.getMessage(), e);
         }
 
         return data;
@@ -13,18 +13,16 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 
 import com.synopsys.integration.coverity.exception.CoverityIntegrationException;
-import com.synopsys.integration.jenkins.coverity.GlobalValueHelper;
-import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
 import com.synopsys.integration.log.IntLogger;
 
 import hudson.util.ListBoxModel;
 
 public class IssueViewFieldHelper extends ConnectionCachingFieldHelper<IssueViewCache> {
     public IssueViewFieldHelper(IntLogger logger) {
-        super(logger, () -> new IssueViewCache(logger));
+        super(logger, IssueViewCache.class, () -> new IssueViewCache(logger));
     }
 
-    public ListBoxModel getViewNamesForListBox(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) throws InterruptedException {
+    public ListBoxModel getViewNamesForListBox(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) {
         try {
             return getViews(coverityConnectUrl, overrideDefaultCredentials, credentialsId).stream()
                        .filter(StringUtils::isNotBlank)
@@ -36,15 +34,8 @@ public class IssueViewFieldHelper extends ConnectionCachingFieldHelper<IssueView
         }
     }
 
-    private List<String> getViews(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) throws CoverityIntegrationException, InterruptedException {
-        CoverityConnectInstance coverityConnectInstance = GlobalValueHelper.getCoverityInstanceWithUrlOrDie(logger, coverityConnectUrl);
-        if (Boolean.TRUE.equals(overrideDefaultCredentials)) {
-            IssueViewCache issueViewCache = getCache(coverityConnectUrl, credentialsId);
-            return issueViewCache.getData(coverityConnectInstance, credentialsId);
-        } else {
-            IssueViewCache issueViewCache = getCache(coverityConnectUrl, coverityConnectInstance.getDefaultCredentialsId());
-            return issueViewCache.getData(coverityConnectInstance, coverityConnectInstance.getDefaultCredentialsId());
-        }
+    private List<String> getViews(String coverityConnectUrl, Boolean overrideDefaultCredentials, String credentialsId) throws CoverityIntegrationException {
+        return getCacheRefreshingIfStale(coverityConnectUrl, overrideDefaultCredentials, credentialsId).getCachedData();
     }
 
 }
@@ -8,39 +8,184 @@
 package com.synopsys.integration.jenkins.coverity.extensions.utils;
 
 import java.net.MalformedURLException;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import com.synopsys.integration.coverity.api.ws.configuration.ConfigurationService;
 import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceException_Exception;
 import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
 import com.synopsys.integration.coverity.api.ws.configuration.ProjectFilterSpecDataObj;
 import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
 import com.synopsys.integration.log.IntLogger;
 
-public class ProjectStreamCache extends CoverityConnectDataCache<List<ProjectDataObj>> {
+/**
+ * Caches the names of the projects and streams of a Coverity Connect instance as a {@link ProjectStreamCatalog}.
+ * <p>
+ * The configuration service cannot filter projects by date modified, so a refresh first retrieves every project without its streams, and then only retrieves the streams of the projects modified since the last refresh. Every
+ * {@link #FULL_REFRESH_INTERVAL}th refresh, or when more than {@link #MAXIMUM_CHANGED_PROJECTS} projects changed, every project is retrieved with its streams instead, which also catches changes to streams that did not modify their project.
+ */
+public class ProjectStreamCache extends CoverityConnectDataCache<ProjectStreamCatalog> {
+    public static final int MISSING_NAME_TIME_IN_SECONDS = 30;
+    public static final int FULL_REFRESH_INTERVAL = 12;
+    public static final int MAXIMUM_CHANGED_PROJECTS = 100;
+    // Projects and streams that builds found or created since the last refresh, mapped to when they were published
+    private final ConcurrentHashMap<String, Long> publishedProjectNames;
+    private final ConcurrentHashMap<String, Long> publishedStreamNames;
+    // Names that builds recently confirmed do not exist, mapped to when they were published
+    private final ConcurrentHashMap<String, Long> missingProjectNames;
+    private final ConcurrentHashMap<String, Long> missingStreamNames;
+    // Only read and written by getFreshData, which never runs for the same cache twice at the same time
+    private int refreshesSinceFullRefresh;
+
     public ProjectStreamCache(IntLogger logger) {
         super(logger);
+        this.publishedProjectNames = new ConcurrentHashMap<>();
+        this.publishedStreamNames = new ConcurrentHashMap<>();
+        this.missingProjectNames = new ConcurrentHashMap<>();
+        this.missingStreamNames = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Looks up a project in the cached data without contacting Coverity Connect. A false result does not mean the project does not exist, only that it has not been seen yet.
+     */
+    public boolean isProjectCached(String projectName) {
+        return publishedProjectNames.containsKey(projectName) || (getCachedData().containsProject(projectName) && !isProjectKnownToBeMissing(projectName));
+    }
+
+    /**
+     * Looks up a stream in the cached data without contacting Coverity Connect. A false result does not mean the stream does not exist, only that it has not been seen yet.
+     */
+    public boolean isStreamCached(String streamName) {
+        return publishedStreamNames.containsKey(streamName) || (getCachedData().containsStream(streamName) && !isStreamKnownToBeMissing(streamName));
+    }
+
+    public boolean isProjectKnownToBeMissing(String projectName) {
+        return isKnownToBeMissing(missingProjectNames, projectName);
+    }
+
+    public boolean isStreamKnownToBeMissing(String streamName) {
+        return isKnownToBeMissing(missingStreamNames, streamName);
+    }
+
+    public void publishProject(String projectName) {
+        missingProjectNames.remove(projectName);
+        publishedProjectNames.put(projectName, System.nanoTime());
+    }
+
+    public void publishStream(String streamName) {
+        missingStreamNames.remove(streamName);
+        publishedStreamNames.put(streamName, System.nanoTime());
+    }
+
+    public void publishMissingProject(String projectName) {
+        publishedProjectNames.remove(projectName);
+        missingProjectNames.put(projectName, System.nanoTime());
+    }
+
+    public void publishMissingStream(String streamName) {
+        publishedStreamNames.remove(streamName);
+        missingStreamNames.put(streamName, System.nanoTime());
+    }
+
+    @Override
+    public long getWeight() {
+        ProjectStreamCatalog projectStreamCatalog = getCachedData();
+        return 1L + projectStreamCatalog.getProjectCount() + projectStreamCatalog.getStreamCount() + publishedProjectNames.size() + publishedStreamNames.size();
     }
 
     @Override
-    protected List<ProjectDataObj> getFreshData(WebServiceFactory webServiceFactory) {
-        List<ProjectDataObj> projects = Collections.emptyList();
+    protected ProjectStreamCatalog getFreshData(WebServiceFactory webServiceFactory) throws CoverityJenkinsException {
+        long retrievalStartTime = System.nanoTime();
+        ProjectStreamCatalog previousCatalog = getCachedData();
+        ProjectStreamCatalog freshCatalog;
         try {
-            logger.info("Attempting retrieval of Coverity Projects.");
             ConfigurationService configurationService = webServiceFactory.createConfigurationService();
-            ProjectFilterSpecDataObj projectFilterSpecDataObj = new ProjectFilterSpecDataObj();
-            projects = configurationService.getProjects(projectFilterSpecDataObj);
-            logger.info("Completed retrieval of Coverity Projects.");
+            Optional<ProjectStreamCatalog> changedCatalog = Optional.empty();
+            if (!previousCatalog.isEmpty() && refreshesSinceFullRefresh + 1 < FULL_REFRESH_INTERVAL) {
+                changedCatalog = retrieveChangedProjects(configurationService, previousCatalog);
+            }
+            freshCatalog = changedCatalog.isPresent() ? changedCatalog.get() : retrieveAllProjects(configurationService);
         } catch (MalformedURLException | CovRemoteServiceException_Exception e) {
-            logger.error(e.getMessage());
-            logger.trace("Stack trace:", e);
+            // The cache keeps serving what it had until a refresh succeeds; the next refresh starts over with every project
+            refreshesSinceFullRefresh = FULL_REFRESH_INTERVAL;
+            throw new CoverityJenkinsException("Could not retrieve Coverity Projects: " + e.getMessage(), e);
         }
-        return projects;
+
+        // The fresh data reflects Coverity Connect as of when the retrieval started, so only what builds published since then is still newer than it
+        removePublishedBefore(publishedProjectNames, retrievalStartTime);
+        removePublishedBefore(publishedStreamNames, retrievalStartTime);
+        removePublishedBefore(missingProjectNames, retrievalStartTime);
+        removePublishedBefore(missingStreamNames, retrievalStartTime);
+        return freshCatalog;
     }
 
     @Override
-    protected List<ProjectDataObj> getEmptyData() {
-        return Collections.emptyList();
+    protected ProjectStreamCatalog getEmptyData() {
+        return ProjectStreamCatalog.empty();
+    }
+
+    private ProjectStreamCatalog retrieveAllProjects(ConfigurationService configurationService) throws CovRemoteServiceException_Exception {
+        logger.info("Attempting retrieval of Coverity Projects.");
+        ProjectFilterSpecDataObj projectFilterSpecDataObj = new ProjectFilterSpecDataObj();
+        ProjectStreamCatalog projectStreamCatalog = ProjectStreamCatalog.fromProjects(configurationService.getProjects(projectFilterSpecDataObj));
+        refreshesSinceFullRefresh = 0;
+        logger.info("Completed retrieval of Coverity Projects.");
+        return projectStreamCatalog;
     }
+
+    private Optional<ProjectStreamCatalog> retrieveChangedProjects(ConfigurationService configurationService, ProjectStreamCatalog previousCatalog) throws CovRemoteServiceException_Exception {
+        logger.info("Attempting retrieval of changed Coverity Projects.");
+        ProjectFilterSpecDataObj withoutStreams = new ProjectFilterSpecDataObj();
+        withoutStreams.setIncludeStreams(false);
+        List<ProjectDataObj> currentProjects = configurationService.getProjects(withoutStreams);
+
+        List<String> changedProjectNames = currentProjects.stream()
+                                               .filter(previousCatalog::isChanged)
+                                               .map(ProjectStreamCatalog::getProjectName)
+                                               .filter(Objects::nonNull)
+                                               .collect(Collectors.toList());
+        if (changedProjectNames.size() > MAXIMUM_CHANGED_PROJECTS) {
+            logger.info(String.format("%d Coverity Projects changed, retrieving all of them instead.", changedProjectNames.size()));
+            return Optional.empty();
+        }
+
+        List<ProjectDataObj> changedProjects = new ArrayList<>();
+        for (String changedProjectName : changedProjectNames) {
+            ProjectFilterSpecDataObj withStreams = new ProjectFilterSpecDataObj();
+            withStreams.setNamePattern(changedProjectName);
+            withStreams.setIncludeStreams(true);
+            // Name patterns can match more than the exact name, so only the exact match is kept
+            configurationService.getProjects(withStreams).stream()
+                .filter(project -> changedProjectName.equals(ProjectStreamCatalog.getProjectName(project)))
+                .findFirst()
+                .ifPresent(changedProjects::add);
+        }
+
+        refreshesSinceFullRefresh++;
+        logger.info(String.format("Completed retrieval of %d changed Coverity Projects.", changedProjects.size()));
+        return Optional.of(previousCatalog.withChanges(currentProjects, changedProjects));
+    }
+
+    private boolean isKnownToBeMissing(ConcurrentHashMap<String, Long> missingNames, String name) {
+        Long publishedTime = missingNames.get(name);
+        if (publishedTime == null) {
+            return false;
+        }
+        if (System.nanoTime() - publishedTime > TimeUnit.SECONDS.toNanos(MISSING_NAME_TIME_IN_SECONDS)) {
+            missingNames.remove(name, publishedTime);
+            return false;
+        }
+        return true;
+    }
+
+    private void removePublishedBefore(ConcurrentHashMap<String, Long> publishedNames, long time) {
+        publishedNames.values().removeIf(publishedTime -> publishedTime - time < 0);
+    }
+
 }
@@ -0,0 +1,223 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.StreamDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.StreamIdDataObj;
+
+/**
+ * The names of the projects and streams of a Coverity Connect instance, and when each project was last modified. It replaces the full {@link ProjectDataObj} graphs, which are dropped as soon as they are cataloged, and it is never
+ * modified: a refresh builds a new catalog that shares the entries of unchanged projects with the previous one.
+ * <p>
+ * Exact lookups of projects and streams are hashed, and the project names are also kept sorted without regard to case so that names starting with a prefix can be found without scanning the whole catalog.
+ */
+public class ProjectStreamCatalog {
+    public static final long UNKNOWN_DATE_MODIFIED = Long.MIN_VALUE;
+    private static final ProjectStreamCatalog EMPTY = new ProjectStreamCatalog(Collections.emptyMap());
+
+    private final Map<String, CatalogedProject> projectsByName;
+    private final Map<String, String> projectNamesByStreamName;
+    private final String[] sortedProjectNames;
+
+    private ProjectStreamCatalog(Map<String, CatalogedProject> projectsByName) {
+        this.projectsByName = projectsByName;
+        this.projectNamesByStreamName = new HashMap<>();
+        projectsByName.forEach((projectName, catalogedProject) -> {
+            for (String streamName : catalogedProject.streamNames) {
+                projectNamesByStreamName.put(streamName, projectName);
+            }
+        });
+        this.sortedProjectNames = projectsByName.keySet().toArray(new String[0]);
+        Arrays.sort(sortedProjectNames, String.CASE_INSENSITIVE_ORDER);
+    }
+
+    public static ProjectStreamCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Catalogs projects retrieved with their streams.
+     */
+    public static ProjectStreamCatalog fromProjects(List<ProjectDataObj> projects) {
+        Map<String, CatalogedProject> projectsByName = new LinkedHashMap<>();
+        for (ProjectDataObj project : projects) {
+            String projectName = getProjectName(project);
+            if (projectName != null) {
+                projectsByName.put(projectName, CatalogedProject.fromProject(project));
+            }
+        }
+        return new ProjectStreamCatalog(projectsByName);
+    }
+
+    /**
+     * Catalogs the current projects, retrieved without their streams, reusing the streams of the projects this catalog already holds. The projects that changed since this catalog was built must be given again with their streams.
+     */
+    public ProjectStreamCatalog withChanges(List<ProjectDataObj> currentProjects, List<ProjectDataObj> changedProjects) {
+        Map<String, CatalogedProject> changedProjectsByName = new HashMap<>();
+        for (ProjectDataObj changedProject : changedProjects) {
+            String projectName = getProjectName(changedProject);
+            if (projectName != null) {
+                changedProjectsByName.put(projectName, CatalogedProject.fromProject(changedProject));
+            }
+        }
+
+        // Projects missing from the current projects were deleted, so they are left out
+        Map<String, CatalogedProject> projectsByName = new LinkedHashMap<>();
+        for (ProjectDataObj currentProject : currentProjects) {
+            String projectName = getProjectName(currentProject);
+            if (projectName == null) {
+                continue;
+            }
+            CatalogedProject catalogedProject = changedProjectsByName.getOrDefault(projectName, this.projectsByName.get(projectName));
+            if (catalogedProject != null) {
+                projectsByName.put(projectName, catalogedProject);
+            }
+        }
+        return new ProjectStreamCatalog(projectsByName);
+    }
+
+    public static String getProjectName(ProjectDataObj project) {
+        if (project == null || project.getId() == null) {
+            return null;
+        }
+        return project.getId().getName();
+    }
+
+    public static long getDateModified(ProjectDataObj project) {
+        XMLGregorianCalendar dateModified = project.getDateModified();
+        if (dateModified == null) {
+            return UNKNOWN_DATE_MODIFIED;
+        }
+        return dateModified.toGregorianCalendar().getTimeInMillis();
+    }
+
+    public boolean isEmpty() {
+        return projectsByName.isEmpty();
+    }
+
+    public int getProjectCount() {
+        return projectsByName.size();
+    }
+
+    public int getStreamCount() {
+        return projectNamesByStreamName.size();
+    }
+
+    public List<String> getProjectNames() {
+        return new ArrayList<>(projectsByName.keySet());
+    }
+
+    public List<String> getStreamNames(String projectName) {
+        CatalogedProject catalogedProject = projectsByName.get(projectName);
+        if (catalogedProject == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(catalogedProject.streamNames));
+    }
+
+    public boolean containsProject(String projectName) {
+        return projectsByName.containsKey(projectName);
+    }
+
+    public boolean containsStream(String streamName) {
+        return projectNamesByStreamName.containsKey(streamName);
+    }
+
+    public boolean containsStream(String projectName, String streamName) {
+        return projectName != null && projectName.equals(projectNamesByStreamName.get(streamName));
+    }
+
+    /**
+     * Finds up to maximumMatches project names that start with the prefix, ignoring case, in alphabetical order.
+     */
+    public List<String> findProjectNames(String prefix, int maximumMatches) {
+        List<String> matchingProjectNames = new ArrayList<>();
+        // Names that start with the prefix sort right after it, so the matches are the names from its insertion point on
+        int index = Arrays.binarySearch(sortedProjectNames, prefix, String.CASE_INSENSITIVE_ORDER);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (index > 0 && String.CASE_INSENSITIVE_ORDER.compare(sortedProjectNames[index - 1], prefix) == 0) {
+            index--;
+        }
+        for (; index < sortedProjectNames.length && matchingProjectNames.size() < maximumMatches && startsWithIgnoreCase(sortedProjectNames[index], prefix); index++) {
+            matchingProjectNames.add(sortedProjectNames[index]);
+        }
+        return matchingProjectNames;
+    }
+
+    /**
+     * Finds up to maximumMatches stream names of the project that start with the prefix, ignoring case, in the order Coverity Connect returned them.
+     */
+    public List<String> findStreamNames(String projectName, String prefix, int maximumMatches) {
+        CatalogedProject catalogedProject = projectsByName.get(projectName);
+        if (catalogedProject == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> matchingStreamNames = new ArrayList<>();
+        for (String streamName : catalogedProject.streamNames) {
+            if (matchingStreamNames.size() >= maximumMatches) {
+                break;
+            }
+            if (startsWithIgnoreCase(streamName, prefix)) {
+                matchingStreamNames.add(streamName);
+            }
+        }
+        return matchingStreamNames;
+    }
+
+    /**
+     * Whether a project retrieved without its streams was modified since it was cataloged, or was not cataloged at all.
+     */
+    public boolean isChanged(ProjectDataObj currentProject) {
+        CatalogedProject catalogedProject = projectsByName.get(getProjectName(currentProject));
+        return catalogedProject == null || catalogedProject.dateModified != getDateModified(currentProject);
+    }
+
+    private static boolean startsWithIgnoreCase(String name, String prefix) {
+        return name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static class CatalogedProject {
+        private static final String[] NO_STREAM_NAMES = new String[0];
+
+        private final long dateModified;
+        private final String[] streamNames;
+
+        private CatalogedProject(long dateModified, String[] streamNames) {
+            this.dateModified = dateModified;
+            this.streamNames = streamNames;
+        }
+
+        private static CatalogedProject fromProject(ProjectDataObj project) {
+            List<StreamDataObj> streams = project.getStreams();
+            String[] streamNames = streams == null ? NO_STREAM_NAMES : streams.stream()
+                                                                          .filter(Objects::nonNull)
+                                                                          .map(StreamDataObj::getId)
+                                                                          .filter(Objects::nonNull)
+                                                                          .map(StreamIdDataObj::getName)
+                                                                          .filter(Objects::nonNull)
+                                                                          .toArray(String[]::new);
+            return new CatalogedProject(getDateModified(project), streamNames);
+        }
+    }
+
+}
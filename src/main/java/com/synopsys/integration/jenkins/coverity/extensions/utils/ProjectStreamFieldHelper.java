@@ -8,7 +8,6 @@
 package com.synopsys.integration.jenkins.coverity.extensions.utils;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -16,11 +15,7 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
-import com.synopsys.integration.coverity.api.ws.configuration.StreamDataObj;
 import com.synopsys.integration.coverity.exception.CoverityIntegrationException;
-import com.synopsys.integration.jenkins.coverity.GlobalValueHelper;
-import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
 import com.synopsys.integration.log.IntLogger;
 
 import hudson.util.ComboBoxModel;
@@ -28,22 +23,24 @@ import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 
 public class ProjectStreamFieldHelper extends ConnectionCachingFieldHelper<ProjectStreamCache> {
+    public static final int MAXIMUM_SUGGESTIONS = 5;
+    public static final String RETRIEVING_MESSAGE = "Coverity projects and streams are still being retrieved from Coverity Connect.";
+
     public ProjectStreamFieldHelper(IntLogger logger) {
-        super(logger, () -> new ProjectStreamCache(logger));
+        super(logger, ProjectStreamCache.class, () -> new ProjectStreamCache(logger));
     }
 
-    public ComboBoxModel getProjectNamesForComboBox(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) throws InterruptedException {
+    public ComboBoxModel getProjectNamesForComboBox(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) {
         return doFillProjectNameItems(ComboBoxModel::new, Function.identity(), coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId);
     }
 
-    public ListBoxModel getProjectNamesForListBox(String coverityConnectUrl, Boolean overrideDefaultCredentialsId, String credentialsId) throws InterruptedException {
+    public ListBoxModel getProjectNamesForListBox(String coverityConnectUrl, Boolean overrideDefaultCredentialsId, String credentialsId) {
         return doFillProjectNameItems(ListBoxModel::new, this::wrapAsListBoxModelOption, coverityConnectUrl, overrideDefaultCredentialsId, credentialsId);
     }
 
-    public ComboBoxModel getStreamNamesForComboBox(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId, String selectedProjectName) throws InterruptedException {
+    public ComboBoxModel getStreamNamesForComboBox(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId, String selectedProjectName) {
         try {
-            return getStreams(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId, selectedProjectName).stream()
-                       .map(this::toStreamName)
+            return getCatalog(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).getStreamNames(selectedProjectName).stream()
                        .filter(StringUtils::isNotBlank)
                        .collect(Collectors.toCollection(ComboBoxModel::new));
 
@@ -56,40 +53,41 @@ public class ProjectStreamFieldHelper extends ConnectionCachingFieldHelper<Proje
 
     public FormValidation checkForProjectInCache(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId, String projectName) {
         try {
-            return getProjects(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).stream()
-                       .map(this::toProjectName)
-                       .filter(projectName::equals)
-                       .findFirst()
-                       .map(ignored -> FormValidation.ok())
-                       .orElseGet(() -> FormValidation.warning(String.format("If project '%s' does not exist it will be created with defaults the next time this job is run.", projectName)));
+            ProjectStreamCache projectStreamCache = getCacheRefreshingIfStale(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId);
+            if (!projectStreamCache.hasData()) {
+                return validateRetrieval(projectStreamCache);
+            }
+            ProjectStreamCatalog projectStreamCatalog = projectStreamCache.getCachedData();
+            if (projectStreamCatalog.containsProject(projectName)) {
+                return FormValidation.ok();
+            }
+            String suggestions = StringUtils.isEmpty(projectName) ? StringUtils.EMPTY : toSuggestions("projects", projectName, projectStreamCatalog.findProjectNames(projectName, MAXIMUM_SUGGESTIONS));
+            return FormValidation.warning(String.format("If project '%s' does not exist it will be created with defaults the next time this job is run.%s", projectName, suggestions));
         } catch (CoverityIntegrationException e) {
             return FormValidation.error(e, e.getMessage());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return FormValidation.error(e, e.getMessage());
         }
     }
 
     public FormValidation checkForStreamInCache(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId, String projectName, String streamName) {
         try {
-            return getStreams(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId, projectName).stream()
-                       .map(this::toStreamName)
-                       .filter(streamName::equals)
-                       .findFirst()
-                       .map(ignored -> FormValidation.ok())
-                       .orElseGet(() -> FormValidation.warning(String.format("If stream '%s' does not exist in project '%s' it will be created with defaults the next time this job is run", streamName, projectName)));
+            ProjectStreamCache projectStreamCache = getCacheRefreshingIfStale(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId);
+            if (!projectStreamCache.hasData()) {
+                return validateRetrieval(projectStreamCache);
+            }
+            ProjectStreamCatalog projectStreamCatalog = projectStreamCache.getCachedData();
+            if (projectStreamCatalog.containsStream(projectName, streamName)) {
+                return FormValidation.ok();
+            }
+            String suggestions = StringUtils.isEmpty(streamName) ? StringUtils.EMPTY : toSuggestions("streams", streamName, projectStreamCatalog.findStreamNames(projectName, streamName, MAXIMUM_SUGGESTIONS));
+            return FormValidation.warning(String.format("If stream '%s' does not exist in project '%s' it will be created with defaults the next time this job is run.%s", streamName, projectName, suggestions));
         } catch (CoverityIntegrationException e) {
             return FormValidation.error(e, e.getMessage());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return FormValidation.error(e, e.getMessage());
         }
     }
 
-    private <T, R extends Collection<T>> R doFillProjectNameItems(Supplier<R> supplier, Function<String, T> itemWrapper, String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) throws InterruptedException {
+    private <T, R extends Collection<T>> R doFillProjectNameItems(Supplier<R> supplier, Function<String, T> itemWrapper, String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) {
         try {
-            return getProjects(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).stream()
-                       .map(this::toProjectName)
+            return getCatalog(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).getProjectNames().stream()
                        .filter(StringUtils::isNotBlank)
                        .map(itemWrapper)
                        .collect(Collectors.toCollection(supplier));
@@ -99,46 +97,22 @@ public class ProjectStreamFieldHelper extends ConnectionCachingFieldHelper<Proje
         }
     }
 
-    private List<StreamDataObj> getStreams(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId, String projectName) throws CoverityIntegrationException, InterruptedException {
-        return getProjects(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).stream()
-                   .filter(projectDataObj -> this.isMatchingProject(projectDataObj, projectName))
-                   .map(ProjectDataObj::getStreams)
-                   .flatMap(Collection::stream)
-                   .collect(Collectors.toList());
+    private FormValidation validateRetrieval(ProjectStreamCache projectStreamCache) {
+        // Until a refresh succeeds, a failed refresh is the reason there is nothing to validate against, so it is shown rather than hidden behind the retrieving message
+        return projectStreamCache.getLastFailureMessage()
+                   .map(FormValidation::error)
+                   .orElseGet(() -> FormValidation.ok(RETRIEVING_MESSAGE));
     }
 
-    private List<ProjectDataObj> getProjects(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) throws CoverityIntegrationException, InterruptedException {
-        CoverityConnectInstance coverityConnectInstance = GlobalValueHelper.getCoverityInstanceWithUrlOrDie(logger, coverityInstanceUrl);
-        ProjectStreamCache projectStreamCache;
-        List<ProjectDataObj> projectDataObjs;
-        if (Boolean.TRUE.equals(overrideDefaultCredentialsId)) {
-            projectStreamCache = getCache(coverityInstanceUrl, credentialsId);
-            projectDataObjs = projectStreamCache.getData(coverityConnectInstance, credentialsId);
-        } else {
-            projectStreamCache = getCache(coverityInstanceUrl, coverityConnectInstance.getDefaultCredentialsId());
-            projectDataObjs = projectStreamCache.getData(coverityConnectInstance, coverityConnectInstance.getDefaultCredentialsId());
+    private String toSuggestions(String kind, String prefix, List<String> matchingNames) {
+        if (matchingNames.isEmpty()) {
+            return StringUtils.EMPTY;
         }
-        return projectDataObjs != null ? projectDataObjs : Collections.emptyList();
-    }
-
-    private Boolean isMatchingProject(ProjectDataObj projectDataObj, String selectedProjectName) {
-        return null != projectDataObj
-                   && null != projectDataObj.getId()
-                   && null != projectDataObj.getId().getName()
-                   && projectDataObj.getId().getName().equals(selectedProjectName);
+        return String.format(" Existing %s starting with '%s': %s", kind, prefix, String.join(", ", matchingNames));
     }
 
-    private String toStreamName(StreamDataObj streamDataObj) {
-        if (streamDataObj != null && streamDataObj.getId() != null) {
-            return streamDataObj.getId().getName();
-        }
-        return null;
-    }
-
-    private String toProjectName(ProjectDataObj projectDataObj) {
-        if (projectDataObj != null && projectDataObj.getId() != null) {
-            return projectDataObj.getId().getName();
-        }
-        return null;
+    private ProjectStreamCatalog getCatalog(String coverityInstanceUrl, Boolean overrideDefaultCredentialsId, String credentialsId) throws CoverityIntegrationException {
+        ProjectStreamCatalog projectStreamCatalog = getCacheRefreshingIfStale(coverityInstanceUrl, overrideDefaultCredentialsId, credentialsId).getCachedData();
+        return projectStreamCatalog != null ? projectStreamCatalog : ProjectStreamCatalog.empty();
     }
 }
@@ -7,6 +7,10 @@
  */
 package com.synopsys.integration.jenkins.coverity.extensions.wrap;
 
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.CHANGE_SET_FILE;
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_INTERMEDIATE_DIRECTORY;
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_STREAM;
+import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_TOOL_HOME;
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.TEMPORARY_AUTH_KEY_PATH;
 
 import java.io.IOException;
@@ -34,6 +38,7 @@ import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
 import com.synopsys.integration.jenkins.coverity.GlobalValueHelper;
 import com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable;
 import com.synopsys.integration.jenkins.coverity.SynopsysCoverityCredentialsHelper;
+import com.synopsys.integration.jenkins.coverity.actions.CoverityPerformanceAction;
 import com.synopsys.integration.jenkins.coverity.extensions.ConfigureChangeSetPatterns;
 import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
 import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnectionFieldHelper;
@@ -41,6 +46,7 @@ import com.synopsys.integration.jenkins.coverity.extensions.utils.IssueViewField
 import com.synopsys.integration.jenkins.coverity.extensions.utils.ProjectStreamFieldHelper;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CleanUpWorkflowService;
 import com.synopsys.integration.jenkins.coverity.stepworkflow.CoverityWorkflowStepFactory;
+import com.synopsys.integration.jenkins.coverity.stepworkflow.IntermediateDirectoryStashService;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
 import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
 import com.synopsys.integration.log.SilentIntLogger;
@@ -52,9 +58,11 @@ import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
 import hudson.console.ConsoleLogFilter;
+import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.Computer;
 import hudson.model.Node;
+import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.scm.ChangeLogSet;
@@ -105,6 +113,12 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
     @Nullable
     private Boolean createMissingProjectsAndStreams;
 
+    @Nullable
+    @HelpMarkdown("Restore the stashed intermediate directory of the stream into $COV_DIR before the build runs, and stash $COV_DIR again when the build succeeded.  \r\n"
+                      + "Stashing only sends the parts of the intermediate directory that changed since the last stash, and the stashed intermediate directory can be restored on whichever agent the next build runs.  \r\n"
+                      + "In a Pipeline, the build has no result yet when the block ends, so the block has to set currentBuild.result = 'SUCCESS' as its last step for $COV_DIR to be stashed.")
+    private Boolean stashIntermediateDirectory;
+
     @Nullable
     @HelpMarkdown("Specify the credentials to use with the Synopsys Coverity connect instance.")
     private String credentialsId;
@@ -129,6 +143,18 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
         this.createMissingProjectsAndStreams = createMissingProjectsAndStreams;
     }
 
+    public Boolean getStashIntermediateDirectory() {
+        if (Boolean.FALSE.equals(stashIntermediateDirectory)) {
+            return null;
+        }
+        return stashIntermediateDirectory;
+    }
+
+    @DataBoundSetter
+    public void setStashIntermediateDirectory(@QueryParameter("stashIntermediateDirectory") Boolean stashIntermediateDirectory) {
+        this.stashIntermediateDirectory = stashIntermediateDirectory;
+    }
+
     public String getCoverityInstanceUrl() {
         return coverityInstanceUrl;
     }
@@ -210,6 +236,8 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
             resolvedCredentialsId = coverityConnectInstance.getDefaultCredentialsId();
         }
 
+        // The stashed intermediate directory is only restored into a workspace that does not have one yet
+        boolean shouldStashIntermediateDirectory = Boolean.TRUE.equals(stashIntermediateDirectory) && StringUtils.isNotBlank(streamName);
         CoverityEnvironmentWrapperStepWorkflow coverityEnvironmentWrapperStepWorkflow = new CoverityEnvironmentWrapperStepWorkflow(
             logger,
             jenkinsVersionHelper,
@@ -224,14 +252,24 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
             viewName,
             createMissingProjectsAndStreams,
             changeLogSets,
-            configureChangeSetPatterns
+            configureChangeSetPatterns,
+            !shouldStashIntermediateDirectory
         );
-        Boolean environmentInjectedSuccessfully = coverityEnvironmentWrapperStepWorkflow.perform();
+        Boolean environmentInjectedSuccessfully;
+        try {
+            environmentInjectedSuccessfully = coverityEnvironmentWrapperStepWorkflow.perform();
+        } finally {
+            CoverityPerformanceAction.addSubStepTimings(build, coverityWorkflowStepFactory.getSubStepTimings());
+        }
         if (Boolean.TRUE.equals(environmentInjectedSuccessfully)) {
             logger.info("Coverity environment injected successfully.");
         }
 
-        context.setDisposer(new DisposerImpl((HashMap<String, String>) coverityWorkflowStepFactory.getOrCreateEnvironmentVariables().getVariables()));
+        if (shouldStashIntermediateDirectory) {
+            coverityWorkflowStepFactory.getIntermediateDirectoryStashService().restore(streamName, coverityWorkflowStepFactory.getCoverityToolHomeFromEnvironment(), coverityWorkflowStepFactory.getIntermediateDirectory(workspace.getRemote()).getRemote());
+        }
+
+        context.setDisposer(new DisposerImpl((HashMap<String, String>) coverityWorkflowStepFactory.getOrCreateEnvironmentVariables().getVariables(), shouldStashIntermediateDirectory));
     }
 
     @Override
@@ -282,7 +320,7 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
             @QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl,
             @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter("updateNow") boolean updateNow
-        ) throws InterruptedException {
+        ) {
             if (updateNow) {
                 projectStreamFieldHelper.updateNow(coverityInstanceUrl, StringUtils.isNotBlank(credentialsId), credentialsId);
             }
@@ -300,7 +338,7 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
             @QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl,
             @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter(FIELD_PROJECT_NAME) String projectName
-        ) throws InterruptedException {
+        ) {
             return projectStreamFieldHelper.getStreamNamesForComboBox(coverityInstanceUrl, StringUtils.isNotBlank(credentialsId), credentialsId, projectName);
         }
 
@@ -314,7 +352,7 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
             @QueryParameter(FIELD_COVERITY_INSTANCE_URL) String coverityInstanceUrl,
             @QueryParameter(FIELD_CREDENTIALS_ID) String credentialsId,
             @QueryParameter("updateNow") boolean updateNow
-        ) throws InterruptedException {
+        ) {
             if (updateNow) {
                 issueViewFieldHelper.updateNow(coverityInstanceUrl, StringUtils.isNotBlank(credentialsId), credentialsId);
             }
@@ -352,12 +390,14 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
         }
     }
 
-    private static final class DisposerImpl extends SimpleBuildWrapper.Disposer {
+    static final class DisposerImpl extends SimpleBuildWrapper.Disposer {
         private static final long serialVersionUID = 4771346213830683656L;
         private final HashMap<String, String> environmentVariables;
+        private final boolean stashIntermediateDirectory;
 
-        public DisposerImpl(HashMap<String, String> intEnvironmentVariables) {
+        public DisposerImpl(HashMap<String, String> intEnvironmentVariables, boolean stashIntermediateDirectory) {
             this.environmentVariables = intEnvironmentVariables;
+            this.stashIntermediateDirectory = stashIntermediateDirectory;
         }
 
         @Override
@@ -372,6 +412,28 @@ public class CoverityEnvironmentWrapper extends SimpleBuildWrapper {
                 FilePath authKeyFile = new FilePath(launcher.getChannel(), authKeyPath);
                 cleanUpWorkflowService.cleanUpAuthenticationFile(authKeyFile);
             }
+
+            String changeSetFilePath = intEnvironmentVariables.getValue(CHANGE_SET_FILE.toString());
+            if (StringUtils.isNotBlank(changeSetFilePath)) {
+                FilePath changeSetFile = new FilePath(launcher.getChannel(), changeSetFilePath);
+                cleanUpWorkflowService.cleanUpChangeSetFile(changeSetFile);
+            }
+
+            // The wrapper cannot tell whether the build committed its results, so only a build that is known to have succeeded is taken to have
+            if (stashIntermediateDirectory && launcher.getChannel() != null && isKnownToHaveSucceeded(build)) {
+                IntermediateDirectoryStashService.forChannel(logger, launcher.getChannel()).stash(intEnvironmentVariables.getValue(COVERITY_STREAM.toString()), intEnvironmentVariables.getValue(COVERITY_TOOL_HOME.toString()),
+                    intEnvironmentVariables.getValue(COVERITY_INTERMEDIATE_DIRECTORY.toString()));
+            }
+        }
+
+        static boolean isKnownToHaveSucceeded(Run<?, ?> build) {
+            Result result = build.getResult();
+            if (result == null) {
+                // A freestyle build only sets its result before the environment is torn down if the build failed, but in a Pipeline the result is still unknown
+                // when the block ends, even if the block failed, unless the block set it
+                return build instanceof AbstractBuild;
+            }
+            return result.isBetterOrEqualTo(Result.SUCCESS);
         }
     }
 
@@ -40,10 +40,11 @@ public class CoverityEnvironmentWrapperStepWorkflow extends CoverityJenkinsStepW
     private final Boolean createMissingProjectsAndStreams;
     private final List<ChangeLogSet<?>> changeSets;
     private final ConfigureChangeSetPatterns configureChangeSetPatterns;
+    private final boolean createIntermediateDirectory;
 
     public CoverityEnvironmentWrapperStepWorkflow(JenkinsIntLogger jenkinsIntLogger, JenkinsVersionHelper jenkinsVersionHelper, ThrowingSupplier<WebServiceFactory, CoverityJenkinsAbortException> webServiceFactorySupplier,
         CoverityWorkflowStepFactory coverityWorkflowStepFactory, SimpleBuildWrapper.Context context, String workspaceRemotePath, String coverityInstanceUrl, String credentialsId, String projectName, String streamName, String viewName,
-        Boolean createMissingProjectsAndStreams, List<ChangeLogSet<?>> changeSets, ConfigureChangeSetPatterns configureChangeSetPatterns) {
+        Boolean createMissingProjectsAndStreams, List<ChangeLogSet<?>> changeSets, ConfigureChangeSetPatterns configureChangeSetPatterns, boolean createIntermediateDirectory) {
         super(jenkinsIntLogger, jenkinsVersionHelper, webServiceFactorySupplier);
         this.coverityWorkflowStepFactory = coverityWorkflowStepFactory;
         this.context = context;
@@ -56,13 +57,13 @@ public class CoverityEnvironmentWrapperStepWorkflow extends CoverityJenkinsStepW
         this.createMissingProjectsAndStreams = createMissingProjectsAndStreams;
         this.changeSets = changeSets;
         this.configureChangeSetPatterns = configureChangeSetPatterns;
+        this.createIntermediateDirectory = createIntermediateDirectory;
     }
 
     @Override
     protected StepWorkflow<Object> buildWorkflow() throws AbortException {
         return StepWorkflow
-                   .first(coverityWorkflowStepFactory.createStepValidateCoverityInstallation(false))
-                   .then(coverityWorkflowStepFactory.createStepCreateAuthenticationKeyFile(workspaceRemotePath, coverityInstanceUrl, credentialsId))
+                   .first(coverityWorkflowStepFactory.createStepProbeCoverityAgent(workspaceRemotePath, coverityInstanceUrl, credentialsId, false, createIntermediateDirectory))
                    .then(coverityWorkflowStepFactory.createStepSetUpCoverityEnvironment(changeSets, configureChangeSetPatterns, workspaceRemotePath, coverityInstanceUrl, credentialsId, projectName, streamName, viewName))
                    .then(coverityWorkflowStepFactory.createStepPopulateEnvVars(context::env))
                    .andSometimes(coverityWorkflowStepFactory.createStepCreateMissingProjectsAndStreams(coverityInstanceUrl, credentialsId, projectName, streamName)).butOnlyIf(createMissingProjectsAndStreams, Boolean.TRUE::equals)
@@ -89,6 +90,8 @@ public class CoverityEnvironmentWrapperStepWorkflow extends CoverityJenkinsStepW
     @Override
     protected void cleanUp() throws AbortException {
         // The CoverityEnvironmentWrapper needs to clean up later than other workflows, so we create a Disposer and attach it to the context instead.
+        // The web services are only used while the workflow runs, so they can go back to the pool right away.
+        coverityWorkflowStepFactory.releaseWebServices();
     }
 
 }
@@ -0,0 +1,25 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.metrics;
+
+import javax.annotation.Nonnull;
+
+import com.codahale.metrics.MetricSet;
+
+import hudson.Extension;
+import jenkins.metrics.api.MetricProvider;
+
+@Extension(optional = true)
+public class CoverityMetricProvider extends MetricProvider {
+    @Nonnull
+    @Override
+    public MetricSet getMetricSet() {
+        return CoverityMetrics.getMetricRegistry();
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * The metrics of the plugin, kept in one Dropwizard {@link MetricRegistry} for the whole controller. When the Metrics plugin is installed they are published through {@link CoverityMetricProvider}; any other reporter can be attached to
+ * {@link #getMetricRegistry()} directly.
+ */
+public class CoverityMetrics {
+    public static final String PREFIX = "synopsys-coverity";
+    public static final String CONNECT = "connect";
+    public static final String CONNECT_FAILURES = "connect.failures";
+    public static final String CACHE_REFRESH = "cache.refresh";
+    public static final String CACHE_REFRESH_FAILURES = "cache.refresh.failures";
+    public static final String CACHE_EVICTIONS = "cache.evictions";
+    public static final String COMMAND_DURATION = "duration";
+    public static final String COMMAND_EXIT_CODE = "exit-code";
+    public static final String CHANGE_SET_SIZE = "change-set.size";
+    public static final String VIEW_QUERY = "view.query";
+    public static final String CLEAN_UP = "clean-up";
+    public static final String CLEAN_UP_BACKGROUND = "clean-up.background";
+    public static final String CLEAN_UP_BACKGROUND_FAILURES = "clean-up.background.failures";
+
+    private static final MetricRegistry METRIC_REGISTRY = new MetricRegistry();
+
+    private CoverityMetrics() {
+        // This class should not be instantiated
+    }
+
+    public static MetricRegistry getMetricRegistry() {
+        return METRIC_REGISTRY;
+    }
+
+    public static Timer timer(String... names) {
+        return METRIC_REGISTRY.timer(MetricRegistry.name(PREFIX, names));
+    }
+
+    public static Counter counter(String... names) {
+        return METRIC_REGISTRY.counter(MetricRegistry.name(PREFIX, names));
+    }
+
+    public static Histogram histogram(String... names) {
+        return METRIC_REGISTRY.histogram(MetricRegistry.name(PREFIX, names));
+    }
+
+    public static String commandMetricName(String commandName, String metricName) {
+        return MetricRegistry.name("command", commandName, metricName);
+    }
+
+}
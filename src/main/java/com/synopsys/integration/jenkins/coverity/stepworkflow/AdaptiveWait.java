@@ -0,0 +1,60 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.function.ThrowingSupplier;
+
+/**
+ * Retries a lookup until it finds something or a deadline passes. The first attempt is made right away, and the delay before each following attempt is drawn at random between half of an exponentially growing cap and the cap itself, so that
+ * a lookup that succeeds quickly is not held up by a fixed sleep and builds waiting on the same server do not retry in lockstep.
+ */
+public class AdaptiveWait {
+    public static final long DEFAULT_INITIAL_DELAY_IN_MILLIS = 100;
+    public static final long DEFAULT_MAXIMUM_DELAY_IN_MILLIS = 5000;
+
+    private final long initialDelayInMillis;
+    private final long maximumDelayInMillis;
+    private final long timeoutInMillis;
+
+    public AdaptiveWait(long initialDelayInMillis, long maximumDelayInMillis, long timeoutInMillis) {
+        this.initialDelayInMillis = Math.max(1, initialDelayInMillis);
+        this.maximumDelayInMillis = Math.max(this.initialDelayInMillis, maximumDelayInMillis);
+        this.timeoutInMillis = Math.max(0, timeoutInMillis);
+    }
+
+    public static AdaptiveWait withTimeoutInSeconds(int timeoutInSeconds) {
+        return new AdaptiveWait(DEFAULT_INITIAL_DELAY_IN_MILLIS, DEFAULT_MAXIMUM_DELAY_IN_MILLIS, TimeUnit.SECONDS.toMillis(timeoutInSeconds));
+    }
+
+    public <T, E extends Throwable> Optional<T> waitFor(ThrowingSupplier<Optional<T>, E> lookup) throws E, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+        long delayCapInMillis = initialDelayInMillis;
+
+        while (true) {
+            Optional<T> result = lookup.get();
+            if (result.isPresent()) {
+                return result;
+            }
+
+            long remainingInMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingInMillis <= 0) {
+                return Optional.empty();
+            }
+
+            long halfDelayCapInMillis = delayCapInMillis / 2;
+            long delayInMillis = halfDelayCapInMillis + ThreadLocalRandom.current().nextLong(delayCapInMillis - halfDelayCapInMillis + 1);
+            Thread.sleep(Math.min(delayInMillis, remainingInMillis));
+            delayCapInMillis = Math.min(maximumDelayInMillis, delayCapInMillis * 2);
+        }
+    }
+
+}
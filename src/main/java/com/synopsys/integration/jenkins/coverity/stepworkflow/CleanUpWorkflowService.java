@@ -8,10 +8,15 @@
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+import com.codahale.metrics.Timer.Context;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 
 import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
 
 public class CleanUpWorkflowService {
     private final JenkinsIntLogger logger;
@@ -21,7 +26,7 @@ public class CleanUpWorkflowService {
     }
 
     public void cleanUpIntermediateDirectory(FilePath intermediateDirectory) {
-        try {
+        try (Context ignored = CoverityMetrics.timer(CoverityMetrics.CLEAN_UP, "delete").time()) {
             intermediateDirectory.deleteRecursive();
         } catch (IOException | InterruptedException e) {
             if (e instanceof InterruptedException) {
@@ -32,6 +37,41 @@ public class CleanUpWorkflowService {
         }
     }
 
+    public void tombstoneIntermediateDirectory(VirtualChannel virtualChannel, TombstoneIntermediateDirectory tombstoneIntermediateDirectory) {
+        try {
+            IntermediateDirectoryReaper.Report report;
+            try (Context ignored = CoverityMetrics.timer(CoverityMetrics.CLEAN_UP, "tombstone").time()) {
+                report = virtualChannel.call(tombstoneIntermediateDirectory);
+            }
+
+            // Intermediate directories are deleted after their builds finish, so each build reports the deletions on its agent that finished since the previous one
+            report.getReapTimesInNanos().forEach(reapTimeInNanos -> CoverityMetrics.timer(CoverityMetrics.CLEAN_UP_BACKGROUND).update(reapTimeInNanos, TimeUnit.NANOSECONDS));
+            CoverityMetrics.counter(CoverityMetrics.CLEAN_UP_BACKGROUND_FAILURES).inc(report.getReapFailures());
+            if (report.getReapFailures() > 0) {
+                logger.warn(String.format("WARNING: Synopsys Coverity for Jenkins could not delete %d intermediate directories in the background on this agent.", report.getReapFailures()));
+            }
+            logger.debug(String.format("%d intermediate directories are being deleted in the background on this agent", report.getTombstonesBeingReaped()));
+        } catch (IOException | InterruptedException | IntegrationException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not clean up the intermediary directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not clean up the intermediary directory because: ", e);
+        }
+    }
+
+    public void storeIntermediateDirectory(VirtualChannel virtualChannel, StoreIntermediateDirectory storeIntermediateDirectory) {
+        try {
+            virtualChannel.call(storeIntermediateDirectory);
+        } catch (IOException | InterruptedException | IntegrationException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not cache the intermediate directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not cache the intermediate directory because: ", e);
+        }
+    }
+
     public void cleanUpAuthenticationFile(FilePath authenticationKeyFile) {
         try {
             if (authenticationKeyFile.delete()) {
@@ -46,4 +86,20 @@ public class CleanUpWorkflowService {
             logger.error("ERROR: Synopsys Coverity for Jenkins could not clean up authentication file because: ", e);
         }
     }
+
+    public void cleanUpChangeSetFile(FilePath changeSetFile) {
+        try {
+            if (changeSetFile.delete()) {
+                logger.debug("Change set file deleted successfully");
+            } else {
+                logger.debug("The change set file was already deleted");
+            }
+        } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not clean up the change set file.");
+            logger.trace("Synopsys Coverity for Jenkins could not clean up the change set file because: ", e);
+        }
+    }
 }
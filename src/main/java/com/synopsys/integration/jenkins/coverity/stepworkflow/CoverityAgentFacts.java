@@ -0,0 +1,64 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * What a build needs to know about the agent it runs on and its Coverity installation, gathered in a single call to the agent.
+ */
+public class CoverityAgentFacts implements Serializable {
+    public static final long UNKNOWN_USABLE_SPACE = -1;
+    private static final long serialVersionUID = 6139557602372466381L;
+    @Nullable
+    private final String coverityVersion;
+    private final String coverityToolHomeBin;
+    @Nullable
+    private final String authenticationKeyFilePath;
+    private final long usableSpaceInBytes;
+    private final int availableProcessors;
+
+    public CoverityAgentFacts(@Nullable String coverityVersion, String coverityToolHomeBin, @Nullable String authenticationKeyFilePath, long usableSpaceInBytes, int availableProcessors) {
+        this.coverityVersion = coverityVersion;
+        this.coverityToolHomeBin = coverityToolHomeBin;
+        this.authenticationKeyFilePath = authenticationKeyFilePath;
+        this.usableSpaceInBytes = usableSpaceInBytes;
+        this.availableProcessors = availableProcessors;
+    }
+
+    /**
+     * The authentication key file belongs to one build, so the facts shared with other builds never carry it.
+     */
+    public CoverityAgentFacts withAuthenticationKeyFilePath(@Nullable String authenticationKeyFilePath) {
+        return new CoverityAgentFacts(coverityVersion, coverityToolHomeBin, authenticationKeyFilePath, usableSpaceInBytes, availableProcessors);
+    }
+
+    public Optional<String> getCoverityVersion() {
+        return Optional.ofNullable(coverityVersion);
+    }
+
+    public String getCoverityToolHomeBin() {
+        return coverityToolHomeBin;
+    }
+
+    public Optional<String> getAuthenticationKeyFilePath() {
+        return Optional.ofNullable(authenticationKeyFilePath);
+    }
+
+    public long getUsableSpaceInBytes() {
+        return usableSpaceInBytes;
+    }
+
+    public int getAvailableProcessors() {
+        return availableProcessors;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the facts about each agent and Coverity installation on the controller for a while, so builds that follow each other on an agent do not validate the same installation again.
+ */
+public class CoverityAgentFactsCache {
+    private static final CoverityAgentFactsCache INSTANCE = new CoverityAgentFactsCache(System::nanoTime);
+    private final ConcurrentHashMap<List<String>, CachedFacts> cachedFacts = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+
+    CoverityAgentFactsCache(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    public static CoverityAgentFactsCache getInstance() {
+        return INSTANCE;
+    }
+
+    public Optional<CoverityAgentFacts> getCached(String nodeName, String coverityToolHome, boolean versionValidated, long cacheTimeInNanos) {
+        List<String> key = createKey(nodeName, coverityToolHome, versionValidated);
+        CachedFacts cached = cachedFacts.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (nanoTime.getAsLong() - cached.cachedTimeInNanos >= cacheTimeInNanos) {
+            cachedFacts.remove(key, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.coverityAgentFacts);
+    }
+
+    public void cache(String nodeName, String coverityToolHome, boolean versionValidated, CoverityAgentFacts coverityAgentFacts) {
+        cachedFacts.put(createKey(nodeName, coverityToolHome, versionValidated), new CachedFacts(coverityAgentFacts.withAuthenticationKeyFilePath(null), nanoTime.getAsLong()));
+    }
+
+    private List<String> createKey(String nodeName, String coverityToolHome, boolean versionValidated) {
+        return Arrays.asList(nodeName, coverityToolHome, String.valueOf(versionValidated));
+    }
+
+    private static class CachedFacts {
+        private final CoverityAgentFacts coverityAgentFacts;
+        private final long cachedTimeInNanos;
+
+        private CachedFacts(CoverityAgentFacts coverityAgentFacts, long cachedTimeInNanos) {
+            this.coverityAgentFacts = coverityAgentFacts;
+            this.cachedTimeInNanos = cachedTimeInNanos;
+        }
+    }
+
+}
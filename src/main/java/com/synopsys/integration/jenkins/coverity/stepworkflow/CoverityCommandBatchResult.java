@@ -0,0 +1,41 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+/**
+ * The results of the Coverity commands of a batch that ran, and why the batch stopped if a command could not be run at all.
+ */
+public class CoverityCommandBatchResult implements Serializable {
+    private static final long serialVersionUID = -6372036462451870517L;
+    private final ArrayList<CoverityCommandResult> commandResults;
+    @Nullable
+    private final CoverityJenkinsException failure;
+
+    public CoverityCommandBatchResult(List<CoverityCommandResult> commandResults, @Nullable CoverityJenkinsException failure) {
+        this.commandResults = new ArrayList<>(commandResults);
+        this.failure = failure;
+    }
+
+    public List<CoverityCommandResult> getCommandResults() {
+        return commandResults;
+    }
+
+    public Optional<CoverityJenkinsException> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+}
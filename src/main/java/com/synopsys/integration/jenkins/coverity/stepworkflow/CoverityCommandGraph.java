@@ -0,0 +1,134 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+import com.synopsys.integration.jenkins.coverity.extensions.buildstep.RepeatableCommand;
+
+/**
+ * The dependencies between the non-empty commands of an advanced run configuration. Stages are indexed in the same order as the commands returned by {@link GetCoverityCommands}.
+ */
+public class CoverityCommandGraph {
+    private final List<String> stageNames;
+    private final List<Set<Integer>> dependencies;
+    private final List<Set<Integer>> dependents;
+
+    private CoverityCommandGraph(List<String> stageNames, List<Set<Integer>> dependencies, List<Set<Integer>> dependents) {
+        this.stageNames = stageNames;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+    }
+
+    public static CoverityCommandGraph fromRepeatableCommands(RepeatableCommand[] repeatableCommands) throws CoverityJenkinsAbortException {
+        List<RepeatableCommand> nonEmptyCommands = Arrays.stream(repeatableCommands)
+                                                       .filter(repeatableCommand -> StringUtils.isNotBlank(repeatableCommand.getCommand()))
+                                                       .collect(Collectors.toList());
+
+        List<String> stageNames = new ArrayList<>();
+        Map<String, Integer> stageIndices = new HashMap<>();
+        for (int i = 0; i < nonEmptyCommands.size(); i++) {
+            String stageName = StringUtils.defaultIfBlank(StringUtils.trim(nonEmptyCommands.get(i).getStageName()), "command-" + (i + 1));
+            if (stageIndices.put(stageName, i) != null) {
+                throw new CoverityJenkinsAbortException(String.format("The command name '%s' is used by more than one command.", stageName));
+            }
+            stageNames.add(stageName);
+        }
+
+        List<Set<Integer>> dependencies = new ArrayList<>();
+        List<Set<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < nonEmptyCommands.size(); i++) {
+            dependencies.add(new LinkedHashSet<>());
+            dependents.add(new LinkedHashSet<>());
+        }
+
+        for (int i = 0; i < nonEmptyCommands.size(); i++) {
+            String[] dependencyNames = StringUtils.split(StringUtils.defaultString(nonEmptyCommands.get(i).getDependsOn()), ',');
+            for (String dependencyName : dependencyNames) {
+                String trimmedDependencyName = dependencyName.trim();
+                if (trimmedDependencyName.isEmpty()) {
+                    continue;
+                }
+                Integer dependencyIndex = stageIndices.get(trimmedDependencyName);
+                if (dependencyIndex == null) {
+                    throw new CoverityJenkinsAbortException(String.format("The command '%s' depends on '%s', but no command has that name.", stageNames.get(i), trimmedDependencyName));
+                }
+                if (dependencyIndex == i) {
+                    throw new CoverityJenkinsAbortException(String.format("The command '%s' cannot depend on itself.", stageNames.get(i)));
+                }
+                dependencies.get(i).add(dependencyIndex);
+                dependents.get(dependencyIndex).add(i);
+            }
+        }
+
+        CoverityCommandGraph coverityCommandGraph = new CoverityCommandGraph(Collections.unmodifiableList(stageNames), dependencies, dependents);
+        coverityCommandGraph.verifyAcyclic();
+        return coverityCommandGraph;
+    }
+
+    public int size() {
+        return stageNames.size();
+    }
+
+    public String getStageName(int stageIndex) {
+        return stageNames.get(stageIndex);
+    }
+
+    public Set<Integer> getDependencies(int stageIndex) {
+        return Collections.unmodifiableSet(dependencies.get(stageIndex));
+    }
+
+    public Set<Integer> getDependents(int stageIndex) {
+        return Collections.unmodifiableSet(dependents.get(stageIndex));
+    }
+
+    private void verifyAcyclic() throws CoverityJenkinsAbortException {
+        int[] remainingDependencies = new int[size()];
+        List<Integer> readyStages = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            remainingDependencies[i] = dependencies.get(i).size();
+            if (remainingDependencies[i] == 0) {
+                readyStages.add(i);
+            }
+        }
+
+        int visitedStages = 0;
+        while (!readyStages.isEmpty()) {
+            int stageIndex = readyStages.remove(readyStages.size() - 1);
+            visitedStages++;
+            for (int dependent : dependents.get(stageIndex)) {
+                remainingDependencies[dependent]--;
+                if (remainingDependencies[dependent] == 0) {
+                    readyStages.add(dependent);
+                }
+            }
+        }
+
+        if (visitedStages != size()) {
+            List<String> cyclicStageNames = new ArrayList<>();
+            for (int i = 0; i < size(); i++) {
+                if (remainingDependencies[i] > 0) {
+                    cyclicStageNames.add(stageNames.get(i));
+                }
+            }
+            throw new CoverityJenkinsAbortException("The command dependencies contain a cycle. Check the dependencies of these commands: " + String.join(", ", cyclicStageNames));
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.Serializable;
+
+import javax.annotation.Nullable;
+
+public class CoverityCommandResult implements Serializable {
+    private static final long serialVersionUID = 2710645417265370583L;
+    private final int commandIndex;
+    @Nullable
+    private final Integer exitCode;
+    private final long durationInMillis;
+    private final String errorTail;
+
+    public CoverityCommandResult(int commandIndex, @Nullable Integer exitCode, long durationInMillis, String errorTail) {
+        this.commandIndex = commandIndex;
+        this.exitCode = exitCode;
+        this.durationInMillis = durationInMillis;
+        this.errorTail = errorTail;
+    }
+
+    public int getCommandIndex() {
+        return commandIndex;
+    }
+
+    @Nullable
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public long getDurationInMillis() {
+        return durationInMillis;
+    }
+
+    public String getErrorTail() {
+        return errorTail;
+    }
+
+    public boolean isFailure() {
+        return exitCode != null && exitCode != 0;
+    }
+
+}
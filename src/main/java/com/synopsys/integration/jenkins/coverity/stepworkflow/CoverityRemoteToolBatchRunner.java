@@ -0,0 +1,69 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
+
+/**
+ * Runs every Coverity command of a build in a single round trip to the agent, so the environment and the logger only cross the channel once. The action to take on command failure is applied on the agent.
+ * <p>
+ * A command that cannot be run at all stops the batch, and its failure is returned with the results of the commands that ran before it.
+ */
+public class CoverityRemoteToolBatchRunner extends CoverityRemoteCallable<CoverityCommandBatchResult> {
+    private static final long serialVersionUID = 4416210529003968771L;
+    private final CoverityToolLauncher coverityToolLauncher;
+    private final ArrayList<ArrayList<String>> commands;
+    private final HashMap<String, String> environmentVariables;
+    private final String workingDirectoryPath;
+    private final OnCommandFailure onCommandFailure;
+
+    public CoverityRemoteToolBatchRunner(final CoverityJenkinsIntLogger logger, final CoverityToolLauncher coverityToolLauncher, final List<List<String>> commands, final String workingDirectoryPath,
+        final HashMap<String, String> environmentVariables, final OnCommandFailure onCommandFailure) {
+        super(logger);
+        this.coverityToolLauncher = coverityToolLauncher;
+        this.commands = new ArrayList<>();
+        for (final List<String> arguments : commands) {
+            this.commands.add(new ArrayList<>(arguments));
+        }
+        this.workingDirectoryPath = workingDirectoryPath;
+        this.environmentVariables = environmentVariables;
+        this.onCommandFailure = onCommandFailure;
+    }
+
+    public CoverityCommandBatchResult call() {
+        final ArrayList<CoverityCommandResult> commandResults = new ArrayList<>();
+        for (int commandIndex = 0; commandIndex < commands.size(); commandIndex++) {
+            final List<String> arguments = commands.get(commandIndex);
+            if (arguments.isEmpty()) {
+                continue;
+            }
+
+            final CoverityCommandResult commandResult;
+            try {
+                commandResult = coverityToolLauncher.launch(logger, commandIndex, arguments, workingDirectoryPath, environmentVariables);
+            } catch (final CoverityJenkinsException e) {
+                return new CoverityCommandBatchResult(commandResults, e);
+            }
+            commandResults.add(commandResult);
+            logger.debug(String.format("Coverity command %d of %d exited with %s after %dms", commandIndex + 1, commands.size(), commandResult.getExitCode(), commandResult.getDurationInMillis()));
+
+            if (commandResult.isFailure() && OnCommandFailure.SKIP_REMAINING_COMMANDS.equals(onCommandFailure)) {
+                break;
+            }
+        }
+
+        return new CoverityCommandBatchResult(commandResults, null);
+    }
+
+}
@@ -7,55 +7,38 @@
  */
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 
-import com.synopsys.integration.coverity.exception.ExecutableException;
-import com.synopsys.integration.coverity.exception.ExecutableRunnerException;
-import com.synopsys.integration.coverity.executable.Executable;
-import com.synopsys.integration.coverity.executable.ExecutableManager;
 import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
 
-public class CoverityRemoteToolRunner extends CoverityRemoteCallable<Integer> {
+public class CoverityRemoteToolRunner extends CoverityRemoteCallable<CoverityCommandResult> {
     private static final long serialVersionUID = -1777043273065180425L;
-    private final String coverityToolHome;
+    private final CoverityToolLauncher coverityToolLauncher;
     private final List<String> arguments;
     private final HashMap<String, String> environmentVariables;
 
     private final String workingDirectoryPath;
 
-    public CoverityRemoteToolRunner(final CoverityJenkinsIntLogger logger, final String coverityToolHome, final List<String> arguments, final String workingDirectoryPath, final HashMap<String, String> environmentVariables) {
+    public CoverityRemoteToolRunner(final CoverityJenkinsIntLogger logger, final CoverityToolLauncher coverityToolLauncher, final List<String> arguments, final String workingDirectoryPath,
+        final HashMap<String, String> environmentVariables) {
         super(logger);
         this.environmentVariables = environmentVariables;
-        this.coverityToolHome = coverityToolHome;
+        this.coverityToolLauncher = coverityToolLauncher;
         this.arguments = arguments;
         this.workingDirectoryPath = workingDirectoryPath;
     }
 
-    public Integer call() throws CoverityJenkinsException {
-        final File workingDirectory = new File(workingDirectoryPath);
-        final Executable executable = new Executable(arguments, workingDirectory, environmentVariables);
-        final ExecutableManager executableManager = new ExecutableManager(new File(coverityToolHome));
-        final Integer exitCode;
-        final ByteArrayOutputStream errorOutputStream = new ByteArrayOutputStream();
-        try (final PrintStream errorStream = new PrintStream(errorOutputStream, true, "UTF-8")) {
-            final PrintStream jenkinsPrintStream = logger.getTaskListener().getLogger();
-            exitCode = executableManager.execute(executable, logger, jenkinsPrintStream, errorStream);
-        } catch (final UnsupportedEncodingException | ExecutableException | ExecutableRunnerException e) {
-            throw new CoverityJenkinsException(e);
-        } catch (final InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new CoverityJenkinsException(e);
-        } finally {
-            logger.error(new String(errorOutputStream.toByteArray(), StandardCharsets.UTF_8));
+    public CoverityCommandResult call() throws CoverityJenkinsException {
+        return coverityToolLauncher.launch(logger, 0, arguments, workingDirectoryPath, environmentVariables);
+    }
+
+    static String withErrorTail(final String message, final String errorTail) {
+        if (errorTail == null || errorTail.isEmpty()) {
+            return message;
         }
-        return exitCode;
+        return message + System.lineSeparator() + "Last error output:" + System.lineSeparator() + errorTail;
     }
 
 }
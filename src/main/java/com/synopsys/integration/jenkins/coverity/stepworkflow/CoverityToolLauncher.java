@@ -0,0 +1,58 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.coverity.exception.ExecutableException;
+import com.synopsys.integration.coverity.exception.ExecutableRunnerException;
+import com.synopsys.integration.coverity.executable.Executable;
+import com.synopsys.integration.coverity.executable.ExecutableManager;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+/**
+ * Launches a single Coverity tool on the agent the callable that holds it runs on, and reports how it exited.
+ */
+public class CoverityToolLauncher implements Serializable {
+    private static final long serialVersionUID = 3504311586520466393L;
+    private final String coverityToolHome;
+
+    public CoverityToolLauncher(final String coverityToolHome) {
+        this.coverityToolHome = coverityToolHome;
+    }
+
+    public CoverityCommandResult launch(final CoverityJenkinsIntLogger logger, final int commandIndex, final List<String> arguments, final String workingDirectoryPath, final HashMap<String, String> environmentVariables)
+        throws CoverityJenkinsException {
+        final File workingDirectory = new File(workingDirectoryPath);
+        final Executable executable = new Executable(arguments, workingDirectory, environmentVariables);
+        final ExecutableManager executableManager = new ExecutableManager(new File(coverityToolHome));
+        final long startTime = System.nanoTime();
+        final Integer exitCode;
+        final ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(logger);
+        try (final PrintStream errorStream = new PrintStream(errorLineOutputStream, true, "UTF-8")) {
+            final PrintStream jenkinsPrintStream = logger.getTaskListener().getLogger();
+            exitCode = executableManager.execute(executable, logger, jenkinsPrintStream, errorStream);
+        } catch (final UnsupportedEncodingException | ExecutableException | ExecutableRunnerException e) {
+            throw new CoverityJenkinsException(CoverityRemoteToolRunner.withErrorTail(e.getMessage(), errorLineOutputStream.getTail()), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoverityJenkinsException(e);
+        }
+
+        final long durationInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        return new CoverityCommandResult(commandIndex, exitCode, durationInMillis, errorLineOutputStream.getTail());
+    }
+
+}
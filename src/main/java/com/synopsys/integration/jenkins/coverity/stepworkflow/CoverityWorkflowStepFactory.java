@@ -9,32 +9,52 @@ package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
 import static com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable.COVERITY_TOOL_HOME;
 
+import java.io.File;
 import java.net.MalformedURLException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer.Context;
 import com.synopsys.integration.coverity.config.CoverityServerConfig;
 import com.synopsys.integration.coverity.exception.CoverityIntegrationException;
 import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
 import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.coverity.ws.view.ViewReportWrapper;
 import com.synopsys.integration.coverity.ws.view.ViewService;
 import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.jenkins.coverity.ChangeSetIndex;
 import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.ResolvedCoverityCredentials;
+import com.synopsys.integration.jenkins.coverity.actions.SubStepTiming;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
 import com.synopsys.integration.jenkins.coverity.extensions.ConfigureChangeSetPatterns;
 import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
+import com.synopsys.integration.jenkins.coverity.extensions.buildstep.AdvancedCoverityRunConfiguration;
 import com.synopsys.integration.jenkins.coverity.extensions.buildstep.CoverityRunConfiguration;
 import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
 import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityGlobalConfig;
-import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityConnectDataCacheService;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityWebServicePool;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.CoverityWebServices;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.ProjectStreamCache;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
 import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.Slf4jIntLogger;
 import com.synopsys.integration.stepworkflow.SubStep;
 import com.synopsys.integration.stepworkflow.jenkins.RemoteSubStep;
 import com.synopsys.integration.util.IntEnvironmentVariables;
@@ -61,6 +81,12 @@ public class CoverityWorkflowStepFactory {
     private final Supplier<CoverityJenkinsIntLogger> initializedLogger = this::getOrCreateLogger;
     private VirtualChannel _virtualChannel = null;
     private final ThrowingSupplier<VirtualChannel, CoverityJenkinsAbortException> initializedVirtualChannel = this::getOrCreateVirtualChannel;
+    // Borrowed from the CoverityWebServicePool for the whole build, keyed by url and credentials id; returned by releaseWebServices
+    private final Map<List<String>, CoverityWebServices> _webServices = new HashMap<>();
+    // Resolved from the credentials stores once per workflow, keyed by credentials id
+    private final Map<String, ResolvedCoverityCredentials> _resolvedCredentials = new HashMap<>();
+    // Every sub step this factory creates is timed, so the build can report where its time went
+    private final SubStepTimer subStepTimer = new SubStepTimer();
 
     public CoverityWorkflowStepFactory(EnvVars envVars, Node node, Launcher launcher, TaskListener listener) {
         this.envVars = envVars;
@@ -69,57 +95,87 @@ public class CoverityWorkflowStepFactory {
         this.listener = listener;
     }
 
-    public CreateMissingProjectsAndStreams createStepCreateMissingProjectsAndStreams(String coverityServerUrl, String credentialsId, String projectName, String streamName) throws CoverityJenkinsAbortException {
-        WebServiceFactory webServiceFactory = getWebServiceFactoryFromUrl(coverityServerUrl, credentialsId);
+    public SubStep<Object, Object> createStepCreateMissingProjectsAndStreams(String coverityServerUrl, String credentialsId, String projectName, String streamName) throws CoverityJenkinsAbortException {
+        CoverityWebServices coverityWebServices = getOrBorrowWebServices(coverityServerUrl, credentialsId);
         ConfigurationServiceWrapper configurationServiceWrapper;
         try {
-            configurationServiceWrapper = webServiceFactory.createConfigurationServiceWrapper();
+            configurationServiceWrapper = coverityWebServices.getOrCreateConfigurationServiceWrapper();
         } catch (MalformedURLException malformedURLException) {
             throw CoverityJenkinsAbortException.fromMalformedUrlException(coverityServerUrl + WebServiceFactory.CONFIGURATION_SERVICE_V9_WSDL, malformedURLException);
         }
 
-        return new CreateMissingProjectsAndStreams(initializedLogger.get(), configurationServiceWrapper, projectName, streamName);
+        // Shares the projects and streams that the job configuration pages already cached for this Coverity Connect instance and credentials
+        CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
+        ProjectStreamCache projectStreamCache = CoverityConnectDataCacheService.getInstance()
+                                                    .getCache(ProjectStreamCache.class, coverityServerUrl, credentialsId, () -> new ProjectStreamCache(new Slf4jIntLogger(LoggerFactory.getLogger(ProjectStreamCache.class))));
+        projectStreamCache.refreshInBackgroundIfStale(coverityConnectInstance, credentialsId);
+
+        int creationTimeoutInSeconds = Optional.ofNullable(GlobalConfiguration.all().get(CoverityGlobalConfig.class))
+                                           .map(CoverityGlobalConfig::getCreationTimeoutInSeconds)
+                                           .orElse(CoverityGlobalConfig.DEFAULT_CREATION_TIMEOUT_IN_SECONDS);
+
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(initializedLogger.get(), configurationServiceWrapper, projectName, streamName, projectStreamCache,
+            AdaptiveWait.withTimeoutInSeconds(creationTimeoutInSeconds));
+        return subStepTimer.time("Check Coverity project and stream", createMissingProjectsAndStreams);
+    }
+
+    public <T> SubStep<Object, T> createStepRunSubStepsConcurrently(String resultSubStepName, SubStep<Object, T> resultSubStep, Map<String, SubStep<Object, ?>> otherSubSteps) {
+        return subStepTimer.time("Concurrent set up", new RunSubStepsConcurrently<>(initializedLogger.get(), resultSubStepName, resultSubStep, otherSubSteps));
     }
 
-    public GetCoverityCommands createStepGetCoverityCommands(CoverityRunConfiguration coverityRunConfiguration) {
-        return new GetCoverityCommands(initializedLogger.get(), initializedIntEnvrionmentVariables.get(), coverityRunConfiguration);
+    public SubStep<Object, List<List<String>>> createStepGetCoverityCommands(CoverityRunConfiguration coverityRunConfiguration) {
+        return subStepTimer.time("Get Coverity commands", new GetCoverityCommands(initializedLogger.get(), initializedIntEnvrionmentVariables.get(), coverityRunConfiguration));
     }
 
-    public GetIssuesInView createStepGetIssuesInView(String coverityServerUrl, String credentialsId, String projectName, String viewName) throws CoverityJenkinsAbortException {
-        WebServiceFactory webServiceFactory = getWebServiceFactoryFromUrl(coverityServerUrl, credentialsId);
+    public SubStep<Object, ViewReportWrapper> createStepGetIssuesInView(String coverityServerUrl, String credentialsId, String projectName, String viewName) throws CoverityJenkinsAbortException {
+        CoverityWebServices coverityWebServices = getOrBorrowWebServices(coverityServerUrl, credentialsId);
         ConfigurationServiceWrapper configurationServiceWrapper;
         try {
-            configurationServiceWrapper = webServiceFactory.createConfigurationServiceWrapper();
+            configurationServiceWrapper = coverityWebServices.getOrCreateConfigurationServiceWrapper();
         } catch (MalformedURLException malformedURLException) {
             throw CoverityJenkinsAbortException.fromMalformedUrlException(coverityServerUrl + WebServiceFactory.CONFIGURATION_SERVICE_V9_WSDL, malformedURLException);
         }
-        ViewService viewService = webServiceFactory.createViewService();
+        ViewService viewService = coverityWebServices.getOrCreateViewService();
 
-        return new GetIssuesInView(initializedLogger.get(), configurationServiceWrapper, viewService, projectName, viewName);
+        return subStepTimer.time("Get issues in view", new GetIssuesInView(initializedLogger.get(), configurationServiceWrapper, viewService, projectName, viewName));
     }
 
-    public RunCoverityCommands createStepRunCoverityCommands(String workspaceRemotePath, OnCommandFailure onCommandFailure) throws CoverityJenkinsAbortException {
-        return new RunCoverityCommands(initializedLogger.get(), initializedIntEnvrionmentVariables.get(), workspaceRemotePath, onCommandFailure, initializedVirtualChannel.get());
+    public SubStep<Object, ViewReportWrapper> createStepStreamIssuesInView(String coverityServerUrl, String credentialsId, String projectName, String viewName, int pageSize, File issuesFile) throws CoverityJenkinsAbortException {
+        CoverityWebServices coverityWebServices = getOrBorrowWebServices(coverityServerUrl, credentialsId);
+        ConfigurationServiceWrapper configurationServiceWrapper;
+        try {
+            configurationServiceWrapper = coverityWebServices.getOrCreateConfigurationServiceWrapper();
+        } catch (MalformedURLException malformedURLException) {
+            throw CoverityJenkinsAbortException.fromMalformedUrlException(coverityServerUrl + WebServiceFactory.CONFIGURATION_SERVICE_V9_WSDL, malformedURLException);
+        }
+        ViewService viewService = coverityWebServices.getOrCreateViewService();
+
+        return subStepTimer.time("Export issues in view", new StreamIssuesInView(initializedLogger.get(), configurationServiceWrapper, viewService, projectName, viewName, pageSize, issuesFile));
     }
 
-    public SubStep<Object, String> createStepCreateAuthenticationKeyFile(String workspaceRemotePath, String coverityServerUrl, String credentialsId) throws CoverityJenkinsAbortException {
-        CoverityJenkinsIntLogger logger = initializedLogger.get();
-        CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
-        Optional<String> authKeyContents = coverityConnectInstance.getAuthenticationKeyFileContents(logger, credentialsId);
-        FilePath workspace = new FilePath(initializedVirtualChannel.get(), workspaceRemotePath);
-
-        return SubStep.ofSupplier(() -> {
-            if (authKeyContents.isPresent()) {
-                FilePath authKeyFile = workspace.createTextTempFile("auth-key", ".txt", authKeyContents.get());
-                authKeyFile.chmod(0600);
-                return authKeyFile.getRemote();
+    public SubStep<List<List<String>>, Object> createStepRunCoverityCommands(String workspaceRemotePath, OnCommandFailure onCommandFailure, CoverityRunConfiguration coverityRunConfiguration) throws CoverityJenkinsAbortException {
+        RunCoverityCommands runCoverityCommands;
+        if (CoverityRunConfiguration.RunConfigurationType.ADVANCED.equals(coverityRunConfiguration.getRunConFigurationType())) {
+            AdvancedCoverityRunConfiguration advancedCoverityRunConfiguration = (AdvancedCoverityRunConfiguration) coverityRunConfiguration;
+            if (Boolean.TRUE.equals(advancedCoverityRunConfiguration.getRunCommandsInParallel())) {
+                CoverityCommandGraph coverityCommandGraph = CoverityCommandGraph.fromRepeatableCommands(advancedCoverityRunConfiguration.getCommands());
+                runCoverityCommands = new RunCoverityCommands(initializedLogger.get(), initializedIntEnvrionmentVariables.get(), workspaceRemotePath, onCommandFailure, initializedVirtualChannel.get(), coverityCommandGraph,
+                    advancedCoverityRunConfiguration.getMaximumParallelCommands(), subStepTimer);
+                return subStepTimer.time("Run Coverity commands", runCoverityCommands);
             }
-            return StringUtils.EMPTY;
-        });
+        }
+
+        runCoverityCommands = new RunCoverityCommands(initializedLogger.get(), initializedIntEnvrionmentVariables.get(), workspaceRemotePath, onCommandFailure, initializedVirtualChannel.get(), null, 1, subStepTimer);
+        return subStepTimer.time("Run Coverity commands", runCoverityCommands);
     }
 
-    public SetUpCoverityEnvironment createStepSetUpCoverityEnvironment(List<ChangeLogSet<?>> changeLogSets, ConfigureChangeSetPatterns configureChangeSetPatterns, String workspaceRemotePath, String coverityServerUrl, String credentialsId, String projectName,
+    public SubStep<CoverityAgentFacts, Object> createStepSetUpCoverityEnvironment(List<ChangeLogSet<?>> changeLogSets, ConfigureChangeSetPatterns configureChangeSetPatterns, String workspaceRemotePath, String coverityServerUrl, String credentialsId, String projectName,
         String streamName, String viewName) throws CoverityJenkinsAbortException {
+        return createStepSetUpCoverityEnvironment(changeLogSets, configureChangeSetPatterns, workspaceRemotePath, coverityServerUrl, credentialsId, projectName, streamName, viewName, null);
+    }
+
+    public SubStep<CoverityAgentFacts, Object> createStepSetUpCoverityEnvironment(List<ChangeLogSet<?>> changeLogSets, ConfigureChangeSetPatterns configureChangeSetPatterns, String workspaceRemotePath, String coverityServerUrl, String credentialsId, String projectName,
+        String streamName, String viewName, @Nullable ChangeSetIndex changeSetIndex) throws CoverityJenkinsAbortException {
         CoverityJenkinsIntLogger logger = initializedLogger.get();
         IntEnvironmentVariables intEnvironmentVariables = initializedIntEnvrionmentVariables.get();
         VirtualChannel virtualChannel = initializedVirtualChannel.get();
@@ -127,26 +183,111 @@ public class CoverityWorkflowStepFactory {
         FilePath intermediateDirectory = getIntermediateDirectory(workspaceRemotePath);
         String remoteIntermediateDirectory = intermediateDirectory.getRemote();
 
-        CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
-        String coverityUsername = coverityConnectInstance.getUsername(logger, credentialsId).orElse(null);
-        String coverityPassphrase = coverityConnectInstance.getPassphrase(credentialsId).orElse(null);
-        String coverityToolHomeBin = new FilePath(virtualChannel, validatedCoverityToolHome.get())
-                                         .child("bin")
-                                         .getRemote();
+        ResolvedCoverityCredentials resolvedCoverityCredentials = getOrResolveCredentials(coverityServerUrl, credentialsId);
+        String coverityUsername = resolvedCoverityCredentials.getUsername().orElse(null);
+        String coverityPassphrase = resolvedCoverityCredentials.getPassphrase().orElse(null);
 
-        return new SetUpCoverityEnvironment(logger, intEnvironmentVariables, changeLogSets, configureChangeSetPatterns, coverityServerUrl, credentialsId, coverityUsername, coverityPassphrase, projectName, streamName, viewName, remoteIntermediateDirectory, coverityToolHomeBin);
+        FilePath workspace = new FilePath(virtualChannel, workspaceRemotePath);
+        int changeSetEnvironmentVariableLimit = Optional.ofNullable(GlobalConfiguration.all().get(CoverityGlobalConfig.class))
+                                                    .map(CoverityGlobalConfig::getChangeSetEnvironmentVariableLimit)
+                                                    .orElse(CoverityGlobalConfig.DEFAULT_CHANGE_SET_ENVIRONMENT_VARIABLE_LIMIT);
+
+        SetUpCoverityEnvironment setUpCoverityEnvironment = new SetUpCoverityEnvironment(logger, intEnvironmentVariables, changeLogSets, configureChangeSetPatterns, coverityServerUrl, credentialsId, coverityUsername, coverityPassphrase, projectName,
+            streamName, viewName, remoteIntermediateDirectory, workspace, changeSetEnvironmentVariableLimit, changeSetIndex);
+        return subStepTimer.time("Set up Coverity environment", setUpCoverityEnvironment);
+    }
+
+    public SubStep<Object, CoverityAgentFacts> createStepProbeCoverityAgent(String workspaceRemotePath, String coverityServerUrl, String credentialsId, boolean shouldValidateVersion, boolean shouldCreateIntermediateDirectory)
+        throws CoverityJenkinsAbortException {
+        CoverityJenkinsIntLogger logger = initializedLogger.get();
+        VirtualChannel virtualChannel = initializedVirtualChannel.get();
+        String coverityToolHome = validatedCoverityToolHome.get();
+        String authKeyContents = getOrResolveCredentials(coverityServerUrl, credentialsId).getAuthenticationKeyFileContents().orElse(null);
+        String remoteIntermediateDirectory = shouldCreateIntermediateDirectory ? getIntermediateDirectory(workspaceRemotePath).getRemote() : null;
+        // Without a node there is nothing to tell agents apart by, so the agent is probed for every build
+        String nodeName = Optional.ofNullable(node).map(Node::getNodeName).orElse(null);
+        long cacheTimeInNanos = TimeUnit.SECONDS.toNanos(Optional.ofNullable(GlobalConfiguration.all().get(CoverityGlobalConfig.class))
+                                                             .map(CoverityGlobalConfig::getAgentProbeCacheTimeInSeconds)
+                                                             .orElse(CoverityGlobalConfig.DEFAULT_AGENT_PROBE_CACHE_TIME_IN_SECONDS));
+        boolean shouldCache = nodeName != null && cacheTimeInNanos > 0;
+
+        return subStepTimer.time("Probe Coverity agent", SubStep.ofSupplier(() -> {
+            CoverityAgentFactsCache coverityAgentFactsCache = CoverityAgentFactsCache.getInstance();
+            CoverityAgentFacts cachedCoverityAgentFacts = shouldCache ? coverityAgentFactsCache.getCached(nodeName, coverityToolHome, shouldValidateVersion, cacheTimeInNanos).orElse(null) : null;
+
+            CoverityAgentFacts coverityAgentFacts;
+            if (cachedCoverityAgentFacts != null && authKeyContents == null && remoteIntermediateDirectory == null) {
+                // Nothing has to be written to the agent and the installation was validated recently, so the agent does not have to be called at all
+                coverityAgentFacts = cachedCoverityAgentFacts;
+            } else {
+                ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(logger, coverityToolHome, cachedCoverityAgentFacts == null, shouldValidateVersion, workspaceRemotePath, authKeyContents, remoteIntermediateDirectory);
+                coverityAgentFacts = virtualChannel.call(probeCoverityAgent);
+                if (shouldCache && cachedCoverityAgentFacts == null) {
+                    coverityAgentFactsCache.cache(nodeName, coverityToolHome, shouldValidateVersion, coverityAgentFacts);
+                }
+            }
+
+            logger.alwaysLog(String.format("Synopsys Coverity static analysis %s on an agent with %d processors and %s of usable space",
+                coverityAgentFacts.getCoverityVersion().orElse("of an unknown version"),
+                coverityAgentFacts.getAvailableProcessors(),
+                coverityAgentFacts.getUsableSpaceInBytes() == CoverityAgentFacts.UNKNOWN_USABLE_SPACE ? "an unknown amount" : (coverityAgentFacts.getUsableSpaceInBytes() / (1024 * 1024)) + " MB"));
+            return coverityAgentFacts;
+        }));
+    }
+
+    public SubStep<Object, Boolean> createStepRestoreIntermediateDirectory(String workspaceRemotePath, String streamName) throws CoverityJenkinsAbortException {
+        String remoteIntermediateDirectory = getIntermediateDirectory(workspaceRemotePath).getRemote();
+        RestoreIntermediateDirectory restoreIntermediateDirectory = new RestoreIntermediateDirectory(initializedLogger.get(), getIntermediateDirectoryCache().getRemote(), streamName, validatedCoverityToolHome.get(), remoteIntermediateDirectory);
+        return subStepTimer.time("Restore cached intermediate directory", RemoteSubStep.of(initializedVirtualChannel.get(), restoreIntermediateDirectory));
     }
 
-    public RemoteSubStep<Boolean> createStepValidateCoverityInstallation(boolean shouldValidateVersion) throws CoverityJenkinsAbortException {
+    public StoreIntermediateDirectory createStoreIntermediateDirectory(String workspaceRemotePath, String streamName) throws CoverityJenkinsAbortException {
+        String remoteIntermediateDirectory = getIntermediateDirectory(workspaceRemotePath).getRemote();
+        int quotaInMegabytes = Optional.ofNullable(GlobalConfiguration.all().get(CoverityGlobalConfig.class))
+                                   .map(CoverityGlobalConfig::getIntermediateDirectoryCacheQuotaInMegabytes)
+                                   .orElse(CoverityGlobalConfig.DEFAULT_INTERMEDIATE_DIRECTORY_CACHE_QUOTA_IN_MEGABYTES);
+
+        return new StoreIntermediateDirectory(initializedLogger.get(), getIntermediateDirectoryCache().getRemote(), streamName, validatedCoverityToolHome.get(), remoteIntermediateDirectory, quotaInMegabytes * 1024L * 1024L);
+    }
+
+    public SubStep<Object, Object> createStepRestoreStashedIntermediateDirectory(String workspaceRemotePath, String streamName) throws CoverityJenkinsAbortException {
+        String remoteIntermediateDirectory = getIntermediateDirectory(workspaceRemotePath).getRemote();
         String coverityToolHome = validatedCoverityToolHome.get();
+        IntermediateDirectoryStashService intermediateDirectoryStashService = getIntermediateDirectoryStashService();
+        return subStepTimer.time("Restore stashed intermediate directory", SubStep.ofExecutor(() -> intermediateDirectoryStashService.restore(streamName, coverityToolHome, remoteIntermediateDirectory)));
+    }
+
+    public SubStep<Object, Object> createStepStashIntermediateDirectory(String workspaceRemotePath, String streamName, BooleanSupplier shouldStash) throws CoverityJenkinsAbortException {
+        String remoteIntermediateDirectory = getIntermediateDirectory(workspaceRemotePath).getRemote();
+        String coverityToolHome = validatedCoverityToolHome.get();
+        IntermediateDirectoryStashService intermediateDirectoryStashService = getIntermediateDirectoryStashService();
+        return subStepTimer.time("Stash intermediate directory", SubStep.ofExecutor(() -> {
+            if (shouldStash.getAsBoolean()) {
+                intermediateDirectoryStashService.stash(streamName, coverityToolHome, remoteIntermediateDirectory);
+            }
+        }));
+    }
 
-        ValidateCoverityInstallation validateCoverityInstallation = new ValidateCoverityInstallation(initializedLogger.get(), shouldValidateVersion, coverityToolHome);
-        return RemoteSubStep.of(initializedVirtualChannel.get(), validateCoverityInstallation);
+    public TombstoneIntermediateDirectory createTombstoneIntermediateDirectory(String workspaceRemotePath) throws CoverityJenkinsAbortException {
+        String remoteIntermediateDirectory = getIntermediateDirectory(workspaceRemotePath).getRemote();
+        CoverityGlobalConfig coverityGlobalConfig = GlobalConfiguration.all().get(CoverityGlobalConfig.class);
+        int threads = Optional.ofNullable(coverityGlobalConfig)
+                          .map(CoverityGlobalConfig::getBackgroundCleanUpThreads)
+                          .orElse(CoverityGlobalConfig.DEFAULT_BACKGROUND_CLEAN_UP_THREADS);
+        int deletionsPerSecond = Optional.ofNullable(coverityGlobalConfig)
+                                     .map(CoverityGlobalConfig::getBackgroundCleanUpDeletionsPerSecond)
+                                     .orElse(CoverityGlobalConfig.DEFAULT_BACKGROUND_CLEAN_UP_DELETIONS_PER_SECOND);
+
+        return new TombstoneIntermediateDirectory(initializedLogger.get(), remoteIntermediateDirectory, getNodeDirectory().child("idir-tombstones").getRemote(), threads, deletionsPerSecond);
     }
 
     public SubStep<Object, Object> createStepPopulateEnvVars(BiConsumer<String, String> environmentPopulator) {
         IntEnvironmentVariables intEnvironmentVariables = initializedIntEnvrionmentVariables.get();
-        return SubStep.ofExecutor(() -> intEnvironmentVariables.getVariables().forEach(environmentPopulator));
+        return subStepTimer.time("Populate environment variables", SubStep.ofExecutor(() -> intEnvironmentVariables.getVariables().forEach(environmentPopulator)));
+    }
+
+    public List<SubStepTiming> getSubStepTimings() {
+        return subStepTimer.getSubStepTimings();
     }
 
     public CoverityJenkinsIntLogger getOrCreateLogger() {
@@ -198,26 +339,56 @@ public class CoverityWorkflowStepFactory {
     }
 
     public WebServiceFactory getWebServiceFactoryFromUrl(String coverityServerUrl, String credentialsId) throws CoverityJenkinsAbortException {
-        CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
-        JenkinsIntLogger logger = getOrCreateLogger();
+        return getOrBorrowWebServices(coverityServerUrl, credentialsId).getWebServiceFactory();
+    }
 
-        CoverityServerConfig coverityServerConfig = coverityConnectInstance.getCoverityServerConfig(logger, credentialsId);
-        WebServiceFactory webServiceFactory = coverityServerConfig.createWebServiceFactory(logger);
-        try {
-            webServiceFactory.connect();
-        } catch (CoverityIntegrationException e) {
-            throw new CoverityJenkinsAbortException("An error occurred when connecting to Coverity Connect. Please ensure that you can connect properly.");
-        } catch (MalformedURLException e) {
-            throw CoverityJenkinsAbortException.fromMalformedUrlException(coverityServerUrl + WebServiceFactory.CONFIGURATION_SERVICE_V9_WSDL, e);
+    public CoverityWebServices getOrBorrowWebServices(String coverityServerUrl, String credentialsId) throws CoverityJenkinsAbortException {
+        List<String> urlAndCredentialsId = Arrays.asList(coverityServerUrl, credentialsId);
+        CoverityWebServices coverityWebServices = _webServices.get(urlAndCredentialsId);
+        if (coverityWebServices == null) {
+            CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
+            ResolvedCoverityCredentials resolvedCoverityCredentials = getOrResolveCredentials(coverityServerUrl, credentialsId);
+
+            String username = resolvedCoverityCredentials.getUsername().orElse(StringUtils.EMPTY);
+            String passphrase = resolvedCoverityCredentials.getPassphrase().orElse(StringUtils.EMPTY);
+            String authenticationKeyFileContents = resolvedCoverityCredentials.getAuthenticationKeyFileContents().orElse(StringUtils.EMPTY);
+            List<String> poolKey = CoverityWebServicePool.createPoolKey(coverityServerUrl, credentialsId, username, passphrase, authenticationKeyFileContents);
+            coverityWebServices = CoverityWebServicePool.getInstance().borrow(poolKey, getOrCreateLogger(), pooledLogger -> connectWebServiceFactory(pooledLogger, coverityConnectInstance, coverityServerUrl, resolvedCoverityCredentials));
+            _webServices.put(urlAndCredentialsId, coverityWebServices);
         }
 
-        return webServiceFactory;
+        return coverityWebServices;
+    }
+
+    public ResolvedCoverityCredentials getOrResolveCredentials(String coverityServerUrl, String credentialsId) throws CoverityJenkinsAbortException {
+        ResolvedCoverityCredentials resolvedCoverityCredentials = _resolvedCredentials.get(credentialsId);
+        if (resolvedCoverityCredentials == null) {
+            CoverityConnectInstance coverityConnectInstance = getCoverityConnectInstanceFromUrl(coverityServerUrl);
+            resolvedCoverityCredentials = coverityConnectInstance.resolveCredentials(getOrCreateLogger(), credentialsId);
+            _resolvedCredentials.put(credentialsId, resolvedCoverityCredentials);
+        }
+
+        return resolvedCoverityCredentials;
+    }
+
+    public void releaseWebServices() {
+        _webServices.values().forEach(CoverityWebServicePool.getInstance()::release);
+        _webServices.clear();
     }
 
     public FilePath getIntermediateDirectory(String workspaceRemotePath) throws CoverityJenkinsAbortException {
         return new FilePath(initializedVirtualChannel.get(), workspaceRemotePath).child("idir");
     }
 
+    public FilePath getIntermediateDirectoryCache() throws CoverityJenkinsAbortException {
+        // Shared by every workspace on the agent, so builds of a stream can reuse each other's intermediate directories wherever they run
+        return getNodeDirectory().child("idir-cache");
+    }
+
+    public IntermediateDirectoryStashService getIntermediateDirectoryStashService() throws CoverityJenkinsAbortException {
+        return IntermediateDirectoryStashService.forChannel(initializedLogger.get(), initializedVirtualChannel.get());
+    }
+
     public VirtualChannel getOrCreateVirtualChannel() throws CoverityJenkinsAbortException {
         if (_virtualChannel == null) {
             if (launcher != null || node != null) {
@@ -233,4 +404,28 @@ public class CoverityWorkflowStepFactory {
         return _virtualChannel;
     }
 
+    private FilePath getNodeDirectory() throws CoverityJenkinsAbortException {
+        FilePath rootPath = Optional.ofNullable(node)
+                                .map(Node::getRootPath)
+                                .orElseThrow(() -> new CoverityJenkinsAbortException("Could not find the root directory of the node to keep intermediate directories in."));
+        return rootPath.child("synopsys-coverity");
+    }
+
+    private WebServiceFactory connectWebServiceFactory(IntLogger logger, CoverityConnectInstance coverityConnectInstance, String coverityServerUrl, ResolvedCoverityCredentials resolvedCoverityCredentials)
+        throws CoverityJenkinsAbortException {
+        CoverityServerConfig coverityServerConfig = coverityConnectInstance.getCoverityServerConfig(resolvedCoverityCredentials.getIntegrationCredentials());
+        WebServiceFactory webServiceFactory = coverityServerConfig.createWebServiceFactory(logger);
+        try (Context ignored = CoverityMetrics.timer(CoverityMetrics.CONNECT).time()) {
+            webServiceFactory.connect();
+        } catch (CoverityIntegrationException e) {
+            CoverityMetrics.counter(CoverityMetrics.CONNECT_FAILURES).inc();
+            throw new CoverityJenkinsAbortException("An error occurred when connecting to Coverity Connect. Please ensure that you can connect properly.");
+        } catch (MalformedURLException e) {
+            CoverityMetrics.counter(CoverityMetrics.CONNECT_FAILURES).inc();
+            throw CoverityJenkinsAbortException.fromMalformedUrlException(coverityServerUrl + WebServiceFactory.CONFIGURATION_SERVICE_V9_WSDL, e);
+        }
+
+        return webServiceFactory;
+    }
+
 }
@@ -0,0 +1,49 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+public class CreateIntermediateDirectoryManifest extends CoverityRemoteCallable<IntermediateDirectoryManifest> {
+    private static final long serialVersionUID = 7781640183651307924L;
+    private final String streamName;
+    private final String coverityToolHome;
+    private final String intermediateDirectory;
+
+    public CreateIntermediateDirectoryManifest(CoverityJenkinsIntLogger logger, String streamName, String coverityToolHome, String intermediateDirectory) {
+        super(logger);
+        this.streamName = streamName;
+        this.coverityToolHome = coverityToolHome;
+        this.intermediateDirectory = intermediateDirectory;
+    }
+
+    /**
+     * @return the manifest of the intermediate directory, or null if there is no intermediate directory to stash
+     */
+    @Override
+    public IntermediateDirectoryManifest call() throws CoverityJenkinsException {
+        Path intermediateDirectoryPath = Paths.get(intermediateDirectory);
+        if (!Files.isDirectory(intermediateDirectoryPath)) {
+            return null;
+        }
+
+        String stashKey = IntermediateDirectoryCache.createCacheKey(streamName, Paths.get(coverityToolHome));
+        try {
+            return IntermediateDirectoryStash.createManifest(stashKey, intermediateDirectoryPath);
+        } catch (IOException e) {
+            throw new CoverityJenkinsException("Could not read the intermediate directory to stash it", e);
+        }
+    }
+
+}
@@ -7,12 +7,10 @@
  */
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
-import java.util.Optional;
-
 import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceException_Exception;
-import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
-import com.synopsys.integration.coverity.api.ws.configuration.StreamDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectIdDataObj;
 import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.ProjectStreamCache;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.stepworkflow.AbstractExecutingSubStep;
 import com.synopsys.integration.stepworkflow.SubStepResponse;
@@ -22,37 +20,59 @@ public class CreateMissingProjectsAndStreams extends AbstractExecutingSubStep {
     private final ConfigurationServiceWrapper configurationServiceWrapper;
     private final String projectName;
     private final String streamName;
+    private final ProjectStreamCache projectStreamCache;
+    private final AdaptiveWait creationWait;
 
-    public CreateMissingProjectsAndStreams(JenkinsIntLogger logger, ConfigurationServiceWrapper configurationServiceWrapper, String projectName, String streamName) {
+    public CreateMissingProjectsAndStreams(JenkinsIntLogger logger, ConfigurationServiceWrapper configurationServiceWrapper, String projectName, String streamName, ProjectStreamCache projectStreamCache, AdaptiveWait creationWait) {
         this.logger = logger;
         this.configurationServiceWrapper = configurationServiceWrapper;
         this.projectName = projectName;
         this.streamName = streamName;
+        this.projectStreamCache = projectStreamCache;
+        this.creationWait = creationWait;
     }
 
     @Override
     public SubStepResponse<Object> run() {
         try {
-            Optional<ProjectDataObj> matchingProject = configurationServiceWrapper.getProjectByExactName(projectName);
-            if (!matchingProject.isPresent()) {
+            boolean projectExists = projectExists();
+            if (!projectExists) {
                 logger.info(String.format("No project with the name '%s' was found, attempting creation...", projectName));
-                configurationServiceWrapper.createSimpleProject(projectName);
-                matchingProject = configurationServiceWrapper.getAndWaitForProjectWithExactName(projectName);
+                try {
+                    configurationServiceWrapper.createSimpleProject(projectName);
+                } catch (CovRemoteServiceException_Exception e) {
+                    // Another build, or someone outside of Jenkins, may have created the project since it was found to be missing
+                    if (!configurationServiceWrapper.getProjectByExactName(projectName).isPresent()) {
+                        throw e;
+                    }
+                    logger.info(String.format("Project '%s' was created by something else in the meantime", projectName));
+                }
+                projectExists = creationWait.waitFor(() -> configurationServiceWrapper.getProjectByExactName(projectName)).isPresent();
 
-                if (matchingProject.isPresent()) {
+                if (projectExists) {
+                    projectStreamCache.publishProject(projectName);
                     logger.info(String.format("Successfully created project '%s'", projectName));
                 } else {
                     logger.error(String.format("Could not create project '%s'", projectName));
                 }
             }
 
-            Optional<StreamDataObj> matchingStream = configurationServiceWrapper.getStreamByExactName(streamName);
-            if (!matchingStream.isPresent() && matchingProject.isPresent()) {
+            if (!streamExists() && projectExists) {
                 logger.info(String.format("No stream with the name '%s' was found, attempting creation as an Any language stream with the Default Triage Store in project '%s'...", streamName, projectName));
-                configurationServiceWrapper.createSimpleStreamInProject(matchingProject.get().getId(), streamName);
-                matchingStream = configurationServiceWrapper.getAndWaitForStreamWithExactName(streamName);
+                // Projects are identified by name, so the id can be built from the name the cache holds
+                ProjectIdDataObj projectId = new ProjectIdDataObj();
+                projectId.setName(projectName);
+                try {
+                    configurationServiceWrapper.createSimpleStreamInProject(projectId, streamName);
+                } catch (CovRemoteServiceException_Exception e) {
+                    if (!configurationServiceWrapper.getStreamByExactName(streamName).isPresent()) {
+                        throw e;
+                    }
+                    logger.info(String.format("Stream '%s' was created by something else in the meantime", streamName));
+                }
 
-                if (matchingStream.isPresent()) {
+                if (creationWait.waitFor(() -> configurationServiceWrapper.getStreamByExactName(streamName)).isPresent()) {
+                    projectStreamCache.publishStream(streamName);
                     logger.info(String.format("Successfully created stream '%s'", streamName));
                 } else {
                     logger.error(String.format("Could not create stream '%s'", streamName));
@@ -68,4 +88,38 @@ public class CreateMissingProjectsAndStreams extends AbstractExecutingSubStep {
         return SubStepResponse.SUCCESS();
     }
 
+    private boolean projectExists() throws CovRemoteServiceException_Exception {
+        if (projectStreamCache.isProjectCached(projectName)) {
+            logger.debug(String.format("Found project '%s' in the cached Coverity projects", projectName));
+            return true;
+        }
+        if (projectStreamCache.isProjectKnownToBeMissing(projectName)) {
+            return false;
+        }
+
+        if (configurationServiceWrapper.getProjectByExactName(projectName).isPresent()) {
+            projectStreamCache.publishProject(projectName);
+            return true;
+        }
+        projectStreamCache.publishMissingProject(projectName);
+        return false;
+    }
+
+    private boolean streamExists() throws CovRemoteServiceException_Exception {
+        if (projectStreamCache.isStreamCached(streamName)) {
+            logger.debug(String.format("Found stream '%s' in the cached Coverity projects", streamName));
+            return true;
+        }
+        if (projectStreamCache.isStreamKnownToBeMissing(streamName)) {
+            return false;
+        }
+
+        if (configurationServiceWrapper.getStreamByExactName(streamName).isPresent()) {
+            projectStreamCache.publishStream(streamName);
+            return true;
+        }
+        projectStreamCache.publishMissingStream(streamName);
+        return false;
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Forwards a tool's error output to the logger one line at a time as it is written, and remembers the last few kilobytes for a failure summary. Memory use is fixed no matter how much the tool writes.
+ */
+public class ErrorLineOutputStream extends OutputStream {
+    public static final int DEFAULT_MAXIMUM_LINE_LENGTH = 8 * 1024;
+    public static final int DEFAULT_TAIL_SIZE = 16 * 1024;
+
+    private final IntLogger logger;
+    private final byte[] lineBuffer;
+    private int lineLength = 0;
+    private final byte[] tailBuffer;
+    private int tailPosition = 0;
+    private boolean tailWrapped = false;
+    private boolean closed = false;
+
+    public ErrorLineOutputStream(IntLogger logger) {
+        this(logger, DEFAULT_MAXIMUM_LINE_LENGTH, DEFAULT_TAIL_SIZE);
+    }
+
+    public ErrorLineOutputStream(IntLogger logger, int maximumLineLength, int tailSize) {
+        this.logger = logger;
+        this.lineBuffer = new byte[maximumLineLength];
+        this.tailBuffer = new byte[tailSize];
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        appendToTail((byte) b);
+
+        if (b == '\n') {
+            flushLine();
+            return;
+        }
+
+        if (lineLength == lineBuffer.length) {
+            // Lines longer than the buffer are forwarded in pieces rather than held in memory, split between characters so no piece ends in half of one
+            flushLine(findCharacterBoundary((byte) b));
+        }
+        lineBuffer[lineLength++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            write(bytes[i]);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            flushLine();
+            closed = true;
+        }
+    }
+
+    public synchronized String getTail() {
+        if (!tailWrapped) {
+            return new String(tailBuffer, 0, tailPosition, StandardCharsets.UTF_8).trim();
+        }
+
+        byte[] orderedTail = new byte[tailBuffer.length];
+        int olderLength = tailBuffer.length - tailPosition;
+        System.arraycopy(tailBuffer, tailPosition, orderedTail, 0, olderLength);
+        System.arraycopy(tailBuffer, 0, orderedTail, olderLength, tailPosition);
+        // The oldest bytes may be the end of a character whose start was overwritten
+        int start = 0;
+        while (start < orderedTail.length && start < 3 && isContinuationByte(orderedTail[start])) {
+            start++;
+        }
+        return new String(orderedTail, start, orderedTail.length - start, StandardCharsets.UTF_8).trim();
+    }
+
+    private void flushLine() {
+        flushLine(lineLength);
+    }
+
+    /**
+     * Forwards the first bytes of the line buffer and keeps the rest of them as the start of the next piece.
+     */
+    private void flushLine(int end) {
+        int length = end;
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        if (length > 0) {
+            logger.error(new String(lineBuffer, 0, length, StandardCharsets.UTF_8));
+        }
+        System.arraycopy(lineBuffer, end, lineBuffer, 0, lineLength - end);
+        lineLength -= end;
+    }
+
+    /**
+     * @return where the full line buffer can be split so that the next byte does not continue a character that the first piece ends in
+     */
+    private int findCharacterBoundary(byte nextByte) {
+        if (!isContinuationByte(nextByte)) {
+            return lineLength;
+        }
+        // A UTF-8 character is at most four bytes, so its first byte is at most three bytes back
+        for (int position = lineLength - 1; position > 0 && position >= lineLength - 3; position--) {
+            if (!isContinuationByte(lineBuffer[position])) {
+                return position;
+            }
+        }
+        // Not UTF-8, or the buffer is too short to hold a whole character
+        return lineLength;
+    }
+
+    private static boolean isContinuationByte(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private void appendToTail(byte b) {
+        if (tailBuffer.length == 0) {
+            return;
+        }
+        tailBuffer[tailPosition++] = b;
+        if (tailPosition == tailBuffer.length) {
+            tailPosition = 0;
+            tailWrapped = true;
+        }
+    }
+
+}
@@ -98,7 +98,7 @@ public class GetCoverityCommands extends AbstractSupplyingSubStep<List<List<Stri
         if (coverityAnalysisType == CoverityAnalysisType.COV_ANALYZE || (coverityAnalysisType == CoverityAnalysisType.THRESHOLD && changeSetSize >= simpleCoverityRunConfiguration.getChangeSetAnalysisThreshold())) {
             repeatableCommands[1] = RepeatableCommand.COV_ANALYZE(covAnalyzeArguments);
         } else if (coverityAnalysisType == CoverityAnalysisType.COV_RUN_DESKTOP || coverityAnalysisType == CoverityAnalysisType.THRESHOLD) {
-            repeatableCommands[1] = RepeatableCommand.COV_RUN_DESKTOP(pathToAuthKeyFile, covRunDesktopArguments);
+            repeatableCommands[1] = RepeatableCommand.COV_RUN_DESKTOP(pathToAuthKeyFile, covRunDesktopArguments, isChangeSetOnlyInFile(changeSetSize));
         } else {
             throw new CoverityJenkinsException("No valid Coverity analysis type specified");
         }
@@ -108,6 +108,12 @@ public class GetCoverityCommands extends AbstractSupplyingSubStep<List<List<Stri
         return repeatableCommands;
     }
 
+    private boolean isChangeSetOnlyInFile(int changeSetSize) {
+        String changeSet = intEnvironmentVariables.getValue(JenkinsCoverityEnvironmentVariable.CHANGE_SET.toString());
+        String changeSetFile = intEnvironmentVariables.getValue(JenkinsCoverityEnvironmentVariable.CHANGE_SET_FILE.toString());
+        return changeSetSize > 0 && StringUtils.isBlank(changeSet) && StringUtils.isNotBlank(changeSetFile);
+    }
+
     private String getArgumentsIfAvailable(CommandArguments commandArguments, Function<CommandArguments, String> getter) {
         if (commandArguments == null) {
             return StringUtils.EMPTY;
@@ -0,0 +1,39 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+
+public class GetIntermediateDirectoryStashKey extends CoverityRemoteCallable<String> {
+    private static final long serialVersionUID = -1374208839476152287L;
+    private final String streamName;
+    private final String coverityToolHome;
+    private final String intermediateDirectory;
+
+    public GetIntermediateDirectoryStashKey(CoverityJenkinsIntLogger logger, String streamName, String coverityToolHome, String intermediateDirectory) {
+        super(logger);
+        this.streamName = streamName;
+        this.coverityToolHome = coverityToolHome;
+        this.intermediateDirectory = intermediateDirectory;
+    }
+
+    /**
+     * @return the key of the stash to restore the intermediate directory from, or null if the intermediate directory already exists and should be used as it is
+     */
+    @Override
+    public String call() {
+        if (Files.exists(Paths.get(intermediateDirectory))) {
+            return null;
+        }
+        return IntermediateDirectoryCache.createCacheKey(streamName, Paths.get(coverityToolHome));
+    }
+
+}
@@ -9,6 +9,7 @@ package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
 import java.io.IOException;
 
+import com.codahale.metrics.Timer.Context;
 import com.synopsys.integration.coverity.api.rest.View;
 import com.synopsys.integration.coverity.api.rest.ViewContents;
 import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceException_Exception;
@@ -18,17 +19,18 @@ import com.synopsys.integration.coverity.ws.view.ViewReportWrapper;
 import com.synopsys.integration.coverity.ws.view.ViewService;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.stepworkflow.AbstractSupplyingSubStep;
 import com.synopsys.integration.stepworkflow.SubStepResponse;
 
 import hudson.AbortException;
 
 public class GetIssuesInView extends AbstractSupplyingSubStep<ViewReportWrapper> {
-    private final ConfigurationServiceWrapper configurationServiceWrapper;
-    private final ViewService viewService;
-    private final String projectName;
-    private final String viewName;
-    private final CoverityJenkinsIntLogger logger;
+    protected final ConfigurationServiceWrapper configurationServiceWrapper;
+    protected final ViewService viewService;
+    protected final String projectName;
+    protected final String viewName;
+    protected final CoverityJenkinsIntLogger logger;
 
     public GetIssuesInView(final CoverityJenkinsIntLogger logger, final ConfigurationServiceWrapper configurationServiceWrapper, final ViewService viewService, final String projectName, final String viewName) {
         this.logger = logger;
@@ -39,17 +41,12 @@ public class GetIssuesInView extends AbstractSupplyingSubStep<ViewReportWrapper>
     }
 
     public SubStepResponse<ViewReportWrapper> run() {
-        try {
+        try (final Context ignored = CoverityMetrics.timer(CoverityMetrics.VIEW_QUERY).time()) {
             logger.alwaysLog(String.format("Checking for issues in project \"%s\", view \"%s\".", projectName, viewName));
-            final ProjectDataObj project = configurationServiceWrapper.getProjectByExactName(projectName)
-                                               .orElseThrow(() -> new AbortException("Coverity Issues could not be retrieved: No project with name " + projectName + " could be found. "
-                                                                                         + "It either does not exist or the credentials configured in the Jenkins system configuration are insufficient to access it."));
+            final ProjectDataObj project = getProject();
+            final View view = getView();
 
-            final View view = viewService.getViewByExactName(viewName)
-                                  .orElseThrow(() -> new AbortException("Coverity Issues could not be retrieved: No view with name " + viewName + " could be found. "
-                                                                            + "It either does not exist or the credentials configured in the Jenkins system configuration are insufficient to access it."));
-
-            final ViewContents viewContents = viewService.getViewContents(project, view, 1, 0);
+            final ViewContents viewContents = getViewContents(project, view);
             final String viewReportUrl = viewService.getProjectViewReportUrl(project, view);
             final ViewReportWrapper viewReportWrapper = new ViewReportWrapper(viewContents, viewReportUrl);
 
@@ -59,4 +56,20 @@ public class GetIssuesInView extends AbstractSupplyingSubStep<ViewReportWrapper>
         }
     }
 
+    protected ViewContents getViewContents(final ProjectDataObj project, final View view) throws IOException, IntegrationException, CovRemoteServiceException_Exception {
+        return viewService.getViewContents(project, view, 1, 0);
+    }
+
+    protected ProjectDataObj getProject() throws IOException, IntegrationException, CovRemoteServiceException_Exception {
+        return configurationServiceWrapper.getProjectByExactName(projectName)
+                   .orElseThrow(() -> new AbortException("Coverity Issues could not be retrieved: No project with name " + projectName + " could be found. "
+                                                             + "It either does not exist or the credentials configured in the Jenkins system configuration are insufficient to access it."));
+    }
+
+    protected View getView() throws IOException, IntegrationException, CovRemoteServiceException_Exception {
+        return viewService.getViewByExactName(viewName)
+                   .orElseThrow(() -> new AbortException("Coverity Issues could not be retrieved: No view with name " + viewName + " could be found. "
+                                                             + "It either does not exist or the credentials configured in the Jenkins system configuration are insufficient to access it."));
+    }
+
 }
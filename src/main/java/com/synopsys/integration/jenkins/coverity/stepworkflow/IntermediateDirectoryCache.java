@@ -0,0 +1,227 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps intermediate directories on an agent between builds, one per Coverity stream and analysis version.
+ * <p>
+ * A build takes an intermediate directory out of the cache by moving it into its workspace and puts it back by moving it into the cache, so two builds of the same stream on the same agent never share one, and
+ * moving never copies the emitted files as long as the cache and the workspaces are on the same file system. Next to every cached directory a size file records its size, and the size file's modification time
+ * records when it was last stored, so evicting the least recently used directories never has to walk them. Storing leaves the size file empty, so a directory is only walked the first time eviction needs its size.
+ * <p>
+ * A cached directory is never deleted where it is, because a restore could move it into a workspace while it is half deleted. It is renamed to a tombstone that no restore looks for, and the
+ * {@link IntermediateDirectoryReaper} deletes the tombstone in the background, so replacing or evicting a cached directory never waits for its files to be deleted.
+ */
+public class IntermediateDirectoryCache {
+    public static final String SIZE_FILE_EXTENSION = ".size";
+    private static final String VERSION_PREFIX = "externalVersion=";
+    private static final String UNKNOWN_VERSION = "unknown";
+    private final Path cacheDirectory;
+    private final IntermediateDirectoryReaper intermediateDirectoryReaper;
+
+    public IntermediateDirectoryCache(Path cacheDirectory) {
+        this(cacheDirectory, IntermediateDirectoryReaper.getInstance());
+    }
+
+    public IntermediateDirectoryCache(Path cacheDirectory, IntermediateDirectoryReaper intermediateDirectoryReaper) {
+        this.cacheDirectory = cacheDirectory;
+        this.intermediateDirectoryReaper = intermediateDirectoryReaper;
+    }
+
+    public static String createCacheKey(String streamName, Path coverityToolHome) {
+        String coverityVersion = readCoverityVersion(coverityToolHome).orElse(UNKNOWN_VERSION);
+        // The hash keeps stream names that only differ in replaced characters apart
+        return String.format("%s-%s-%08x", sanitize(streamName), sanitize(coverityVersion), streamName.hashCode());
+    }
+
+    /**
+     * Tells whether a key that an agent created with {@link #createCacheKey(String, Path)} belongs to the stream. Only the Coverity version in the key comes from the agent alone.
+     */
+    public static boolean isCacheKeyOf(String cacheKey, String streamName) {
+        String prefix = sanitize(streamName) + "-";
+        String suffix = String.format("-%08x", streamName.hashCode());
+        if (!cacheKey.startsWith(prefix) || !cacheKey.endsWith(suffix) || cacheKey.length() <= prefix.length() + suffix.length()) {
+            return false;
+        }
+        String coverityVersion = cacheKey.substring(prefix.length(), cacheKey.length() - suffix.length());
+        return coverityVersion.equals(sanitize(coverityVersion));
+    }
+
+    /**
+     * Moves the cached intermediate directory for the key to the intermediate directory, unless the intermediate directory already exists.
+     * @return whether a cached intermediate directory was restored
+     */
+    public boolean restore(String cacheKey, Path intermediateDirectory) throws IOException {
+        if (Files.exists(intermediateDirectory)) {
+            return false;
+        }
+
+        Files.createDirectories(intermediateDirectory.getParent());
+        try {
+            Files.move(cacheDirectory.resolve(cacheKey), intermediateDirectory, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException e) {
+            // Nothing is cached, or another build already took it
+            return false;
+        } catch (AtomicMoveNotSupportedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the intermediate directory into the cache under the key, replacing what is cached for the key.
+     * @return whether the intermediate directory was stored; it is left where it is if it could not be moved without copying it
+     */
+    public boolean store(String cacheKey, Path intermediateDirectory) throws IOException {
+        if (!Files.isDirectory(intermediateDirectory)) {
+            return false;
+        }
+
+        Files.createDirectories(cacheDirectory);
+        Path cachedDirectory = cacheDirectory.resolve(cacheKey);
+        deleteCachedDirectory(cacheKey);
+        try {
+            Files.move(intermediateDirectory, cachedDirectory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            return false;
+        }
+
+        // Writing the size file also marks the directory as the most recently stored one
+        Files.write(getSizeFile(cacheKey), new byte[0]);
+        return true;
+    }
+
+    /**
+     * Deletes the least recently stored directories until the cached directories fit in the quota.
+     * @return the keys of the deleted directories
+     */
+    public List<String> evict(long quotaInBytes) throws IOException {
+        List<Path> sizeFiles = new ArrayList<>();
+        try (DirectoryStream<Path> cacheEntries = Files.newDirectoryStream(cacheDirectory, "*" + SIZE_FILE_EXTENSION)) {
+            cacheEntries.forEach(sizeFiles::add);
+        }
+        sizeFiles.sort(Comparator.comparingLong(this::getLastModifiedTimeInMillis));
+
+        long totalSize = 0;
+        for (Path sizeFile : sizeFiles) {
+            totalSize += readSize(sizeFile);
+        }
+
+        List<String> evictedCacheKeys = new ArrayList<>();
+        for (Path sizeFile : sizeFiles) {
+            if (totalSize <= quotaInBytes) {
+                break;
+            }
+            String fileName = sizeFile.getFileName().toString();
+            String cacheKey = fileName.substring(0, fileName.length() - SIZE_FILE_EXTENSION.length());
+            totalSize -= readSize(sizeFile);
+            deleteCachedDirectory(cacheKey);
+            Files.deleteIfExists(sizeFile);
+            evictedCacheKeys.add(cacheKey);
+        }
+        return evictedCacheKeys;
+    }
+
+    private Path getSizeFile(String cacheKey) {
+        return cacheDirectory.resolve(cacheKey + SIZE_FILE_EXTENSION);
+    }
+
+    private long readSize(Path sizeFile) {
+        String fileName = sizeFile.getFileName().toString();
+        Path cachedDirectory = cacheDirectory.resolve(fileName.substring(0, fileName.length() - SIZE_FILE_EXTENSION.length()));
+        // A directory that a build took out of the cache takes no space until it is stored again
+        if (!Files.isDirectory(cachedDirectory)) {
+            return 0;
+        }
+        try {
+            String size = new String(Files.readAllBytes(sizeFile), StandardCharsets.UTF_8).trim();
+            if (!size.isEmpty()) {
+                return Long.parseLong(size);
+            }
+
+            long measuredSize = sizeOf(cachedDirectory);
+            // Recording the size must not make the directory look more recently stored than it is
+            FileTime lastStoredTime = Files.getLastModifiedTime(sizeFile);
+            Files.write(sizeFile, Long.toString(measuredSize).getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(sizeFile, lastStoredTime);
+            return measuredSize;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void deleteCachedDirectory(String cacheKey) throws IOException {
+        Path tombstone;
+        try {
+            tombstone = IntermediateDirectoryReaper.tombstone(cacheDirectory.resolve(cacheKey), cacheDirectory);
+        } catch (NoSuchFileException e) {
+            // A restore took it first
+            return;
+        }
+        if (tombstone != null) {
+            // The tombstone is always in the cache directory, next to the directory it was
+            intermediateDirectoryReaper.reapTombstonesIn(cacheDirectory);
+        }
+    }
+
+    private long getLastModifiedTimeInMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        AtomicLong size = new AtomicLong();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    size.addAndGet(attributes.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size.get();
+    }
+
+    private static Optional<String> readCoverityVersion(Path coverityToolHome) {
+        try (Stream<String> lines = Files.lines(coverityToolHome.resolve("VERSION"))) {
+            return lines.filter(line -> line.startsWith(VERSION_PREFIX))
+                       .map(line -> line.substring(VERSION_PREFIX.length()).trim())
+                       .findFirst();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+}
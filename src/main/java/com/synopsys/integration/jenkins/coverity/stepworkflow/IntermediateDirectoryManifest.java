@@ -0,0 +1,110 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The files of a stashed intermediate directory, each as the hashes of its chunks in order.
+ */
+public class IntermediateDirectoryManifest implements Serializable {
+    private static final long serialVersionUID = 2904447016427409683L;
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String HASH_SEPARATOR = ",";
+    private final String stashKey;
+    private final List<Entry> entries;
+
+    public IntermediateDirectoryManifest(String stashKey, List<Entry> entries) {
+        this.stashKey = stashKey;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public static IntermediateDirectoryManifest parse(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            throw new IOException("The intermediate directory manifest is empty");
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            // The path goes last so that it may contain anything but a line break
+            String[] fields = line.split(FIELD_SEPARATOR, 3);
+            if (fields.length != 3) {
+                throw new IOException("The intermediate directory manifest has a malformed line: " + line);
+            }
+            try {
+                List<String> chunkHashes = fields[1].isEmpty() ? Collections.emptyList() : Arrays.asList(fields[1].split(HASH_SEPARATOR));
+                entries.add(new Entry(fields[2], Long.parseLong(fields[0]), chunkHashes));
+            } catch (NumberFormatException e) {
+                throw new IOException("The intermediate directory manifest has a malformed size: " + line, e);
+            }
+        }
+        return new IntermediateDirectoryManifest(lines.get(0), entries);
+    }
+
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(stashKey);
+        for (Entry entry : entries) {
+            lines.add(entry.getSize() + FIELD_SEPARATOR + String.join(HASH_SEPARATOR, entry.getChunkHashes()) + FIELD_SEPARATOR + entry.getRelativePath());
+        }
+        return lines;
+    }
+
+    public String getStashKey() {
+        return stashKey;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public Set<String> getChunkHashes() {
+        Set<String> chunkHashes = new LinkedHashSet<>();
+        entries.forEach(entry -> chunkHashes.addAll(entry.getChunkHashes()));
+        return chunkHashes;
+    }
+
+    public long getSize() {
+        return entries.stream()
+                   .mapToLong(Entry::getSize)
+                   .sum();
+    }
+
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = -6187785683904880283L;
+        private final String relativePath;
+        private final long size;
+        private final List<String> chunkHashes;
+
+        public Entry(String relativePath, long size, List<String> chunkHashes) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.chunkHashes = Collections.unmodifiableList(new ArrayList<>(chunkHashes));
+        }
+
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public List<String> getChunkHashes() {
+            return chunkHashes;
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Deletes intermediate directories in the background of an agent, so a build only has to rename its intermediate directory to a tombstone instead of waiting for millions of emitted files to be deleted.
+ * <p>
+ * There is one reaper per agent JVM. Every directory of a tombstone is listed by its own task, so a tombstone is deleted by all of the reaper's threads at once, and every file deletion waits for the deletion rate
+ * limit, so the reaper does not starve the builds on the agent of disk IO. Tombstones left behind when an agent restarts are reaped the next time a build on the agent creates a tombstone next to them.
+ */
+public class IntermediateDirectoryReaper {
+    public static final String TOMBSTONE_EXTENSION = ".coverity-tombstone";
+    private static final IntermediateDirectoryReaper INSTANCE = new IntermediateDirectoryReaper();
+    private final ThreadPoolExecutor executor;
+    private final DeletionRateLimiter deletionRateLimiter = new DeletionRateLimiter();
+    private final Set<Path> tombstonesBeingReaped = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Long> reapTimesInNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reapFailures = new AtomicInteger();
+
+    IntermediateDirectoryReaper() {
+        executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamingThreadFactory(new DaemonThreadFactory(), "Synopsys Coverity intermediate directory reaper"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static IntermediateDirectoryReaper getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Renames the intermediate directory to a tombstone in the tombstone directory, or next to the intermediate directory if the tombstone directory is on another file system.
+     * @return the tombstone, or null if there is no intermediate directory
+     */
+    public static Path tombstone(Path intermediateDirectory, Path tombstoneDirectory) throws IOException {
+        if (!Files.isDirectory(intermediateDirectory, LinkOption.NOFOLLOW_LINKS)) {
+            return null;
+        }
+
+        String tombstoneName = intermediateDirectory.getFileName() + "-" + UUID.randomUUID() + TOMBSTONE_EXTENSION;
+        try {
+            Files.createDirectories(tombstoneDirectory);
+            Path tombstone = tombstoneDirectory.resolve(tombstoneName);
+            Files.move(intermediateDirectory, tombstone, StandardCopyOption.ATOMIC_MOVE);
+            return tombstone;
+        } catch (AtomicMoveNotSupportedException e) {
+            Path tombstone = intermediateDirectory.resolveSibling(tombstoneName);
+            Files.move(intermediateDirectory, tombstone, StandardCopyOption.ATOMIC_MOVE);
+            return tombstone;
+        }
+    }
+
+    public synchronized void configure(int threads, int deletionsPerSecond) {
+        int poolSize = Math.max(1, threads);
+        // The maximum pool size can never be smaller than the core pool size, so the order of the updates depends on whether the pool grows
+        if (poolSize > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(poolSize);
+            executor.setCorePoolSize(poolSize);
+        } else {
+            executor.setCorePoolSize(poolSize);
+            executor.setMaximumPoolSize(poolSize);
+        }
+        deletionRateLimiter.setDeletionsPerSecond(deletionsPerSecond);
+    }
+
+    /**
+     * Starts reaping every tombstone in the directory that is not being reaped already.
+     * @return the number of tombstones that started being reaped
+     */
+    public int reapTombstonesIn(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        int startedTombstones = 0;
+        try (DirectoryStream<Path> tombstones = Files.newDirectoryStream(directory, "*" + TOMBSTONE_EXTENSION)) {
+            for (Path tombstone : tombstones) {
+                if (Files.isDirectory(tombstone, LinkOption.NOFOLLOW_LINKS) && tombstonesBeingReaped.add(tombstone)) {
+                    reap(tombstone);
+                    startedTombstones++;
+                }
+            }
+        }
+        return startedTombstones;
+    }
+
+    /**
+     * @return the reaps that finished since the last report
+     */
+    public Report drainReport() {
+        List<Long> drainedReapTimesInNanos = new ArrayList<>();
+        Long reapTimeInNanos;
+        while ((reapTimeInNanos = reapTimesInNanos.poll()) != null) {
+            drainedReapTimesInNanos.add(reapTimeInNanos);
+        }
+        return new Report(drainedReapTimesInNanos, reapFailures.getAndSet(0), tombstonesBeingReaped.size());
+    }
+
+    CompletableFuture<Void> reap(Path tombstone) {
+        long startTimeInNanos = System.nanoTime();
+        return deleteDirectory(tombstone)
+                   .whenComplete((ignored, throwable) -> {
+                       tombstonesBeingReaped.remove(tombstone);
+                       if (throwable == null) {
+                           reapTimesInNanos.add(System.nanoTime() - startTimeInNanos);
+                       } else {
+                           reapFailures.incrementAndGet();
+                       }
+                   });
+    }
+
+    private CompletableFuture<Void> deleteDirectory(Path directory) {
+        return CompletableFuture.supplyAsync(() -> deleteFilesIn(directory), executor)
+                   .thenCompose(subdirectories -> CompletableFuture.allOf(subdirectories.stream()
+                                                                              .map(this::deleteDirectory)
+                                                                              .toArray(CompletableFuture[]::new)))
+                   .thenRun(() -> delete(directory));
+    }
+
+    private List<Path> deleteFilesIn(Path directory) {
+        List<Path> subdirectories = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                // Links are deleted rather than followed, so a link in an intermediate directory can never delete anything outside of it
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    subdirectories.add(entry);
+                } else {
+                    delete(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return subdirectories;
+    }
+
+    private void delete(Path path) {
+        try {
+            deletionRateLimiter.acquire();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The intermediate directory reaper was interrupted", e);
+        }
+    }
+
+    public static class Report implements Serializable {
+        private static final long serialVersionUID = 3307226190618374305L;
+        private final List<Long> reapTimesInNanos;
+        private final int reapFailures;
+        private final int tombstonesBeingReaped;
+
+        public Report(List<Long> reapTimesInNanos, int reapFailures, int tombstonesBeingReaped) {
+            this.reapTimesInNanos = Collections.unmodifiableList(new ArrayList<>(reapTimesInNanos));
+            this.reapFailures = reapFailures;
+            this.tombstonesBeingReaped = tombstonesBeingReaped;
+        }
+
+        public List<Long> getReapTimesInNanos() {
+            return reapTimesInNanos;
+        }
+
+        public int getReapFailures() {
+            return reapFailures;
+        }
+
+        public int getTombstonesBeingReaped() {
+            return tombstonesBeingReaped;
+        }
+    }
+
+    static class DeletionRateLimiter {
+        private long intervalInNanos = 0;
+        private long nextPermitTimeInNanos = System.nanoTime();
+
+        synchronized void setDeletionsPerSecond(int deletionsPerSecond) {
+            intervalInNanos = deletionsPerSecond <= 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / deletionsPerSecond;
+        }
+
+        void acquire() throws InterruptedException {
+            long waitTimeInNanos;
+            synchronized (this) {
+                if (intervalInNanos == 0) {
+                    return;
+                }
+                long nowInNanos = System.nanoTime();
+                long permitTimeInNanos = Math.max(nowInNanos, nextPermitTimeInNanos);
+                nextPermitTimeInNanos = permitTimeInNanos + intervalInNanos;
+                waitTimeInNanos = permitTimeInNanos - nowInNanos;
+            }
+            if (waitTimeInNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitTimeInNanos);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,550 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * Stashes intermediate directories as compressed, content-addressed chunks, so any agent can restore the intermediate directory of a stream and stashing it again only stores the chunks that changed.
+ * <p>
+ * Every file is split into chunks of a fixed size that are named by the SHA-256 hash of their contents and stored compressed, once, however many files and streams contain them. A manifest per stash key lists
+ * the chunks of every file. Chunks are compressed and decompressed on the agent, so only compressed chunks are sent to and from the stash, and chunks are verified against their names wherever they are received.
+ * <p>
+ * Every stash that is sending chunks leaves a marker in the stash until it has written its manifest, and garbage is only collected while no other stash is in flight, since its chunks are not referred to by any
+ * manifest yet. Chunks a stash reuses are touched, so a stash that starts while garbage is collected keeps its chunks too. Garbage collection also keeps the stash within its quota by expiring the manifests that
+ * were least recently stashed or restored.
+ */
+public class IntermediateDirectoryStash {
+    public static final int CHUNK_SIZE_IN_BYTES = 4 * 1024 * 1024;
+    // The most that gzip can grow a chunk that does not compress: the worst case of deflate plus the gzip header and trailer
+    public static final int MAXIMUM_COMPRESSED_CHUNK_SIZE_IN_BYTES = CHUNK_SIZE_IN_BYTES + (CHUNK_SIZE_IN_BYTES >> 3) + (CHUNK_SIZE_IN_BYTES >> 6) + 5 + 18;
+    public static final long UNREFERENCED_CHUNK_MINIMUM_AGE_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
+    public static final long ABANDONED_STASH_AGE_IN_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final String CHUNKS_DIRECTORY = "chunks";
+    private static final String MANIFESTS_DIRECTORY = "manifests";
+    private static final String IN_FLIGHT_DIRECTORY = "in-flight";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String IN_FLIGHT_EXTENSION = ".stash";
+    private static final String END_OF_CHUNKS = "";
+    private static final Pattern CHUNK_HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern STASH_KEY_PATTERN = Pattern.compile("[A-Za-z0-9._-]+");
+    private final Path stashDirectory;
+
+    public IntermediateDirectoryStash(Path stashDirectory) {
+        this.stashDirectory = stashDirectory;
+    }
+
+    public static IntermediateDirectoryManifest createManifest(String stashKey, Path intermediateDirectory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(intermediateDirectory)) {
+            files = paths.filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+
+        List<IntermediateDirectoryManifest.Entry> entries = new ArrayList<>();
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE_IN_BYTES);
+        for (Path file : files) {
+            List<String> chunkHashes = new ArrayList<>();
+            long size = 0;
+            try (SeekableByteChannel fileChannel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+                int chunkSize;
+                while ((chunkSize = readChunk(fileChannel, chunk)) > 0) {
+                    chunkHashes.add(hash(chunk.array(), chunkSize));
+                    size += chunkSize;
+                }
+            }
+            String relativePath = intermediateDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+            entries.add(new IntermediateDirectoryManifest.Entry(relativePath, size, chunkHashes));
+        }
+        return new IntermediateDirectoryManifest(stashKey, entries);
+    }
+
+    /**
+     * Reads and compresses the chunks of the intermediate directory that pass the filter, each chunk once, without reading the chunks that do not.
+     */
+    public static void readChunks(Path intermediateDirectory, IntermediateDirectoryManifest manifest, Predicate<String> chunkFilter, ChunkSink chunkSink) throws IOException {
+        Set<String> readChunkHashes = new HashSet<>();
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE_IN_BYTES);
+        for (IntermediateDirectoryManifest.Entry entry : manifest.getEntries()) {
+            List<String> chunkHashes = entry.getChunkHashes();
+            if (chunkHashes.stream().noneMatch(chunkHash -> chunkFilter.test(chunkHash) && !readChunkHashes.contains(chunkHash))) {
+                continue;
+            }
+
+            try (SeekableByteChannel fileChannel = Files.newByteChannel(resolveEntry(intermediateDirectory, entry), StandardOpenOption.READ)) {
+                for (int chunkIndex = 0; chunkIndex < chunkHashes.size(); chunkIndex++) {
+                    String chunkHash = chunkHashes.get(chunkIndex);
+                    if (!chunkFilter.test(chunkHash) || !readChunkHashes.add(chunkHash)) {
+                        continue;
+                    }
+                    fileChannel.position((long) chunkIndex * CHUNK_SIZE_IN_BYTES);
+                    int chunkSize = readChunk(fileChannel, chunk);
+                    if (!chunkHash.equals(hash(chunk.array(), chunkSize))) {
+                        throw new IOException(String.format("%s changed while the intermediate directory was being stashed", entry.getRelativePath()));
+                    }
+                    chunkSink.accept(chunkHash, compress(chunk.array(), chunkSize));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the files of the manifest next to the intermediate directory from chunks in manifest order, then moves them into place, so a restore that fails part way never leaves a partial intermediate directory.
+     */
+    public static void writeFiles(Path intermediateDirectory, IntermediateDirectoryManifest manifest, ChunkSource chunkSource) throws IOException {
+        Path restoringDirectory = intermediateDirectory.resolveSibling(intermediateDirectory.getFileName() + ".restoring");
+        deleteRecursively(restoringDirectory);
+        try {
+            Files.createDirectories(restoringDirectory);
+            for (IntermediateDirectoryManifest.Entry entry : manifest.getEntries()) {
+                Path file = resolveEntry(restoringDirectory, entry);
+                Files.createDirectories(file.getParent());
+                try (OutputStream fileOutputStream = Files.newOutputStream(file)) {
+                    for (String chunkHash : entry.getChunkHashes()) {
+                        fileOutputStream.write(decompressVerified(chunkHash, chunkSource.next(chunkHash)));
+                    }
+                }
+            }
+            Files.move(restoringDirectory, intermediateDirectory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteRecursively(restoringDirectory);
+            throw e;
+        }
+    }
+
+    public static ChunkSink toStream(DataOutputStream dataOutputStream) {
+        return (chunkHash, compressedChunk) -> {
+            dataOutputStream.writeUTF(chunkHash);
+            dataOutputStream.writeInt(compressedChunk.length);
+            dataOutputStream.write(compressedChunk);
+        };
+    }
+
+    public static void endStream(DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeUTF(END_OF_CHUNKS);
+        dataOutputStream.flush();
+    }
+
+    public static ChunkSource fromStream(DataInputStream dataInputStream) {
+        return expectedChunkHash -> {
+            String chunkHash = dataInputStream.readUTF();
+            if (!chunkHash.equals(expectedChunkHash)) {
+                throw new IOException(String.format("Expected the chunk %s but received %s", expectedChunkHash, chunkHash));
+            }
+            return readCompressedChunk(dataInputStream);
+        };
+    }
+
+    /**
+     * Stores the chunks of a stream written by a {@link #toStream(DataOutputStream)} sink until the stream ends.
+     * @return the number of chunks stored
+     */
+    public int receiveChunks(DataInputStream dataInputStream) throws IOException {
+        int receivedChunks = 0;
+        String chunkHash;
+        while (!END_OF_CHUNKS.equals(chunkHash = dataInputStream.readUTF())) {
+            writeChunk(chunkHash, readCompressedChunk(dataInputStream));
+            receivedChunks++;
+        }
+        return receivedChunks;
+    }
+
+    /**
+     * Writes every chunk of the manifest, in manifest order and as often as the manifest refers to it.
+     */
+    public void sendChunks(IntermediateDirectoryManifest manifest, ChunkSink chunkSink) throws IOException {
+        for (IntermediateDirectoryManifest.Entry entry : manifest.getEntries()) {
+            for (String chunkHash : entry.getChunkHashes()) {
+                chunkSink.accept(chunkHash, readChunk(chunkHash));
+            }
+        }
+    }
+
+    /**
+     * Finds the chunks of the manifest that the stash does not have, and touches the ones it does have, so garbage collection keeps them for the stash that is about to refer to them.
+     */
+    public Set<String> findMissingChunks(IntermediateDirectoryManifest manifest) throws IOException {
+        Set<String> missingChunkHashes = new LinkedHashSet<>();
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        for (String chunkHash : manifest.getChunkHashes()) {
+            if (!touch(getChunkFile(chunkHash), now)) {
+                missingChunkHashes.add(chunkHash);
+            }
+        }
+        return missingChunkHashes;
+    }
+
+    public void writeChunk(String chunkHash, byte[] compressedChunk) throws IOException {
+        // Chunks may come from an agent, so they are only stored under the name they actually hash to
+        decompressVerified(chunkHash, compressedChunk);
+        Path chunkFile = getChunkFile(chunkHash);
+        if (touch(chunkFile, FileTime.fromMillis(System.currentTimeMillis()))) {
+            return;
+        }
+
+        Files.createDirectories(chunkFile.getParent());
+        Path temporaryFile = chunkFile.resolveSibling(chunkHash + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temporaryFile, compressedChunk);
+            Files.move(temporaryFile, chunkFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another build stored the same chunk first
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    public byte[] readChunk(String chunkHash) throws IOException {
+        return Files.readAllBytes(getChunkFile(chunkHash));
+    }
+
+    public void writeManifest(IntermediateDirectoryManifest manifest) throws IOException {
+        Path manifestFile = getManifestFile(manifest.getStashKey());
+        Files.createDirectories(manifestFile.getParent());
+        Path temporaryFile = manifestFile.resolveSibling(manifest.getStashKey() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            for (IntermediateDirectoryManifest.Entry entry : manifest.getEntries()) {
+                if (entry.getRelativePath().contains("\n") || entry.getRelativePath().contains("\r")) {
+                    throw new IOException("Cannot stash a file with a line break in its name: " + entry.getRelativePath());
+                }
+            }
+            Files.write(temporaryFile, manifest.toLines(), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, manifestFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads the manifest of the stash key and marks it as recently used, so it is the last to expire when the stash is over its quota.
+     */
+    public Optional<IntermediateDirectoryManifest> readManifest(String stashKey) throws IOException {
+        Path manifestFile = getManifestFile(stashKey);
+        try {
+            IntermediateDirectoryManifest manifest = IntermediateDirectoryManifest.parse(Files.readAllLines(manifestFile, StandardCharsets.UTF_8));
+            try {
+                touch(manifestFile, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                // A restore does not need to write to the stash, so the manifest only expires sooner than it would have
+            }
+            return Optional.of(manifest);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Marks a stash as in flight until the returned marker is closed, which should only happen once the stash wrote its manifest or failed.
+     */
+    public InFlightStash beginStash() throws IOException {
+        Path inFlightDirectory = stashDirectory.resolve(IN_FLIGHT_DIRECTORY);
+        Files.createDirectories(inFlightDirectory);
+        return new InFlightStash(Files.createFile(inFlightDirectory.resolve(UUID.randomUUID() + IN_FLIGHT_EXTENSION)));
+    }
+
+    /**
+     * Expires the least recently used manifests, except the kept one, until the chunks the remaining manifests refer to fit in the quota, then deletes the chunks that no manifest refers to. Nothing is collected
+     * while another stash is in flight, and chunks younger than the minimum age are kept, since a stash may have started since.
+     */
+    public GarbageCollection collectGarbage(@Nullable String keptStashKey, long quotaInBytes, long minimumAgeInMillis) throws IOException {
+        Path manifestsDirectory = stashDirectory.resolve(MANIFESTS_DIRECTORY);
+        Path chunksDirectory = stashDirectory.resolve(CHUNKS_DIRECTORY);
+        if (!Files.isDirectory(manifestsDirectory) || !Files.isDirectory(chunksDirectory) || isAnyStashInFlight()) {
+            return GarbageCollection.NONE;
+        }
+
+        Map<String, Long> chunkSizes = new HashMap<>();
+        Files.walkFileTree(chunksDirectory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    chunkSizes.put(file.getFileName().toString(), attributes.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        List<Path> manifestFiles = new ArrayList<>();
+        try (DirectoryStream<Path> manifestFileStream = Files.newDirectoryStream(manifestsDirectory, "*" + MANIFEST_EXTENSION)) {
+            manifestFileStream.forEach(manifestFiles::add);
+        }
+        Map<Path, Long> lastUsedTimes = new HashMap<>();
+        for (Path manifestFile : manifestFiles) {
+            lastUsedTimes.put(manifestFile, Files.getLastModifiedTime(manifestFile).toMillis());
+        }
+        manifestFiles.sort(Comparator.comparing(lastUsedTimes::get));
+
+        Map<Path, Set<String>> manifestChunkHashes = new HashMap<>();
+        Map<String, Integer> referenceCounts = new HashMap<>();
+        long referencedSize = 0;
+        for (Path manifestFile : manifestFiles) {
+            Set<String> chunkHashes = new HashSet<>(IntermediateDirectoryManifest.parse(Files.readAllLines(manifestFile, StandardCharsets.UTF_8)).getChunkHashes());
+            manifestChunkHashes.put(manifestFile, chunkHashes);
+            for (String chunkHash : chunkHashes) {
+                if (referenceCounts.merge(chunkHash, 1, Integer::sum) == 1) {
+                    referencedSize += chunkSizes.getOrDefault(chunkHash, 0L);
+                }
+            }
+        }
+
+        List<String> expiredStashKeys = new ArrayList<>();
+        Path keptManifestFile = keptStashKey == null ? null : getManifestFile(keptStashKey);
+        for (Path manifestFile : manifestFiles) {
+            if (referencedSize <= quotaInBytes) {
+                break;
+            }
+            if (manifestFile.equals(keptManifestFile)) {
+                continue;
+            }
+            Files.deleteIfExists(manifestFile);
+            String fileName = manifestFile.getFileName().toString();
+            expiredStashKeys.add(fileName.substring(0, fileName.length() - MANIFEST_EXTENSION.length()));
+            for (String chunkHash : manifestChunkHashes.get(manifestFile)) {
+                if (referenceCounts.merge(chunkHash, -1, Integer::sum) == 0) {
+                    referenceCounts.remove(chunkHash);
+                    referencedSize -= chunkSizes.getOrDefault(chunkHash, 0L);
+                }
+            }
+        }
+
+        long oldestKeptTimeInMillis = System.currentTimeMillis() - minimumAgeInMillis;
+        int deletedChunks = 0;
+        for (String chunkHash : chunkSizes.keySet()) {
+            Path chunkFile = getChunkFile(chunkHash);
+            if (!referenceCounts.containsKey(chunkHash) && getLastModifiedTimeInMillis(chunkFile) < oldestKeptTimeInMillis) {
+                Files.deleteIfExists(chunkFile);
+                deletedChunks++;
+            }
+        }
+        return new GarbageCollection(expiredStashKeys, deletedChunks);
+    }
+
+    private boolean isAnyStashInFlight() throws IOException {
+        Path inFlightDirectory = stashDirectory.resolve(IN_FLIGHT_DIRECTORY);
+        if (!Files.isDirectory(inFlightDirectory)) {
+            return false;
+        }
+
+        boolean anyStashInFlight = false;
+        long oldestInFlightTimeInMillis = System.currentTimeMillis() - ABANDONED_STASH_AGE_IN_MILLIS;
+        try (DirectoryStream<Path> inFlightStashes = Files.newDirectoryStream(inFlightDirectory, "*" + IN_FLIGHT_EXTENSION)) {
+            for (Path inFlightStash : inFlightStashes) {
+                if (getLastModifiedTimeInMillis(inFlightStash) < oldestInFlightTimeInMillis) {
+                    // Left behind by a stash whose agent or controller went away
+                    Files.deleteIfExists(inFlightStash);
+                } else {
+                    anyStashInFlight = true;
+                }
+            }
+        }
+        return anyStashInFlight;
+    }
+
+    private static boolean touch(Path file, FileTime time) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, time);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static long getLastModifiedTimeInMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            // Already deleted, or unreadable; either way it is not worth keeping
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private Path getChunkFile(String chunkHash) throws IOException {
+        if (!CHUNK_HASH_PATTERN.matcher(chunkHash).matches()) {
+            throw new IOException("Not a chunk hash: " + chunkHash);
+        }
+        return stashDirectory.resolve(CHUNKS_DIRECTORY).resolve(chunkHash.substring(0, 2)).resolve(chunkHash);
+    }
+
+    private Path getManifestFile(String stashKey) throws IOException {
+        if (!STASH_KEY_PATTERN.matcher(stashKey).matches()) {
+            throw new IOException("Not a stash key: " + stashKey);
+        }
+        return stashDirectory.resolve(MANIFESTS_DIRECTORY).resolve(stashKey + MANIFEST_EXTENSION);
+    }
+
+    private static Path resolveEntry(Path directory, IntermediateDirectoryManifest.Entry entry) throws IOException {
+        Path file = directory.resolve(entry.getRelativePath()).normalize();
+        if (!file.startsWith(directory.normalize()) || file.equals(directory.normalize())) {
+            throw new IOException("The intermediate directory manifest refers to a file outside of the intermediate directory: " + entry.getRelativePath());
+        }
+        return file;
+    }
+
+    private static int readChunk(SeekableByteChannel fileChannel, ByteBuffer chunk) throws IOException {
+        chunk.clear();
+        while (chunk.hasRemaining() && fileChannel.read(chunk) >= 0) {
+            // Keep reading until the chunk is full or the file ends
+        }
+        return chunk.position();
+    }
+
+    private static byte[] readCompressedChunk(DataInputStream dataInputStream) throws IOException {
+        int length = dataInputStream.readInt();
+        if (length < 0) {
+            throw new IOException("Received a chunk with a negative length");
+        }
+        // The length comes from the other side of the channel, so it is checked before anything is allocated for it
+        if (length > MAXIMUM_COMPRESSED_CHUNK_SIZE_IN_BYTES) {
+            throw new IOException(String.format("Received a chunk of %d bytes, which is larger than a compressed chunk can be", length));
+        }
+        byte[] compressedChunk = new byte[length];
+        dataInputStream.readFully(compressedChunk);
+        return compressedChunk;
+    }
+
+    private static byte[] compress(byte[] chunk, int length) throws IOException {
+        ByteArrayOutputStream compressedChunk = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedChunk)) {
+            gzipOutputStream.write(chunk, 0, length);
+        }
+        return compressedChunk.toByteArray();
+    }
+
+    private static byte[] decompressVerified(String chunkHash, byte[] compressedChunk) throws IOException {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE_IN_BYTES);
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(compressedChunk))) {
+            int read;
+            while ((read = gzipInputStream.read(buffer)) >= 0) {
+                chunk.write(buffer, 0, read);
+                if (chunk.size() > CHUNK_SIZE_IN_BYTES) {
+                    throw new IOException(String.format("The chunk %s is larger than a chunk can be", chunkHash));
+                }
+            }
+        }
+        byte[] decompressedChunk = chunk.toByteArray();
+        if (!chunkHash.equals(hash(decompressedChunk, decompressedChunk.length))) {
+            throw new IOException(String.format("The chunk %s does not match its hash", chunkHash));
+        }
+        return decompressedChunk;
+    }
+
+    private static String hash(byte[] bytes, int length) throws IOException {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(bytes, 0, length);
+            StringBuilder hexHash = new StringBuilder();
+            for (byte hashByte : messageDigest.digest()) {
+                hexHash.append(String.format("%02x", hashByte));
+            }
+            return hexHash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 is not available to hash the intermediate directory", e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<Path> deepestFirst = paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : deepestFirst) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    public static class InFlightStash implements Closeable {
+        private final Path marker;
+
+        private InFlightStash(Path marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(marker);
+        }
+    }
+
+    public static class GarbageCollection {
+        public static final GarbageCollection NONE = new GarbageCollection(Collections.emptyList(), 0);
+        private final List<String> expiredStashKeys;
+        private final int deletedChunks;
+
+        public GarbageCollection(List<String> expiredStashKeys, int deletedChunks) {
+            this.expiredStashKeys = Collections.unmodifiableList(new ArrayList<>(expiredStashKeys));
+            this.deletedChunks = deletedChunks;
+        }
+
+        public List<String> getExpiredStashKeys() {
+            return expiredStashKeys;
+        }
+
+        public int getDeletedChunks() {
+            return deletedChunks;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(String chunkHash, byte[] compressedChunk) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ChunkSource {
+        byte[] next(String chunkHash) throws IOException;
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityGlobalConfig;
+import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
+
+import hudson.remoting.Pipe;
+import hudson.remoting.VirtualChannel;
+import jenkins.model.GlobalConfiguration;
+
+/**
+ * Stashes and restores intermediate directories for a build. A stash on a shared path is read and written by the agent alone; a stash on the controller receives and sends chunks through a pipe while the
+ * agent reads or writes the intermediate directory, so neither side waits for the whole intermediate directory or keeps a copy of it.
+ */
+public class IntermediateDirectoryStashService {
+    private final CoverityJenkinsIntLogger logger;
+    private final VirtualChannel virtualChannel;
+    @Nullable
+    private final String sharedStashPath;
+    private final Path controllerStashDirectory;
+    private final long stashQuotaInBytes;
+
+    public IntermediateDirectoryStashService(CoverityJenkinsIntLogger logger, VirtualChannel virtualChannel, @Nullable String sharedStashPath, Path controllerStashDirectory, long stashQuotaInBytes) {
+        this.logger = logger;
+        this.virtualChannel = virtualChannel;
+        this.sharedStashPath = sharedStashPath;
+        this.controllerStashDirectory = controllerStashDirectory;
+        this.stashQuotaInBytes = stashQuotaInBytes;
+    }
+
+    public static IntermediateDirectoryStashService forChannel(CoverityJenkinsIntLogger logger, VirtualChannel virtualChannel) throws CoverityJenkinsAbortException {
+        Optional<CoverityGlobalConfig> coverityGlobalConfig = Optional.ofNullable(GlobalConfiguration.all().get(CoverityGlobalConfig.class));
+        String sharedStashPath = coverityGlobalConfig.map(CoverityGlobalConfig::getIntermediateDirectoryStashPath)
+                                     .orElse(null);
+        int stashQuotaInMegabytes = coverityGlobalConfig.map(CoverityGlobalConfig::getIntermediateDirectoryStashQuotaInMegabytes)
+                                        .orElse(CoverityGlobalConfig.DEFAULT_INTERMEDIATE_DIRECTORY_STASH_QUOTA_IN_MEGABYTES);
+        Path controllerStashDirectory = JenkinsWrapper.initializeFromJenkinsJVM().getJenkins()
+                                            .map(jenkins -> jenkins.getRootDir().toPath().resolve("synopsys-coverity").resolve("idir-stash"))
+                                            .orElseThrow(() -> new CoverityJenkinsAbortException("Could not find the root directory of Jenkins to stash the intermediate directory in."));
+        return new IntermediateDirectoryStashService(logger, virtualChannel, sharedStashPath, controllerStashDirectory, stashQuotaInMegabytes * 1024L * 1024L);
+    }
+
+    /**
+     * Restores the stashed intermediate directory of the stream, unless the intermediate directory already exists. A build without a stashed intermediate directory only analyzes more slowly, so this never fails.
+     * @return whether the intermediate directory was restored
+     */
+    public boolean restore(String streamName, String coverityToolHome, String intermediateDirectory) {
+        try {
+            boolean restored;
+            if (sharedStashPath != null) {
+                restored = virtualChannel.call(RestoreStashedIntermediateDirectory.fromSharedStash(logger, intermediateDirectory, sharedStashPath, streamName, coverityToolHome));
+            } else {
+                restored = restoreFromController(streamName, coverityToolHome, intermediateDirectory);
+            }
+
+            if (restored) {
+                logger.alwaysLog(String.format("Restored the stashed intermediate directory to %s", intermediateDirectory));
+            } else {
+                logger.alwaysLog(String.format("No stashed intermediate directory was restored, %s starts as it is", intermediateDirectory));
+            }
+            return restored;
+        } catch (IOException | IntegrationException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not restore the stashed intermediate directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not restore the stashed intermediate directory because: ", e);
+            return false;
+        }
+    }
+
+    /**
+     * Stashes the intermediate directory of the stream, sending only the chunks that the stash does not have yet.
+     */
+    public void stash(String streamName, String coverityToolHome, String intermediateDirectory) {
+        try {
+            IntermediateDirectoryManifest manifest = virtualChannel.call(new CreateIntermediateDirectoryManifest(logger, streamName, coverityToolHome, intermediateDirectory));
+            if (manifest == null) {
+                logger.warn(String.format("WARNING: The intermediate directory %s does not exist, so it was not stashed.", intermediateDirectory));
+                return;
+            }
+
+            int sentChunks;
+            if (sharedStashPath != null) {
+                sentChunks = virtualChannel.call(StashIntermediateDirectory.toSharedStash(logger, intermediateDirectory, manifest, sharedStashPath, stashQuotaInBytes));
+            } else {
+                sentChunks = stashOnController(streamName, intermediateDirectory, manifest);
+            }
+            logger.alwaysLog(String.format("Stashed the intermediate directory as %s, sending %d of its %d chunks", manifest.getStashKey(), sentChunks, manifest.getChunkHashes().size()));
+        } catch (IOException | IntegrationException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not stash the intermediate directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not stash the intermediate directory because: ", e);
+        }
+    }
+
+    private boolean restoreFromController(String streamName, String coverityToolHome, String intermediateDirectory) throws IOException, IntegrationException, InterruptedException, ExecutionException {
+        String stashKey = virtualChannel.call(new GetIntermediateDirectoryStashKey(logger, streamName, coverityToolHome, intermediateDirectory));
+        if (stashKey == null) {
+            return false;
+        }
+        checkStashKey(stashKey, streamName);
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(controllerStashDirectory);
+        Optional<IntermediateDirectoryManifest> manifest = intermediateDirectoryStash.readManifest(stashKey);
+        if (!manifest.isPresent() || !intermediateDirectoryStash.findMissingChunks(manifest.get()).isEmpty()) {
+            return false;
+        }
+
+        Pipe pipe = Pipe.createLocalToRemote();
+        Future<Boolean> restored = virtualChannel.callAsync(RestoreStashedIntermediateDirectory.fromPipe(logger, intermediateDirectory, manifest.get(), pipe));
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(pipe.getOut()))) {
+            intermediateDirectoryStash.sendChunks(manifest.get(), IntermediateDirectoryStash.toStream(dataOutputStream));
+        }
+        return restored.get();
+    }
+
+    private int stashOnController(String streamName, String intermediateDirectory, IntermediateDirectoryManifest manifest) throws IOException, IntegrationException, InterruptedException, ExecutionException {
+        checkStashKey(manifest.getStashKey(), streamName);
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(controllerStashDirectory);
+        int sentChunkCount;
+        try (IntermediateDirectoryStash.InFlightStash ignored = intermediateDirectoryStash.beginStash()) {
+            Set<String> missingChunkHashes = intermediateDirectoryStash.findMissingChunks(manifest);
+
+            Pipe pipe = Pipe.createRemoteToLocal();
+            Future<Integer> sentChunks = virtualChannel.callAsync(StashIntermediateDirectory.toPipe(logger, intermediateDirectory, manifest, missingChunkHashes, pipe));
+            try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(pipe.getIn()))) {
+                intermediateDirectoryStash.receiveChunks(dataInputStream);
+            }
+            sentChunkCount = sentChunks.get();
+
+            // The manifest is only written once every chunk it refers to is stored
+            intermediateDirectoryStash.writeManifest(manifest);
+        }
+
+        IntermediateDirectoryStash.GarbageCollection garbageCollection = intermediateDirectoryStash.collectGarbage(manifest.getStashKey(), stashQuotaInBytes, IntermediateDirectoryStash.UNREFERENCED_CHUNK_MINIMUM_AGE_IN_MILLIS);
+        garbageCollection.getExpiredStashKeys().forEach(expiredStashKey -> logger.alwaysLog(String.format("Expired the stashed intermediate directory %s to stay within the stash size", expiredStashKey)));
+        if (garbageCollection.getDeletedChunks() > 0) {
+            logger.debug(String.format("Deleted %d stashed chunks that no intermediate directory refers to anymore", garbageCollection.getDeletedChunks()));
+        }
+        return sentChunkCount;
+    }
+
+    private void checkStashKey(String stashKey, String streamName) throws CoverityJenkinsException {
+        // The agent creates the key, but must not be able to read or replace the stash of another stream on the controller
+        if (!IntermediateDirectoryCache.isCacheKeyOf(stashKey, streamName)) {
+            throw new CoverityJenkinsException(String.format("The agent sent the stash key %s, which does not belong to the stream %s", stashKey, streamName));
+        }
+    }
+
+}
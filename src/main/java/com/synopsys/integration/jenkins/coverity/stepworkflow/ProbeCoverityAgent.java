@@ -0,0 +1,105 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.coverity.CoverityVersion;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+/**
+ * Prepares the agent for a build in one call: validates the Coverity installation, writes the authentication key file, creates the intermediate directory, and reports what the build needs to know about the agent.
+ */
+public class ProbeCoverityAgent extends CoverityRemoteCallable<CoverityAgentFacts> {
+    private static final long serialVersionUID = 1690226950466236373L;
+    private final String coverityToolHome;
+    private final boolean validateInstallation;
+    private final boolean validateVersion;
+    private final String workspace;
+    @Nullable
+    private final String authenticationKeyFileContents;
+    @Nullable
+    private final String intermediateDirectory;
+
+    public ProbeCoverityAgent(CoverityJenkinsIntLogger logger, String coverityToolHome, boolean validateInstallation, boolean validateVersion, String workspace, @Nullable String authenticationKeyFileContents,
+        @Nullable String intermediateDirectory) {
+        super(logger);
+        this.coverityToolHome = coverityToolHome;
+        this.validateInstallation = validateInstallation;
+        this.validateVersion = validateVersion;
+        this.workspace = workspace;
+        this.authenticationKeyFileContents = authenticationKeyFileContents;
+        this.intermediateDirectory = intermediateDirectory;
+    }
+
+    @Override
+    public CoverityAgentFacts call() throws CoverityJenkinsException {
+        if (validateInstallation) {
+            new ValidateCoverityInstallation(logger, validateVersion, coverityToolHome).call();
+        }
+
+        Path coverityToolHomePath = Paths.get(coverityToolHome);
+        Path workspacePath = Paths.get(workspace);
+        String coverityVersion = null;
+        Path versionFile = coverityToolHomePath.resolve("VERSION");
+        if (Files.isRegularFile(versionFile)) {
+            try {
+                coverityVersion = ValidateCoverityInstallation.readVersion(versionFile)
+                                      .map(CoverityVersion::toString)
+                                      .orElse(null);
+            } catch (CoverityJenkinsException e) {
+                // Only an installation that was asked to be validated should fail the build for its version
+                logger.trace("Could not read the Coverity version because: ", e);
+            }
+        }
+
+        String authenticationKeyFilePath = null;
+        try {
+            Files.createDirectories(workspacePath);
+            if (authenticationKeyFileContents != null) {
+                authenticationKeyFilePath = writeAuthenticationKeyFile(workspacePath).toString();
+            }
+            if (intermediateDirectory != null) {
+                Files.createDirectories(Paths.get(intermediateDirectory));
+            }
+        } catch (IOException e) {
+            throw new CoverityJenkinsException("Could not prepare the workspace for Coverity", e);
+        }
+
+        long usableSpaceInBytes;
+        try {
+            usableSpaceInBytes = Files.getFileStore(workspacePath).getUsableSpace();
+        } catch (IOException e) {
+            usableSpaceInBytes = CoverityAgentFacts.UNKNOWN_USABLE_SPACE;
+        }
+
+        return new CoverityAgentFacts(coverityVersion, coverityToolHomePath.resolve("bin").toString(), authenticationKeyFilePath, usableSpaceInBytes, Runtime.getRuntime().availableProcessors());
+    }
+
+    private Path writeAuthenticationKeyFile(Path workspacePath) throws IOException {
+        Path authenticationKeyFile;
+        // The key file is created readable by its owner only, so it is never readable by anyone else, even before it is written
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            authenticationKeyFile = Files.createTempFile(workspacePath, "auth-key", ".txt", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            authenticationKeyFile = Files.createTempFile(workspacePath, "auth-key", ".txt");
+        }
+        Files.write(authenticationKeyFile, authenticationKeyFileContents.getBytes(StandardCharsets.UTF_8));
+        return authenticationKeyFile;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+
+public class RestoreIntermediateDirectory extends CoverityRemoteCallable<Boolean> {
+    private static final long serialVersionUID = 3186604815839741702L;
+    private final String cacheDirectory;
+    private final String streamName;
+    private final String coverityToolHome;
+    private final String intermediateDirectory;
+
+    public RestoreIntermediateDirectory(CoverityJenkinsIntLogger logger, String cacheDirectory, String streamName, String coverityToolHome, String intermediateDirectory) {
+        super(logger);
+        this.cacheDirectory = cacheDirectory;
+        this.streamName = streamName;
+        this.coverityToolHome = coverityToolHome;
+        this.intermediateDirectory = intermediateDirectory;
+    }
+
+    @Override
+    public Boolean call() {
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(Paths.get(cacheDirectory));
+        String cacheKey = IntermediateDirectoryCache.createCacheKey(streamName, Paths.get(coverityToolHome));
+
+        // A cold intermediate directory only makes the analysis slower, so a cache that cannot be read must not fail the build
+        try {
+            if (intermediateDirectoryCache.restore(cacheKey, Paths.get(intermediateDirectory))) {
+                logger.alwaysLog(String.format("Restored the cached intermediate directory %s to %s", cacheKey, intermediateDirectory));
+                return true;
+            }
+            logger.alwaysLog(String.format("No cached intermediate directory %s was restored, %s starts as it is", cacheKey, intermediateDirectory));
+        } catch (IOException e) {
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not restore the cached intermediate directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not restore the cached intermediate directory because: ", e);
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+import hudson.remoting.Pipe;
+
+/**
+ * Restores an intermediate directory either from chunks streamed through a pipe from a stash on the controller or straight from a stash on a path the agent shares with the other agents.
+ */
+public class RestoreStashedIntermediateDirectory extends CoverityRemoteCallable<Boolean> {
+    private static final long serialVersionUID = -8826519190385307466L;
+    private final String intermediateDirectory;
+    @Nullable
+    private final IntermediateDirectoryManifest manifest;
+    @Nullable
+    private final Pipe pipe;
+    @Nullable
+    private final String sharedStashPath;
+    @Nullable
+    private final String streamName;
+    @Nullable
+    private final String coverityToolHome;
+
+    private RestoreStashedIntermediateDirectory(CoverityJenkinsIntLogger logger, String intermediateDirectory, @Nullable IntermediateDirectoryManifest manifest, @Nullable Pipe pipe, @Nullable String sharedStashPath, @Nullable String streamName,
+        @Nullable String coverityToolHome) {
+        super(logger);
+        this.intermediateDirectory = intermediateDirectory;
+        this.manifest = manifest;
+        this.pipe = pipe;
+        this.sharedStashPath = sharedStashPath;
+        this.streamName = streamName;
+        this.coverityToolHome = coverityToolHome;
+    }
+
+    public static RestoreStashedIntermediateDirectory fromPipe(CoverityJenkinsIntLogger logger, String intermediateDirectory, IntermediateDirectoryManifest manifest, Pipe pipe) {
+        return new RestoreStashedIntermediateDirectory(logger, intermediateDirectory, manifest, pipe, null, null, null);
+    }
+
+    public static RestoreStashedIntermediateDirectory fromSharedStash(CoverityJenkinsIntLogger logger, String intermediateDirectory, String sharedStashPath, String streamName, String coverityToolHome) {
+        return new RestoreStashedIntermediateDirectory(logger, intermediateDirectory, null, null, sharedStashPath, streamName, coverityToolHome);
+    }
+
+    /**
+     * @return whether the intermediate directory was restored
+     */
+    @Override
+    public Boolean call() throws CoverityJenkinsException {
+        Path intermediateDirectoryPath = Paths.get(intermediateDirectory);
+        try {
+            if (sharedStashPath != null && streamName != null && coverityToolHome != null) {
+                if (Files.exists(intermediateDirectoryPath)) {
+                    return false;
+                }
+                IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(Paths.get(sharedStashPath));
+                String stashKey = IntermediateDirectoryCache.createCacheKey(streamName, Paths.get(coverityToolHome));
+                Optional<IntermediateDirectoryManifest> stashedManifest = intermediateDirectoryStash.readManifest(stashKey);
+                if (!stashedManifest.isPresent() || !intermediateDirectoryStash.findMissingChunks(stashedManifest.get()).isEmpty()) {
+                    return false;
+                }
+                IntermediateDirectoryStash.writeFiles(intermediateDirectoryPath, stashedManifest.get(), intermediateDirectoryStash::readChunk);
+                return true;
+            } else if (pipe != null && manifest != null) {
+                try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(pipe.getIn()))) {
+                    IntermediateDirectoryStash.writeFiles(intermediateDirectoryPath, manifest, IntermediateDirectoryStash.fromStream(dataInputStream));
+                }
+                return true;
+            }
+        } catch (IOException e) {
+            throw new CoverityJenkinsException("Could not restore the stashed intermediate directory", e);
+        }
+        return false;
+    }
+
+}
@@ -8,19 +8,36 @@
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.io.FilenameUtils;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
 import com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable;
+import com.synopsys.integration.jenkins.coverity.actions.SubStepTiming;
 import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
 import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.stepworkflow.AbstractConsumingSubStep;
 import com.synopsys.integration.stepworkflow.SubStepResponse;
 import com.synopsys.integration.util.IntEnvironmentVariables;
 
 import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 
 public class RunCoverityCommands extends AbstractConsumingSubStep<List<List<String>>> {
     private final CoverityJenkinsIntLogger logger;
@@ -28,34 +45,65 @@ public class RunCoverityCommands extends AbstractConsumingSubStep<List<List<Stri
     private final String remoteWorkingDirectory;
     private final OnCommandFailure onCommandFailure;
     private final VirtualChannel virtualChannel;
+    @Nullable
+    private final CoverityCommandGraph coverityCommandGraph;
+    private final int maximumParallelCommands;
+    @Nullable
+    private final SubStepTimer subStepTimer;
+    // Without a launcher, the tools are launched from the COVERITY_TOOL_HOME that the environment holds when the commands run
+    @Nullable
+    private final CoverityToolLauncher coverityToolLauncher;
 
     public RunCoverityCommands(final CoverityJenkinsIntLogger logger, final IntEnvironmentVariables intEnvironmentVariables, final String remoteWorkingDirectory, final OnCommandFailure onCommandFailure,
         final VirtualChannel virtualChannel) {
+        this(logger, intEnvironmentVariables, remoteWorkingDirectory, onCommandFailure, virtualChannel, null, 1);
+    }
+
+    public RunCoverityCommands(final CoverityJenkinsIntLogger logger, final IntEnvironmentVariables intEnvironmentVariables, final String remoteWorkingDirectory, final OnCommandFailure onCommandFailure,
+        final VirtualChannel virtualChannel, @Nullable final CoverityCommandGraph coverityCommandGraph, final int maximumParallelCommands) {
+        this(logger, intEnvironmentVariables, remoteWorkingDirectory, onCommandFailure, virtualChannel, coverityCommandGraph, maximumParallelCommands, null);
+    }
+
+    public RunCoverityCommands(final CoverityJenkinsIntLogger logger, final IntEnvironmentVariables intEnvironmentVariables, final String remoteWorkingDirectory, final OnCommandFailure onCommandFailure,
+        final VirtualChannel virtualChannel, @Nullable final CoverityCommandGraph coverityCommandGraph, final int maximumParallelCommands, @Nullable final SubStepTimer subStepTimer) {
+        this(logger, intEnvironmentVariables, remoteWorkingDirectory, onCommandFailure, virtualChannel, coverityCommandGraph, maximumParallelCommands, subStepTimer, null);
+    }
+
+    public RunCoverityCommands(final CoverityJenkinsIntLogger logger, final IntEnvironmentVariables intEnvironmentVariables, final String remoteWorkingDirectory, final OnCommandFailure onCommandFailure,
+        final VirtualChannel virtualChannel, @Nullable final CoverityCommandGraph coverityCommandGraph, final int maximumParallelCommands, @Nullable final SubStepTimer subStepTimer,
+        @Nullable final CoverityToolLauncher coverityToolLauncher) {
         this.logger = logger;
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.remoteWorkingDirectory = remoteWorkingDirectory;
         this.onCommandFailure = onCommandFailure;
         this.virtualChannel = virtualChannel;
+        this.coverityCommandGraph = coverityCommandGraph;
+        this.maximumParallelCommands = Math.max(1, maximumParallelCommands);
+        this.subStepTimer = subStepTimer;
+        this.coverityToolLauncher = coverityToolLauncher;
     }
 
     public SubStepResponse<Object> run(final List<List<String>> commands) {
         try {
-            boolean oneOrMoreCommandsFailed = false;
-            for (final List<String> arguments : commands) {
-                if (arguments.isEmpty()) {
-                    continue;
-                }
+            if (coverityCommandGraph != null) {
+                runCommandGraph(commands, coverityCommandGraph);
+                return SubStepResponse.SUCCESS();
+            }
 
-                final CoverityRemoteToolRunner coverityRemoteToolRunner = new CoverityRemoteToolRunner(logger, intEnvironmentVariables.getValue(JenkinsCoverityEnvironmentVariable.COVERITY_TOOL_HOME.toString()), arguments,
-                    remoteWorkingDirectory, (HashMap<String, String>) intEnvironmentVariables.getVariables());
+            final CoverityRemoteToolBatchRunner coverityRemoteToolBatchRunner = new CoverityRemoteToolBatchRunner(logger, getCoverityToolLauncher(), commands, remoteWorkingDirectory,
+                (HashMap<String, String>) intEnvironmentVariables.getVariables(), onCommandFailure);
 
-                final Integer exitCode = virtualChannel.call(coverityRemoteToolRunner);
+            final CoverityCommandBatchResult commandBatchResult = virtualChannel.call(coverityRemoteToolBatchRunner);
 
-                if (exitCode != null && exitCode != 0) {
-                    final String exitCodeErrorMessage = "Coverity failed with exit code: " + exitCode;
+            boolean oneOrMoreCommandsFailed = false;
+            for (final CoverityCommandResult commandResult : commandBatchResult.getCommandResults()) {
+                final String commandName = FilenameUtils.getBaseName(commands.get(commandResult.getCommandIndex()).get(0));
+                recordCommandResult(commandName, commandName, commandResult);
+                if (commandResult.isFailure()) {
+                    final String exitCodeErrorMessage = "Coverity failed with exit code: " + commandResult.getExitCode();
 
                     if (OnCommandFailure.SKIP_REMAINING_COMMANDS.equals(onCommandFailure)) {
-                        throw new CoverityJenkinsException(exitCodeErrorMessage);
+                        throw new CoverityJenkinsException(CoverityRemoteToolRunner.withErrorTail(exitCodeErrorMessage, commandResult.getErrorTail()));
                     } else {
                         oneOrMoreCommandsFailed = true;
                         logger.error(exitCodeErrorMessage);
@@ -63,6 +111,11 @@ public class RunCoverityCommands extends AbstractConsumingSubStep<List<List<Stri
                 }
             }
 
+            // The commands that ran before one that could not be run are still recorded above
+            if (commandBatchResult.getFailure().isPresent()) {
+                throw commandBatchResult.getFailure().get();
+            }
+
             if (oneOrMoreCommandsFailed) {
                 throw new CoverityJenkinsException("One or more Coverity commands failed");
             }
@@ -76,4 +129,127 @@ public class RunCoverityCommands extends AbstractConsumingSubStep<List<List<Stri
         return SubStepResponse.SUCCESS();
     }
 
+    private CoverityCommandResult runCommand(final int commandIndex, final List<String> arguments) throws IOException, InterruptedException, CoverityJenkinsException {
+        final CoverityRemoteToolRunner coverityRemoteToolRunner = new CoverityRemoteToolRunner(logger, getCoverityToolLauncher(), arguments, remoteWorkingDirectory, (HashMap<String, String>) intEnvironmentVariables.getVariables());
+
+        final CoverityCommandResult commandResult = virtualChannel.call(coverityRemoteToolRunner);
+        return new CoverityCommandResult(commandIndex, commandResult.getExitCode(), commandResult.getDurationInMillis(), commandResult.getErrorTail());
+    }
+
+    private CoverityToolLauncher getCoverityToolLauncher() {
+        if (coverityToolLauncher != null) {
+            return coverityToolLauncher;
+        }
+        return new CoverityToolLauncher(intEnvironmentVariables.getValue(JenkinsCoverityEnvironmentVariable.COVERITY_TOOL_HOME.toString()));
+    }
+
+    private void runCommandGraph(final List<List<String>> commands, final CoverityCommandGraph commandGraph) throws IOException, InterruptedException, IntegrationException {
+        if (commands.size() != commandGraph.size()) {
+            throw new CoverityJenkinsException(String.format("Expected %d Coverity commands but found %d", commandGraph.size(), commands.size()));
+        }
+
+        final int[] remainingDependencies = new int[commandGraph.size()];
+        final Deque<Integer> readyStages = new ArrayDeque<>();
+        for (int stageIndex = 0; stageIndex < commandGraph.size(); stageIndex++) {
+            remainingDependencies[stageIndex] = commandGraph.getDependencies(stageIndex).size();
+            if (remainingDependencies[stageIndex] == 0) {
+                readyStages.add(stageIndex);
+            }
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(maximumParallelCommands, new NamingThreadFactory(new DaemonThreadFactory(), "Synopsys Coverity command runner"));
+        final CompletionService<CoverityCommandResult> completionService = new ExecutorCompletionService<>(executorService);
+        boolean oneOrMoreCommandsFailed = false;
+        boolean skipRemainingCommands = false;
+        Exception stageException = null;
+        int runningStages = 0;
+        int completedStages = 0;
+
+        try {
+            while (true) {
+                while (!skipRemainingCommands && !readyStages.isEmpty() && runningStages < maximumParallelCommands) {
+                    final int stageIndex = readyStages.poll();
+                    final List<String> arguments = commands.get(stageIndex);
+                    logger.info(String.format("Starting Coverity command '%s'", commandGraph.getStageName(stageIndex)));
+                    completionService.submit(() -> arguments.isEmpty() ? new CoverityCommandResult(stageIndex, null, 0, "") : runCommand(stageIndex, arguments));
+                    runningStages++;
+                }
+
+                if (runningStages == 0) {
+                    break;
+                }
+
+                final Future<CoverityCommandResult> completedStage = completionService.take();
+                runningStages--;
+                try {
+                    final CoverityCommandResult stageResult = completedStage.get();
+                    final String stageName = commandGraph.getStageName(stageResult.getCommandIndex());
+                    completedStages++;
+                    if (stageResult.getExitCode() != null) {
+                        recordCommandResult(stageName, FilenameUtils.getBaseName(commands.get(stageResult.getCommandIndex()).get(0)), stageResult);
+                    }
+
+                    if (stageResult.isFailure()) {
+                        logger.error(String.format("Coverity command '%s' failed with exit code: %d", stageName, stageResult.getExitCode()));
+                        oneOrMoreCommandsFailed = true;
+                        if (OnCommandFailure.SKIP_REMAINING_COMMANDS.equals(onCommandFailure)) {
+                            skipRemainingCommands = true;
+                        }
+                        // Under EXECUTE_REMAINING_COMMANDS the dependents still run, just as the following commands would if the commands ran in sequence
+                    } else {
+                        logger.info(String.format("Coverity command '%s' completed in %dms", stageName, stageResult.getDurationInMillis()));
+                    }
+
+                    for (final int dependent : commandGraph.getDependents(stageResult.getCommandIndex())) {
+                        remainingDependencies[dependent]--;
+                        if (remainingDependencies[dependent] == 0) {
+                            readyStages.add(dependent);
+                        }
+                    }
+                } catch (final ExecutionException e) {
+                    // Anything other than a failing exit code (a lost channel, for instance) stops the remaining commands just like it would if the commands ran in sequence
+                    skipRemainingCommands = true;
+                    if (stageException == null) {
+                        stageException = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        } finally {
+            executorService.shutdown();
+        }
+
+        if (stageException != null) {
+            if (stageException instanceof IOException) {
+                throw (IOException) stageException;
+            } else if (stageException instanceof InterruptedException) {
+                throw (InterruptedException) stageException;
+            } else if (stageException instanceof IntegrationException) {
+                throw (IntegrationException) stageException;
+            }
+            throw new CoverityJenkinsException(stageException);
+        }
+
+        if (oneOrMoreCommandsFailed) {
+            throw new CoverityJenkinsException("One or more Coverity commands failed");
+        }
+
+        if (completedStages != commandGraph.size()) {
+            throw new CoverityJenkinsException(String.format("Only %d of %d Coverity commands ran", completedStages, commandGraph.size()));
+        }
+    }
+
+    private void recordCommandResult(final String displayName, final String commandName, final CoverityCommandResult commandResult) {
+        // Metrics are named after the executable rather than the stage, so they can be compared across jobs
+        CoverityMetrics.timer(CoverityMetrics.commandMetricName(commandName, CoverityMetrics.COMMAND_DURATION)).update(commandResult.getDurationInMillis(), TimeUnit.MILLISECONDS);
+        CoverityMetrics.counter(CoverityMetrics.commandMetricName(commandName, CoverityMetrics.COMMAND_EXIT_CODE), String.valueOf(commandResult.getExitCode())).inc();
+
+        if (subStepTimer != null) {
+            // The command runs on the agent, so the CPU time it used is not known here
+            subStepTimer.record(new SubStepTiming("Coverity command: " + displayName, commandResult.getDurationInMillis(), SubStepTiming.UNKNOWN_CPU_TIME));
+        }
+    }
+
 }
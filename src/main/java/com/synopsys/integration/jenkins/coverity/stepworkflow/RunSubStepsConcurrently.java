@@ -0,0 +1,121 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.stepworkflow.SubStep;
+import com.synopsys.integration.stepworkflow.SubStepResponse;
+
+import hudson.model.Computer;
+
+/**
+ * Runs sub steps that do not depend on each other at the same time and waits for all of them, so the stage takes as long as its slowest sub step rather than the sum of them. The first sub step runs on the calling thread.
+ * <p>
+ * The stage succeeds only if every sub step succeeds; otherwise the failure of the first failed sub step, in the order they were added, is returned. Only the data of the result sub step, which runs first, is passed on to the steps that follow.
+ */
+public class RunSubStepsConcurrently<T> implements SubStep<Object, T> {
+    private final CoverityJenkinsIntLogger logger;
+    private final ExecutorService executorService;
+    private final Map<String, SubStep<Object, ?>> namedSubSteps;
+
+    public RunSubStepsConcurrently(CoverityJenkinsIntLogger logger, String resultSubStepName, SubStep<Object, T> resultSubStep, Map<String, SubStep<Object, ?>> otherSubSteps) {
+        this(logger, Computer.threadPoolForRemoting, resultSubStepName, resultSubStep, otherSubSteps);
+    }
+
+    public RunSubStepsConcurrently(CoverityJenkinsIntLogger logger, ExecutorService executorService, String resultSubStepName, SubStep<Object, T> resultSubStep, Map<String, SubStep<Object, ?>> otherSubSteps) {
+        this.logger = logger;
+        this.executorService = executorService;
+        this.namedSubSteps = new LinkedHashMap<>();
+        this.namedSubSteps.put(resultSubStepName, resultSubStep);
+        this.namedSubSteps.putAll(otherSubSteps);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public SubStepResponse<T> run(SubStepResponse<?> previousResponse) {
+        if (previousResponse.isFailure()) {
+            return (SubStepResponse<T>) previousResponse;
+        }
+
+        long stageStartTime = System.nanoTime();
+        // Sub steps that talk to Coverity Connect rely on the classloader that CoverityJenkinsStepWorkflow sets on the calling thread
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        List<String> names = new ArrayList<>(namedSubSteps.keySet());
+        List<Future<TimedResponse>> futures = new ArrayList<>();
+        for (int i = 1; i < names.size(); i++) {
+            SubStep<Object, ?> subStep = namedSubSteps.get(names.get(i));
+            futures.add(executorService.submit(() -> runWithContextClassLoader(subStep, previousResponse, contextClassLoader)));
+        }
+
+        List<TimedResponse> timedResponses = new ArrayList<>();
+        timedResponses.add(runTimed(namedSubSteps.get(names.get(0)), previousResponse));
+
+        try {
+            for (Future<TimedResponse> future : futures) {
+                timedResponses.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            return SubStepResponse.FAILURE(e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            return SubStepResponse.FAILURE(e);
+        }
+
+        for (int i = 0; i < timedResponses.size(); i++) {
+            logger.alwaysLog(String.format("-- %s took %d ms", names.get(i), timedResponses.get(i).durationInMillis));
+        }
+        logger.alwaysLog(String.format("-- Concurrent set up took %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStartTime)));
+
+        for (TimedResponse timedResponse : timedResponses) {
+            if (timedResponse.response.isFailure()) {
+                return (SubStepResponse<T>) timedResponse.response;
+            }
+        }
+        return (SubStepResponse<T>) timedResponses.get(0).response;
+    }
+
+    private TimedResponse runWithContextClassLoader(SubStep<Object, ?> subStep, SubStepResponse<?> previousResponse, ClassLoader contextClassLoader) {
+        Thread thread = Thread.currentThread();
+        ClassLoader threadClassLoader = thread.getContextClassLoader();
+        try {
+            thread.setContextClassLoader(contextClassLoader);
+            return runTimed(subStep, previousResponse);
+        } finally {
+            thread.setContextClassLoader(threadClassLoader);
+        }
+    }
+
+    private TimedResponse runTimed(SubStep<Object, ?> subStep, SubStepResponse<?> previousResponse) {
+        long startTime = System.nanoTime();
+        SubStepResponse<?> response = subStep.run(previousResponse);
+        return new TimedResponse(response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+
+    private static class TimedResponse {
+        private final SubStepResponse<?> response;
+        private final long durationInMillis;
+
+        private TimedResponse(SubStepResponse<?> response, long durationInMillis) {
+            this.response = response;
+            this.durationInMillis = durationInMillis;
+        }
+    }
+
+}
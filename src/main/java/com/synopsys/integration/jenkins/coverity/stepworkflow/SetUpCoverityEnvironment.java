@@ -7,6 +7,11 @@
  */
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -14,22 +19,28 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.Nullable;
+
 import org.apache.commons.lang.StringUtils;
 
 import com.synopsys.integration.coverity.executable.CoverityToolEnvironmentVariable;
 import com.synopsys.integration.jenkins.coverity.ChangeSetFilter;
+import com.synopsys.integration.jenkins.coverity.ChangeSetIndex;
 import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
 import com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable;
 import com.synopsys.integration.jenkins.coverity.extensions.ConfigureChangeSetPatterns;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
 import com.synopsys.integration.log.LogLevel;
 import com.synopsys.integration.rest.RestConstants;
 import com.synopsys.integration.stepworkflow.AbstractConsumingSubStep;
 import com.synopsys.integration.stepworkflow.SubStepResponse;
 import com.synopsys.integration.util.IntEnvironmentVariables;
 
+import hudson.FilePath;
 import hudson.scm.ChangeLogSet;
+import hudson.slaves.WorkspaceList;
 
-public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
+public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<CoverityAgentFacts> {
     private final CoverityJenkinsIntLogger logger;
     private final IntEnvironmentVariables intEnvironmentVariables;
     private final List<ChangeLogSet<?>> changeLogSets;
@@ -42,10 +53,14 @@ public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
     private final String streamName;
     private final String viewName;
     private final String intermediateDirectoryPath;
-    private final String coverityToolHomeBin;
+    private final FilePath workspace;
+    private final int changeSetEnvironmentVariableLimit;
+    @Nullable
+    private final ChangeSetIndex changeSetIndex;
 
     public SetUpCoverityEnvironment(CoverityJenkinsIntLogger logger, IntEnvironmentVariables intEnvironmentVariables, List<ChangeLogSet<?>> changeLogSets, ConfigureChangeSetPatterns configureChangeSetPatterns, String coverityInstanceUrl,
-        String coverityCredentialsId, String coverityUsername, String coverityPassphrase, String projectName, String streamName, String viewName, String intermediateDirectoryPath, String coverityToolHomeBin) {
+        String coverityCredentialsId, String coverityUsername, String coverityPassphrase, String projectName, String streamName, String viewName, String intermediateDirectoryPath, FilePath workspace,
+        int changeSetEnvironmentVariableLimit, @Nullable ChangeSetIndex changeSetIndex) {
         this.logger = logger;
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.changeLogSets = changeLogSets;
@@ -58,11 +73,16 @@ public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
         this.streamName = streamName;
         this.viewName = viewName;
         this.intermediateDirectoryPath = intermediateDirectoryPath;
-        this.coverityToolHomeBin = coverityToolHomeBin;
+        this.workspace = workspace;
+        this.changeSetEnvironmentVariableLimit = changeSetEnvironmentVariableLimit;
+        this.changeSetIndex = changeSetIndex;
     }
 
     @Override
-    public SubStepResponse<Object> run(String authKeyFilePath) {
+    public SubStepResponse<Object> run(CoverityAgentFacts coverityAgentFacts) {
+        String coverityToolHomeBin = coverityAgentFacts.getCoverityToolHomeBin();
+        String authKeyFilePath = coverityAgentFacts.getAuthenticationKeyFilePath().orElse(StringUtils.EMPTY);
+
         logger.debug("Computing $CHANGE_SET");
         ChangeSetFilter changeSetFilter;
         if (configureChangeSetPatterns == null) {
@@ -72,19 +92,45 @@ public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
             changeSetFilter = configureChangeSetPatterns.createChangeSetFilter();
             logger.alwaysLog("-- Change set inclusion patterns: " + configureChangeSetPatterns.getChangeSetInclusionPatterns());
             logger.alwaysLog("-- Change set exclusion patterns: " + configureChangeSetPatterns.getChangeSetExclusionPatterns());
+            logger.alwaysLog("-- Change set patterns match full paths: " + Boolean.TRUE.equals(configureChangeSetPatterns.getMatchFullPaths()));
         }
 
-        List<String> changeSet = changeLogSets.stream()
-                                     .filter(changeLogSet -> !changeLogSet.isEmptySet())
-                                     .flatMap(this::toEntries)
-                                     .peek(this::logEntry)
-                                     .flatMap(this::toAffectedFiles)
-                                     .filter(changeSetFilter::shouldInclude)
-                                     .map(ChangeLogSet.AffectedFile::getPath)
-                                     .filter(StringUtils::isNotBlank)
-                                     .collect(Collectors.toList());
+        Stream<? extends ChangeLogSet.AffectedFile> affectedFiles = changeLogSets.stream()
+                                                                        .filter(changeLogSet -> !changeLogSet.isEmptySet())
+                                                                        .flatMap(this::toEntries)
+                                                                        .peek(this::logEntry)
+                                                                        .flatMap(this::toAffectedFiles);
+
+        List<String> changeSet;
+        if (changeSetIndex == null) {
+            changeSet = affectedFiles.filter(changeSetFilter::shouldInclude)
+                            .map(ChangeLogSet.AffectedFile::getPath)
+                            .filter(StringUtils::isNotBlank)
+                            .collect(Collectors.toList());
+        } else {
+            changeSet = computeIndexedChangeSet(affectedFiles, changeSetFilter);
+        }
 
         logger.alwaysLog("Computed a $CHANGE_SET of " + changeSet.size() + " files");
+        CoverityMetrics.histogram(CoverityMetrics.CHANGE_SET_SIZE).update(changeSet.size());
+
+        String changeSetFilePath;
+        try {
+            changeSetFilePath = writeChangeSetFile(changeSet);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SubStepResponse.FAILURE(e);
+        } catch (IOException e) {
+            return SubStepResponse.FAILURE(e);
+        }
+
+        String changeSetEnvironmentVariable;
+        if (getJoinedLength(changeSet) <= changeSetEnvironmentVariableLimit) {
+            changeSetEnvironmentVariable = String.join(" ", changeSet);
+        } else {
+            changeSetEnvironmentVariable = StringUtils.EMPTY;
+            logger.warn(String.format("WARNING: The change set of %d files is larger than %d characters, so $CHANGE_SET will be empty. Use $CHANGE_SET_FILE instead.", changeSet.size(), changeSetEnvironmentVariableLimit));
+        }
 
         intEnvironmentVariables.put("PATH+COVERITYTOOLBIN", coverityToolHomeBin);
         intEnvironmentVariables.put(CoverityToolEnvironmentVariable.USER.toString(), coverityUsername);
@@ -95,8 +141,9 @@ public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
         intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.COVERITY_PROJECT.toString(), projectName);
         intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.COVERITY_STREAM.toString(), streamName);
         intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.COVERITY_VIEW.toString(), viewName);
-        intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.CHANGE_SET.toString(), String.join(" ", changeSet));
+        intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.CHANGE_SET.toString(), changeSetEnvironmentVariable);
         intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.CHANGE_SET_SIZE.toString(), String.valueOf(changeSet.size()));
+        intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.CHANGE_SET_FILE.toString(), changeSetFilePath);
         intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.COVERITY_INTERMEDIATE_DIRECTORY.toString(), intermediateDirectoryPath);
 
         logger.alwaysLog("Synopsys Coverity environment:");
@@ -110,6 +157,53 @@ public class SetUpCoverityEnvironment extends AbstractConsumingSubStep<String> {
         return SubStepResponse.SUCCESS();
     }
 
+    private List<String> computeIndexedChangeSet(Stream<? extends ChangeLogSet.AffectedFile> affectedFiles, ChangeSetFilter changeSetFilter) {
+        // The unfiltered paths are indexed so that changing the patterns also applies to the paths carried over from earlier builds
+        List<String> buildChangeSet = affectedFiles.map(ChangeLogSet.AffectedFile::getPath)
+                                          .filter(StringUtils::isNotBlank)
+                                          .collect(Collectors.toList());
+
+        List<String> pendingChangeSet;
+        try {
+            pendingChangeSet = changeSetIndex.addAll(buildChangeSet);
+            logger.alwaysLog(String.format("-- %d changed files are pending analysis, including changes from earlier builds", pendingChangeSet.size()));
+        } catch (IOException e) {
+            logger.warn("Could not update the change set index, only the changes in this build will be analyzed: " + e.getMessage());
+            logger.trace("Change set index exception:", e);
+            pendingChangeSet = buildChangeSet;
+        }
+
+        return pendingChangeSet.stream()
+                   .filter(changeSetFilter::shouldInclude)
+                   .collect(Collectors.toList());
+    }
+
+    private String writeChangeSetFile(List<String> changeSet) throws IOException, InterruptedException {
+        // The build's temporary directory sits beside the workspace, so the file never ends up in the SCM checkout
+        FilePath temporaryDirectory = WorkspaceList.tempDir(workspace);
+        if (temporaryDirectory == null) {
+            throw new IOException("Could not find a temporary directory for the workspace " + workspace.getRemote());
+        }
+        temporaryDirectory.mkdirs();
+        FilePath changeSetFile = temporaryDirectory.createTempFile("change-set", ".txt");
+        // FilePath.write streams to the agent, so the change set is never joined into one string on the controller
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(changeSetFile.write(), StandardCharsets.UTF_8))) {
+            for (String path : changeSet) {
+                writer.write(path);
+                writer.write('\n');
+            }
+        }
+        return changeSetFile.getRemote();
+    }
+
+    private long getJoinedLength(List<String> changeSet) {
+        long joinedLength = Math.max(0, changeSet.size() - 1);
+        for (String path : changeSet) {
+            joinedLength += path.length();
+        }
+        return joinedLength;
+    }
+
     private Stream<? extends ChangeLogSet.Entry> toEntries(ChangeLogSet<? extends ChangeLogSet.Entry> changeLogSet) {
         return StreamSupport.stream(changeLogSet.spliterator(), false);
     }
@@ -0,0 +1,97 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+import hudson.remoting.Pipe;
+
+/**
+ * Sends the chunks of an intermediate directory that the stash is missing, either through a pipe to a stash on the controller or straight into a stash on a path the agent shares with the other agents.
+ */
+public class StashIntermediateDirectory extends CoverityRemoteCallable<Integer> {
+    private static final long serialVersionUID = 5108426690947385519L;
+    private final String intermediateDirectory;
+    private final IntermediateDirectoryManifest manifest;
+    @Nullable
+    private final HashSet<String> missingChunkHashes;
+    @Nullable
+    private final Pipe pipe;
+    @Nullable
+    private final String sharedStashPath;
+    private final long stashQuotaInBytes;
+
+    private StashIntermediateDirectory(CoverityJenkinsIntLogger logger, String intermediateDirectory, IntermediateDirectoryManifest manifest, @Nullable Set<String> missingChunkHashes, @Nullable Pipe pipe, @Nullable String sharedStashPath,
+        long stashQuotaInBytes) {
+        super(logger);
+        this.intermediateDirectory = intermediateDirectory;
+        this.manifest = manifest;
+        this.missingChunkHashes = missingChunkHashes == null ? null : new HashSet<>(missingChunkHashes);
+        this.pipe = pipe;
+        this.sharedStashPath = sharedStashPath;
+        this.stashQuotaInBytes = stashQuotaInBytes;
+    }
+
+    public static StashIntermediateDirectory toPipe(CoverityJenkinsIntLogger logger, String intermediateDirectory, IntermediateDirectoryManifest manifest, Set<String> missingChunkHashes, Pipe pipe) {
+        return new StashIntermediateDirectory(logger, intermediateDirectory, manifest, missingChunkHashes, pipe, null, 0);
+    }
+
+    public static StashIntermediateDirectory toSharedStash(CoverityJenkinsIntLogger logger, String intermediateDirectory, IntermediateDirectoryManifest manifest, String sharedStashPath, long stashQuotaInBytes) {
+        return new StashIntermediateDirectory(logger, intermediateDirectory, manifest, null, null, sharedStashPath, stashQuotaInBytes);
+    }
+
+    /**
+     * @return the number of chunks sent
+     */
+    @Override
+    public Integer call() throws CoverityJenkinsException {
+        Path intermediateDirectoryPath = Paths.get(intermediateDirectory);
+        AtomicInteger sentChunks = new AtomicInteger();
+        try {
+            if (sharedStashPath != null) {
+                IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(Paths.get(sharedStashPath));
+                try (IntermediateDirectoryStash.InFlightStash ignored = intermediateDirectoryStash.beginStash()) {
+                    Set<String> chunkHashesToSend = intermediateDirectoryStash.findMissingChunks(manifest);
+                    IntermediateDirectoryStash.readChunks(intermediateDirectoryPath, manifest, chunkHashesToSend::contains, (chunkHash, compressedChunk) -> {
+                        intermediateDirectoryStash.writeChunk(chunkHash, compressedChunk);
+                        sentChunks.incrementAndGet();
+                    });
+                    intermediateDirectoryStash.writeManifest(manifest);
+                }
+                IntermediateDirectoryStash.GarbageCollection garbageCollection = intermediateDirectoryStash.collectGarbage(manifest.getStashKey(), stashQuotaInBytes, IntermediateDirectoryStash.UNREFERENCED_CHUNK_MINIMUM_AGE_IN_MILLIS);
+                garbageCollection.getExpiredStashKeys().forEach(expiredStashKey -> logger.alwaysLog(String.format("Expired the stashed intermediate directory %s to stay within the stash size", expiredStashKey)));
+            } else if (pipe != null && missingChunkHashes != null) {
+                // Closing the pipe without ending the stream tells the controller that the stash failed
+                try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(pipe.getOut()))) {
+                    IntermediateDirectoryStash.ChunkSink chunkSink = IntermediateDirectoryStash.toStream(dataOutputStream);
+                    IntermediateDirectoryStash.readChunks(intermediateDirectoryPath, manifest, missingChunkHashes::contains, (chunkHash, compressedChunk) -> {
+                        chunkSink.accept(chunkHash, compressedChunk);
+                        sentChunks.incrementAndGet();
+                    });
+                    IntermediateDirectoryStash.endStream(dataOutputStream);
+                }
+            }
+        } catch (IOException e) {
+            throw new CoverityJenkinsException("Could not stash the intermediate directory", e);
+        }
+        return sentChunks.get();
+    }
+
+}
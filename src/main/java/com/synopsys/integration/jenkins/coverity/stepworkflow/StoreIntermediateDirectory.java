@@ -0,0 +1,60 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+
+public class StoreIntermediateDirectory extends CoverityRemoteCallable<Boolean> {
+    private static final long serialVersionUID = -2479108187315434412L;
+    private final String cacheDirectory;
+    private final String streamName;
+    private final String coverityToolHome;
+    private final String intermediateDirectory;
+    private final long quotaInBytes;
+
+    public StoreIntermediateDirectory(CoverityJenkinsIntLogger logger, String cacheDirectory, String streamName, String coverityToolHome, String intermediateDirectory, long quotaInBytes) {
+        super(logger);
+        this.cacheDirectory = cacheDirectory;
+        this.streamName = streamName;
+        this.coverityToolHome = coverityToolHome;
+        this.intermediateDirectory = intermediateDirectory;
+        this.quotaInBytes = quotaInBytes;
+    }
+
+    @Override
+    public Boolean call() {
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(Paths.get(cacheDirectory));
+        String cacheKey = IntermediateDirectoryCache.createCacheKey(streamName, Paths.get(coverityToolHome));
+
+        try {
+            if (!intermediateDirectoryCache.store(cacheKey, Paths.get(intermediateDirectory))) {
+                logger.warn(String.format("WARNING: The intermediate directory %s was not cached. It either does not exist or is not on the same file system as %s, so it was left in the workspace.", intermediateDirectory, cacheDirectory));
+                return false;
+            }
+            logger.alwaysLog(String.format("Cached the intermediate directory as %s", cacheKey));
+        } catch (IOException e) {
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not cache the intermediate directory.");
+            logger.trace("Synopsys Coverity for Jenkins could not cache the intermediate directory because: ", e);
+            return false;
+        }
+
+        try {
+            List<String> evictedCacheKeys = intermediateDirectoryCache.evict(quotaInBytes);
+            evictedCacheKeys.forEach(evictedCacheKey -> logger.alwaysLog(String.format("Evicted the cached intermediate directory %s to stay within the cache size", evictedCacheKey)));
+        } catch (IOException e) {
+            logger.warn("WARNING: Synopsys Coverity for Jenkins could not evict cached intermediate directories.");
+            logger.trace("Synopsys Coverity for Jenkins could not evict cached intermediate directories because: ", e);
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.coverity.api.rest.View;
+import com.synopsys.integration.coverity.api.rest.ViewContents;
+import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceException_Exception;
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
+import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
+import com.synopsys.integration.coverity.ws.view.ViewService;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Retrieves every row of a view one page at a time and writes them as gzipped JSON lines, fetching the next page while the current one is written so that only two pages are ever held in memory.
+ */
+public class StreamIssuesInView extends GetIssuesInView {
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private final int pageSize;
+    private final File issuesFile;
+    private final Gson gson = new Gson();
+
+    public StreamIssuesInView(final CoverityJenkinsIntLogger logger, final ConfigurationServiceWrapper configurationServiceWrapper, final ViewService viewService, final String projectName, final String viewName, final int pageSize,
+        final File issuesFile) {
+        super(logger, configurationServiceWrapper, viewService, projectName, viewName);
+        this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        this.issuesFile = issuesFile;
+    }
+
+    @Override
+    protected ViewContents getViewContents(final ProjectDataObj project, final View view) throws IOException, IntegrationException, CovRemoteServiceException_Exception {
+        final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(new NamingThreadFactory(new DaemonThreadFactory(), "Synopsys Coverity issue prefetch"));
+        try (final Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(issuesFile)), StandardCharsets.UTF_8))) {
+            final ViewContents firstPage = viewService.getViewContents(project, view, pageSize, 0);
+            final long totalRows = firstPage.getTotalRows() == null ? 0 : firstPage.getTotalRows().longValue();
+
+            ViewContents currentPage = firstPage;
+            long rowsWritten = 0;
+            while (true) {
+                final List<?> rows = currentPage.getRows();
+                if (rows == null || rows.isEmpty()) {
+                    break;
+                }
+
+                final long nextOffset = rowsWritten + rows.size();
+                Future<ViewContents> nextPage = null;
+                if (nextOffset < totalRows) {
+                    nextPage = prefetchExecutor.submit(() -> viewService.getViewContents(project, view, pageSize, Math.toIntExact(nextOffset)));
+                }
+
+                for (final Object row : rows) {
+                    gson.toJson(row, writer);
+                    writer.write('\n');
+                }
+                rowsWritten = nextOffset;
+                if (currentPage == firstPage) {
+                    // Only the totals of the first page are returned, so its rows are released rather than held alongside the next two pages
+                    rows.clear();
+                }
+
+                if (nextPage == null) {
+                    break;
+                }
+                currentPage = nextPage.get();
+            }
+
+            logger.info(String.format("Wrote %d of %d issues in view \"%s\" to %s", rowsWritten, totalRows, viewName, issuesFile.getAbsolutePath()));
+            return firstPage;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoverityJenkinsException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new CoverityJenkinsException("Coverity Issues could not be retrieved: " + cause.getMessage(), cause);
+        } finally {
+            prefetchExecutor.shutdownNow();
+        }
+    }
+
+}
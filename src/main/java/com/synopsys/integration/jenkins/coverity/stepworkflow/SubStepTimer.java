@@ -0,0 +1,34 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.synopsys.integration.jenkins.coverity.actions.SubStepTiming;
+import com.synopsys.integration.stepworkflow.SubStep;
+
+/**
+ * Collects the timings of the sub steps of one workflow run. Sub steps may run at the same time, so recording is thread safe.
+ */
+public class SubStepTimer {
+    private final List<SubStepTiming> subStepTimings = new ArrayList<>();
+
+    public <T, R> SubStep<T, R> time(String name, SubStep<T, R> subStep) {
+        return new TimedSubStep<>(this, name, subStep);
+    }
+
+    public synchronized void record(SubStepTiming subStepTiming) {
+        subStepTimings.add(subStepTiming);
+    }
+
+    public synchronized List<SubStepTiming> getSubStepTimings() {
+        return new ArrayList<>(subStepTimings);
+    }
+
+}
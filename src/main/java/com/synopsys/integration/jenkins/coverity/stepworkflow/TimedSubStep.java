@@ -0,0 +1,61 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.jenkins.coverity.actions.SubStepTiming;
+import com.synopsys.integration.stepworkflow.SubStep;
+import com.synopsys.integration.stepworkflow.SubStepResponse;
+
+/**
+ * Records the wall-clock and CPU time of a sub step with a {@link SubStepTimer}. Sub steps skipped because an earlier one failed are not recorded.
+ * <p>
+ * The CPU time is that of the controller thread running the sub step, so work done on an agent (validating the installation or running Coverity commands, for instance) only shows up in the wall-clock time.
+ */
+public class TimedSubStep<T, R> implements SubStep<T, R> {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final SubStepTimer subStepTimer;
+    private final String name;
+    private final SubStep<T, R> subStep;
+
+    public TimedSubStep(SubStepTimer subStepTimer, String name, SubStep<T, R> subStep) {
+        this.subStepTimer = subStepTimer;
+        this.name = name;
+        this.subStep = subStep;
+    }
+
+    @Override
+    public SubStepResponse<R> run(SubStepResponse<? extends T> previousResponse) {
+        if (previousResponse.isFailure()) {
+            return subStep.run(previousResponse);
+        }
+
+        long startCpuTime = getCurrentThreadCpuTime();
+        long startTime = System.nanoTime();
+        try {
+            return subStep.run(previousResponse);
+        } finally {
+            long wallTimeInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            long endCpuTime = getCurrentThreadCpuTime();
+            long cpuTimeInMillis = startCpuTime < 0 || endCpuTime < 0 ? SubStepTiming.UNKNOWN_CPU_TIME : TimeUnit.NANOSECONDS.toMillis(endCpuTime - startCpuTime);
+            subStepTimer.record(new SubStepTiming(name, wallTimeInMillis, cpuTimeInMillis));
+        }
+    }
+
+    private long getCurrentThreadCpuTime() {
+        if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+}
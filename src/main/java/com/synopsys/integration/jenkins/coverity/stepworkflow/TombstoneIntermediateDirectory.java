@@ -0,0 +1,57 @@
+/*
+ * synopsys-coverity
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+public class TombstoneIntermediateDirectory extends CoverityRemoteCallable<IntermediateDirectoryReaper.Report> {
+    private static final long serialVersionUID = -5370519832418930470L;
+    private final String intermediateDirectory;
+    private final String tombstoneDirectory;
+    private final int threads;
+    private final int deletionsPerSecond;
+
+    public TombstoneIntermediateDirectory(CoverityJenkinsIntLogger logger, String intermediateDirectory, String tombstoneDirectory, int threads, int deletionsPerSecond) {
+        super(logger);
+        this.intermediateDirectory = intermediateDirectory;
+        this.tombstoneDirectory = tombstoneDirectory;
+        this.threads = threads;
+        this.deletionsPerSecond = deletionsPerSecond;
+    }
+
+    /**
+     * @return the reaps on this agent that finished since the last build reported them
+     */
+    @Override
+    public IntermediateDirectoryReaper.Report call() throws CoverityJenkinsException {
+        Path intermediateDirectoryPath = Paths.get(intermediateDirectory);
+        IntermediateDirectoryReaper intermediateDirectoryReaper = IntermediateDirectoryReaper.getInstance();
+        intermediateDirectoryReaper.configure(threads, deletionsPerSecond);
+
+        try {
+            Path tombstone = IntermediateDirectoryReaper.tombstone(intermediateDirectoryPath, Paths.get(tombstoneDirectory));
+            if (tombstone == null) {
+                logger.debug(String.format("The intermediate directory %s was already cleaned up", intermediateDirectory));
+            } else {
+                logger.alwaysLog(String.format("Moved the intermediate directory to %s to be deleted in the background", tombstone));
+            }
+
+            intermediateDirectoryReaper.reapTombstonesIn(Paths.get(tombstoneDirectory));
+            intermediateDirectoryReaper.reapTombstonesIn(intermediateDirectoryPath.getParent());
+        } catch (IOException e) {
+            throw new CoverityJenkinsException("Could not move the intermediate directory to be deleted in the background", e);
+        }
+        return intermediateDirectoryReaper.drainReport();
+    }
+
+}
@@ -49,7 +49,7 @@ public class ValidateCoverityInstallation extends CoverityRemoteCallable<Boolean
             }
 
             // check the version file value and validate it is greater than minimum version
-            CoverityVersion coverityVersion = getVersion(pathToAnalysisVersionFile).orElse(null);
+            CoverityVersion coverityVersion = readVersion(pathToAnalysisVersionFile).orElse(null);
             if (coverityVersion == null) {
                 throw new CoverityJenkinsException("Could not determine the version of the Coverity analysis tool.");
             }
@@ -71,7 +71,7 @@ public class ValidateCoverityInstallation extends CoverityRemoteCallable<Boolean
      * Gets the {@link CoverityVersion} given a static analysis tools home directory by finding the VERSION file,
      * then reading the version number
      */
-    private Optional<CoverityVersion> getVersion(Path versionFile) throws CoverityJenkinsException {
+    public static Optional<CoverityVersion> readVersion(Path versionFile) throws CoverityJenkinsException {
         final String versionPrefix = "externalVersion=";
         try (Stream<String> lines = Files.lines(versionFile)) {
             return lines.filter(str -> str.startsWith(versionPrefix))
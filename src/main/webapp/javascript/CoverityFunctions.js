@@ -18,7 +18,7 @@ function loadProjects(coverityInstanceUrlId, projectNameId, fullyQualifiedDescri
 
     var fillURL = jenkinsRootUrl + "/descriptor/" + fullyQualifiedDescribable + "/fillProjectNameItems";
     var requestParameters = { coverityInstanceUrl: coverityUrl, updateNow: true };
-    loadList(projectNameId, projectNameId + "Loading", 'Loading projects...', fillURL, requestParameters);
+    loadRefreshedList(projectNameId, projectNameId + "Loading", 'Loading projects...', fillURL, requestParameters);
 }
 
 function loadStreams(coverityInstanceUrlId, projectNameId, streamNameId, fullyQualifiedDescribable) {
@@ -30,7 +30,7 @@ function loadStreams(coverityInstanceUrlId, projectNameId, streamNameId, fullyQu
 
     var fillURL = jenkinsRootUrl + "/descriptor/" + fullyQualifiedDescribable + "/fillStreamNameItems";
     var requestParameters = { coverityInstanceUrl: coverityUrl, projectName: oldProjectSelected };
-    loadList(streamNameId, streamNameId + "Loading", 'Loading streams...', fillURL, requestParameters);
+    loadRefreshedList(streamNameId, streamNameId + "Loading", 'Loading streams...', fillURL, requestParameters);
 }
 
 function loadViews(coverityInstanceUrlId, viewNameId, fullyQualifiedDescribable) {
@@ -41,11 +41,41 @@ function loadViews(coverityInstanceUrlId, viewNameId, fullyQualifiedDescribable)
     if (viewSelect) {
         var fillURL = jenkinsRootUrl + "/descriptor/" + fullyQualifiedDescribable + "/fillViewNameItems";
         var requestParameters = { coverityInstanceUrl: coverityUrl, updateNow: true };
-        loadList(viewNameId, viewNameId + "Loading", 'Loading views...', fillURL, requestParameters);
+        loadRefreshedList(viewNameId, viewNameId + "Loading", 'Loading views...', fillURL, requestParameters);
     }
 }
 
-function loadList(selectId, loadingId, loadingText, fillURL, requestParameters) {
+// The fill requests answer from the cache right away, so show what is cached, wait for the refresh they started, then show the refreshed list
+function loadRefreshedList(selectId, loadingId, loadingText, fillURL, requestParameters) {
+    loadList(selectId, loadingId, loadingText, fillURL, requestParameters, function () {
+        pollCacheRefresh(selectId, loadingId, requestParameters.coverityInstanceUrl, function () {
+            var cachedRequestParameters = Object.clone(requestParameters);
+            delete cachedRequestParameters.updateNow;
+            loadList(selectId, loadingId, loadingText, fillURL, cachedRequestParameters);
+        });
+    });
+}
+
+function pollCacheRefresh(selectId, loadingId, coverityUrl, onRefreshed) {
+    var statusURL = jenkinsRootUrl + "/descriptor/com.synopsys.integration.jenkins.coverity.extensions.global.CoverityGlobalConfig/cacheRefreshStatus";
+    new Ajax.Request(statusURL, {
+        parameters: { coverityInstanceUrl: coverityUrl },
+        onComplete: function (t) {
+            if (t.status !== 200) {
+                console.log("Failed to load from " + statusURL + ". Error: " + t.statusText + " status: " + t.status);
+                hideLoading(selectId, loadingId);
+            } else if (t.responseText.evalJSON().refreshing) {
+                showLoading(selectId, loadingId, 'Refreshing from Coverity Connect...');
+                pollCacheRefresh.delay(1, selectId, loadingId, coverityUrl, onRefreshed);
+            } else {
+                hideLoading(selectId, loadingId);
+                onRefreshed();
+            }
+        }
+    });
+}
+
+function loadList(selectId, loadingId, loadingText, fillURL, requestParameters, onLoaded) {
     var select = document.getElementById(selectId);
     new Ajax.Request(fillURL, {
         parameters: requestParameters,
@@ -71,6 +101,9 @@ function loadList(selectId, loadingId, loadingText, fillURL, requestParameters)
                 select.value = selectedOption;
             }
             hideLoading(selectId, loadingId);
+            if (onLoaded && t.status === 200) {
+                onLoaded();
+            }
         }
     });
 }
@@ -0,0 +1,108 @@
+package com.synopsys.integration.jenkins.coverity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class ChangeSetFilterTest {
+    public static Stream<Arguments> provideFilters() {
+        return Stream.of(
+            Arguments.of("*.java", "", "src/main/test.java", false),
+            Arguments.of("*.jpg", "", "src/main/test.java", true),
+            Arguments.of("test.*", "", "src/main/test.java", false),
+            Arguments.of("test.????", "", "src/main/test.java", false),
+            Arguments.of("test.?????", "", "src/main/test.java", true),
+            Arguments.of("TEST.JAVA", "", "src/main/test.java", false),
+            Arguments.of("", "*.java", "src/main/test.java", true),
+            Arguments.of("", "*.jpg", "src/main/test.java", false),
+            Arguments.of("", "te*a", "test.java", true),
+            Arguments.of("test.java", "*.java", "src/main/test.java", false),
+            Arguments.of("main", "", "src/main/test.java", true),
+            Arguments.of("", "*", "src/main/test.java", true),
+            Arguments.of("*", "*", "src/main/test.java", false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideFilters")
+    public void testShouldInclude(String toExclude, String toInclude, String filePath, boolean expectedResult) {
+        ChangeSetFilter changeSetFilter = new ChangeSetFilter(toExclude, toInclude);
+        assertEquals(expectedResult, changeSetFilter.shouldInclude(filePath));
+    }
+
+    public static Stream<Arguments> providePathFilters() {
+        return Stream.of(
+            Arguments.of("third_party/", "", "third_party/zlib/inflate.c", false),
+            Arguments.of("third_party/**", "", "Third_Party/zlib/inflate.c", false),
+            Arguments.of("third_party/", "", "src/third_party/inflate.c", true),
+            Arguments.of("generated/**/*.java", "", "generated/Foo.java", false),
+            Arguments.of("generated/**/*.java", "", "generated/model/Foo.java", false),
+            Arguments.of("generated/**/*.java", "", "generated/model/Foo.c", true),
+            Arguments.of("generated/**/*.java", "", "src/generated/Foo.java", true),
+            Arguments.of("**/generated/*.java", "", "src/generated/Foo.java", false),
+            Arguments.of("/src/*/Main.java", "", "src/app/Main.java", false),
+            Arguments.of("/src/*/Main.java", "", "src/app/util/Main.java", true),
+            Arguments.of("*.md", "src/", "src/README.md", false),
+            Arguments.of("", "src/", "src/main/Foo.java", true),
+            Arguments.of("", "src/", "test/Foo.java", false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePathFilters")
+    public void testShouldIncludeWithFullPaths(String toExclude, String toInclude, String filePath, boolean expectedResult) {
+        ChangeSetFilter changeSetFilter = new ChangeSetFilter(toExclude, toInclude, true);
+        assertEquals(expectedResult, changeSetFilter.shouldInclude(filePath));
+    }
+
+    @Test
+    public void testPathPatternsAreIgnoredWithoutFullPaths() {
+        ChangeSetFilter changeSetFilter = new ChangeSetFilter("third_party/", "", false);
+        assertTrue(changeSetFilter.shouldInclude("third_party/zlib/inflate.c"));
+    }
+
+    @Test
+    public void testMatcherAgreesWithWildcardMatch() {
+        Random random = new Random(8675309);
+        String patternCharacters = "aAbB.x*?";
+        String nameCharacters = "aAbB.x";
+
+        for (int i = 0; i < 20000; i++) {
+            List<String> patterns = new ArrayList<>();
+            int patternCount = random.nextInt(4);
+            for (int j = 0; j < patternCount; j++) {
+                String pattern = randomString(random, patternCharacters, 6);
+                // FilenameUtils does not treat '*' followed by '?' as a glob would, so those patterns are left out of the comparison
+                if (!pattern.contains("*?")) {
+                    patterns.add(pattern);
+                }
+            }
+            String fileName = randomString(random, nameCharacters, 7);
+
+            boolean expectedResult = patterns.stream().anyMatch(pattern -> FilenameUtils.wildcardMatch(fileName, pattern, IOCase.INSENSITIVE));
+            boolean result = new FileNamePatternMatcher(patterns).matches("some/directory/" + fileName, 15, 15 + fileName.length());
+            assertEquals(expectedResult, result, () -> String.format("Patterns %s against '%s'", patterns, fileName));
+        }
+    }
+
+    private String randomString(Random random, String characters, int maximumLength) {
+        StringBuilder stringBuilder = new StringBuilder();
+        int length = random.nextInt(maximumLength);
+        for (int i = 0; i < length; i++) {
+            stringBuilder.append(characters.charAt(random.nextInt(characters.length())));
+        }
+        return stringBuilder.toString();
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.synopsys.integration.jenkins.coverity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ChangeSetIndexTest {
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testAddAllMergesWithEarlierBuilds() throws IOException {
+        File indexFile = temporaryDirectory.resolve(ChangeSetIndex.INDEX_FILE_NAME).toFile();
+
+        new ChangeSetIndex(indexFile).addAll(Arrays.asList("src/main/b.c", "src/main/a.c", "README.md"));
+        ChangeSetIndex changeSetIndex = new ChangeSetIndex(indexFile);
+
+        assertEquals(Arrays.asList("README.md", "src/main/a.c", "src/main/ab.c", "src/main/b.c", "src/test/a.c"), changeSetIndex.addAll(Arrays.asList("src/test/a.c", "src/main/ab.c", "src/main/a.c")));
+        assertEquals(changeSetIndex.getPendingPaths(), new ChangeSetIndex(indexFile).addAll(Collections.emptyList()));
+    }
+
+    @Test
+    public void testRemovePendingPathsKeepsLaterChanges() throws IOException {
+        File indexFile = temporaryDirectory.resolve(ChangeSetIndex.INDEX_FILE_NAME).toFile();
+        ChangeSetIndex committingBuild = new ChangeSetIndex(indexFile);
+        committingBuild.addAll(Arrays.asList("a.c", "b.c"));
+        new ChangeSetIndex(indexFile).addAll(Arrays.asList("b.c", "c.c"));
+
+        committingBuild.removePendingPaths();
+
+        assertEquals(Arrays.asList("b.c", "c.c"), new ChangeSetIndex(indexFile).addAll(Collections.emptyList()));
+    }
+
+    @Test
+    public void testRemovePendingPathsOfLaterBuildRemovesEarlierChanges() throws IOException {
+        File indexFile = temporaryDirectory.resolve(ChangeSetIndex.INDEX_FILE_NAME).toFile();
+        ChangeSetIndex earlierBuild = new ChangeSetIndex(indexFile);
+        earlierBuild.addAll(Arrays.asList("a.c", "b.c"));
+        ChangeSetIndex laterBuild = new ChangeSetIndex(indexFile);
+        laterBuild.addAll(Collections.singletonList("c.c"));
+
+        laterBuild.removePendingPaths();
+        earlierBuild.removePendingPaths();
+
+        assertEquals(Collections.emptyList(), new ChangeSetIndex(indexFile).addAll(Collections.emptyList()));
+    }
+
+    @Test
+    public void testIndexOfAnotherVersionIsRebuilt() throws IOException {
+        File indexFile = temporaryDirectory.resolve(ChangeSetIndex.INDEX_FILE_NAME).toFile();
+        try (DataOutputStream outputStream = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(indexFile)))) {
+            outputStream.writeInt(1);
+            outputStream.writeBoolean(true);
+            outputStream.writeShort(0);
+            outputStream.writeUTF("old.c");
+            outputStream.writeBoolean(false);
+        }
+
+        assertEquals(Collections.singletonList("a.c"), new ChangeSetIndex(indexFile).addAll(Collections.singletonList("a.c")));
+        assertEquals(Arrays.asList("a.c", "b.c"), new ChangeSetIndex(indexFile).addAll(Collections.singletonList("b.c")));
+    }
+
+}
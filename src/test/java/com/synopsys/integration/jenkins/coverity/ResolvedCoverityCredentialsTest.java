@@ -0,0 +1,40 @@
+package com.synopsys.integration.jenkins.coverity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+
+public class ResolvedCoverityCredentialsTest {
+    @Test
+    public void testUsernameAndPassphrase() throws CoverityJenkinsAbortException {
+        ResolvedCoverityCredentials resolvedCoverityCredentials = ResolvedCoverityCredentials.fromUsernameAndPassphrase("credentialsId", "username", "passphrase");
+
+        assertEquals(Optional.of("username"), resolvedCoverityCredentials.getUsername());
+        assertEquals(Optional.of("passphrase"), resolvedCoverityCredentials.getPassphrase());
+        assertEquals(Optional.empty(), resolvedCoverityCredentials.getAuthenticationKeyFileContents());
+        assertEquals(Optional.of("username"), resolvedCoverityCredentials.getIntegrationCredentials().getUsername());
+    }
+
+    @Test
+    public void testUnparseableAuthenticationKeyFileKeepsContents() throws CoverityJenkinsAbortException {
+        ResolvedCoverityCredentials resolvedCoverityCredentials = ResolvedCoverityCredentials.fromUnparseableAuthenticationKeyFile("credentialsId", "not a key file");
+
+        assertFalse(resolvedCoverityCredentials.getUsername().isPresent());
+        assertFalse(resolvedCoverityCredentials.getPassphrase().isPresent());
+        assertEquals(Optional.of("not a key file"), resolvedCoverityCredentials.getAuthenticationKeyFileContents());
+    }
+
+    @Test
+    public void testUnreadableAuthenticationKeyFileAborts() {
+        ResolvedCoverityCredentials resolvedCoverityCredentials = ResolvedCoverityCredentials.fromUnreadableAuthenticationKeyFile("credentialsId");
+
+        assertThrows(CoverityJenkinsAbortException.class, resolvedCoverityCredentials::getAuthenticationKeyFileContents);
+    }
+
+}
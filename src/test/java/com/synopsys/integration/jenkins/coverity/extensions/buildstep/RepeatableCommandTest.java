@@ -39,6 +39,13 @@ public class RepeatableCommandTest {
         );
     }
 
+    private static Stream<Arguments> getTestConstructCovRunDesktopWithChangeSetFileParameters() {
+        return Stream.of(
+            Arguments.of(AUTH_KEY_PATH, EXTRA_ARGUMENTS, "cov-run-desktop --dir ${COV_DIR} --url ${COV_URL} --stream ${COV_STREAM} --auth-key-file /some/path/auth-key.txt --foo bar @@${CHANGE_SET_FILE}"),
+            Arguments.of(StringUtils.EMPTY, StringUtils.EMPTY, "cov-run-desktop --dir ${COV_DIR} --url ${COV_URL} --stream ${COV_STREAM} @@${CHANGE_SET_FILE}")
+        );
+    }
+
     private static Stream<Arguments> getTestConstructCovCommitDefectsParameters() {
         return Stream.of(
             Arguments.of(AUTH_KEY_PATH, EXTRA_ARGUMENTS, "cov-commit-defects --dir ${COV_DIR} --url ${COV_URL} --stream ${COV_STREAM} --auth-key-file /some/path/auth-key.txt --foo bar"),
@@ -92,6 +99,14 @@ public class RepeatableCommandTest {
         assertEquals(expectedResult, repeatableCommand.getCommand());
     }
 
+    @ParameterizedTest
+    @MethodSource("getTestConstructCovRunDesktopWithChangeSetFileParameters")
+    public void testConstructCovRunDesktopWithChangeSetFile(String authKeyFilePath, String extraArgs, String expectedResult) {
+        RepeatableCommand repeatableCommand = RepeatableCommand.COV_RUN_DESKTOP(authKeyFilePath, extraArgs, true);
+
+        assertEquals(expectedResult, repeatableCommand.getCommand());
+    }
+
     @ParameterizedTest
     @MethodSource("getTestConstructCovCommitDefectsParameters")
     public void testConstructCovCommitDefects(String authKeyFilePath, String extraArgs, String expectedResult) {
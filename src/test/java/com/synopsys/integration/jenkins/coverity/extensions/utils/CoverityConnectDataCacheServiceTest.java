@@ -0,0 +1,106 @@
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class CoverityConnectDataCacheServiceTest {
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void testCacheConstructedOnlyOnce() {
+        CoverityConnectDataCacheService coverityConnectDataCacheService = new CoverityConnectDataCacheService(10, 100, 1000, nanoTime::get);
+        AtomicInteger constructionCount = new AtomicInteger();
+
+        WeighedCache first = coverityConnectDataCacheService.getCache(WeighedCache.class, "https://coverity", "credentials", () -> {
+            constructionCount.incrementAndGet();
+            return new WeighedCache(1);
+        });
+        WeighedCache second = coverityConnectDataCacheService.getCache(WeighedCache.class, "https://coverity", "credentials", () -> {
+            constructionCount.incrementAndGet();
+            return new WeighedCache(1);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, constructionCount.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCacheEvictedOverCount() {
+        CoverityConnectDataCacheService coverityConnectDataCacheService = new CoverityConnectDataCacheService(2, 100, 1000, nanoTime::get);
+
+        WeighedCache first = getCache(coverityConnectDataCacheService, "first", 1);
+        getCache(coverityConnectDataCacheService, "second", 1);
+        assertSame(first, getCache(coverityConnectDataCacheService, "first", 1));
+        getCache(coverityConnectDataCacheService, "third", 1);
+
+        assertEquals(2, coverityConnectDataCacheService.getCacheCount());
+        assertSame(first, getCache(coverityConnectDataCacheService, "first", 1));
+    }
+
+    @Test
+    public void testCachesEvictedOverWeight() {
+        CoverityConnectDataCacheService coverityConnectDataCacheService = new CoverityConnectDataCacheService(10, 100, 1000, nanoTime::get);
+
+        getCache(coverityConnectDataCacheService, "first", 40);
+        getCache(coverityConnectDataCacheService, "second", 40);
+        getCache(coverityConnectDataCacheService, "third", 40);
+
+        assertEquals(2, coverityConnectDataCacheService.getCacheCount());
+        assertEquals(80, coverityConnectDataCacheService.getTotalWeight());
+
+        // A cache heavier than the bound by itself is still handed out, at the cost of every other cache
+        getCache(coverityConnectDataCacheService, "heavy", 150);
+        assertEquals(1, coverityConnectDataCacheService.getCacheCount());
+    }
+
+    @Test
+    public void testIdleCacheEvicted() {
+        CoverityConnectDataCacheService coverityConnectDataCacheService = new CoverityConnectDataCacheService(10, 100, 1000, nanoTime::get);
+
+        WeighedCache idle = getCache(coverityConnectDataCacheService, "idle", 1);
+        nanoTime.addAndGet(1001);
+        getCache(coverityConnectDataCacheService, "active", 1);
+
+        assertEquals(1, coverityConnectDataCacheService.getCacheCount());
+        assertNotSame(idle, getCache(coverityConnectDataCacheService, "idle", 1));
+    }
+
+    private WeighedCache getCache(CoverityConnectDataCacheService coverityConnectDataCacheService, String credentialsId, long weight) {
+        nanoTime.incrementAndGet();
+        return coverityConnectDataCacheService.getCache(WeighedCache.class, "https://coverity", credentialsId, () -> new WeighedCache(weight));
+    }
+
+    private static class WeighedCache extends CoverityConnectDataCache<Object> {
+        private final long weight;
+
+        public WeighedCache(long weight) {
+            super(new SilentIntLogger());
+            this.weight = weight;
+        }
+
+        @Override
+        public long getWeight() {
+            return weight;
+        }
+
+        @Override
+        protected Object getFreshData(WebServiceFactory webServiceFactory) {
+            return new Object();
+        }
+
+        @Override
+        protected Object getEmptyData() {
+            return new Object();
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.log.IntLogger;
+
+public class CoverityWebServicePoolTest {
+    @Test
+    public void testPooledWebServicesLogToTheCurrentBorrower() throws Exception {
+        List<String> poolKey = CoverityWebServicePool.createPoolKey("https://coverity.example.com", "testPooledWebServicesLogToTheCurrentBorrower", "user", "passphrase", "");
+        AtomicReference<IntLogger> connectedLogger = new AtomicReference<>();
+        WebServiceFactory webServiceFactory = Mockito.mock(WebServiceFactory.class);
+        IntLogger firstBuildLogger = Mockito.mock(IntLogger.class);
+        IntLogger secondBuildLogger = Mockito.mock(IntLogger.class);
+
+        CoverityWebServices firstBorrow = CoverityWebServicePool.getInstance().borrow(poolKey, firstBuildLogger, logger -> {
+            connectedLogger.set(logger);
+            return webServiceFactory;
+        });
+        connectedLogger.get().info("first");
+        CoverityWebServicePool.getInstance().release(firstBorrow);
+        connectedLogger.get().info("idle");
+
+        CoverityWebServices secondBorrow = CoverityWebServicePool.getInstance().borrow(poolKey, secondBuildLogger, logger -> {
+            throw new IllegalStateException("The pooled web services should have been reused");
+        });
+        connectedLogger.get().info("second");
+
+        assertSame(webServiceFactory, secondBorrow.getWebServiceFactory());
+        Mockito.verify(firstBuildLogger).info("first");
+        Mockito.verifyNoMoreInteractions(firstBuildLogger);
+        Mockito.verify(secondBuildLogger).info("second");
+        Mockito.verifyNoMoreInteractions(secondBuildLogger);
+    }
+
+    @Test
+    public void testReplacedAuthenticationKeyFileChangesThePoolKey() {
+        // An authentication key file has no passphrase, so a replaced key file for the same user has to be told apart by its contents
+        List<String> poolKey = CoverityWebServicePool.createPoolKey("https://coverity.example.com", "credentialsId", "user", "", "first key file");
+        List<String> replacedPoolKey = CoverityWebServicePool.createPoolKey("https://coverity.example.com", "credentialsId", "user", "", "second key file");
+
+        assertNotEquals(poolKey, replacedPoolKey);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.coverity.api.ws.configuration.ConfigurationService;
+import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceException_Exception;
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectFilterSpecDataObj;
+import com.synopsys.integration.coverity.config.CoverityServerConfig;
+import com.synopsys.integration.coverity.ws.WebServiceFactory;
+import com.synopsys.integration.jenkins.coverity.extensions.global.CoverityConnectInstance;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class ProjectStreamCacheTest {
+    @Test
+    public void testFailedRefreshDoesNotMarkCacheFresh() throws Exception {
+        ConfigurationService configurationService = Mockito.mock(ConfigurationService.class);
+        Mockito.when(configurationService.getProjects(ArgumentMatchers.any(ProjectFilterSpecDataObj.class))).thenThrow(CovRemoteServiceException_Exception.class);
+        CoverityConnectInstance coverityConnectInstance = mockCoverityConnectInstance(configurationService);
+
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(new SilentIntLogger());
+        projectStreamCache.refresh(coverityConnectInstance, "credentials");
+
+        assertFalse(projectStreamCache.hasData());
+        assertTrue(projectStreamCache.isStale());
+        assertTrue(projectStreamCache.getCachedData().isEmpty());
+        assertEquals(1, projectStreamCache.getStatistics().getFailedRefreshCount());
+        assertTrue(projectStreamCache.getLastFailureMessage().isPresent());
+    }
+
+    @Test
+    public void testFailedRefreshNotRetriedRightAway() throws Exception {
+        ConfigurationService configurationService = Mockito.mock(ConfigurationService.class);
+        Mockito.when(configurationService.getProjects(ArgumentMatchers.any(ProjectFilterSpecDataObj.class))).thenThrow(CovRemoteServiceException_Exception.class);
+        CoverityConnectInstance coverityConnectInstance = mockCoverityConnectInstance(configurationService);
+
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(new SilentIntLogger());
+        projectStreamCache.refresh(coverityConnectInstance, "credentials");
+        projectStreamCache.refreshInBackgroundIfStale(coverityConnectInstance, "credentials");
+
+        assertFalse(projectStreamCache.isRefreshing());
+        assertEquals(1, projectStreamCache.getStatistics().getRefreshCount());
+    }
+
+    @Test
+    public void testGetDataDoesNotRetryFailedRefreshRightAway() throws Exception {
+        ConfigurationService configurationService = Mockito.mock(ConfigurationService.class);
+        Mockito.when(configurationService.getProjects(ArgumentMatchers.any(ProjectFilterSpecDataObj.class))).thenThrow(CovRemoteServiceException_Exception.class);
+        CoverityConnectInstance coverityConnectInstance = mockCoverityConnectInstance(configurationService);
+
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(new SilentIntLogger());
+        projectStreamCache.getData(coverityConnectInstance, "credentials");
+        ProjectStreamCatalog projectStreamCatalog = projectStreamCache.getData(coverityConnectInstance, "credentials");
+
+        assertTrue(projectStreamCatalog.isEmpty());
+        assertEquals(1, projectStreamCache.getStatistics().getRefreshCount());
+        assertEquals(2, projectStreamCache.getStatistics().getMissCount());
+        Mockito.verify(configurationService, Mockito.times(1)).getProjects(ArgumentMatchers.any(ProjectFilterSpecDataObj.class));
+    }
+
+    @Test
+    public void testSuccessfulRefreshClearsFailure() throws Exception {
+        ConfigurationService configurationService = Mockito.mock(ConfigurationService.class);
+        Mockito.when(configurationService.getProjects(ArgumentMatchers.any(ProjectFilterSpecDataObj.class)))
+            .thenThrow(CovRemoteServiceException_Exception.class)
+            .thenReturn(Collections.emptyList());
+        CoverityConnectInstance coverityConnectInstance = mockCoverityConnectInstance(configurationService);
+
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(new SilentIntLogger());
+        projectStreamCache.refresh(coverityConnectInstance, "credentials");
+        projectStreamCache.refresh(coverityConnectInstance, "credentials");
+
+        assertTrue(projectStreamCache.hasData());
+        assertFalse(projectStreamCache.getLastFailureMessage().isPresent());
+    }
+
+    private CoverityConnectInstance mockCoverityConnectInstance(ConfigurationService configurationService) throws Exception {
+        WebServiceFactory webServiceFactory = Mockito.mock(WebServiceFactory.class);
+        Mockito.when(webServiceFactory.createConfigurationService()).thenReturn(configurationService);
+
+        CoverityServerConfig coverityServerConfig = Mockito.mock(CoverityServerConfig.class);
+        Mockito.when(coverityServerConfig.createWebServiceFactory(ArgumentMatchers.any(IntLogger.class))).thenReturn(webServiceFactory);
+
+        CoverityConnectInstance coverityConnectInstance = Mockito.mock(CoverityConnectInstance.class);
+        Mockito.when(coverityConnectInstance.getCoverityServerConfig(ArgumentMatchers.any(IntLogger.class), ArgumentMatchers.anyString())).thenReturn(coverityServerConfig);
+        return coverityConnectInstance;
+    }
+
+}
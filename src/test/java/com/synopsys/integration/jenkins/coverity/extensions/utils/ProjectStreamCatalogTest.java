@@ -0,0 +1,131 @@
+package com.synopsys.integration.jenkins.coverity.extensions.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.ProjectIdDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.StreamDataObj;
+import com.synopsys.integration.coverity.api.ws.configuration.StreamIdDataObj;
+
+public class ProjectStreamCatalogTest {
+    @Test
+    public void testCatalogFromProjects() throws DatatypeConfigurationException {
+        ProjectStreamCatalog projectStreamCatalog = ProjectStreamCatalog.fromProjects(Arrays.asList(createProject("projectA", 1, "streamA1", "streamA2"), createProject("projectB", 1)));
+
+        assertEquals(Arrays.asList("projectA", "projectB"), projectStreamCatalog.getProjectNames());
+        assertEquals(Arrays.asList("streamA1", "streamA2"), projectStreamCatalog.getStreamNames("projectA"));
+        assertTrue(projectStreamCatalog.getStreamNames("projectB").isEmpty());
+        assertTrue(projectStreamCatalog.containsStream("streamA2"));
+        assertFalse(projectStreamCatalog.containsStream("streamB1"));
+    }
+
+    @Test
+    public void testCatalogWithChanges() throws DatatypeConfigurationException {
+        ProjectStreamCatalog previousCatalog = ProjectStreamCatalog.fromProjects(Arrays.asList(
+            createProject("unchanged", 1, "unchangedStream"),
+            createProject("changed", 1, "removedStream"),
+            createProject("deleted", 1, "deletedStream")
+        ));
+
+        ProjectDataObj unchangedWithoutStreams = createProject("unchanged", 1);
+        ProjectDataObj changedWithoutStreams = createProject("changed", 2);
+        ProjectDataObj addedWithoutStreams = createProject("added", 2);
+        assertFalse(previousCatalog.isChanged(unchangedWithoutStreams));
+        assertTrue(previousCatalog.isChanged(changedWithoutStreams));
+        assertTrue(previousCatalog.isChanged(addedWithoutStreams));
+
+        ProjectStreamCatalog freshCatalog = previousCatalog.withChanges(
+            Arrays.asList(unchangedWithoutStreams, changedWithoutStreams, addedWithoutStreams),
+            Arrays.asList(createProject("changed", 2, "addedStream"), createProject("added", 2, "newProjectStream"))
+        );
+
+        assertEquals(Arrays.asList("unchanged", "changed", "added"), freshCatalog.getProjectNames());
+        assertEquals(Collections.singletonList("unchangedStream"), freshCatalog.getStreamNames("unchanged"));
+        assertEquals(Collections.singletonList("addedStream"), freshCatalog.getStreamNames("changed"));
+        assertEquals(Collections.singletonList("newProjectStream"), freshCatalog.getStreamNames("added"));
+        assertFalse(freshCatalog.containsStream("removedStream"));
+        assertFalse(freshCatalog.containsProject("deleted"));
+        assertFalse(freshCatalog.containsStream("deletedStream"));
+    }
+
+    @Test
+    public void testFindNamesByPrefix() throws DatatypeConfigurationException {
+        ProjectStreamCatalog projectStreamCatalog = ProjectStreamCatalog.fromProjects(Arrays.asList(
+            createProject("web-frontend", 1, "web-frontend-main", "web-frontend-release", "Web-frontend-hotfix"),
+            createProject("Web-backend", 1),
+            createProject("web", 1),
+            createProject("mobile", 1)
+        ));
+
+        assertEquals(Arrays.asList("web", "Web-backend", "web-frontend"), projectStreamCatalog.findProjectNames("WEB", 10));
+        assertEquals(Arrays.asList("web", "Web-backend"), projectStreamCatalog.findProjectNames("web", 2));
+        assertEquals(Collections.singletonList("web-frontend"), projectStreamCatalog.findProjectNames("web-f", 10));
+        assertTrue(projectStreamCatalog.findProjectNames("desktop", 10).isEmpty());
+        assertEquals(Arrays.asList("web-frontend-main", "web-frontend-release"), projectStreamCatalog.findStreamNames("web-frontend", "WEB-FRONTEND-", 2));
+        assertEquals(Collections.singletonList("Web-frontend-hotfix"), projectStreamCatalog.findStreamNames("web-frontend", "web-frontend-h", 10));
+        assertTrue(projectStreamCatalog.findStreamNames("mobile", "web", 10).isEmpty());
+        assertTrue(projectStreamCatalog.containsStream("web-frontend", "web-frontend-main"));
+        assertFalse(projectStreamCatalog.containsStream("Web-backend", "web-frontend-main"));
+    }
+
+    @Test
+    public void testLookupsInLargeCatalog() throws DatatypeConfigurationException {
+        int projectCount = 1_000;
+        int streamsPerProject = 6;
+        List<ProjectDataObj> projects = new ArrayList<>(projectCount);
+        for (int projectIndex = 0; projectIndex < projectCount; projectIndex++) {
+            String[] streamNames = new String[streamsPerProject];
+            for (int streamIndex = 0; streamIndex < streamsPerProject; streamIndex++) {
+                streamNames[streamIndex] = String.format("project-%04d-stream-%d", projectIndex, streamIndex);
+            }
+            projects.add(createProject(String.format("project-%04d", projectIndex), 1, streamNames));
+        }
+
+        ProjectStreamCatalog projectStreamCatalog = ProjectStreamCatalog.fromProjects(projects);
+
+        for (int projectIndex = 0; projectIndex < projectCount; projectIndex++) {
+            String projectName = String.format("project-%04d", projectIndex);
+            assertTrue(projectStreamCatalog.containsProject(projectName));
+            for (int streamIndex = 0; streamIndex < streamsPerProject; streamIndex++) {
+                assertTrue(projectStreamCatalog.containsStream(projectName, String.format("project-%04d-stream-%d", projectIndex, streamIndex)));
+            }
+        }
+        assertFalse(projectStreamCatalog.containsStream("project-0000", "project-0001-stream-0"));
+        assertEquals(ProjectStreamFieldHelper.MAXIMUM_SUGGESTIONS, projectStreamCatalog.findProjectNames("project-00", ProjectStreamFieldHelper.MAXIMUM_SUGGESTIONS).size());
+        assertEquals(Collections.singletonList("project-0999"), projectStreamCatalog.findProjectNames("project-0999", ProjectStreamFieldHelper.MAXIMUM_SUGGESTIONS));
+    }
+
+    private ProjectDataObj createProject(String projectName, long dateModified, String... streamNames) throws DatatypeConfigurationException {
+        ProjectIdDataObj projectId = new ProjectIdDataObj();
+        projectId.setName(projectName);
+        ProjectDataObj project = new ProjectDataObj();
+        project.setId(projectId);
+
+        GregorianCalendar gregorianCalendar = new GregorianCalendar();
+        gregorianCalendar.setTimeInMillis(dateModified);
+        project.setDateModified(DatatypeFactory.newInstance().newXMLGregorianCalendar(gregorianCalendar));
+
+        for (String streamName : streamNames) {
+            StreamIdDataObj streamId = new StreamIdDataObj();
+            streamId.setName(streamName);
+            StreamDataObj stream = new StreamDataObj();
+            stream.setId(streamId);
+            project.getStreams().add(stream);
+        }
+        return project;
+    }
+
+}
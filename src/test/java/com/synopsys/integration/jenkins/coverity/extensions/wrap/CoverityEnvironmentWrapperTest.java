@@ -0,0 +1,47 @@
+package com.synopsys.integration.jenkins.coverity.extensions.wrap;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.Result;
+import hudson.model.Run;
+
+public class CoverityEnvironmentWrapperTest {
+    @Test
+    public void testSuccessfulFreestyleBuildIsStashed() {
+        // A freestyle build that succeeds has no result yet when its environment is torn down
+        FreeStyleBuild freeStyleBuild = Mockito.mock(FreeStyleBuild.class);
+        Mockito.when(freeStyleBuild.getResult()).thenReturn(null);
+
+        assertTrue(CoverityEnvironmentWrapper.DisposerImpl.isKnownToHaveSucceeded(freeStyleBuild));
+    }
+
+    @Test
+    public void testFailedFreestyleBuildIsNotStashed() {
+        FreeStyleBuild freeStyleBuild = Mockito.mock(FreeStyleBuild.class);
+        Mockito.when(freeStyleBuild.getResult()).thenReturn(Result.FAILURE);
+
+        assertFalse(CoverityEnvironmentWrapper.DisposerImpl.isKnownToHaveSucceeded(freeStyleBuild));
+    }
+
+    @Test
+    public void testPipelineWithoutResultIsNotStashed() {
+        Run<?, ?> pipelineRun = Mockito.mock(Run.class);
+        Mockito.when(pipelineRun.getResult()).thenReturn(null);
+
+        assertFalse(CoverityEnvironmentWrapper.DisposerImpl.isKnownToHaveSucceeded(pipelineRun));
+    }
+
+    @Test
+    public void testPipelineMarkedSuccessfulIsStashed() {
+        Run<?, ?> pipelineRun = Mockito.mock(Run.class);
+        Mockito.when(pipelineRun.getResult()).thenReturn(Result.SUCCESS);
+
+        assertTrue(CoverityEnvironmentWrapper.DisposerImpl.isKnownToHaveSucceeded(pipelineRun));
+    }
+
+}
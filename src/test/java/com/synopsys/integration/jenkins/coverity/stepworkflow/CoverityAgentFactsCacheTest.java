@@ -0,0 +1,47 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class CoverityAgentFactsCacheTest {
+    private static final long CACHE_TIME_IN_NANOS = TimeUnit.SECONDS.toNanos(300);
+
+    @Test
+    public void testCachedFactsExpire() {
+        AtomicLong nanoTime = new AtomicLong();
+        CoverityAgentFactsCache coverityAgentFactsCache = new CoverityAgentFactsCache(nanoTime::get);
+        coverityAgentFactsCache.cache("agent", "/opt/coverity", true, new CoverityAgentFacts("2021.03", "/opt/coverity/bin", null, 1024, 4));
+
+        nanoTime.set(CACHE_TIME_IN_NANOS - 1);
+        assertEquals("/opt/coverity/bin", coverityAgentFactsCache.getCached("agent", "/opt/coverity", true, CACHE_TIME_IN_NANOS).map(CoverityAgentFacts::getCoverityToolHomeBin).orElse(null));
+
+        nanoTime.set(CACHE_TIME_IN_NANOS);
+        assertFalse(coverityAgentFactsCache.getCached("agent", "/opt/coverity", true, CACHE_TIME_IN_NANOS).isPresent());
+    }
+
+    @Test
+    public void testFactsAreCachedPerAgentToolHomeAndValidation() {
+        CoverityAgentFactsCache coverityAgentFactsCache = new CoverityAgentFactsCache(() -> 0);
+        coverityAgentFactsCache.cache("agent", "/opt/coverity", false, new CoverityAgentFacts(null, "/opt/coverity/bin", null, 1024, 4));
+
+        assertTrue(coverityAgentFactsCache.getCached("agent", "/opt/coverity", false, CACHE_TIME_IN_NANOS).isPresent());
+        assertFalse(coverityAgentFactsCache.getCached("other-agent", "/opt/coverity", false, CACHE_TIME_IN_NANOS).isPresent());
+        assertFalse(coverityAgentFactsCache.getCached("agent", "/opt/other-coverity", false, CACHE_TIME_IN_NANOS).isPresent());
+        assertFalse(coverityAgentFactsCache.getCached("agent", "/opt/coverity", true, CACHE_TIME_IN_NANOS).isPresent());
+    }
+
+    @Test
+    public void testAuthenticationKeyFileIsNeverCached() {
+        CoverityAgentFactsCache coverityAgentFactsCache = new CoverityAgentFactsCache(() -> 0);
+        coverityAgentFactsCache.cache("agent", "/opt/coverity", true, new CoverityAgentFacts("2021.03", "/opt/coverity/bin", "/workspace/auth-key.txt", 1024, 4));
+
+        assertFalse(coverityAgentFactsCache.getCached("agent", "/opt/coverity", true, CACHE_TIME_IN_NANOS).flatMap(CoverityAgentFacts::getAuthenticationKeyFilePath).isPresent());
+    }
+
+}
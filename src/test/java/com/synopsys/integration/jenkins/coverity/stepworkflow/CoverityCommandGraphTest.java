@@ -0,0 +1,73 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsAbortException;
+import com.synopsys.integration.jenkins.coverity.extensions.buildstep.RepeatableCommand;
+
+public class CoverityCommandGraphTest {
+    @Test
+    public void testDependenciesAreResolvedByName() throws CoverityJenkinsAbortException {
+        CoverityCommandGraph coverityCommandGraph = CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] {
+            command("cov-build", "build", null),
+            command(" ", "blank", null),
+            command("cov-analyze", "analyze", "build"),
+            command("cov-commit-defects", null, " build , analyze ")
+        });
+
+        assertEquals(3, coverityCommandGraph.size());
+        assertEquals("command-3", coverityCommandGraph.getStageName(2));
+        assertTrue(coverityCommandGraph.getDependencies(0).isEmpty());
+        assertEquals(Collections.singleton(0), coverityCommandGraph.getDependencies(1));
+        assertEquals(new HashSet<>(Arrays.asList(0, 1)), coverityCommandGraph.getDependencies(2));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), coverityCommandGraph.getDependents(0));
+    }
+
+    @Test
+    public void testDuplicateNamesAreRejected() {
+        assertThrows(CoverityJenkinsAbortException.class, () -> CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] {
+            command("cov-build", "build", null),
+            command("cov-analyze", " build ", null)
+        }));
+    }
+
+    @Test
+    public void testUnknownDependenciesAreRejected() {
+        assertThrows(CoverityJenkinsAbortException.class, () -> CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] {
+            command("cov-build", "build", null),
+            command("cov-analyze", "analyze", "capture")
+        }));
+    }
+
+    @Test
+    public void testSelfDependenciesAreRejected() {
+        assertThrows(CoverityJenkinsAbortException.class, () -> CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] {
+            command("cov-build", "build", "build")
+        }));
+    }
+
+    @Test
+    public void testCyclesAreRejected() {
+        assertThrows(CoverityJenkinsAbortException.class, () -> CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] {
+            command("cov-build", "build", null),
+            command("cov-analyze", "analyze", "build,commit"),
+            command("cov-commit-defects", "commit", "analyze")
+        }));
+    }
+
+    private RepeatableCommand command(String command, String stageName, String dependsOn) {
+        RepeatableCommand repeatableCommand = new RepeatableCommand(command);
+        repeatableCommand.setStageName(stageName);
+        repeatableCommand.setDependsOn(dependsOn);
+        return repeatableCommand;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
+
+public class CoverityRemoteToolBatchRunnerTest {
+    private static final List<List<String>> COMMANDS = Arrays.asList(
+        Arrays.asList("cov-build", "--dir", "idir", "make"),
+        Collections.emptyList(),
+        Arrays.asList("cov-analyze", "--dir", "idir"),
+        Arrays.asList("cov-commit-defects", "--dir", "idir")
+    );
+
+    private final CoverityJenkinsIntLogger mockedLogger = Mockito.mock(CoverityJenkinsIntLogger.class);
+    private final CoverityToolLauncher mockedLauncher = Mockito.mock(CoverityToolLauncher.class);
+
+    @Test
+    public void testEveryCommandIsLaunched() throws Exception {
+        Mockito.when(mockedLauncher.launch(ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer(invocation -> new CoverityCommandResult(invocation.getArgument(1), 0, 1, ""));
+
+        CoverityCommandBatchResult commandBatchResult = createBatchRunner(OnCommandFailure.SKIP_REMAINING_COMMANDS).call();
+
+        assertFalse(commandBatchResult.getFailure().isPresent());
+        assertEquals(Arrays.asList(0, 2, 3), getCommandIndexes(commandBatchResult));
+        Mockito.verify(mockedLauncher).launch(mockedLogger, 0, COMMANDS.get(0), "/workspace", new HashMap<>());
+        Mockito.verify(mockedLauncher).launch(mockedLogger, 2, COMMANDS.get(2), "/workspace", new HashMap<>());
+        Mockito.verify(mockedLauncher).launch(mockedLogger, 3, COMMANDS.get(3), "/workspace", new HashMap<>());
+        Mockito.verifyNoMoreInteractions(mockedLauncher);
+    }
+
+    @Test
+    public void testFailureToLaunchKeepsEarlierResults() throws Exception {
+        CoverityJenkinsException launchFailure = new CoverityJenkinsException("cov-analyze could not be run");
+        Mockito.when(mockedLauncher.launch(ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer(invocation -> new CoverityCommandResult(invocation.getArgument(1), 0, 1, ""));
+        Mockito.when(mockedLauncher.launch(ArgumentMatchers.any(), ArgumentMatchers.eq(2), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenThrow(launchFailure);
+
+        CoverityCommandBatchResult commandBatchResult = createBatchRunner(OnCommandFailure.EXECUTE_REMAINING_COMMANDS).call();
+
+        assertTrue(commandBatchResult.getFailure().isPresent());
+        assertSame(launchFailure, commandBatchResult.getFailure().get());
+        assertEquals(Collections.singletonList(0), getCommandIndexes(commandBatchResult));
+        Mockito.verify(mockedLauncher, Mockito.never()).launch(ArgumentMatchers.any(), ArgumentMatchers.eq(3), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testFailedCommandSkipsRemainingCommands() throws Exception {
+        Mockito.when(mockedLauncher.launch(ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer(invocation -> new CoverityCommandResult(invocation.getArgument(1), 1, 1, "Build failed"));
+
+        CoverityCommandBatchResult commandBatchResult = createBatchRunner(OnCommandFailure.SKIP_REMAINING_COMMANDS).call();
+
+        assertFalse(commandBatchResult.getFailure().isPresent());
+        assertEquals(Collections.singletonList(0), getCommandIndexes(commandBatchResult));
+    }
+
+    private CoverityRemoteToolBatchRunner createBatchRunner(OnCommandFailure onCommandFailure) {
+        return new CoverityRemoteToolBatchRunner(mockedLogger, mockedLauncher, COMMANDS, "/workspace", new HashMap<>(), onCommandFailure);
+    }
+
+    private List<Integer> getCommandIndexes(CoverityCommandBatchResult commandBatchResult) {
+        return commandBatchResult.getCommandResults().stream()
+                   .map(CoverityCommandResult::getCommandIndex)
+                   .collect(Collectors.toList());
+    }
+
+}
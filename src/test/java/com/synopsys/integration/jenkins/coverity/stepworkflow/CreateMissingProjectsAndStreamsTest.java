@@ -1,11 +1,13 @@
 package com.synopsys.integration.jenkins.coverity.stepworkflow;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Optional;
 import java.util.stream.Stream;
 
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -16,6 +18,7 @@ import com.synopsys.integration.coverity.api.ws.configuration.CovRemoteServiceEx
 import com.synopsys.integration.coverity.api.ws.configuration.ProjectDataObj;
 import com.synopsys.integration.coverity.api.ws.configuration.StreamDataObj;
 import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
+import com.synopsys.integration.jenkins.coverity.extensions.utils.ProjectStreamCache;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.stepworkflow.SubStepResponse;
 
@@ -26,35 +29,29 @@ public class CreateMissingProjectsAndStreamsTest {
     private static final String EXISTING_STREAM = "existingStream";
     private static final String NEW_STREAM = "newStream";
     private static final String FAILED_STREAM = "cannotCreateThisStream";
-    private static ConfigurationServiceWrapper mockConfigurationServiceWrapper;
+    private static final AdaptiveWait SHORT_WAIT = new AdaptiveWait(1, 1, 10);
+    private ConfigurationServiceWrapper mockConfigurationServiceWrapper;
 
-    @BeforeAll
-    public static void setUpMockConfigurationServiceWrapper() throws CovRemoteServiceException_Exception, InterruptedException {
+    @BeforeEach
+    public void setUpMockConfigurationServiceWrapper() throws CovRemoteServiceException_Exception {
         mockConfigurationServiceWrapper = Mockito.mock(ConfigurationServiceWrapper.class);
 
+        // New projects and streams are missing until they are created, and are then found by the same exact name lookup
         ProjectDataObj mockedProject = Mockito.mock(ProjectDataObj.class);
         Mockito.when(mockConfigurationServiceWrapper.getProjectByExactName(EXISTING_PROJECT))
             .thenReturn(Optional.of(mockedProject));
         Mockito.when(mockConfigurationServiceWrapper.getProjectByExactName(NEW_PROJECT))
-            .thenReturn(Optional.empty());
-        Mockito.when(mockConfigurationServiceWrapper.getAndWaitForProjectWithExactName(NEW_PROJECT))
-            .thenReturn(Optional.of(mockedProject));
+            .thenReturn(Optional.empty(), Optional.of(mockedProject));
         Mockito.when(mockConfigurationServiceWrapper.getProjectByExactName(FAILED_PROJECT))
             .thenReturn(Optional.empty());
-        Mockito.when(mockConfigurationServiceWrapper.getAndWaitForProjectWithExactName(FAILED_PROJECT))
-            .thenReturn(Optional.empty());
 
         StreamDataObj mockedStream = Mockito.mock(StreamDataObj.class);
         Mockito.when(mockConfigurationServiceWrapper.getStreamByExactName(EXISTING_STREAM))
             .thenReturn(Optional.of(mockedStream));
         Mockito.when(mockConfigurationServiceWrapper.getStreamByExactName(NEW_STREAM))
-            .thenReturn(Optional.empty());
-        Mockito.when(mockConfigurationServiceWrapper.getAndWaitForStreamWithExactName(NEW_STREAM))
-            .thenReturn(Optional.of(mockedStream));
+            .thenReturn(Optional.empty(), Optional.empty(), Optional.of(mockedStream));
         Mockito.when(mockConfigurationServiceWrapper.getStreamByExactName(FAILED_STREAM))
             .thenReturn(Optional.empty());
-        Mockito.when(mockConfigurationServiceWrapper.getAndWaitForStreamWithExactName(FAILED_STREAM))
-            .thenReturn(Optional.empty());
     }
 
     private static Stream<Arguments> getTestProjectAndStreamNames() {
@@ -76,7 +73,7 @@ public class CreateMissingProjectsAndStreamsTest {
     public void testCreateMissingProjectsAndStreams(String projectName, String streamName) {
         JenkinsIntLogger mockedLogger = Mockito.mock(JenkinsIntLogger.class);
 
-        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, mockConfigurationServiceWrapper, projectName, streamName);
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, mockConfigurationServiceWrapper, projectName, streamName, new ProjectStreamCache(mockedLogger), SHORT_WAIT);
 
         SubStepResponse<Object> response = createMissingProjectsAndStreams.run();
 
@@ -107,4 +104,59 @@ public class CreateMissingProjectsAndStreamsTest {
             Mockito.verify(mockedLogger).error(AdditionalMatchers.and(Mockito.contains("Could not create"), Mockito.contains(streamName)));
         }
     }
+
+    @Test
+    public void testCachedProjectAndStreamNeedNoRemoteCalls() {
+        JenkinsIntLogger mockedLogger = Mockito.mock(JenkinsIntLogger.class);
+        ConfigurationServiceWrapper untouchedConfigurationServiceWrapper = Mockito.mock(ConfigurationServiceWrapper.class);
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(mockedLogger);
+        projectStreamCache.publishProject(EXISTING_PROJECT);
+        projectStreamCache.publishStream(EXISTING_STREAM);
+
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, untouchedConfigurationServiceWrapper, EXISTING_PROJECT, EXISTING_STREAM, projectStreamCache, SHORT_WAIT);
+
+        assertTrue(createMissingProjectsAndStreams.run().isSuccess());
+        Mockito.verifyNoInteractions(untouchedConfigurationServiceWrapper);
+    }
+
+    @Test
+    public void testCreatedProjectAndStreamArePublished() {
+        JenkinsIntLogger mockedLogger = Mockito.mock(JenkinsIntLogger.class);
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(mockedLogger);
+
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, mockConfigurationServiceWrapper, NEW_PROJECT, NEW_STREAM, projectStreamCache, SHORT_WAIT);
+
+        assertTrue(createMissingProjectsAndStreams.run().isSuccess());
+        assertTrue(projectStreamCache.isProjectCached(NEW_PROJECT));
+        assertTrue(projectStreamCache.isStreamCached(NEW_STREAM));
+        assertFalse(projectStreamCache.isProjectKnownToBeMissing(NEW_PROJECT));
+    }
+
+    @Test
+    public void testProjectAndStreamCreatedElsewhereAfterTheyWereFoundMissing() throws CovRemoteServiceException_Exception {
+        JenkinsIntLogger mockedLogger = Mockito.mock(JenkinsIntLogger.class);
+        ProjectStreamCache projectStreamCache = new ProjectStreamCache(mockedLogger);
+        projectStreamCache.publishMissingProject(EXISTING_PROJECT);
+        projectStreamCache.publishMissingStream(EXISTING_STREAM);
+        Mockito.doThrow(CovRemoteServiceException_Exception.class).when(mockConfigurationServiceWrapper).createSimpleProject(EXISTING_PROJECT);
+        Mockito.doThrow(CovRemoteServiceException_Exception.class).when(mockConfigurationServiceWrapper).createSimpleStreamInProject(Mockito.any(), Mockito.eq(EXISTING_STREAM));
+
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, mockConfigurationServiceWrapper, EXISTING_PROJECT, EXISTING_STREAM, projectStreamCache, SHORT_WAIT);
+
+        assertTrue(createMissingProjectsAndStreams.run().isSuccess());
+        assertTrue(projectStreamCache.isProjectCached(EXISTING_PROJECT));
+        assertTrue(projectStreamCache.isStreamCached(EXISTING_STREAM));
+        Mockito.verify(mockedLogger, Mockito.never()).error(Mockito.anyString());
+    }
+
+    @Test
+    public void testFailedCreationOfMissingProjectFails() throws CovRemoteServiceException_Exception {
+        JenkinsIntLogger mockedLogger = Mockito.mock(JenkinsIntLogger.class);
+        Mockito.doThrow(CovRemoteServiceException_Exception.class).when(mockConfigurationServiceWrapper).createSimpleProject(FAILED_PROJECT);
+
+        CreateMissingProjectsAndStreams createMissingProjectsAndStreams = new CreateMissingProjectsAndStreams(mockedLogger, mockConfigurationServiceWrapper, FAILED_PROJECT, EXISTING_STREAM, new ProjectStreamCache(mockedLogger), SHORT_WAIT);
+
+        assertTrue(createMissingProjectsAndStreams.run().isFailure());
+    }
+
 }
@@ -0,0 +1,83 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.log.IntLogger;
+
+public class ErrorLineOutputStreamTest {
+    @Test
+    public void testLinesAreForwardedAsTheyArrive() {
+        IntLogger mockedLogger = Mockito.mock(IntLogger.class);
+        ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(mockedLogger);
+
+        errorLineOutputStream.write("first line\r\nsecond ".getBytes(StandardCharsets.UTF_8), 0, 19);
+        Mockito.verify(mockedLogger).error("first line");
+        Mockito.verifyNoMoreInteractions(mockedLogger);
+
+        byte[] remainder = "line\npartial".getBytes(StandardCharsets.UTF_8);
+        errorLineOutputStream.write(remainder, 0, remainder.length);
+        errorLineOutputStream.close();
+
+        InOrder inOrder = Mockito.inOrder(mockedLogger);
+        inOrder.verify(mockedLogger).error("second line");
+        inOrder.verify(mockedLogger).error("partial");
+    }
+
+    @Test
+    public void testLongLinesAreSplit() {
+        IntLogger mockedLogger = Mockito.mock(IntLogger.class);
+        ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(mockedLogger, 4, 16);
+
+        byte[] longLine = "abcdefghij\n".getBytes(StandardCharsets.UTF_8);
+        errorLineOutputStream.write(longLine, 0, longLine.length);
+
+        InOrder inOrder = Mockito.inOrder(mockedLogger);
+        inOrder.verify(mockedLogger).error("abcd");
+        inOrder.verify(mockedLogger).error("efgh");
+        inOrder.verify(mockedLogger).error("ij");
+    }
+
+    @Test
+    public void testLongLinesAreSplitBetweenCharacters() {
+        IntLogger mockedLogger = Mockito.mock(IntLogger.class);
+        ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(mockedLogger, 4, 16);
+
+        byte[] longLine = "abc\u00e9\u20acx\n".getBytes(StandardCharsets.UTF_8);
+        errorLineOutputStream.write(longLine, 0, longLine.length);
+
+        InOrder inOrder = Mockito.inOrder(mockedLogger);
+        inOrder.verify(mockedLogger).error("abc");
+        inOrder.verify(mockedLogger).error("\u00e9");
+        inOrder.verify(mockedLogger).error("\u20acx");
+        Mockito.verifyNoMoreInteractions(mockedLogger);
+    }
+
+    @Test
+    public void testTailStartsWithAWholeCharacter() {
+        IntLogger mockedLogger = Mockito.mock(IntLogger.class);
+        ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(mockedLogger, 64, 4);
+
+        byte[] output = "a\u20acbc".getBytes(StandardCharsets.UTF_8);
+        errorLineOutputStream.write(output, 0, output.length);
+
+        assertEquals("bc", errorLineOutputStream.getTail());
+    }
+
+    @Test
+    public void testTailKeepsOnlyTheMostRecentOutput() {
+        IntLogger mockedLogger = Mockito.mock(IntLogger.class);
+        ErrorLineOutputStream errorLineOutputStream = new ErrorLineOutputStream(mockedLogger, 64, 8);
+
+        byte[] output = "0123456789\nabcdef".getBytes(StandardCharsets.UTF_8);
+        errorLineOutputStream.write(output, 0, output.length);
+
+        assertEquals("9\nabcdef", errorLineOutputStream.getTail());
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IntermediateDirectoryCacheTest {
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testStoreThenRestore() throws IOException {
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(temporaryDirectory.resolve("cache"));
+        Path intermediateDirectory = createIntermediateDirectory(temporaryDirectory.resolve("workspaceA").resolve("idir"), 10);
+
+        assertTrue(intermediateDirectoryCache.store("stream", intermediateDirectory));
+        assertFalse(Files.exists(intermediateDirectory));
+
+        Path otherIntermediateDirectory = temporaryDirectory.resolve("workspaceB").resolve("idir");
+        assertTrue(intermediateDirectoryCache.restore("stream", otherIntermediateDirectory));
+        assertTrue(Files.exists(otherIntermediateDirectory.resolve("emit")));
+
+        // The first build took it, so a build running at the same time starts cold
+        assertFalse(intermediateDirectoryCache.restore("stream", temporaryDirectory.resolve("workspaceC").resolve("idir")));
+    }
+
+    @Test
+    public void testRestoreKeepsExistingIntermediateDirectory() throws IOException {
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(temporaryDirectory.resolve("cache"));
+        intermediateDirectoryCache.store("stream", createIntermediateDirectory(temporaryDirectory.resolve("workspaceA").resolve("idir"), 10));
+        Path existingIntermediateDirectory = createIntermediateDirectory(temporaryDirectory.resolve("workspaceB").resolve("idir"), 20);
+
+        assertFalse(intermediateDirectoryCache.restore("stream", existingIntermediateDirectory));
+        assertEquals(20, Files.size(existingIntermediateDirectory.resolve("emit")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyStored() throws IOException {
+        Path cacheDirectory = temporaryDirectory.resolve("cache");
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(cacheDirectory);
+        intermediateDirectoryCache.store("older", createIntermediateDirectory(temporaryDirectory.resolve("older"), 100));
+        intermediateDirectoryCache.store("newer", createIntermediateDirectory(temporaryDirectory.resolve("newer"), 100));
+        Files.setLastModifiedTime(cacheDirectory.resolve("older" + IntermediateDirectoryCache.SIZE_FILE_EXTENSION), FileTime.fromMillis(1000));
+
+        assertEquals(Collections.emptyList(), intermediateDirectoryCache.evict(200));
+        assertEquals(Collections.singletonList("older"), intermediateDirectoryCache.evict(150));
+        assertFalse(Files.exists(cacheDirectory.resolve("older")));
+        assertTrue(Files.exists(cacheDirectory.resolve("newer")));
+    }
+
+    @Test
+    public void testStoreReplacesCachedDirectory() throws IOException, InterruptedException {
+        Path cacheDirectory = temporaryDirectory.resolve("cache");
+        IntermediateDirectoryReaper intermediateDirectoryReaper = new IntermediateDirectoryReaper();
+        intermediateDirectoryReaper.configure(2, 0);
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(cacheDirectory, intermediateDirectoryReaper);
+        intermediateDirectoryCache.store("stream", createIntermediateDirectory(temporaryDirectory.resolve("first"), 10));
+        intermediateDirectoryCache.store("stream", createIntermediateDirectory(temporaryDirectory.resolve("second"), 20));
+
+        assertEquals(20, Files.size(cacheDirectory.resolve("stream").resolve("emit")));
+        // The replaced directory is deleted by the reaper, not by the store
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (countTombstones(cacheDirectory) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, countTombstones(cacheDirectory));
+        assertEquals(1, intermediateDirectoryReaper.drainReport().getReapTimesInNanos().size());
+    }
+
+    @Test
+    public void testSizeMeasuredWhenEvicting() throws IOException {
+        Path cacheDirectory = temporaryDirectory.resolve("cache");
+        IntermediateDirectoryCache intermediateDirectoryCache = new IntermediateDirectoryCache(cacheDirectory);
+        intermediateDirectoryCache.store("stream", createIntermediateDirectory(temporaryDirectory.resolve("idir"), 100));
+        Path sizeFile = cacheDirectory.resolve("stream" + IntermediateDirectoryCache.SIZE_FILE_EXTENSION);
+        assertEquals(0, Files.size(sizeFile));
+        Files.setLastModifiedTime(sizeFile, FileTime.fromMillis(1000));
+
+        assertEquals(Collections.emptyList(), intermediateDirectoryCache.evict(100));
+        assertEquals("100", new String(Files.readAllBytes(sizeFile), StandardCharsets.UTF_8));
+        assertEquals(FileTime.fromMillis(1000), Files.getLastModifiedTime(sizeFile));
+    }
+
+    @Test
+    public void testCacheKeyIncludesVersion() throws IOException {
+        Path coverityToolHome = Files.createDirectories(temporaryDirectory.resolve("cov-analysis"));
+        Files.write(coverityToolHome.resolve("VERSION"), "externalVersion=2020.12\n".getBytes(StandardCharsets.UTF_8));
+        String cacheKey = IntermediateDirectoryCache.createCacheKey("my stream/main", coverityToolHome);
+
+        assertTrue(cacheKey.startsWith("my_stream_main-2020.12-"));
+        assertNotEquals(cacheKey, IntermediateDirectoryCache.createCacheKey("my stream/main", temporaryDirectory.resolve("missing")));
+        assertNotEquals(cacheKey, IntermediateDirectoryCache.createCacheKey("my_stream_main", coverityToolHome));
+    }
+
+    @Test
+    public void testCacheKeyBelongsToItsStream() throws IOException {
+        Path coverityToolHome = Files.createDirectories(temporaryDirectory.resolve("cov-analysis"));
+        Files.write(coverityToolHome.resolve("VERSION"), "externalVersion=2020.12\n".getBytes(StandardCharsets.UTF_8));
+        String cacheKey = IntermediateDirectoryCache.createCacheKey("my stream/main", coverityToolHome);
+
+        assertTrue(IntermediateDirectoryCache.isCacheKeyOf(cacheKey, "my stream/main"));
+        assertFalse(IntermediateDirectoryCache.isCacheKeyOf(cacheKey, "my_stream_main"));
+        assertFalse(IntermediateDirectoryCache.isCacheKeyOf(IntermediateDirectoryCache.createCacheKey("other", coverityToolHome), "my stream/main"));
+        assertFalse(IntermediateDirectoryCache.isCacheKeyOf(cacheKey.replace("2020.12", "../other"), "my stream/main"));
+    }
+
+    private long countTombstones(Path cacheDirectory) throws IOException {
+        try (Stream<Path> cacheEntries = Files.list(cacheDirectory)) {
+            return cacheEntries.filter(path -> path.toString().endsWith(IntermediateDirectoryReaper.TOMBSTONE_EXTENSION)).count();
+        }
+    }
+
+    private Path createIntermediateDirectory(Path intermediateDirectory, int emitSize) throws IOException {
+        Files.createDirectories(intermediateDirectory);
+        Files.write(intermediateDirectory.resolve("emit"), new byte[emitSize]);
+        return intermediateDirectory;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IntermediateDirectoryReaperTest {
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testTombstoneThenReap() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Path intermediateDirectory = createIntermediateDirectory(temporaryDirectory.resolve("workspace").resolve("idir"));
+        Path tombstoneDirectory = temporaryDirectory.resolve("tombstones");
+
+        Path tombstone = IntermediateDirectoryReaper.tombstone(intermediateDirectory, tombstoneDirectory);
+        assertFalse(Files.exists(intermediateDirectory));
+        assertTrue(tombstone.startsWith(tombstoneDirectory));
+
+        IntermediateDirectoryReaper intermediateDirectoryReaper = new IntermediateDirectoryReaper();
+        intermediateDirectoryReaper.configure(4, 0);
+        intermediateDirectoryReaper.reap(tombstone).get(30, TimeUnit.SECONDS);
+
+        assertFalse(Files.exists(tombstone));
+        IntermediateDirectoryReaper.Report report = intermediateDirectoryReaper.drainReport();
+        assertEquals(1, report.getReapTimesInNanos().size());
+        assertEquals(0, report.getReapFailures());
+        assertTrue(intermediateDirectoryReaper.drainReport().getReapTimesInNanos().isEmpty());
+    }
+
+    @Test
+    public void testTombstoneMissingIntermediateDirectory() throws IOException {
+        assertNull(IntermediateDirectoryReaper.tombstone(temporaryDirectory.resolve("idir"), temporaryDirectory.resolve("tombstones")));
+    }
+
+    @Test
+    public void testReapLeftoverTombstones() throws IOException, InterruptedException {
+        Path leftoverTombstone = createIntermediateDirectory(temporaryDirectory.resolve("idir-leftover" + IntermediateDirectoryReaper.TOMBSTONE_EXTENSION));
+        Path intermediateDirectory = createIntermediateDirectory(temporaryDirectory.resolve("idir"));
+
+        IntermediateDirectoryReaper intermediateDirectoryReaper = new IntermediateDirectoryReaper();
+        intermediateDirectoryReaper.configure(2, 0);
+        assertEquals(1, intermediateDirectoryReaper.reapTombstonesIn(temporaryDirectory));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (Files.exists(leftoverTombstone) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(leftoverTombstone));
+        assertTrue(Files.exists(intermediateDirectory));
+    }
+
+    private Path createIntermediateDirectory(Path intermediateDirectory) throws IOException {
+        for (int directory = 0; directory < 5; directory++) {
+            Path emitDirectory = Files.createDirectories(intermediateDirectory.resolve("emit").resolve("host" + directory).resolve("c").resolve("output"));
+            for (int file = 0; file < 20; file++) {
+                Files.write(emitDirectory.resolve("file" + file), new byte[10]);
+            }
+        }
+        return intermediateDirectory;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+
+import hudson.remoting.VirtualChannel;
+
+public class IntermediateDirectoryStashServiceTest {
+    private final CoverityJenkinsIntLogger mockedLogger = Mockito.mock(CoverityJenkinsIntLogger.class);
+
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testStashKeyOfAnotherStreamIsRejected() throws Exception {
+        String otherStreamKey = IntermediateDirectoryCache.createCacheKey("other", temporaryDirectory.resolve("cov-analysis"));
+        VirtualChannel mockedVirtualChannel = Mockito.mock(VirtualChannel.class);
+        Mockito.doReturn(new IntermediateDirectoryManifest(otherStreamKey, Collections.emptyList())).when(mockedVirtualChannel).call(ArgumentMatchers.any(CreateIntermediateDirectoryManifest.class));
+        Path controllerStashDirectory = temporaryDirectory.resolve("stash");
+
+        new IntermediateDirectoryStashService(mockedLogger, mockedVirtualChannel, null, controllerStashDirectory, Long.MAX_VALUE).stash("stream", "/opt/coverity", "/workspace/idir");
+
+        Mockito.verify(mockedVirtualChannel, Mockito.never()).callAsync(ArgumentMatchers.any());
+        assertFalse(Files.exists(controllerStashDirectory.resolve(otherStreamKey)));
+    }
+
+    @Test
+    public void testRestoreOfAnotherStreamIsRejected() throws Exception {
+        String otherStreamKey = IntermediateDirectoryCache.createCacheKey("other", temporaryDirectory.resolve("cov-analysis"));
+        VirtualChannel mockedVirtualChannel = Mockito.mock(VirtualChannel.class);
+        Mockito.doReturn(otherStreamKey).when(mockedVirtualChannel).call(ArgumentMatchers.any(GetIntermediateDirectoryStashKey.class));
+        Path controllerStashDirectory = temporaryDirectory.resolve("stash");
+        new IntermediateDirectoryStash(controllerStashDirectory).writeManifest(new IntermediateDirectoryManifest(otherStreamKey, Collections.emptyList()));
+
+        boolean restored = new IntermediateDirectoryStashService(mockedLogger, mockedVirtualChannel, null, controllerStashDirectory, Long.MAX_VALUE).restore("stream", "/opt/coverity", "/workspace/idir");
+
+        assertFalse(restored);
+        Mockito.verify(mockedVirtualChannel, Mockito.never()).callAsync(ArgumentMatchers.any());
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class IntermediateDirectoryStashTest {
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testStashThenRestore() throws IOException {
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        Path intermediateDirectory = temporaryDirectory.resolve("workspaceA").resolve("idir");
+        byte[] emit = randomBytes(IntermediateDirectoryStash.CHUNK_SIZE_IN_BYTES * 2 + 10);
+        write(intermediateDirectory.resolve("emit").resolve("emit-db"), emit);
+        write(intermediateDirectory.resolve("output").resolve("summary.txt"), new byte[0]);
+
+        IntermediateDirectoryManifest manifest = stash(intermediateDirectoryStash, intermediateDirectory);
+        assertEquals(3, manifest.getChunkHashes().size());
+
+        Path restoredIntermediateDirectory = temporaryDirectory.resolve("workspaceB").resolve("idir");
+        IntermediateDirectoryManifest stashedManifest = intermediateDirectoryStash.readManifest("stream").orElseThrow(IllegalStateException::new);
+        IntermediateDirectoryStash.writeFiles(restoredIntermediateDirectory, stashedManifest, intermediateDirectoryStash::readChunk);
+
+        assertArrayEquals(emit, Files.readAllBytes(restoredIntermediateDirectory.resolve("emit").resolve("emit-db")));
+        assertEquals(0, Files.size(restoredIntermediateDirectory.resolve("output").resolve("summary.txt")));
+    }
+
+    @Test
+    public void testStashOnlyChangedChunks() throws IOException {
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        byte[] emit = randomBytes(IntermediateDirectoryStash.CHUNK_SIZE_IN_BYTES * 2 + 10);
+        write(intermediateDirectory.resolve("emit-db"), emit);
+        stash(intermediateDirectoryStash, intermediateDirectory);
+
+        emit[emit.length - 1]++;
+        write(intermediateDirectory.resolve("emit-db"), emit);
+        IntermediateDirectoryManifest changedManifest = IntermediateDirectoryStash.createManifest("stream", intermediateDirectory);
+        Set<String> missingChunkHashes = intermediateDirectoryStash.findMissingChunks(changedManifest);
+
+        assertEquals(Collections.singleton(changedManifest.getEntries().get(0).getChunkHashes().get(2)), missingChunkHashes);
+    }
+
+    @Test
+    public void testStreamChunks() throws IOException {
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        write(intermediateDirectory.resolve("emit-db"), randomBytes(1000));
+        IntermediateDirectoryManifest manifest = IntermediateDirectoryStash.createManifest("stream", intermediateDirectory);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(stream)) {
+            IntermediateDirectoryStash.readChunks(intermediateDirectory, manifest, chunkHash -> true, IntermediateDirectoryStash.toStream(dataOutputStream));
+            IntermediateDirectoryStash.endStream(dataOutputStream);
+        }
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        assertEquals(1, intermediateDirectoryStash.receiveChunks(new DataInputStream(new ByteArrayInputStream(stream.toByteArray()))));
+        assertTrue(intermediateDirectoryStash.findMissingChunks(manifest).isEmpty());
+    }
+
+    @Test
+    public void testRejectChunkThatDoesNotMatchItsHash() throws IOException {
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        write(intermediateDirectory.resolve("a"), randomBytes(1000));
+        write(intermediateDirectory.resolve("b"), randomBytes(2000));
+        IntermediateDirectoryManifest manifest = IntermediateDirectoryStash.createManifest("stream", intermediateDirectory);
+        String chunkHashOfA = manifest.getEntries().get(0).getChunkHashes().get(0);
+        String chunkHashOfB = manifest.getEntries().get(1).getChunkHashes().get(0);
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        IntermediateDirectoryStash.readChunks(intermediateDirectory, manifest, chunkHashOfB::equals,
+            (chunkHash, compressedChunk) -> assertThrows(IOException.class, () -> intermediateDirectoryStash.writeChunk(chunkHashOfA, compressedChunk)));
+
+        assertEquals(manifest.getChunkHashes(), intermediateDirectoryStash.findMissingChunks(manifest));
+    }
+
+    @Test
+    public void testRejectFileChangedSinceManifest() throws IOException {
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        write(intermediateDirectory.resolve("emit-db"), randomBytes(1000));
+        IntermediateDirectoryManifest manifest = IntermediateDirectoryStash.createManifest("stream", intermediateDirectory);
+        write(intermediateDirectory.resolve("emit-db"), randomBytes(1001));
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        assertThrows(IOException.class, () -> IntermediateDirectoryStash.readChunks(intermediateDirectory, manifest, chunkHash -> true, intermediateDirectoryStash::writeChunk));
+    }
+
+    @Test
+    public void testRestoreRejectsPathsOutsideOfTheIntermediateDirectory() {
+        IntermediateDirectoryManifest manifest = new IntermediateDirectoryManifest("stream", Collections.singletonList(new IntermediateDirectoryManifest.Entry("../outside", 0, Collections.emptyList())));
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+
+        assertThrows(IOException.class, () -> IntermediateDirectoryStash.writeFiles(intermediateDirectory, manifest, chunkHash -> new byte[0]));
+        assertFalse(Files.exists(intermediateDirectory));
+        assertFalse(Files.exists(temporaryDirectory.resolve("outside")));
+    }
+
+    @Test
+    public void testRejectChunkLongerThanACompressedChunkCanBe() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(stream)) {
+            dataOutputStream.writeUTF(String.format("%064d", 0));
+            dataOutputStream.writeInt(IntermediateDirectoryStash.MAXIMUM_COMPRESSED_CHUNK_SIZE_IN_BYTES + 1);
+        }
+
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(temporaryDirectory.resolve("stash"));
+        assertThrows(IOException.class, () -> intermediateDirectoryStash.receiveChunks(new DataInputStream(new ByteArrayInputStream(stream.toByteArray()))));
+    }
+
+    @Test
+    public void testReusedChunksAreTouched() throws IOException {
+        Path stashDirectory = temporaryDirectory.resolve("stash");
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(stashDirectory);
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        write(intermediateDirectory.resolve("emit-db"), randomBytes(1000));
+        IntermediateDirectoryManifest manifest = stash(intermediateDirectoryStash, intermediateDirectory);
+        String chunkHash = manifest.getEntries().get(0).getChunkHashes().get(0);
+        Path chunkFile = stashDirectory.resolve("chunks").resolve(chunkHash.substring(0, 2)).resolve(chunkHash);
+        Files.setLastModifiedTime(chunkFile, FileTime.fromMillis(1000));
+
+        assertTrue(intermediateDirectoryStash.findMissingChunks(manifest).isEmpty());
+        assertTrue(Files.getLastModifiedTime(chunkFile).toMillis() > 1000);
+    }
+
+    @Test
+    public void testGarbageNotCollectedWhileAnotherStashIsInFlight() throws IOException {
+        Path stashDirectory = temporaryDirectory.resolve("stash");
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(stashDirectory);
+        Path intermediateDirectory = temporaryDirectory.resolve("idir");
+        write(intermediateDirectory.resolve("emit-db"), randomBytes(1000));
+        IntermediateDirectoryManifest manifest = IntermediateDirectoryStash.createManifest("stream", intermediateDirectory);
+        // Chunks are stored, but their manifest is not written yet
+        IntermediateDirectoryStash.readChunks(intermediateDirectory, manifest, chunkHash -> true, intermediateDirectoryStash::writeChunk);
+        intermediateDirectoryStash.writeManifest(new IntermediateDirectoryManifest("other", Collections.emptyList()));
+
+        try (IntermediateDirectoryStash.InFlightStash ignored = intermediateDirectoryStash.beginStash()) {
+            assertEquals(0, intermediateDirectoryStash.collectGarbage("other", Long.MAX_VALUE, 0).getDeletedChunks());
+            assertTrue(intermediateDirectoryStash.findMissingChunks(manifest).isEmpty());
+        }
+        assertEquals(1, intermediateDirectoryStash.collectGarbage("other", Long.MAX_VALUE, -1000).getDeletedChunks());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedManifestsExpireOverQuota() throws IOException {
+        Path stashDirectory = temporaryDirectory.resolve("stash");
+        IntermediateDirectoryStash intermediateDirectoryStash = new IntermediateDirectoryStash(stashDirectory);
+        Path olderIntermediateDirectory = temporaryDirectory.resolve("older");
+        write(olderIntermediateDirectory.resolve("emit-db"), randomBytes(1000));
+        Path newerIntermediateDirectory = temporaryDirectory.resolve("newer");
+        write(newerIntermediateDirectory.resolve("emit-db"), randomBytes(2000));
+        stash(intermediateDirectoryStash, "older", olderIntermediateDirectory);
+        stash(intermediateDirectoryStash, "newer", newerIntermediateDirectory);
+        Files.setLastModifiedTime(stashDirectory.resolve("manifests").resolve("older.manifest"), FileTime.fromMillis(1000));
+
+        assertTrue(intermediateDirectoryStash.collectGarbage("newer", Long.MAX_VALUE, -1000).getExpiredStashKeys().isEmpty());
+        IntermediateDirectoryStash.GarbageCollection garbageCollection = intermediateDirectoryStash.collectGarbage("newer", 0, -1000);
+
+        assertEquals(Collections.singletonList("older"), garbageCollection.getExpiredStashKeys());
+        assertEquals(1, garbageCollection.getDeletedChunks());
+        assertFalse(intermediateDirectoryStash.readManifest("older").isPresent());
+        assertTrue(intermediateDirectoryStash.readManifest("newer").isPresent());
+    }
+
+    @Test
+    public void testManifestRoundTrip() throws IOException {
+        IntermediateDirectoryManifest manifest = new IntermediateDirectoryManifest("stream", Arrays.asList(
+            new IntermediateDirectoryManifest.Entry("emit/a file\twith a tab", 3, Arrays.asList("a", "b")),
+            new IntermediateDirectoryManifest.Entry("empty", 0, Collections.emptyList())
+        ));
+        IntermediateDirectoryManifest parsedManifest = IntermediateDirectoryManifest.parse(manifest.toLines());
+
+        assertEquals(manifest.toLines(), parsedManifest.toLines());
+        assertEquals("emit/a file\twith a tab", parsedManifest.getEntries().get(0).getRelativePath());
+        assertTrue(parsedManifest.getEntries().get(1).getChunkHashes().isEmpty());
+    }
+
+    private IntermediateDirectoryManifest stash(IntermediateDirectoryStash intermediateDirectoryStash, Path intermediateDirectory) throws IOException {
+        return stash(intermediateDirectoryStash, "stream", intermediateDirectory);
+    }
+
+    private IntermediateDirectoryManifest stash(IntermediateDirectoryStash intermediateDirectoryStash, String stashKey, Path intermediateDirectory) throws IOException {
+        IntermediateDirectoryManifest manifest = IntermediateDirectoryStash.createManifest(stashKey, intermediateDirectory);
+        Set<String> missingChunkHashes = intermediateDirectoryStash.findMissingChunks(manifest);
+        IntermediateDirectoryStash.readChunks(intermediateDirectory, manifest, missingChunkHashes::contains, intermediateDirectoryStash::writeChunk);
+        intermediateDirectoryStash.writeManifest(manifest);
+        return manifest;
+    }
+
+    private Path write(Path file, byte[] contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, contents);
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.exception.CoverityJenkinsException;
+
+public class ProbeCoverityAgentTest {
+    private final CoverityJenkinsIntLogger mockedLogger = Mockito.mock(CoverityJenkinsIntLogger.class);
+
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testAuthenticationKeyFileReadableByOwnerOnly() throws Exception {
+        Path workspace = temporaryDirectory.resolve("workspace");
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, createCoverityToolHome().toString(), true, false, workspace.toString(), "foo", null);
+
+        CoverityAgentFacts coverityAgentFacts = probeCoverityAgent.call();
+
+        assertTrue(coverityAgentFacts.getAuthenticationKeyFilePath().isPresent());
+        Path authenticationKeyFile = workspace.resolve(coverityAgentFacts.getAuthenticationKeyFilePath().get());
+        assertEquals(workspace, authenticationKeyFile.getParent());
+        assertEquals("foo", new String(Files.readAllBytes(authenticationKeyFile), StandardCharsets.UTF_8));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(authenticationKeyFile)));
+        }
+    }
+
+    @Test
+    public void testNoAuthenticationKeyFileWithoutContents() throws Exception {
+        Path workspace = temporaryDirectory.resolve("workspace");
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, createCoverityToolHome().toString(), true, false, workspace.toString(), null, null);
+
+        CoverityAgentFacts coverityAgentFacts = probeCoverityAgent.call();
+
+        assertFalse(coverityAgentFacts.getAuthenticationKeyFilePath().isPresent());
+        assertTrue(Files.isDirectory(workspace));
+        try (Stream<Path> files = Files.list(workspace)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testIntermediateDirectoryCreated() throws Exception {
+        Path workspace = temporaryDirectory.resolve("workspace");
+        Path intermediateDirectory = workspace.resolve("idir");
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, createCoverityToolHome().toString(), true, false, workspace.toString(), null, intermediateDirectory.toString());
+
+        probeCoverityAgent.call();
+
+        assertTrue(Files.isDirectory(intermediateDirectory));
+    }
+
+    @Test
+    public void testInstallationValidated() {
+        Path missingCoverityToolHome = temporaryDirectory.resolve("missing");
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, missingCoverityToolHome.toString(), true, false, temporaryDirectory.resolve("workspace").toString(), null, null);
+
+        assertThrows(CoverityJenkinsException.class, probeCoverityAgent::call);
+    }
+
+    @Test
+    public void testValidationSkippedWhenCached() throws Exception {
+        // An installation that was validated recently is not validated again, so even a missing one is only reported on
+        Path missingCoverityToolHome = temporaryDirectory.resolve("missing");
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, missingCoverityToolHome.toString(), false, true, temporaryDirectory.resolve("workspace").toString(), null, null);
+
+        CoverityAgentFacts coverityAgentFacts = probeCoverityAgent.call();
+
+        assertEquals(missingCoverityToolHome.resolve("bin").toString(), coverityAgentFacts.getCoverityToolHomeBin());
+        assertFalse(coverityAgentFacts.getCoverityVersion().isPresent());
+        assertTrue(coverityAgentFacts.getAvailableProcessors() > 0);
+    }
+
+    @Test
+    public void testCoverityVersionReported() throws Exception {
+        Path coverityToolHome = createCoverityToolHome();
+        Files.write(coverityToolHome.resolve("VERSION"), "externalVersion=2020.12\n".getBytes(StandardCharsets.UTF_8));
+        ProbeCoverityAgent probeCoverityAgent = new ProbeCoverityAgent(mockedLogger, coverityToolHome.toString(), false, false, temporaryDirectory.resolve("workspace").toString(), null, null);
+
+        CoverityAgentFacts coverityAgentFacts = probeCoverityAgent.call();
+
+        assertTrue(coverityAgentFacts.getCoverityVersion().isPresent());
+    }
+
+    private Path createCoverityToolHome() throws Exception {
+        Path coverityToolHome = temporaryDirectory.resolve("cov-analysis");
+        Files.createDirectories(coverityToolHome.resolve("bin"));
+        return coverityToolHome;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.JenkinsCoverityEnvironmentVariable;
+import com.synopsys.integration.jenkins.coverity.extensions.OnCommandFailure;
+import com.synopsys.integration.jenkins.coverity.extensions.buildstep.RepeatableCommand;
+import com.synopsys.integration.jenkins.coverity.metrics.CoverityMetrics;
+import com.synopsys.integration.stepworkflow.SubStepResponse;
+import com.synopsys.integration.util.IntEnvironmentVariables;
+
+import hudson.remoting.Callable;
+import hudson.remoting.VirtualChannel;
+
+public class RunCoverityCommandsTest {
+    @Test
+    public void testCommandResultsAreRecordedAsMetrics() throws Exception {
+        List<List<String>> commands = Arrays.asList(
+            Arrays.asList("/opt/coverity/bin/cov-build", "--dir", "idir", "make"),
+            Arrays.asList("/opt/coverity/bin/cov-analyze", "--dir", "idir")
+        );
+        CoverityCommandBatchResult commandBatchResult = new CoverityCommandBatchResult(Arrays.asList(
+            new CoverityCommandResult(0, 0, 42, ""),
+            new CoverityCommandResult(1, 2, 7, "Analysis failed")
+        ), null);
+
+        VirtualChannel mockedVirtualChannel = Mockito.mock(VirtualChannel.class);
+        Mockito.doReturn(commandBatchResult).when(mockedVirtualChannel).call(Mockito.any());
+        IntEnvironmentVariables intEnvironmentVariables = IntEnvironmentVariables.empty();
+        intEnvironmentVariables.put(JenkinsCoverityEnvironmentVariable.COVERITY_TOOL_HOME.toString(), "/opt/coverity");
+
+        Timer covBuildDuration = CoverityMetrics.timer(CoverityMetrics.commandMetricName("cov-build", CoverityMetrics.COMMAND_DURATION));
+        Counter covAnalyzeExitCode = CoverityMetrics.counter(CoverityMetrics.commandMetricName("cov-analyze", CoverityMetrics.COMMAND_EXIT_CODE), "2");
+        long covBuildCount = covBuildDuration.getCount();
+        long covAnalyzeFailures = covAnalyzeExitCode.getCount();
+
+        RunCoverityCommands runCoverityCommands = new RunCoverityCommands(Mockito.mock(CoverityJenkinsIntLogger.class), intEnvironmentVariables, "/workspace", OnCommandFailure.EXECUTE_REMAINING_COMMANDS, mockedVirtualChannel);
+        SubStepResponse<Object> response = runCoverityCommands.run(commands);
+
+        assertTrue(response.isFailure());
+        assertEquals(covBuildCount + 1, covBuildDuration.getCount());
+        assertEquals(covAnalyzeFailures + 1, covAnalyzeExitCode.getCount());
+    }
+
+    @Test
+    public void testFailedCommandSkipsRemainingCommandsInGraph() throws Exception {
+        List<String> ranCommands = Collections.synchronizedList(new ArrayList<>());
+        SubStepResponse<Object> response = runCommandGraph(OnCommandFailure.SKIP_REMAINING_COMMANDS, ranCommands, "cov-build", false);
+
+        assertTrue(response.isFailure());
+        assertEquals(Collections.singletonList("cov-build"), ranCommands);
+    }
+
+    @Test
+    public void testFailedCommandStillRunsDependentsInGraph() throws Exception {
+        List<String> ranCommands = Collections.synchronizedList(new ArrayList<>());
+        SubStepResponse<Object> response = runCommandGraph(OnCommandFailure.EXECUTE_REMAINING_COMMANDS, ranCommands, "cov-build", false);
+
+        assertTrue(response.isFailure());
+        assertEquals(new HashSet<>(Arrays.asList("cov-build", "cov-analyze", "cov-capture")), new HashSet<>(ranCommands));
+        assertTrue(ranCommands.indexOf("cov-build") < ranCommands.indexOf("cov-analyze"));
+    }
+
+    @Test
+    public void testLostChannelStopsCommandGraph() throws Exception {
+        List<String> ranCommands = Collections.synchronizedList(new ArrayList<>());
+        SubStepResponse<Object> response = runCommandGraph(OnCommandFailure.EXECUTE_REMAINING_COMMANDS, ranCommands, "cov-build", true);
+
+        assertTrue(response.isFailure());
+        assertFalse(ranCommands.contains("cov-analyze"));
+    }
+
+    @Test
+    public void testSuccessfulCommandGraphRunsEveryCommand() throws Exception {
+        List<String> ranCommands = Collections.synchronizedList(new ArrayList<>());
+        SubStepResponse<Object> response = runCommandGraph(OnCommandFailure.SKIP_REMAINING_COMMANDS, ranCommands, null, false);
+
+        assertTrue(response.isSuccess());
+        assertEquals(3, ranCommands.size());
+    }
+
+    private SubStepResponse<Object> runCommandGraph(OnCommandFailure onCommandFailure, List<String> ranCommands, String failingCommand, boolean failWithException) throws Exception {
+        RepeatableCommand build = new RepeatableCommand("cov-build make");
+        build.setStageName("build");
+        RepeatableCommand analyze = new RepeatableCommand("cov-analyze");
+        analyze.setStageName("analyze");
+        analyze.setDependsOn("build");
+        RepeatableCommand capture = new RepeatableCommand("cov-capture");
+        capture.setStageName("capture");
+        CoverityCommandGraph coverityCommandGraph = CoverityCommandGraph.fromRepeatableCommands(new RepeatableCommand[] { build, analyze, capture });
+        List<List<String>> commands = Arrays.asList(Arrays.asList("cov-build", "make"), Collections.singletonList("cov-analyze"), Collections.singletonList("cov-capture"));
+
+        CoverityToolLauncher mockedLauncher = Mockito.mock(CoverityToolLauncher.class);
+        Mockito.when(mockedLauncher.launch(Mockito.any(), Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            List<String> arguments = invocation.getArgument(2);
+            String commandName = arguments.get(0);
+            ranCommands.add(commandName);
+            return new CoverityCommandResult(0, commandName.equals(failingCommand) ? 1 : 0, 1, "");
+        });
+
+        // The channel runs each callable it is given, so the commands are the ones the launcher is actually asked to launch
+        VirtualChannel mockedVirtualChannel = Mockito.mock(VirtualChannel.class);
+        Mockito.doAnswer(invocation -> {
+            Object result = invocation.<Callable<?, ?>>getArgument(0).call();
+            if (failWithException && ranCommands.get(ranCommands.size() - 1).equals(failingCommand)) {
+                throw new IOException("The channel was closed");
+            }
+            return result;
+        }).when(mockedVirtualChannel).call(Mockito.any());
+        IntEnvironmentVariables intEnvironmentVariables = IntEnvironmentVariables.empty();
+
+        RunCoverityCommands runCoverityCommands = new RunCoverityCommands(Mockito.mock(CoverityJenkinsIntLogger.class), intEnvironmentVariables, "/workspace", onCommandFailure, mockedVirtualChannel, coverityCommandGraph, 1, null,
+            mockedLauncher);
+        return runCoverityCommands.run(commands);
+    }
+
+}
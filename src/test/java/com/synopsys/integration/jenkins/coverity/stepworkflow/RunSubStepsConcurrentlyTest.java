@@ -0,0 +1,85 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.stepworkflow.SubStep;
+import com.synopsys.integration.stepworkflow.SubStepResponse;
+
+public class RunSubStepsConcurrentlyTest {
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final CoverityJenkinsIntLogger mockedLogger = Mockito.mock(CoverityJenkinsIntLogger.class);
+
+    @AfterEach
+    public void shutDownExecutorService() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testSubStepsRunAtTheSameTime() {
+        // Each sub step waits for the other to start, so running them one after the other would time out
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<String, SubStep<Object, ?>> otherSubSteps = new LinkedHashMap<>();
+        otherSubSteps.put("second", mockSubStep(previousResponse -> awaitOther(bothStarted)));
+
+        SubStepResponse<Object> response = new RunSubStepsConcurrently<>(mockedLogger, executorService, "first", mockSubStep(previousResponse -> awaitOther(bothStarted)), otherSubSteps).run(SubStepResponse.SUCCESS());
+
+        assertTrue(response.isSuccess());
+        Mockito.verify(mockedLogger).alwaysLog(Mockito.startsWith("-- first took"));
+        Mockito.verify(mockedLogger).alwaysLog(Mockito.startsWith("-- second took"));
+    }
+
+    @Test
+    public void testFirstFailureIsReturned() {
+        SubStepResponse<Object> failure = SubStepResponse.FAILURE(new IntegrationException("second failed"));
+        Map<String, SubStep<Object, ?>> otherSubSteps = new LinkedHashMap<>();
+        otherSubSteps.put("second", mockSubStep(previousResponse -> failure));
+        otherSubSteps.put("third", mockSubStep(previousResponse -> SubStepResponse.FAILURE(new IntegrationException("third failed"))));
+
+        SubStepResponse<Object> response = new RunSubStepsConcurrently<>(mockedLogger, executorService, "first", mockSubStep(previousResponse -> SubStepResponse.SUCCESS()), otherSubSteps).run(SubStepResponse.SUCCESS());
+
+        assertSame(failure, response);
+    }
+
+    @Test
+    public void testResultSubStepDataIsReturned() {
+        Map<String, SubStep<Object, ?>> otherSubSteps = new LinkedHashMap<>();
+        otherSubSteps.put("second", mockSubStep(previousResponse -> SubStepResponse.SUCCESS("second data")));
+
+        SubStepResponse<Object> response = new RunSubStepsConcurrently<>(mockedLogger, executorService, "first", mockSubStep(previousResponse -> SubStepResponse.SUCCESS("first data")), otherSubSteps).run(SubStepResponse.SUCCESS());
+
+        assertTrue(response.isSuccess());
+        assertEquals("first data", response.getData());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SubStep<Object, Object> mockSubStep(Answer<SubStepResponse<Object>> answer) {
+        SubStep<Object, Object> subStep = Mockito.mock(SubStep.class);
+        Mockito.when(subStep.run(Mockito.any())).thenAnswer(answer);
+        return subStep;
+    }
+
+    private SubStepResponse<Object> awaitOther(CountDownLatch bothStarted) throws InterruptedException {
+        bothStarted.countDown();
+        if (bothStarted.await(5, TimeUnit.SECONDS)) {
+            return SubStepResponse.SUCCESS();
+        }
+        return SubStepResponse.FAILURE(new IntegrationException("The other sub step did not start"));
+    }
+
+}
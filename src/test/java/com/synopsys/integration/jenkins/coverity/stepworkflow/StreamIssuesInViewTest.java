@@ -0,0 +1,96 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.coverity.api.rest.ViewContents;
+import com.synopsys.integration.coverity.ws.ConfigurationServiceWrapper;
+import com.synopsys.integration.coverity.ws.view.ViewService;
+import com.synopsys.integration.jenkins.coverity.CoverityJenkinsIntLogger;
+import com.synopsys.integration.jenkins.coverity.extensions.pipeline.CheckForIssuesStepWorkflow;
+
+public class StreamIssuesInViewTest {
+    private static final long TOTAL_ROWS = 5;
+
+    @TempDir
+    public Path temporaryDirectory;
+
+    @Test
+    public void testEveryPageIsWrittenInOrder() throws Exception {
+        List<Integer> requestedOffsets = Collections.synchronizedList(new ArrayList<>());
+        List<ViewContents> pages = Collections.synchronizedList(new ArrayList<>());
+        File issuesFile = temporaryDirectory.resolve("coverity-issues.jsonl.gz").toFile();
+
+        ViewContents returnedViewContents = streamIssues(2, issuesFile, requestedOffsets, pages);
+
+        assertEquals(Arrays.asList(0, 2, 4), requestedOffsets);
+        assertEquals(Arrays.asList("{\"cid\":0}", "{\"cid\":1}", "{\"cid\":2}", "{\"cid\":3}", "{\"cid\":4}"), readLines(issuesFile));
+        assertSame(pages.get(0), returnedViewContents);
+        assertEquals(TOTAL_ROWS, returnedViewContents.getTotalRows().longValue());
+    }
+
+    @Test
+    public void testFirstPageRowsAreReleased() throws Exception {
+        List<ViewContents> pages = Collections.synchronizedList(new ArrayList<>());
+        File issuesFile = temporaryDirectory.resolve("coverity-issues.jsonl.gz").toFile();
+
+        ViewContents returnedViewContents = streamIssues(2, issuesFile, Collections.synchronizedList(new ArrayList<>()), pages);
+
+        assertTrue(returnedViewContents.getRows().isEmpty());
+        assertEquals(2, pages.get(1).getRows().size());
+    }
+
+    @Test
+    public void testIssuesFileIsNamedAfterTheStep() {
+        assertEquals("coverity-issues-12.jsonl.gz", CheckForIssuesStepWorkflow.getIssuesFileName("12"));
+        assertNotEquals(CheckForIssuesStepWorkflow.getIssuesFileName("12"), CheckForIssuesStepWorkflow.getIssuesFileName("13"));
+    }
+
+    private ViewContents streamIssues(int pageSize, File issuesFile, List<Integer> requestedOffsets, List<ViewContents> pages) throws Exception {
+        ViewService mockedViewService = Mockito.mock(ViewService.class);
+        Mockito.doAnswer(invocation -> {
+            int offset = invocation.getArgument(3);
+            requestedOffsets.add(offset);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int cid = offset; cid < Math.min(offset + pageSize, TOTAL_ROWS); cid++) {
+                rows.add(Collections.singletonMap("cid", cid));
+            }
+            ViewContents page = Mockito.mock(ViewContents.class);
+            Mockito.doReturn(TOTAL_ROWS).when(page).getTotalRows();
+            Mockito.doReturn(rows).when(page).getRows();
+            pages.add(page);
+            return page;
+        }).when(mockedViewService).getViewContents(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt());
+
+        StreamIssuesInView streamIssuesInView = new StreamIssuesInView(Mockito.mock(CoverityJenkinsIntLogger.class), Mockito.mock(ConfigurationServiceWrapper.class), mockedViewService, "project", "view", pageSize, issuesFile);
+        return streamIssuesInView.getViewContents(null, null);
+    }
+
+    private List<String> readLines(File issuesFile) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(issuesFile)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.synopsys.integration.jenkins.coverity.stepworkflow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.coverity.actions.SubStepTiming;
+import com.synopsys.integration.stepworkflow.SubStep;
+import com.synopsys.integration.stepworkflow.SubStepResponse;
+
+public class TimedSubStepTest {
+    @Test
+    public void testTimingIsRecorded() {
+        SubStepTimer subStepTimer = new SubStepTimer();
+        SubStep<Object, String> timedSubStep = subStepTimer.time("Supply a value", SubStep.ofSupplier(() -> "value"));
+
+        SubStepResponse<String> response = timedSubStep.run(SubStepResponse.SUCCESS());
+
+        assertTrue(response.isSuccess());
+        assertEquals("value", response.getData());
+        List<SubStepTiming> subStepTimings = subStepTimer.getSubStepTimings();
+        assertEquals(1, subStepTimings.size());
+        assertEquals("Supply a value", subStepTimings.get(0).getName());
+        assertTrue(subStepTimings.get(0).getWallTimeInMillis() >= 0);
+    }
+
+    @Test
+    public void testSkippedSubStepIsNotRecorded() {
+        SubStepTimer subStepTimer = new SubStepTimer();
+        SubStep<Object, String> timedSubStep = subStepTimer.time("Supply a value", SubStep.ofSupplier(() -> "value"));
+
+        SubStepResponse<String> response = timedSubStep.run(SubStepResponse.FAILURE(new IntegrationException("An earlier sub step failed")));
+
+        assertFalse(response.isSuccess());
+        assertTrue(subStepTimer.getSubStepTimings().isEmpty());
+    }
+
+}